@@ -28,6 +28,9 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** 인증된 사용자 ID(토큰의 subject)를 담는 요청 속성 이름 (컨트롤러에서 DB 조회 없이 꺼내 쓴다) */
+    public static final String USER_ID_ATTRIBUTE = "authenticatedUserId";
+
     private final JwtProvider jwtProvider;
     private final UserRepository userRepository;
 
@@ -83,6 +86,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                         // 8. SecurityContext에 인증 객체 저장 -> "로그인 성공" 처리 완료
                         SecurityContextHolder.getContext().setAuthentication(authentication);
+                        request.setAttribute(USER_ID_ATTRIBUTE, user.getId());
                     }
                 } catch (Exception e) {
                     // 토큰 파싱이나 DB 조회 중 에러 발생 시 로그만 남기고 다음 필터로 진행 (인증 실패 상태 유지)
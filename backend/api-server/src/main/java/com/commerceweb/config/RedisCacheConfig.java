@@ -1,12 +1,35 @@
 package com.commerceweb.config;
 
+import com.commerceweb.config.cache.IdListRedisSerializer;
+import com.commerceweb.config.cache.StaleWhileRevalidate;
+import com.commerceweb.config.cache.TwoLevelCacheManager;
+import com.commerceweb.recommendation.RecommendationCache;
+import com.commerceweb.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashSet;
 
 @Configuration
 @EnableCaching  // Spring Boot가 캐시 인프라를 자동으로 구성
+@EnableConfigurationProperties(CacheProperties.class)  // CacheManager를 직접 등록하므로 spring.cache.* 바인딩만 가져옴
 public class RedisCacheConfig {
-    // Spring Boot가 자동으로 Redis 캐시 설정을 처리합니다.
+    // Redis 캐시 매니저(L2)와 그 앞단의 프로세스 내 캐시(L1)를 직접 구성합니다.
 
     // Redis 캐시는 데이터를 빠르게 읽고 처리하기 위해 메모리에 미리 저장해두는 임시 저장소
 
@@ -20,4 +43,114 @@ public class RedisCacheConfig {
 
 //    캐싱 비즈니스 로직에만 집중할 수 있고, 복잡한 Spring Bean 등록이나 설정 코드는 작성할 필요가 없습니다.
 //    이것이 Spring Boot의 "자동 설정(Auto Configuration)"의 강력함
+
+    /** 캐시 값이 이 크기(바이트) 이상이면 LZ4로 압축 (0이면 압축 안 함) */
+    @Value("${cache.codec.lz4-threshold-bytes:512}")
+    private int lz4ThresholdBytes;
+
+    /** L1(프로세스 내) 캐시 최대 항목 수 (캐시별) */
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearMaximumSize;
+
+    /** L1 항목 쓰기 후 만료 시간 (무효화 메시지 유실 시 최대 불일치 시간) */
+    @Value("${cache.near.expire-after-write:30s}")
+    private Duration nearExpireAfterWrite;
+
+    /** 노드 간 L1 무효화 메시지 채널 */
+    @Value("${cache.near.invalidation-channel:cache:invalidate}")
+    private String invalidationChannel;
+
+    /** stale-while-revalidate: soft TTL 이후엔 오래된 값을 주고 백그라운드 갱신, hard TTL 이후엔 직접 계산 */
+    @Value("${cache.swr.enabled:true}")
+    private boolean swrEnabled;
+
+    @Value("${cache.swr.soft-ttl:10m}")
+    private Duration swrSoftTtl;
+
+    @Value("${cache.swr.hard-ttl:1h}")
+    private Duration swrHardTtl;
+
+    @Value("${cache.swr.early-refresh-window:1m}")
+    private Duration swrEarlyRefreshWindow;
+
+    @Value("${cache.swr.refresh-threads:2}")
+    private int swrRefreshThreads;
+
+    @Value("${cache.swr.refresh-queue-size:100}")
+    private int swrRefreshQueueSize;
+
+    /**
+     * 상품 ID 목록 값 직렬화기 (ID 목록 캐시와 추천 사전 계산 결과 저장에 함께 사용)
+     */
+    @Bean
+    public IdListRedisSerializer idListRedisSerializer() {
+        return new IdListRedisSerializer(lz4ThresholdBytes);
+    }
+
+    /**
+     * L2: Redis 캐시 매니저 (spring.cache.* 설정 + 캐시별 값 직렬화 방식)
+     * - recommendations, topRatedProducts, trendingProducts: 계산 시각이 붙은 상품 ID 목록 → varint 바이너리
+     *   (JDK 직렬화 대신). 항목 TTL은 stale-while-revalidate의 hard TTL
+     * 그 외 캐시는 spring.cache.redis.* 설정과 기본 직렬화를 그대로 사용한다.
+     */
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties,
+                                               IdListRedisSerializer idListRedisSerializer) {
+        RedisCacheConfiguration base = RedisCacheConfiguration.defaultCacheConfig();
+        CacheProperties.Redis redis = cacheProperties.getRedis();
+        if (redis.getTimeToLive() != null) {
+            base = base.entryTtl(redis.getTimeToLive());
+        }
+        RedisCacheConfiguration idList = base
+                .entryTtl(swrHardTtl)
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(idListRedisSerializer));
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(base);
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            builder.initialCacheNames(new LinkedHashSet<>(cacheProperties.getCacheNames()));
+        }
+        if (redis.isEnableStatistics()) {
+            builder.enableStatistics();
+        }
+        // initialCacheNames 이후에 지정해야 기본 설정으로 덮어써지지 않는다
+        builder.withCacheConfiguration(RecommendationCache.CACHE_NAME, idList);
+        builder.withCacheConfiguration(ProductService.TOP_RATED_CACHE, idList);
+        builder.withCacheConfiguration(ProductService.TRENDING_CACHE, idList);
+        return builder.build();
+    }
+
+    /**
+     * L1(Caffeine) + L2(Redis) 2단 캐시 매니저. {@code @Cacheable} 등 기본 CacheManager로 사용된다.
+     */
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                             MeterRegistry meterRegistry) {
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, meterRegistry,
+                invalidationChannel, nearMaximumSize, nearExpireAfterWrite);
+    }
+
+    /**
+     * 상품 ID 목록 캐시의 stale-while-revalidate 정책 (제한된 백그라운드 갱신 실행기 포함)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StaleWhileRevalidate staleWhileRevalidate(TwoLevelCacheManager cacheManager, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidate(cacheManager, meterRegistry, Clock.systemUTC(), swrEnabled,
+                swrSoftTtl, swrHardTtl, swrEarlyRefreshWindow, swrRefreshThreads, swrRefreshQueueSize);
+    }
+
+    /**
+     * 다른 노드가 발행한 L1 무효화 메시지 구독
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
 }
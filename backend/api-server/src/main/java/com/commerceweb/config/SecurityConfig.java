@@ -1,6 +1,7 @@
 package com.commerceweb.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,6 +31,10 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // 우리가 만든 커스텀 JWT 필터
 
+    // 내부 관리 포트 (Prometheus 수집 전용, 외부에 공개하지 않음). 미설정이면 -1
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * 인증 매니저(AuthenticationManager) 빈 등록
      * - 로그인 시 사용자 인증(아이디/비번 검증)을 담당하는 핵심 컴포넌트
@@ -72,9 +77,13 @@ public class SecurityConfig {
                         // ✅ 인증 없이 접근 가능한 공개 API (로그인, 회원가입, 상품 조회 등)
                         .requestMatchers("/signup").permitAll() // 회원가입
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll() // 상품 목록/상세 조회
+                        .requestMatchers(HttpMethod.GET, "/api/recommendations/session").permitAll() // 방문자 세션 기반 추천
                         .requestMatchers("/api/auth/**").permitAll() // 로그인/회원가입 API
                         .requestMatchers("/api/sales/**").permitAll() // 판매 관련 (추후 권한 조정 가능)
                         .requestMatchers("/api/reviews/**").permitAll() // 리뷰 조회 (작성은 컨트롤러 내부에서 체크)
+                        .requestMatchers("/actuator/health").permitAll() // 헬스체크
+                        // ✅ 관리 포트로 들어온 요청만 허용 (Prometheus 수집). 공개 포트의 나머지 actuator는 인증 필요
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
 
                         // ✅ 인증된 사용자만 접근 가능한 API (주문 등)
                         // hasAnyRole: "ROLE_" 접두사가 자동으로 붙어서 체크됨 (예: ROLE_CUSTOMER)
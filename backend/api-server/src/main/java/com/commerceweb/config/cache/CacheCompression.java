@@ -0,0 +1,74 @@
+package com.commerceweb.config.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.util.Arrays;
+
+/**
+ * 캐시 값 바이트 배열 앞에 1바이트 형식 헤더를 붙이고, 임계치 이상이면 LZ4 블록으로 압축한다.
+ * <pre>
+ * [0x00][원본]                       - 압축 안 함
+ * [0x01][원본 길이 varint][LZ4 블록]  - 압축
+ * </pre>
+ * 압축해도 줄지 않으면 원본 형식으로 저장한다.
+ */
+public final class CacheCompression {
+
+    static final byte RAW = 0;
+    static final byte LZ4 = 1;
+
+    private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+    private static final LZ4Compressor COMPRESSOR = FACTORY.fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = FACTORY.fastDecompressor();
+    /** LZ4 블록이 풀렸을 때 늘어날 수 있는 최대 배수 (길이 확장 바이트 하나가 최대 255바이트를 나타냄) */
+    private static final int MAX_EXPANSION = 255;
+
+    private CacheCompression() {
+    }
+
+    /**
+     * @param thresholdBytes 이 크기 이상일 때만 압축 (0 이하이면 압축 안 함)
+     */
+    public static byte[] frame(byte[] payload, int length, int thresholdBytes) {
+        if (thresholdBytes > 0 && length >= thresholdBytes) {
+            VarintBuffer out = new VarintBuffer(8 + COMPRESSOR.maxCompressedLength(length));
+            out.writeByte(LZ4);
+            out.writeVarint(length);
+            int headerLength = out.length();
+            byte[] buffer = out.array();
+            int compressedLength = COMPRESSOR.compress(payload, 0, length, buffer, headerLength);
+            if (headerLength + compressedLength < length + 1) {
+                return Arrays.copyOf(buffer, headerLength + compressedLength);
+            }
+        }
+        byte[] framed = new byte[length + 1];
+        framed[0] = RAW;
+        System.arraycopy(payload, 0, framed, 1, length);
+        return framed;
+    }
+
+    /**
+     * frame의 역변환 (헤더를 떼고 필요하면 압축을 푼 원본 바이트)
+     */
+    public static byte[] unframe(byte[] framed) {
+        if (framed.length == 0) {
+            throw new IllegalArgumentException("빈 캐시 값");
+        }
+        if (framed[0] == RAW) {
+            return Arrays.copyOfRange(framed, 1, framed.length);
+        }
+        if (framed[0] == LZ4) {
+            VarintReader in = new VarintReader(framed, 1);
+            int length = in.readVarint();
+            if (length < 0 || length > (long) in.remaining() * MAX_EXPANSION) {
+                throw new IllegalArgumentException("원본 길이가 압축 블록 크기에 비해 너무 큽니다: " + length);
+            }
+            byte[] restored = new byte[length];
+            DECOMPRESSOR.decompress(framed, in.position(), restored, 0, length);
+            return restored;
+        }
+        throw new IllegalArgumentException("알 수 없는 캐시 값 형식: " + framed[0]);
+    }
+}
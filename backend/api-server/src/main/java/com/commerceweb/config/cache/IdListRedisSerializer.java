@@ -0,0 +1,83 @@
+package com.commerceweb.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 상품 ID 목록(List&lt;Long&gt;) 전용 Redis 캐시 값 직렬화기
+ * <p>
+ * [개수 varint][첫 ID varint][이후 직전 ID와의 차이 ZigZag varint...] 형식으로 쓴다.
+ * 순위 목록은 정렬되어 있지 않으므로 차이는 음수일 수 있고, ID가 가까울수록 1~2바이트로 줄어든다.
+ * JDK 직렬화(ArrayList + Long 객체마다 헤더)보다 훨씬 작고 역직렬화 시 리플렉션이 없다.
+ * {@link TimestampedIds}는 같은 형식 뒤에 [계산 시각 varint]를 덧붙이므로,
+ * 시각 없이 저장된 이전 값도 그대로 읽힌다 (뒤에 남은 바이트가 없으면 List로 복원).
+ * </p>
+ */
+public class IdListRedisSerializer implements RedisSerializer<Object> {
+
+    private final int compressionThresholdBytes;
+
+    /**
+     * @param compressionThresholdBytes 인코딩 결과가 이 크기 이상이면 LZ4 압축 (0 이하이면 압축 안 함)
+     */
+    public IdListRedisSerializer(int compressionThresholdBytes) {
+        this.compressionThresholdBytes = compressionThresholdBytes;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Collection<?> ids;
+        long computedAtMillis = -1;
+        if (value instanceof TimestampedIds timestamped) {
+            ids = timestamped.ids();
+            computedAtMillis = timestamped.computedAtMillis();
+        } else if (value instanceof Collection<?> collection) {
+            ids = collection;
+        } else {
+            throw new SerializationException("ID 목록만 저장할 수 있습니다: " + value.getClass().getName());
+        }
+        VarintBuffer out = new VarintBuffer(2 + ids.size() * 3);
+        out.writeVarint(ids.size());
+        long previous = 0;
+        for (Object id : ids) {
+            long current = ((Number) id).longValue();
+            out.writeSignedVarint(current - previous);
+            previous = current;
+        }
+        if (computedAtMillis >= 0) {
+            out.writeVarint(computedAtMillis);
+        }
+        return CacheCompression.frame(out.array(), out.length(), compressionThresholdBytes);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            VarintReader in = new VarintReader(CacheCompression.unframe(bytes), 0);
+            int size = in.readVarint();
+            // ID 하나는 최소 1바이트이므로 남은 바이트보다 많다고 적힌 값은 손상된 값 (큰 배열을 미리 잡지 않도록)
+            if (size < 0 || size > in.remaining()) {
+                throw new IllegalArgumentException("ID 개수가 값 길이를 넘습니다: " + size);
+            }
+            List<Long> ids = new ArrayList<>(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += in.readSignedVarint();
+                ids.add(previous);
+            }
+            return in.hasRemaining() ? new TimestampedIds(ids, in.readVarintLong()) : ids;
+        } catch (RuntimeException e) {
+            throw new SerializationException("ID 목록 캐시 값 역직렬화 실패", e);
+        }
+    }
+}
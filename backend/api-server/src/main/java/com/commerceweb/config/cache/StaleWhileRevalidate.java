@@ -0,0 +1,242 @@
+package com.commerceweb.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 상품 ID 목록 캐시의 stale-while-revalidate 서빙 정책
+ * <p>
+ * 캐시 값에 계산 시각({@link TimestampedIds})을 함께 저장하고, 조회 시 나이에 따라 다르게 처리한다.
+ * <ul>
+ *   <li>soft TTL 이전: 그대로 반환. 단, soft TTL 직전 구간에서는 확률적으로 미리 백그라운드 갱신을 예약한다
+ *       (P = exp(-(softTtl - age) / earlyRefreshWindow)). 같은 시각에 만들어진 항목들의 갱신이 한꺼번에 몰리지 않게 한다.</li>
+ *   <li>soft TTL ~ hard TTL: 오래된 값을 즉시 반환하고 백그라운드 갱신을 예약한다. 요청은 재계산을 기다리지 않는다.</li>
+ *   <li>hard TTL 이후 또는 값 없음: 호출한 쪽이 직접 계산한다 (너무 오래된 값은 내보내지 않는다).</li>
+ * </ul>
+ * 백그라운드 갱신은 스레드 수와 대기열이 제한된 전용 실행기에서 돌고, 같은 키의 갱신은 하나만 예약된다.
+ * 대기열이 가득 차면 갱신을 버리고 다음 조회 때 다시 시도한다.
+ * </p>
+ * 메트릭: cache.swr.lookups{cache,state}, cache.swr.age{cache}(반환한 값의 나이),
+ * cache.swr.refresh.lag{cache}(갱신 예약부터 완료까지), cache.swr.refresh.rejected, cache.swr.refresh.queue
+ */
+@Slf4j
+public class StaleWhileRevalidate {
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long softTtlMillis;
+    private final long hardTtlMillis;
+    private final long earlyRefreshWindowMillis;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+    /** 캐시 이름별 미터 (조회마다 빌더/레지스트리 조회를 하지 않도록 한 번만 등록) */
+    private final ConcurrentMap<String, Timer> ageTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> refreshLagTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> lookupCounters = new ConcurrentHashMap<>();
+
+    /**
+     * @param softTtl            이 나이가 지나면 오래된 값으로 보고 백그라운드 갱신
+     * @param hardTtl            이 나이가 지나면 반환하지 않고 직접 계산 (Redis 항목 TTL과 같게 둔다)
+     * @param earlyRefreshWindow 확률적 조기 갱신 구간 (0이면 조기 갱신 안 함)
+     * @param refreshThreads     백그라운드 갱신 스레드 수
+     * @param refreshQueueSize   백그라운드 갱신 대기열 크기
+     */
+    public StaleWhileRevalidate(CacheManager cacheManager, MeterRegistry meterRegistry, Clock clock, boolean enabled,
+                                Duration softTtl, Duration hardTtl, Duration earlyRefreshWindow,
+                                int refreshThreads, int refreshQueueSize) {
+        if (softTtl.compareTo(hardTtl) > 0) {
+            throw new IllegalArgumentException("soft TTL은 hard TTL보다 클 수 없습니다: " + softTtl + " > " + hardTtl);
+        }
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.softTtlMillis = softTtl.toMillis();
+        this.hardTtlMillis = hardTtl.toMillis();
+        this.earlyRefreshWindowMillis = earlyRefreshWindow.toMillis();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(refreshQueueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "swr-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+
+        this.rejected = Counter.builder("cache.swr.refresh.rejected")
+                .description("대기열이 가득 차 버려진 백그라운드 갱신 수")
+                .register(meterRegistry);
+        Gauge.builder("cache.swr.refresh.queue", refreshExecutor, executor -> executor.getQueue().size())
+                .description("대기 중인 백그라운드 갱신 수")
+                .register(meterRegistry);
+    }
+
+    /** false이면 soft TTL/조기 갱신 없이 hard TTL까지 그대로 반환만 한다 */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시 값을 조회한다. 오래됐으면 refresh를 백그라운드로 예약하고 값은 그대로 반환한다.
+     *
+     * @param refresh 다시 계산해 {@link #put}까지 하는 작업 (null이면 갱신 예약 안 함)
+     * @return hard TTL 이내의 값. 없거나 hard TTL이 지났으면 empty (호출한 쪽이 직접 계산)
+     */
+    public Optional<List<Long>> lookup(String cacheName, Object key, Runnable refresh) {
+        Optional<TimestampedIds> entry = read(cacheName, key);
+        if (entry.isEmpty()) {
+            count(cacheName, "miss");
+            return Optional.empty();
+        }
+        long age = Math.max(0, clock.millis() - entry.get().computedAtMillis());
+        if (age >= hardTtlMillis) {
+            count(cacheName, "expired");
+            return Optional.empty();
+        }
+
+        if (enabled && refresh != null) {
+            if (age >= softTtlMillis) {
+                count(cacheName, "stale");
+                scheduleRefresh(cacheName, key, refresh);
+            } else if (shouldRefreshEarly(age)) {
+                count(cacheName, "early_refresh");
+                scheduleRefresh(cacheName, key, refresh);
+            } else {
+                count(cacheName, "fresh");
+            }
+        } else {
+            count(cacheName, "fresh");
+        }
+        ageTimers.computeIfAbsent(cacheName, name -> Timer.builder("cache.swr.age")
+                        .description("캐시에서 반환한 값의 나이")
+                        .tag("cache", name)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry))
+                .record(age, TimeUnit.MILLISECONDS);
+        return Optional.of(entry.get().ids());
+    }
+
+    /**
+     * 갱신 예약이나 메트릭 없이 hard TTL 이내의 값만 조회한다 (다른 노드의 결과를 기다릴 때 등).
+     */
+    public Optional<List<Long>> peek(String cacheName, Object key) {
+        return read(cacheName, key)
+                .filter(entry -> clock.millis() - entry.computedAtMillis() < hardTtlMillis)
+                .map(TimestampedIds::ids);
+    }
+
+    /**
+     * 캐시에서 값을 읽고, 없거나 hard TTL이 지났으면 loader로 직접 계산해 저장한다.
+     * 오래된 값이면 바로 반환하고 loader는 백그라운드에서 실행한다.
+     */
+    public List<Long> get(String cacheName, Object key, Supplier<List<Long>> loader) {
+        Optional<List<Long>> cached = lookup(cacheName, key, () -> put(cacheName, key, loader.get()));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        List<Long> loaded = loader.get();
+        put(cacheName, key, loaded);
+        return loaded;
+    }
+
+    /** 현재 시각을 계산 시각으로 저장 */
+    public void put(String cacheName, Object key, List<Long> ids) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, new TimestampedIds(ids, clock.millis()));
+        }
+    }
+
+    /** 값을 지워 다음 조회가 직접 계산하게 한다 (원본 데이터가 바뀌어 기다릴 수 없을 때) */
+    public void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    /** 애플리케이션 종료 시 대기 중인 갱신을 버리고 실행기를 닫는다 (@Bean destroy 메서드) */
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // ==========================================
+    // 내부 구현
+    // ==========================================
+
+    private Optional<TimestampedIds> read(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper wrapper = cache == null ? null : cache.get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value instanceof TimestampedIds timestamped) {
+            return Optional.of(timestamped);
+        }
+        if (value instanceof List<?> legacy) {
+            // 계산 시각 없이 저장된 이전 형식 → 나이를 알 수 없으므로 만료된 값으로 취급
+            return Optional.of(new TimestampedIds(legacy.stream().map(id -> ((Number) id).longValue()).toList(), 0L));
+        }
+        return Optional.empty();
+    }
+
+    /** soft TTL까지 남은 시간이 짧을수록 높은 확률로 true (XFetch 방식) */
+    private boolean shouldRefreshEarly(long age) {
+        if (earlyRefreshWindowMillis <= 0) {
+            return false;
+        }
+        double gap = -earlyRefreshWindowMillis * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return age + gap >= softTtlMillis;
+    }
+
+    private void scheduleRefresh(String cacheName, Object key, Runnable refresh) {
+        String refreshKey = cacheName + "::" + key;
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+        long scheduledAt = System.nanoTime();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.run();
+                    refreshLagTimers.computeIfAbsent(cacheName, name -> Timer.builder("cache.swr.refresh.lag")
+                                    .description("백그라운드 갱신 예약부터 완료까지 걸린 시간")
+                                    .tag("cache", name)
+                                    .publishPercentiles(0.5, 0.99)
+                                    .register(meterRegistry))
+                            .record(System.nanoTime() - scheduledAt, TimeUnit.NANOSECONDS);
+                } catch (Exception e) {
+                    log.warn("⚠️ 캐시 백그라운드 갱신 실패 (오래된 값 유지) - {}: {}", refreshKey, e.getMessage());
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(refreshKey);
+            rejected.increment();
+            log.debug("⏭️ 캐시 갱신 대기열 가득 참 - {}", refreshKey);
+        }
+    }
+
+    private void count(String cacheName, String state) {
+        lookupCounters.computeIfAbsent(cacheName + "::" + state,
+                        key -> meterRegistry.counter("cache.swr.lookups", "cache", cacheName, "state", state))
+                .increment();
+    }
+}
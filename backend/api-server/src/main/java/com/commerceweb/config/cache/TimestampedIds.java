@@ -0,0 +1,16 @@
+package com.commerceweb.config.cache;
+
+import java.util.List;
+
+/**
+ * 계산 시각이 붙은 상품 ID 목록 캐시 값 (stale-while-revalidate 판단용)
+ *
+ * @param ids              순위 순 상품 ID 목록
+ * @param computedAtMillis 계산(저장) 시각 (epoch ms). 시각 없이 저장된 이전 형식 값은 0
+ */
+public record TimestampedIds(List<Long> ids, long computedAtMillis) {
+
+    public TimestampedIds {
+        ids = List.copyOf(ids);
+    }
+}
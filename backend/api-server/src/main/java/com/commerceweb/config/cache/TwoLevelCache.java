@@ -0,0 +1,149 @@
+package com.commerceweb.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * 프로세스 내 L1(Caffeine) + 공유 L2(Redis) 2단 캐시
+ * <p>
+ * 조회는 L1 → L2 순서로 하고, L2에서 찾은 값은 L1에 채운다.
+ * 저장/삭제는 L2에 먼저 반영한 뒤 L1을 갱신하고, 다른 노드가 자기 L1을 버리도록 무효화 메시지를 발행한다.
+ * L2(Redis) 장애 시 조회는 미적중으로, 저장/삭제는 경고 로그만 남기고 요청은 계속 진행한다.
+ * </p>
+ * L1 키는 Redis 캐시 키와 같은 문자열 표현(String.valueOf)을 사용해 노드 간 무효화 메시지와 맞춘다.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    /**
+     * @param invalidationPublisher (캐시 이름, 키) 무효화 발행. 키가 null이면 전체 삭제
+     */
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote, BiConsumer<String, String> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> localCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            return new SimpleValueWrapper(cached);
+        }
+        ValueWrapper wrapper;
+        try {
+            wrapper = remote.get(key);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ L2 캐시 조회 실패 (미적중으로 처리) - cache: {}, key: {}, 원인: {}", name, key, e.getMessage());
+            return null;
+        }
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("캐시 값 타입 불일치: " + type.getName() + " / " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ L2 캐시 저장 실패 - cache: {}, key: {}, 원인: {}", name, key, e.getMessage());
+        }
+        String localKey = String.valueOf(key);
+        if (value == null) {
+            local.invalidate(localKey);
+        } else {
+            local.put(localKey, value);
+        }
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            remote.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ L2 캐시 삭제 실패 - cache: {}, key: {}, 원인: {}", name, key, e.getMessage());
+        }
+        String localKey = String.valueOf(key);
+        local.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remote.clear();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ L2 캐시 전체 삭제 실패 - cache: {}, 원인: {}", name, e.getMessage());
+        }
+        local.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * 다른 노드의 무효화 메시지 반영 (L1만)
+     */
+    void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+}
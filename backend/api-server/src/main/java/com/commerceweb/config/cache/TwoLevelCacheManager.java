@@ -0,0 +1,122 @@
+package com.commerceweb.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis 캐시 매니저(L2) 앞에 프로세스 내 L1을 두는 캐시 매니저
+ * <p>
+ * {@code @Cacheable}/{@code @CacheEvict}와 CacheManager를 직접 쓰는 코드 모두 이 매니저를 통해 투명하게 2단 캐시를 사용한다.
+ * L1은 Caffeine(W-TinyLFU 입장 정책)으로 최대 개수와 쓰기 후 만료 시간을 둔다.
+ * 무효화는 Redis pub/sub 채널로 모든 노드에 전파하고, 자기 노드가 보낸 메시지는 무시한다.
+ * pub/sub 메시지가 유실되더라도 L1 만료 시간이 지나면 L2 값으로 다시 맞춰진다.
+ * </p>
+ * 메시지 형식: {노드ID}|{캐시 이름}|{키} (키가 비어 있으면 캐시 전체 삭제)
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final long maximumSize;
+    private final Duration expireAfterWrite;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                                String channel, long maximumSize, Duration expireAfterWrite) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> create(n, remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    private TwoLevelCache create(String name, Cache remoteCache) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        registerMetrics(name, local);
+        log.info("🗂️ 2단 캐시 생성 - cache: {}, L1 최대 {}개 / 만료 {}", name, maximumSize, expireAfterWrite);
+        return new TwoLevelCache(name, local, remoteCache, this::publishInvalidation);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + cacheName + "|" + (key == null ? "" : key));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 캐시 무효화 메시지 발행 실패 - cache: {}, key: {}, 원인: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    private void registerMetrics(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local) {
+        FunctionCounter.builder("cache.near.gets", local, c -> c.stats().hitCount())
+                .description("L1(프로세스 내) 캐시 조회 수")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.near.gets", local, c -> c.stats().missCount())
+                .description("L1(프로세스 내) 캐시 조회 수")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.near.evictions", local, c -> c.stats().evictionCount())
+                .description("L1 캐시 크기/만료 축출 수")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.near.size", local, c -> c.estimatedSize())
+                .description("L1 캐시 항목 수 추정치")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.commerceweb.config.cache;
+
+import java.util.Arrays;
+
+/**
+ * 가변 길이 정수(LEB128 varint) 쓰기 버퍼. 작은 값일수록 적은 바이트를 쓴다 (0~127은 1바이트).
+ */
+final class VarintBuffer {
+
+    private byte[] buffer;
+    private int length;
+
+    VarintBuffer(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeByte(int value) {
+        ensure(1);
+        buffer[length++] = (byte) value;
+    }
+
+    void writeVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /** 부호 있는 값 (ZigZag: 0,-1,1,-2 → 0,1,2,3) */
+    void writeSignedVarint(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte[] array() {
+        return buffer;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.commerceweb.config.cache;
+
+/**
+ * {@link VarintBuffer}로 쓴 바이트 배열 읽기
+ */
+final class VarintReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    VarintReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    long readVarintLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("varint가 잘렸습니다");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint가 너무 깁니다");
+    }
+
+    int readVarint() {
+        return Math.toIntExact(readVarintLong());
+    }
+
+    long readSignedVarint() {
+        long raw = readVarintLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    int position() {
+        return position;
+    }
+
+    /** 아직 읽지 않은 바이트 수 */
+    int remaining() {
+        return buffer.length - position;
+    }
+
+    boolean hasRemaining() {
+        return position < buffer.length;
+    }
+}
@@ -1,10 +1,17 @@
 package com.commerceweb.controller;
 
+import com.commerceweb.config.JwtAuthenticationFilter;
+import com.commerceweb.dto.ErrorResponse;
+import com.commerceweb.dto.product.ProductFacetResponse;
+import com.commerceweb.dto.product.ProductPageResponse;
 import com.commerceweb.dto.product.ProductResponse;
+import com.commerceweb.dto.product.ProductSuggestionResponse;
 import com.commerceweb.entity.Product;
 import com.commerceweb.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,10 +38,42 @@ public class ProductController {
 
     private final ProductService productService;
 
+    /**
+     * 상품 목록 조회 및 검색 API (커서 페이지)
+     * <p>
+     * GET /api/products?size=20&sort=latest&category=electronics&cursor=...
+     * size 파라미터가 있으면 이 핸들러가 처리하고, 없으면 아래의 전체 목록 API(기존 프론트 호환)가 처리합니다.
+     * 다음 페이지는 응답의 nextCursor를 cursor로 넘겨 요청합니다 (같은 size/sort/필터로).
+     * </p>
+     *
+     * @param category 카테고리 필터 (선택 사항)
+     * @param name 상품명 검색어 (선택 사항)
+     * @param sort 정렬 기준 latest(기본) | price_asc | price_desc
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 생략)
+     * @param size 페이지 크기 (최대 100)
+     * @return 상품 페이지와 다음 페이지 커서, 커서/정렬이 잘못되면 400
+     */
+    @GetMapping(params = "size")
+    public ResponseEntity<?> getProductPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int size) {
+        try {
+            ProductPageResponse page = productService.getProductPage(category, name, sort, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ 상품 페이지 요청 오류: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * 상품 목록 조회 및 검색 API
      * <p>
      * GET /api/products?category=electronics&name=apple
+     * 전체 결과를 한 번에 반환합니다 (기존 프론트 ProductList 호환용, 큰 카탈로그에서는 커서 페이지 API 사용).
      * </p>
      *
      * @param category 카테고리 필터 (선택 사항, null일 경우 전체 조회)
@@ -62,19 +101,71 @@ public class ProductController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * 상품 목록 패싯 개수 API
+     * <p>
+     * GET /api/products/facets?category=electronics&priceBand=1&ratingBand=4
+     * 목록 옆에 표시할 카테고리/가격 구간/평점 구간별 상품 수를 반환합니다.
+     * 구간 번호와 경계는 응답의 priceBands/ratingBands에 함께 들어 있습니다.
+     * </p>
+     *
+     * @param category 카테고리 필터 (선택 사항)
+     * @param priceBand 가격 구간 번호 (선택 사항)
+     * @param ratingBand 평균 평점 구간 번호 (선택 사항)
+     * @return 패싯별 상품 수, 구간 번호가 잘못되면 400
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getProductFacets(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer priceBand,
+            @RequestParam(required = false) Integer ratingBand) {
+        try {
+            ProductFacetResponse facets = productService.getProductFacets(category, priceBand, ratingBand);
+            return ResponseEntity.ok(facets);
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ 패싯 요청 오류: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * 상품명 자동완성 API
+     * <p>
+     * GET /api/products/suggest?q=아이폰&limit=8
+     * 입력 중인 검색어로 시작하는 상품명(또는 상품명 속 단어)을 조회수/평점 순으로 반환합니다.
+     * 키 입력마다 호출되므로 메모리 트리에서만 응답하고 DB는 조회하지 않습니다.
+     * </p>
+     *
+     * @param q 입력 중인 검색어
+     * @param limit 최대 후보 수 (기본 8)
+     * @return 자동완성 후보 (상품 ID, 상품명)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionResponse>> suggest(@RequestParam(defaultValue = "") String q,
+                                                                   @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+
     /**
      * 상품 상세 조회 API
      * <p>
      * GET /api/products/{id}
+     * 방문자 쿠키가 없으면 발급하고, 조회한 상품을 해당 방문자의 최근 본 상품에 기록합니다.
+     * 로그인 상태면 사용자의 최근 본 상품에도 기록합니다 (하이브리드 추천용).
      * </p>
      *
      * @param id 조회할 상품의 고유 식별자 (DB PK)
+     * @param visitorId 방문자 세션 쿠키 (없으면 새로 발급)
+     * @param userId 로그인 사용자 ID (JWT 인증 필터가 넣은 값, 비로그인이면 null)
      * @return 단일 상품 상세 정보 (ProductResponse)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) { // URL 경로에 있는 변수({id})를 매핑
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id, // URL 경로에 있는 변수({id})를 매핑
+                                                      @CookieValue(name = VisitorCookie.NAME, required = false) String visitorId,
+                                                      @RequestAttribute(name = JwtAuthenticationFilter.USER_ID_ATTRIBUTE, required = false) Long userId,
+                                                      HttpServletResponse response) {
         // Service에서 ID로 상품 조회 (존재하지 않을 경우 Service 내부에서 예외 처리 예상)
-        Product product = productService.getProduct(id);
+        Product product = productService.getProduct(id, VisitorCookie.resolve(visitorId, response), userId);
 
         // Entity를 DTO로 변환하여 반환
         return ResponseEntity.ok(ProductResponse.from(product));
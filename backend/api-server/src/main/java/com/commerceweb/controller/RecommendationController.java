@@ -8,6 +8,7 @@ import com.commerceweb.entity.User;
 import com.commerceweb.repository.UserRepository;
 import com.commerceweb.service.RecommendationService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.security.core.Authentication;
@@ -28,20 +29,22 @@ public class RecommendationController {
 
     /**
      * 사용자 맞춤 추천 상품 조회 엔드포인트
-     * GET /api/recommendations?topN=5
+     * GET /api/recommendations?topN=5&excludePurchased=true
      *
      * @param topN 반환할 추천 상품의 개수 (파라미터가 없으면 기본값 5 사용)
+     * @param excludePurchased true면 이미 구매한 상품은 추천에서 제외 (기본값 false)
      * @return 추천 상품 리스트가 담긴 DTO
      */
     @GetMapping("/recommendations")
-    public RecommendationResponse getRecommendations(@RequestParam(defaultValue = "5") int topN) {
+    public RecommendationResponse getRecommendations(@RequestParam(defaultValue = "5") int topN,
+                                                     @RequestParam(defaultValue = "false") boolean excludePurchased) {
         // 1. 현재 요청을 보낸 사용자의 ID(PK)를 보안 컨텍스트에서 추출
         Long userId = getCurrentUserId();
 
         // 2. 서비스 계층을 호출하여 추천 상품 목록을 가져온 후, 응답용 DTO로 변환
-        // - recommendationService.getRecommendations(userId, topN): 비즈니스 로직 수행
+        // - recommendationService.getRecommendations(userId, topN, excludePurchased): 비즈니스 로직 수행
         // - stream().map(ProductResponse::from): 엔티티(또는 내부 객체)를 클라이언트에 전달할 ProductResponse로 매핑
-        List<ProductResponse> products = recommendationService.getRecommendations(userId, topN).stream()
+        List<ProductResponse> products = recommendationService.getRecommendations(userId, topN, excludePurchased).stream()
                 .map(ProductResponse::from)
                 .toList(); // Java 16+의 Stream.toList() 사용 (불변 리스트 반환)
 
@@ -49,6 +52,62 @@ public class RecommendationController {
         return new RecommendationResponse(products);
     }
 
+    /**
+     * 방문자 세션 기반 추천 상품 조회 엔드포인트 (로그인 불필요)
+     * GET /api/recommendations/session?limit=10
+     * 최근 본 상품과 비슷하거나 함께 구매된 상품을 반환하고, 본 상품이 없으면 인기 상품을 반환합니다.
+     *
+     * @param limit 반환할 추천 상품의 개수
+     * @param visitorId 방문자 세션 쿠키 (없으면 새로 발급)
+     * @return 추천 상품 리스트가 담긴 DTO
+     */
+    @GetMapping("/recommendations/session")
+    public RecommendationResponse getSessionRecommendations(@RequestParam(defaultValue = "10") int limit,
+                                                            @CookieValue(name = VisitorCookie.NAME, required = false) String visitorId,
+                                                            HttpServletResponse response) {
+        String sessionId = VisitorCookie.resolve(visitorId, response);
+        List<ProductResponse> products = recommendationService.getSessionRecommendations(sessionId, limit).stream()
+                .map(ProductResponse::from)
+                .toList();
+        return new RecommendationResponse(products);
+    }
+
+    /**
+     * 카테고리별 추천 상품 조회 엔드포인트 (페이지 단위)
+     * GET /api/recommendations/category/{category}?page=0&size=10
+     *
+     * @param category 카테고리명
+     * @param page 0부터 시작하는 페이지 번호
+     * @param size 페이지 크기
+     * @return 해당 페이지의 추천 상품 리스트가 담긴 DTO
+     */
+    @GetMapping("/recommendations/category/{category}")
+    public RecommendationResponse getRecommendationsByCategory(@PathVariable String category,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "10") int size) {
+        List<ProductResponse> products = recommendationService.getRecommendationsByCategory(category, page, size).stream()
+                .map(ProductResponse::from)
+                .toList();
+        return new RecommendationResponse(products);
+    }
+
+    /**
+     * 함께 구매한 상품 조회 엔드포인트
+     * GET /api/recommendations/bought-together/{productId}?limit=10
+     *
+     * @param productId 기준 상품 ID
+     * @param limit 반환 개수
+     * @return 함께 구매 횟수 순 상품 리스트가 담긴 DTO
+     */
+    @GetMapping("/recommendations/bought-together/{productId}")
+    public RecommendationResponse getBoughtTogether(@PathVariable Long productId,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        List<ProductResponse> products = recommendationService.getBoughtTogether(productId, limit).stream()
+                .map(ProductResponse::from)
+                .toList();
+        return new RecommendationResponse(products);
+    }
+
     /**
      * Spring Security Context에서 현재 인증된 사용자의 정보를 가져오는 헬퍼 메서드
      * JWT 필터 등을 거쳐 SecurityContext에 저장된 인증 정보(Authentication)를 활용합니다.
@@ -0,0 +1,44 @@
+package com.commerceweb.controller;
+
+import com.commerceweb.recommendation.RecentlyViewedStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 방문자 세션 쿠키 (로그인 여부와 무관하게 브라우저 하나를 식별)
+ * <p>
+ * 서버 세션을 쓰지 않으므로(STATELESS) 무작위 UUID 하나만 HttpOnly 쿠키로 내려주고,
+ * 최근 본 상품 같은 세션 데이터는 이 ID를 키로 Redis에 둔다. 쿠키 자체에는 데이터를 싣지 않는다.
+ * </p>
+ */
+final class VisitorCookie {
+
+    static final String NAME = "visitor_id";
+
+    private static final Duration MAX_AGE = Duration.ofDays(30);
+
+    private VisitorCookie() {
+    }
+
+    /**
+     * 유효한 방문자 ID가 있으면 그대로, 없거나 형식이 다르면 새로 발급해 응답에 쿠키를 싣고 반환한다.
+     */
+    static String resolve(String cookieValue, HttpServletResponse response) {
+        if (RecentlyViewedStore.isValidSessionId(cookieValue)) {
+            return cookieValue;
+        }
+        String visitorId = UUID.randomUUID().toString();
+        ResponseCookie cookie = ResponseCookie.from(NAME, visitorId)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(MAX_AGE)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        return visitorId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.commerceweb.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 한 건을 (주문 ID, 구매자 ID, 상품 ID, 주문 일시) 튜플로만 전달하는 프로젝션 DTO.
+ * 함께 구매 엔진 전체 재구성 시 User/Product 프록시 없이 주문 테이블을 훑기 위해 사용한다.
+ */
+public record OrderTupleDto(Long id, Long userId, Long productId, LocalDateTime orderDate) { }
@@ -0,0 +1,6 @@
+package com.commerceweb.dto;
+
+/**
+ * 패싯 색인 구성용 프로젝션 DTO (상품 ID, 카테고리, 가격, 평균 평점).
+ */
+public record ProductFacetDto(Long id, String category, Double price, Double averageRating) { }
@@ -0,0 +1,7 @@
+package com.commerceweb.dto;
+
+/**
+ * 상품 순위 인덱스 구성용 프로젝션 DTO (상품 ID, 카테고리, 평균 평점, 조회수).
+ * 설명(TEXT) 등 큰 컬럼을 읽지 않으므로 전체 상품을 적재해도 가볍다.
+ */
+public record ProductRankingDto(Long id, String category, Double averageRating, Long viewCount) { }
@@ -0,0 +1,7 @@
+package com.commerceweb.dto;
+
+/**
+ * 상품 검색 색인 구성용 프로젝션 DTO (상품 ID, 이름, 설명, 카테고리).
+ * 검색 색인에 필요 없는 가격/집계 컬럼은 읽지 않는다.
+ */
+public record ProductSearchDto(Long id, String name, String description, String category) { }
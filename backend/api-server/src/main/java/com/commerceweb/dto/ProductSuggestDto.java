@@ -0,0 +1,6 @@
+package com.commerceweb.dto;
+
+/**
+ * 자동완성 트리 구성용 프로젝션 DTO (상품 ID, 이름, 조회수, 평균 평점).
+ */
+public record ProductSuggestDto(Long id, String name, Long viewCount, Double averageRating) { }
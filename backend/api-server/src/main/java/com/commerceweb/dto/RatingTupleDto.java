@@ -0,0 +1,8 @@
+package com.commerceweb.dto;
+
+/**
+ * 평점 한 건을 (평가 ID, 사용자 ID, 상품 ID, 점수) 튜플로만 전달하는 프로젝션 DTO.
+ * Rating 엔티티와 연관된 User/Product 프록시를 만들지 않으므로
+ * 대량 적재나 배치 조회에서 엔티티 하이드레이션 비용이 들지 않는다.
+ */
+public record RatingTupleDto(Long id, Long userId, Long productId, Integer score) { }
@@ -0,0 +1,53 @@
+package com.commerceweb.dto.product;
+
+import com.commerceweb.entity.Product;
+import com.commerceweb.repository.ProductSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 상품 목록 다음 페이지 커서 (이전 페이지 마지막 상품의 정렬 키 + id)
+ * <p>
+ * 클라이언트에는 "v1|정렬|키|id"를 URL-safe Base64로 감싼 불투명 토큰으로만 내려준다.
+ * 토큰에 정렬 기준이 들어 있으므로 다른 정렬로 이어 읽으려 하면 거부한다.
+ * </p>
+ */
+public record ProductCursor(ProductSort sort, Object key, long id) {
+
+    private static final String VERSION = "v1";
+
+    public static ProductCursor after(ProductSort sort, Product last) {
+        return new ProductCursor(sort, sort.keyOf(last), last.getId());
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰을 해석한다. 형식이 잘못되었거나 정렬 기준이 다르면 IllegalArgumentException.
+     */
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("형식 오류");
+            }
+            ProductSort sort = ProductSort.valueOf(parts[1]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("정렬 기준 불일치");
+            }
+            Object key = switch (sort) {
+                case LATEST -> LocalDateTime.parse(parts[2]);
+                case PRICE_ASC, PRICE_DESC -> Double.valueOf(parts[2]);
+            };
+            return new ProductCursor(sort, key, Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다: " + e.getMessage(), e);
+        }
+    }
+}
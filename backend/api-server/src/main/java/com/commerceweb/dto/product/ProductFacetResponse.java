@@ -0,0 +1,29 @@
+package com.commerceweb.dto.product;
+
+import java.util.List;
+
+/**
+ * 상품 목록 패싯 개수 응답
+ * <p>
+ * 각 패싯의 개수는 그 패싯을 뺀 나머지 필터를 적용한 값입니다 (카테고리를 골라도 다른 카테고리 개수가 함께 나옴).
+ * </p>
+ *
+ * @param total       모든 필터를 만족하는 상품 수
+ * @param categories  카테고리별 상품 수 (많은 순)
+ * @param priceBands  가격 구간별 상품 수
+ * @param ratingBands 평균 평점 구간별 상품 수
+ */
+public record ProductFacetResponse(int total,
+                                   List<CategoryCount> categories,
+                                   List<BandCount> priceBands,
+                                   List<BandCount> ratingBands) {
+
+    public record CategoryCount(String category, int count) { }
+
+    /**
+     * @param band 필터로 넘길 구간 번호
+     * @param min  구간 하한 (포함, 첫 구간이면 null)
+     * @param max  구간 상한 (미포함, 마지막 구간이면 null)
+     */
+    public record BandCount(int band, Double min, Double max, int count) { }
+}
@@ -0,0 +1,12 @@
+package com.commerceweb.dto.product;
+
+import java.util.List;
+
+/**
+ * 상품 목록 커서 페이지 응답
+ *
+ * @param items      이번 페이지 상품
+ * @param nextCursor 다음 페이지 요청에 그대로 넘길 토큰 (마지막 페이지면 null)
+ * @param hasNext    다음 페이지 존재 여부
+ */
+public record ProductPageResponse(List<ProductResponse> items, String nextCursor, boolean hasNext) { }
@@ -0,0 +1,9 @@
+package com.commerceweb.dto.product;
+
+/**
+ * 상품명 자동완성 후보
+ *
+ * @param id   상품 ID
+ * @param name 상품명 (원문 그대로)
+ */
+public record ProductSuggestionResponse(Long id, String name) { }
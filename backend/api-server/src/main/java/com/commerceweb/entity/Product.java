@@ -12,7 +12,13 @@ import java.io.Serial;
 import java.io.Serializable;
 
 @Entity
-@Table(name = "products")
+// 상품 목록 커서 페이지용 (정렬 키, id) 복합 인덱스
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_created_at_id", columnList = "category, created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_category_price_id", columnList = "category, price, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,32 @@
+package com.commerceweb.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문이 생성/취소되었음을 알리는 도메인 이벤트.
+ * OrderService가 발행하고, 사용자/상품 단위 캐시와 인덱스가 커밋 이후(AFTER_COMMIT)에 받아 반영한다.
+ *
+ * @param orderId   주문 ID
+ * @param userId    구매자 ID
+ * @param productId 주문 상품 ID
+ * @param orderDate 주문 일시
+ * @param type      변경 종류
+ */
+public record OrderChangedEvent(Long orderId, Long userId, Long productId, LocalDateTime orderDate, Type type) {
+
+    public enum Type {
+        CREATED, CANCELLED
+    }
+
+    public static OrderChangedEvent created(Long orderId, Long userId, Long productId, LocalDateTime orderDate) {
+        return new OrderChangedEvent(orderId, userId, productId, orderDate, Type.CREATED);
+    }
+
+    public static OrderChangedEvent cancelled(Long orderId, Long userId, Long productId, LocalDateTime orderDate) {
+        return new OrderChangedEvent(orderId, userId, productId, orderDate, Type.CANCELLED);
+    }
+
+    public boolean isCancelled() {
+        return type == Type.CANCELLED;
+    }
+}
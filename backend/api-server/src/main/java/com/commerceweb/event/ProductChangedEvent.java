@@ -0,0 +1,34 @@
+package com.commerceweb.event;
+
+/**
+ * 상품이 등록/수정/삭제되었음을 알리는 도메인 이벤트.
+ * ProductService가 발행하고, 상품 단위 메모리 인덱스들이 커밋 이후(AFTER_COMMIT)에 받아 증분 반영한다.
+ *
+ * @param productId 대상 상품 ID
+ * @param category  변경 후 카테고리 (삭제 시 삭제 직전 카테고리)
+ * @param type      변경 종류
+ */
+public record ProductChangedEvent(Long productId, String category, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        /** 상세 조회로 조회수만 1 증가 */
+        VIEWED
+    }
+
+    public static ProductChangedEvent created(Long productId, String category) {
+        return new ProductChangedEvent(productId, category, Type.CREATED);
+    }
+
+    public static ProductChangedEvent updated(Long productId, String category) {
+        return new ProductChangedEvent(productId, category, Type.UPDATED);
+    }
+
+    public static ProductChangedEvent viewed(Long productId, String category) {
+        return new ProductChangedEvent(productId, category, Type.VIEWED);
+    }
+
+    public static ProductChangedEvent deleted(Long productId, String category) {
+        return new ProductChangedEvent(productId, category, Type.DELETED);
+    }
+}
@@ -0,0 +1,24 @@
+package com.commerceweb.event;
+
+/**
+ * 평점이 생성/수정/삭제되었음을 알리는 도메인 이벤트.
+ * RatingService가 발행하고, 메모리 상주 추천 엔진들이 커밋 이후(AFTER_COMMIT)에 받아 증분 반영한다.
+ *
+ * @param userId    평가한 사용자 ID
+ * @param productId 평가 대상 상품 ID
+ * @param score     새 점수(1~5). 평가가 삭제된 경우 null
+ */
+public record RatingChangedEvent(Long userId, Long productId, Integer score) {
+
+    public static RatingChangedEvent upserted(Long userId, Long productId, Integer score) {
+        return new RatingChangedEvent(userId, productId, score);
+    }
+
+    public static RatingChangedEvent deleted(Long userId, Long productId) {
+        return new RatingChangedEvent(userId, productId, null);
+    }
+
+    public boolean isDeleted() {
+        return score == null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.commerceweb.event;
+
+/**
+ * 리뷰가 작성/수정/삭제되었음을 알리는 도메인 이벤트.
+ * ReviewService가 발행하고, 사용자 단위 캐시/인덱스가 커밋 이후(AFTER_COMMIT)에 받아 반영한다.
+ *
+ * @param userId    리뷰 작성자 ID
+ * @param productId 리뷰 대상 상품 ID
+ * @param rating    새 별점. 리뷰가 삭제된 경우 null
+ */
+public record ReviewChangedEvent(Long userId, Long productId, Integer rating) {
+
+    public static ReviewChangedEvent upserted(Long userId, Long productId, Integer rating) {
+        return new ReviewChangedEvent(userId, productId, rating);
+    }
+
+    public static ReviewChangedEvent deleted(Long userId, Long productId) {
+        return new ReviewChangedEvent(userId, productId, null);
+    }
+
+    public boolean isDeleted() {
+        return rating == null;
+    }
+}
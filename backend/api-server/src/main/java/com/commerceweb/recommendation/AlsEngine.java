@@ -0,0 +1,157 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ALS 행렬 분해 추천 엔진
+ * <p>
+ * 주기적으로 ratings 전체로 {@link AlsModel}을 새로 학습하고, 버전을 올려 참조를 원자적으로 교체한다.
+ * 요청 시에는 사용자 요인과 전체 상품 요인의 내적만 계산하므로 DB 조인이 없다.
+ * 학습 중이거나 실패해도 이전 버전 모델로 계속 응답한다.
+ * 교체 직후 상품 벡터 HNSW 인덱스({@link ProductVectorIndex})도 새 모델로 다시 만든다.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlsEngine {
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final ProductVectorIndex productVectorIndex;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode;
+
+    @Value("${recommendation.als.rank:32}")
+    private int rank;
+
+    @Value("${recommendation.als.iterations:10}")
+    private int iterations;
+
+    @Value("${recommendation.als.lambda:0.1}")
+    private float lambda;
+
+    /** 0 이하이면 사용 가능한 코어 수 */
+    @Value("${recommendation.als.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicReference<AlsModel> model = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final AtomicBoolean training = new AtomicBoolean(false);
+    private Timer trainTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        trainTimer = Timer.builder("recommendation.als.train")
+                .description("ALS 모델 전체 학습 시간")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.als.version", model, ref -> ref.get() == null ? 0 : ref.get().version())
+                .description("현재 서비스 중인 ALS 모델 버전")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.als.memory", model, ref -> ref.get() == null ? 0 : ref.get().memoryFootprintBytes())
+                .description("ALS 요인 행렬 메모리 추정치")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainOnStartup() {
+        if (isEnabled()) {
+            retrain();
+        }
+    }
+
+    @Scheduled(cron = "${recommendation.als.retrain-cron:0 30 4 * * *}")
+    public void scheduledRetrain() {
+        if (isEnabled()) {
+            retrain();
+        }
+    }
+
+    /**
+     * 모델을 새로 학습해 교체한다. 이미 학습 중이면 건너뛴다.
+     */
+    public void retrain() {
+        if (!training.compareAndSet(false, true)) {
+            log.info("⏭️ ALS 모델 학습이 이미 진행 중입니다");
+            return;
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long startTime = System.nanoTime();
+            RatingMatrix matrix = ratingMatrixLoader.load();
+            AlsModel trained = AlsTrainer.train(matrix,
+                    new AlsTrainer.Settings(rank, iterations, lambda, 42L),
+                    versionSequence.incrementAndGet(), pool);
+            long elapsed = System.nanoTime() - startTime;
+            trainTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            install(trained);
+
+            log.info("✅ ALS 모델 v{} 교체 완료 ({}ms, {} 스레드) - 사용자 {}명, 상품 {}개, rank={}, RMSE={}",
+                    trained.version(), TimeUnit.NANOSECONDS.toMillis(elapsed), threads,
+                    trained.userCount(), trained.itemCount(), rank,
+                    String.format("%.4f", AlsTrainer.rmse(matrix, trained)));
+
+            productVectorIndex.rebuild(trained);
+        } catch (Exception e) {
+            log.error("❌ ALS 모델 학습 실패 (이전 모델 유지): {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+        } finally {
+            pool.shutdown();
+            training.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return model.get() != null;
+    }
+
+    /**
+     * 예상 선호도 상위 limit개 상품 ID (평가한 상품 제외). 모델에 없는 사용자면 빈 목록.
+     */
+    public List<Long> recommend(long userId, Collection<Long> ratedProductIds, int limit) {
+        AlsModel current = model.get();
+        if (current == null) {
+            return List.of();
+        }
+        long[] excluded = ratedProductIds.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(excluded);
+        return Arrays.stream(current.topN(userId, excluded, limit)).boxed().toList();
+    }
+
+    /** 사용자 요인 벡터 (ANN 질의용). 모델에 없는 사용자면 null */
+    public float[] userVector(long userId) {
+        AlsModel current = model.get();
+        return current == null ? null : current.userVector(userId);
+    }
+
+    /** 학습된 모델로 교체 (테스트/벤치마크에서 DB 없이 주입할 때도 사용) */
+    void install(AlsModel trained) {
+        model.set(trained);
+    }
+
+    private boolean isEnabled() {
+        return EngineMode.from(engineMode) == EngineMode.ALS;
+    }
+}
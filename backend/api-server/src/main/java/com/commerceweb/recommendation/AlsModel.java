@@ -0,0 +1,178 @@
+package com.commerceweb.recommendation;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * ALS(Alternating Least Squares)로 학습한 잠재 요인 모델 (불변)
+ * <p>
+ * 사용자 u의 요인 벡터는 userFactors[u*rank .. u*rank+rank), 상품 i는 itemFactors[i*rank ..]에
+ * 평탄화(flat)해서 저장한다. 예상 선호도는 두 벡터의 내적이다.
+ * </p>
+ */
+public final class AlsModel {
+
+    private final long version;
+    private final Instant trainedAt;
+    private final int rank;
+    private final long[] userIds;
+    private final long[] itemIds;
+    private final float[] userFactors;
+    private final float[] itemFactors;
+
+    public AlsModel(long version, Instant trainedAt, int rank,
+                    long[] userIds, long[] itemIds, float[] userFactors, float[] itemFactors) {
+        this.version = version;
+        this.trainedAt = trainedAt;
+        this.rank = rank;
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant trainedAt() {
+        return trainedAt;
+    }
+
+    public int rank() {
+        return rank;
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int userIndex(long userId) {
+        return Arrays.binarySearch(userIds, userId);
+    }
+
+    public int itemIndex(long productId) {
+        return Arrays.binarySearch(itemIds, productId);
+    }
+
+    public long itemId(int itemIndex) {
+        return itemIds[itemIndex];
+    }
+
+    /** 사용자 요인 벡터 복사본. 모델에 없는 사용자면 null */
+    public float[] userVector(long userId) {
+        int u = userIndex(userId);
+        return u < 0 ? null : Arrays.copyOfRange(userFactors, u * rank, (u + 1) * rank);
+    }
+
+    /** 상품 요인 벡터 복사본 (itemIndex 기준) */
+    public float[] itemVector(int itemIndex) {
+        return Arrays.copyOfRange(itemFactors, itemIndex * rank, (itemIndex + 1) * rank);
+    }
+
+    /** 사용자-상품 예상 선호도 (내적) */
+    public float predict(int userIndex, int itemIndex) {
+        int uo = userIndex * rank;
+        int io = itemIndex * rank;
+        float dot = 0f;
+        for (int f = 0; f < rank; f++) {
+            dot += userFactors[uo + f] * itemFactors[io + f];
+        }
+        return dot;
+    }
+
+    /**
+     * 전체 상품과 내적을 계산해 상위 n개 상품 ID를 점수 내림차순으로 반환한다.
+     *
+     * @param excludedItemIds 제외할 상품 ID (오름차순 정렬 필요 — 이미 평가한 상품)
+     * @return 모델에 없는 사용자면 빈 배열
+     */
+    public long[] topN(long userId, long[] excludedItemIds, int n) {
+        int u = userIndex(userId);
+        if (u < 0 || n <= 0) {
+            return new long[0];
+        }
+        int uo = u * rank;
+        int[] heapItems = new int[n];
+        float[] heapScores = new float[n];
+        int size = 0;
+
+        for (int i = 0, io = 0; i < itemIds.length; i++, io += rank) {
+            float score = 0f;
+            for (int f = 0; f < rank; f++) {
+                score += userFactors[uo + f] * itemFactors[io + f];
+            }
+            if (size == n && score <= heapScores[0]) {
+                continue;
+            }
+            if (Arrays.binarySearch(excludedItemIds, itemIds[i]) >= 0) {
+                continue;
+            }
+            if (size < n) {
+                heapItems[size] = i;
+                heapScores[size] = score;
+                siftUp(heapItems, heapScores, size++);
+            } else {
+                heapItems[0] = i;
+                heapScores[0] = score;
+                siftDown(heapItems, heapScores, size);
+            }
+        }
+
+        long[] result = new long[size];
+        for (int k = size - 1; k >= 0; k--) {
+            result[k] = itemIds[heapItems[0]];
+            heapItems[0] = heapItems[k];
+            heapScores[0] = heapScores[k];
+            siftDown(heapItems, heapScores, k);
+        }
+        return result;
+    }
+
+    public long memoryFootprintBytes() {
+        return 16L + 8L * userIds.length + 16L + 8L * itemIds.length
+                + 16L + 4L * userFactors.length + 16L + 4L * itemFactors.length;
+    }
+
+    // 최소 힙 (루트 = 현재 상위 n개 중 가장 낮은 점수)
+    private static void siftUp(int[] items, float[] scores, int k) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (scores[k] >= scores[parent]) {
+                break;
+            }
+            swap(items, scores, k, parent);
+            k = parent;
+        }
+    }
+
+    private static void siftDown(int[] items, float[] scores, int size) {
+        int k = 0;
+        while (true) {
+            int left = 2 * k + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int smallest = right < size && scores[right] < scores[left] ? right : left;
+            if (scores[smallest] >= scores[k]) {
+                break;
+            }
+            swap(items, scores, k, smallest);
+            k = smallest;
+        }
+    }
+
+    private static void swap(int[] items, float[] scores, int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,200 @@
+package com.commerceweb.recommendation;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 명시적 평점에 대한 ALS(Alternating Least Squares) 배치 학습기
+ * <p>
+ * 상품 요인을 고정하고 사용자 요인을 풀고(CSR 행), 다시 사용자 요인을 고정하고 상품 요인을 푸는(CSC 열)
+ * 과정을 반복한다. 각 행/열은 서로 독립인 rank×rank 정규 방정식
+ * (YᵀY + λ·n·I) x = Yᵀr 이므로 Fork/Join으로 구간을 나눠 병렬로 푼다.
+ * </p>
+ */
+public final class AlsTrainer {
+
+    /** 한 작업 단위가 직접 푸는 최대 행 수 (이보다 크면 둘로 분할) */
+    private static final int LEAF_SIZE = 256;
+
+    /**
+     * @param rank       잠재 요인 차원 수
+     * @param iterations 사용자/상품 교대 횟수
+     * @param lambda     정규화 계수 (평가 수에 비례해 적용)
+     * @param seed       초기 요인 난수 시드
+     */
+    public record Settings(int rank, int iterations, float lambda, long seed) {
+
+        public Settings {
+            if (rank <= 0 || iterations <= 0 || lambda <= 0f) {
+                throw new IllegalArgumentException("rank, iterations, lambda는 양수여야 합니다.");
+            }
+        }
+    }
+
+    private AlsTrainer() {
+    }
+
+    public static AlsModel train(RatingMatrix matrix, Settings settings, long version, ForkJoinPool pool) {
+        int rank = settings.rank();
+        int userCount = matrix.userCount();
+        int itemCount = matrix.itemCount();
+
+        float[] userFactors = new float[userCount * rank];
+        float[] itemFactors = new float[itemCount * rank];
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        float scale = (float) (1.0 / Math.sqrt(rank));
+        for (int p = 0; p < itemFactors.length; p++) {
+            itemFactors[p] = (float) random.nextDouble() * scale;
+        }
+
+        for (int iteration = 0; iteration < settings.iterations(); iteration++) {
+            pool.invoke(new SolveTask(matrix, true, itemFactors, userFactors, rank, settings.lambda(), 0, userCount));
+            pool.invoke(new SolveTask(matrix, false, userFactors, itemFactors, rank, settings.lambda(), 0, itemCount));
+        }
+
+        long[] userIds = new long[userCount];
+        for (int u = 0; u < userCount; u++) {
+            userIds[u] = matrix.userId(u);
+        }
+        long[] itemIds = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemIds[i] = matrix.itemId(i);
+        }
+        return new AlsModel(version, Instant.now(), rank, userIds, itemIds, userFactors, itemFactors);
+    }
+
+    /**
+     * 학습 데이터에 대한 RMSE (학습 품질 로그용)
+     */
+    public static double rmse(RatingMatrix matrix, AlsModel model) {
+        double sum = 0;
+        long count = 0;
+        for (int u = 0; u < matrix.userCount(); u++) {
+            int modelUser = model.userIndex(matrix.userId(u));
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                int modelItem = model.itemIndex(matrix.itemId(matrix.rowItem(p)));
+                double error = matrix.rowScore(p) - model.predict(modelUser, modelItem);
+                sum += error * error;
+                count++;
+            }
+        }
+        return count == 0 ? 0 : Math.sqrt(sum / count);
+    }
+
+    /**
+     * [from, to) 구간의 행(사용자) 또는 열(상품) 요인을 고정된 반대편 요인으로 푼다.
+     */
+    private static final class SolveTask extends RecursiveAction {
+
+        private final RatingMatrix matrix;
+        private final boolean byUser;
+        private final float[] fixed;
+        private final float[] target;
+        private final int rank;
+        private final float lambda;
+        private final int from;
+        private final int to;
+
+        SolveTask(RatingMatrix matrix, boolean byUser, float[] fixed, float[] target,
+                  int rank, float lambda, int from, int to) {
+            this.matrix = matrix;
+            this.byUser = byUser;
+            this.fixed = fixed;
+            this.target = target;
+            this.rank = rank;
+            this.lambda = lambda;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new SolveTask(matrix, byUser, fixed, target, rank, lambda, from, mid),
+                        new SolveTask(matrix, byUser, fixed, target, rank, lambda, mid, to));
+                return;
+            }
+
+            // 작업 단위마다 한 번만 할당해 재사용하는 정규 방정식 버퍼
+            double[] a = new double[rank * rank];
+            double[] b = new double[rank];
+
+            for (int row = from; row < to; row++) {
+                int start = byUser ? matrix.rowStart(row) : matrix.colStart(row);
+                int end = byUser ? matrix.rowEnd(row) : matrix.colEnd(row);
+                int out = row * rank;
+                if (start == end) {
+                    Arrays.fill(target, out, out + rank, 0f);
+                    continue;
+                }
+
+                Arrays.fill(a, 0);
+                Arrays.fill(b, 0);
+                for (int p = start; p < end; p++) {
+                    int other = byUser ? matrix.rowItem(p) : matrix.colUser(p);
+                    int score = byUser ? matrix.rowScore(p) : matrix.colScore(p);
+                    int fo = other * rank;
+                    for (int r = 0; r < rank; r++) {
+                        double fr = fixed[fo + r];
+                        b[r] += score * fr;
+                        // 대칭 행렬이므로 아래 삼각만 누적
+                        for (int c = 0; c <= r; c++) {
+                            a[r * rank + c] += fr * fixed[fo + c];
+                        }
+                    }
+                }
+                double regularization = lambda * (end - start);
+                for (int r = 0; r < rank; r++) {
+                    a[r * rank + r] += regularization;
+                }
+
+                choleskySolve(a, b, rank);
+                for (int r = 0; r < rank; r++) {
+                    target[out + r] = (float) b[r];
+                }
+            }
+        }
+
+        /**
+         * A x = b (A: 아래 삼각만 채워진 대칭 양의 정부호 행렬)를 촐레스키 분해로 풀어 b에 해를 덮어쓴다.
+         */
+        private static void choleskySolve(double[] a, double[] b, int n) {
+            for (int j = 0; j < n; j++) {
+                double diagonal = a[j * n + j];
+                for (int k = 0; k < j; k++) {
+                    diagonal -= a[j * n + k] * a[j * n + k];
+                }
+                diagonal = Math.sqrt(Math.max(diagonal, 1e-12));
+                a[j * n + j] = diagonal;
+                for (int i = j + 1; i < n; i++) {
+                    double value = a[i * n + j];
+                    for (int k = 0; k < j; k++) {
+                        value -= a[i * n + k] * a[j * n + k];
+                    }
+                    a[i * n + j] = value / diagonal;
+                }
+            }
+            // L y = b
+            for (int i = 0; i < n; i++) {
+                double value = b[i];
+                for (int k = 0; k < i; k++) {
+                    value -= a[i * n + k] * b[k];
+                }
+                b[i] = value / a[i * n + i];
+            }
+            // Lᵀ x = y
+            for (int i = n - 1; i >= 0; i--) {
+                double value = b[i];
+                for (int k = i + 1; k < n; k++) {
+                    value -= a[k * n + i] * b[k];
+                }
+                b[i] = value / a[i * n + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.commerceweb.recommendation;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 여러 후보 소스를 동시에 실행하고 소스별 마감 시간 안에 끝난 결과만 모아 가중 합산하는 후보 생성 파이프라인
+ * <p>
+ * 소스마다 가상 스레드 하나에서 실행하고, 시작 시점부터 각 소스의 마감 시간까지만 기다린다.
+ * 마감을 넘긴 소스는 취소(인터럽트)하고 결과에서 빼므로, 응답 지연은 가장 느린 소스가 아니라 가장 긴 마감 시간으로 제한된다.
+ * 인터럽트로 멈추지 않는 작업(실행 중인 JDBC 쿼리 등)은 마감 뒤에도 끝까지 돌기 때문에, 동시에 도는 소스 수를
+ * 모든 요청을 합쳐 maxInFlight개로 제한하고 한도를 넘는 소스는 시작하지 않는다 (REJECTED).
+ * 소스는 메모리 인덱스(나 짧은 Redis 조회)만 읽어야 한다. DB를 쓰는 소스는 마감으로 끊을 수 없어 넣지 않는다.
+ * 합산은 가중 역순위 결합(weighted reciprocal rank fusion)이다:
+ * score(p) = Σ 소스 가중치 / (RANK_OFFSET + 순위). 소스마다 점수 척도가 달라도 순위만 쓰므로 정규화가 필요 없다.
+ * </p>
+ * [동시성] 실행기는 인스턴스당 하나이며 요청 간에 공유한다 (요청마다 닫으면 늦은 소스가 끝날 때까지 기다리게 된다).
+ */
+public final class CandidatePipeline {
+
+    /** 순위 차이의 영향을 완만하게 하는 상수 (RRF 논문의 기본값) */
+    static final int RANK_OFFSET = 60;
+
+    public enum Status { OK, TIMEOUT, FAILED, REJECTED }
+
+    /**
+     * @param name       소스 이름 (가중치/메트릭 키)
+     * @param deadline   파이프라인 시작부터 이 시간 안에 끝나야 결과에 포함
+     * @param candidates 순위순 후보 상품 ID
+     */
+    public record Source(String name, Duration deadline, Supplier<List<Long>> candidates) { }
+
+    /**
+     * @param candidates 마감 안에 끝났으면 결과, 아니면 빈 목록
+     */
+    public record Outcome(String source, Status status, List<Long> candidates, long elapsedNanos) { }
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("candidate-source-", 0).factory());
+
+    /** 실행 중인 소스 수 한도 (마감을 넘겨 아직 끝나지 않은 소스 포함) */
+    private final Semaphore inFlight;
+
+    /**
+     * @param maxInFlight 모든 요청을 합쳐 동시에 실행할 수 있는 소스 수
+     */
+    public CandidatePipeline(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight는 양수여야 합니다: " + maxInFlight);
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * 모든 소스를 동시에 시작하고 각자의 마감 시간까지 기다린 결과 (소스 순서 유지).
+     * 동시 실행 한도를 넘은 소스는 실행하지 않고 REJECTED로 빠진다.
+     */
+    public List<Outcome> collect(List<Source> sources) {
+        long startTime = System.nanoTime();
+        List<Future<List<Long>>> futures = new ArrayList<>(sources.size());
+        for (Source source : sources) {
+            if (!inFlight.tryAcquire()) {
+                futures.add(null);
+                continue;
+            }
+            try {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return source.candidates().get();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                futures.add(null);
+            }
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            Future<List<Long>> future = futures.get(i);
+            if (future == null) {
+                outcomes.add(new Outcome(source.name(), Status.REJECTED, List.of(), System.nanoTime() - startTime));
+                continue;
+            }
+            long remaining = startTime + source.deadline().toNanos() - System.nanoTime();
+            try {
+                List<Long> candidates = future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                outcomes.add(new Outcome(source.name(), Status.OK,
+                        candidates == null ? List.of() : candidates, System.nanoTime() - startTime));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                outcomes.add(new Outcome(source.name(), Status.TIMEOUT, List.of(), System.nanoTime() - startTime));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.stream().filter(Objects::nonNull).forEach(f -> f.cancel(true));
+                outcomes.add(new Outcome(source.name(), Status.FAILED, List.of(), System.nanoTime() - startTime));
+                break;
+            } catch (ExecutionException | CancellationException e) {
+                outcomes.add(new Outcome(source.name(), Status.FAILED, List.of(), System.nanoTime() - startTime));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * 소스별 순위를 가중 역순위 결합으로 합쳐 상위 limit개 상품 ID를 반환한다.
+     * 점수가 같으면 상품 ID 오름차순. 가중치가 없거나 0인 소스는 무시한다.
+     *
+     * @param excluded 결과에서 뺄 상품인지 (이미 평가한 상품 등)
+     */
+    public static List<Long> blend(List<Outcome> outcomes, Map<String, Double> weights, Predicate<Long> excluded, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Outcome outcome : outcomes) {
+            double weight = weights.getOrDefault(outcome.source(), 0.0);
+            if (weight <= 0) {
+                continue;
+            }
+            int rank = 0;
+            Set<Long> seen = new HashSet<>();
+            for (Long productId : outcome.candidates()) {
+                rank++;
+                if (!excluded.test(productId) && seen.add(productId)) {
+                    scores.merge(productId, weight / (RANK_OFFSET + rank), Double::sum);
+                }
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
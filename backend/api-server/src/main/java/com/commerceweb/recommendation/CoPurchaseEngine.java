@@ -0,0 +1,218 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.dto.OrderTupleDto;
+import com.commerceweb.event.OrderChangedEvent;
+import com.commerceweb.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "함께 구매한 상품" 엔진
+ * <p>
+ * 주문 테이블에서 같은 사용자가 시간 창 이내에 산 상품 쌍을 {@link CoPurchaseMatrix}로 세고,
+ * 상품별 상위 K개를 메모리에서 바로 응답한다 (DB 조회 없음).
+ * 주문 생성/취소는 커밋 이후 이벤트로 해당 주문의 쌍만 증감하고,
+ * 전체 재구성은 주문 ID 범위를 나눠 구간마다 키셋 스캔을 가상 스레드로 동시에 실행한 뒤 새 행렬로 교체한다.
+ * </p>
+ * [동시성] 재구성 중 들어온 주문 변경은 따로 모아 두었다가 교체 직후 새 행렬에 다시 반영한다
+ * (행렬이 주문 ID로 중복을 걸러내므로 스캔에 이미 포함된 주문이어도 안전하다).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoPurchaseEngine {
+
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.co-purchase.enabled:true}")
+    private boolean enabled = true;
+
+    /** 이 시간 이내에 주문한 상품끼리만 함께 구매로 센다 */
+    @Value("${recommendation.co-purchase.window:30d}")
+    private Duration window = Duration.ofDays(30);
+
+    /** 전체 재구성 시 동시에 스캔할 주문 ID 구간 수 */
+    @Value("${recommendation.co-purchase.scan-parallelism:4}")
+    private int scanParallelism = 4;
+
+    @Value("${recommendation.co-purchase.load-batch-size:50000}")
+    private int loadBatchSize = 50000;
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile CoPurchaseMatrix matrix;
+    /** 재구성 중 들어온 주문 변경 (새 행렬로 교체한 뒤 다시 반영) */
+    private List<OrderChangedEvent> pendingChanges;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        rebuildTimer = Timer.builder("recommendation.co_purchase.rebuild")
+                .description("함께 구매 행렬 전체 재구성 시간")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.co_purchase.orders", this, e -> e.matrix == null ? 0 : e.matrix.orderCount())
+                .description("함께 구매 행렬에 반영된 주문 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${recommendation.co-purchase.rebuild-cron:0 15 4 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    /**
+     * 주문 테이블 전체로 행렬을 새로 만들어 교체한다. 이미 재구성 중이면 건너뛴다.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("⏭️ 함께 구매 행렬 재구성이 이미 진행 중입니다");
+            return;
+        }
+        synchronized (writeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            long startTime = System.nanoTime();
+            List<OrderTupleDto> orders = scanOrders();
+            // 주문 ID 순으로 넣어 결과가 스캔 구간 완료 순서와 무관하도록
+            orders.sort(Comparator.comparing(OrderTupleDto::id));
+            CoPurchaseMatrix built = new CoPurchaseMatrix(window.toMillis());
+            for (OrderTupleDto order : orders) {
+                built.add(order.userId(), new CoPurchaseMatrix.Purchase(order.id(), order.productId(),
+                        toEpochMillis(order.orderDate())));
+            }
+            long elapsed = System.nanoTime() - startTime;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+            synchronized (writeLock) {
+                matrix = built;
+                List<OrderChangedEvent> replay = pendingChanges;
+                pendingChanges = null;
+                replay.forEach(this::apply);
+            }
+            log.info("✅ 함께 구매 행렬 교체 완료 ({}ms) - 주문 {}건, 상품 {}개, 창 {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), built.orderCount(), built.productCount(), window);
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+            log.error("❌ 함께 구매 행렬 재구성 실패 (이전 행렬 유지): {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 함께 구매 횟수 상위 limit개 상품 ID. 준비 전이거나 기록이 없으면 빈 목록.
+     */
+    public List<Long> boughtTogether(long productId, int limit) {
+        CoPurchaseMatrix current = matrix;
+        return current == null ? List.of() : current.topK(productId, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(OrderChangedEvent event) {
+        CoPurchaseMatrix current = matrix;
+        if (current == null || event.orderId() == null || event.userId() == null || event.productId() == null) {
+            return;
+        }
+        if (event.isCancelled()) {
+            current.remove(event.userId(), event.orderId());
+        } else {
+            current.add(event.userId(), new CoPurchaseMatrix.Purchase(event.orderId(), event.productId(),
+                    toEpochMillis(event.orderDate())));
+        }
+    }
+
+    /** 주문 ID 범위 (0, maxId]를 구간으로 나눠 구간마다 키셋 스캔을 동시에 실행 */
+    private List<OrderTupleDto> scanOrders() throws Exception {
+        long maxId = orderRepository.findMaxId();
+        if (maxId <= 0) {
+            return new ArrayList<>();
+        }
+        int slices = (int) Math.max(1, Math.min(scanParallelism, maxId));
+        long sliceSize = (maxId + slices - 1) / slices;
+
+        List<OrderTupleDto> all = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<OrderTupleDto>>> futures = new ArrayList<>(slices);
+            for (int i = 0; i < slices; i++) {
+                long from = i * sliceSize;
+                long to = Math.min(maxId, from + sliceSize);
+                futures.add(executor.submit(() -> scanRange(from, to)));
+            }
+            for (Future<List<OrderTupleDto>> future : futures) {
+                all.addAll(future.get());
+            }
+        }
+        return all;
+    }
+
+    private List<OrderTupleDto> scanRange(long afterId, long maxId) {
+        List<OrderTupleDto> result = new ArrayList<>();
+        long cursor = afterId;
+        while (true) {
+            List<OrderTupleDto> batch = orderRepository.findOrderTuplesInRange(cursor, maxId, PageRequest.of(0, loadBatchSize));
+            if (batch.isEmpty()) {
+                return result;
+            }
+            result.addAll(batch);
+            cursor = batch.get(batch.size() - 1).id();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0L : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,182 @@
+package com.commerceweb.recommendation;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 함께 구매(co-purchase) 희소 카운트 행렬
+ * <p>
+ * 같은 사용자가 시간 창(window) 이내에 주문한 서로 다른 두 상품 (a, b)마다 count(a, b), count(b, a)를 1씩 올린다.
+ * 사용자별 주문 이력을 함께 들고 있어서, 주문 한 건이 추가/취소되면 그 사용자의 창 안 주문들과의 쌍만 증감하면 된다.
+ * 같은 주문 ID는 한 번만 반영하므로 (재구성 중 이벤트 재반영 등) 같은 주문을 여러 번 넣어도 결과가 같다.
+ * </p>
+ * [동시성] 조회는 읽기 락, 추가/취소는 쓰기 락으로 직렬화한다.
+ */
+public final class CoPurchaseMatrix {
+
+    /**
+     * @param orderId     주문 ID
+     * @param productId   상품 ID
+     * @param epochMillis 주문 시각
+     */
+    public record Purchase(long orderId, long productId, long epochMillis) { }
+
+    private final long windowMillis;
+    private final Map<Long, List<Purchase>> historyByUser = new HashMap<>();
+    private final Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long orderCount = 0;
+
+    /**
+     * @param windowMillis 이 시간 이내에 주문한 상품끼리만 함께 구매로 센다
+     */
+    public CoPurchaseMatrix(long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("시간 창은 양수여야 합니다: " + windowMillis);
+        }
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * 주문을 추가하고 창 안의 같은 사용자 주문들과의 쌍을 센다. 이미 반영된 주문이면 false.
+     */
+    public boolean add(long userId, Purchase purchase) {
+        lock.writeLock().lock();
+        try {
+            List<Purchase> history = historyByUser.computeIfAbsent(userId, k -> new ArrayList<>());
+            for (Purchase other : history) {
+                if (other.orderId() == purchase.orderId()) {
+                    return false;
+                }
+            }
+            for (Purchase other : history) {
+                if (pairs(purchase, other)) {
+                    increment(purchase.productId(), other.productId(), 1);
+                    increment(other.productId(), purchase.productId(), 1);
+                }
+            }
+            history.add(purchase);
+            orderCount++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 주문을 취소하고 그 주문으로 센 쌍을 되돌린다. 없는 주문이면 false.
+     */
+    public boolean remove(long userId, long orderId) {
+        lock.writeLock().lock();
+        try {
+            List<Purchase> history = historyByUser.get(userId);
+            if (history == null) {
+                return false;
+            }
+            Purchase removed = null;
+            for (Iterator<Purchase> it = history.iterator(); it.hasNext(); ) {
+                Purchase purchase = it.next();
+                if (purchase.orderId() == orderId) {
+                    removed = purchase;
+                    it.remove();
+                    break;
+                }
+            }
+            if (removed == null) {
+                return false;
+            }
+            for (Purchase other : history) {
+                if (pairs(removed, other)) {
+                    increment(removed.productId(), other.productId(), -1);
+                    increment(other.productId(), removed.productId(), -1);
+                }
+            }
+            if (history.isEmpty()) {
+                historyByUser.remove(userId);
+            }
+            orderCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상품과 함께 구매된 횟수 상위 k개 상품 ID (횟수 내림차순, 같으면 ID 오름차순)
+     */
+    public List<Long> topK(long productId, int k) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> row = counts.get(productId);
+            if (row == null || k <= 0) {
+                return List.of();
+            }
+            Comparator<Map.Entry<Long, Integer>> order = Map.Entry.<Long, Integer>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(k + 1, order);
+            for (Map.Entry<Long, Integer> entry : row.entrySet()) {
+                heap.add(entry);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+            Long[] result = new Long[heap.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = heap.poll().getKey();
+            }
+            return List.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 함께 구매 횟수 (테스트/진단용) */
+    public int count(long productId, long otherProductId) {
+        lock.readLock().lock();
+        try {
+            return counts.getOrDefault(productId, Map.of()).getOrDefault(otherProductId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 함께 구매된 상품이 하나라도 있는 상품 수 */
+    public int productCount() {
+        lock.readLock().lock();
+        try {
+            return counts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long orderCount() {
+        lock.readLock().lock();
+        try {
+            return orderCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==========================================
+    // 내부 구현 (쓰기 락을 잡은 상태에서 호출)
+    // ==========================================
+
+    private boolean pairs(Purchase a, Purchase b) {
+        return a.productId() != b.productId() && Math.abs(a.epochMillis() - b.epochMillis()) <= windowMillis;
+    }
+
+    private void increment(long productId, long otherProductId, int delta) {
+        Map<Long, Integer> row = counts.computeIfAbsent(productId, k -> new HashMap<>());
+        int updated = row.getOrDefault(otherProductId, 0) + delta;
+        if (updated > 0) {
+            row.put(otherProductId, updated);
+        } else {
+            row.remove(otherProductId);
+            if (row.isEmpty()) {
+                counts.remove(productId);
+            }
+        }
+    }
+}
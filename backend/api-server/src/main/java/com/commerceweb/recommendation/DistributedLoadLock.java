@@ -0,0 +1,121 @@
+package com.commerceweb.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 여러 서버 노드 사이에서 같은 키의 계산을 한 노드만 하도록 하는 Redis 락 (선택 사항)
+ * <p>
+ * SET NX PX로 락을 잡은 노드만 계산하고 결과를 캐시에 넣은 뒤 락을 푼다.
+ * 락을 못 잡은 노드는 대기 시간 동안 캐시를 주기적으로 확인해 다른 노드의 결과를 쓰고,
+ * 그래도 결과가 없거나 Redis 오류가 나면 직접 계산한다 (락은 최적화일 뿐 정합성 조건이 아니다).
+ * 락 해제는 자기 토큰일 때만 지우도록 Lua 스크립트로 비교 후 삭제한다.
+ * </p>
+ * 같은 노드 안의 중복은 {@link SingleFlight}가 먼저 합치므로, 노드당 락 요청은 키마다 하나다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DistributedLoadLock {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${recommendation.single-flight.distributed-lock:false}")
+    private boolean enabled = false;
+
+    /** 락 자동 만료 시간 (계산 중 노드가 죽어도 이 시간 뒤 다른 노드가 계산할 수 있다) */
+    @Value("${recommendation.single-flight.lock-ttl:10s}")
+    private Duration lockTtl = Duration.ofSeconds(10);
+
+    /** 락을 못 잡은 노드가 다른 노드의 결과를 기다리는 최대 시간 */
+    @Value("${recommendation.single-flight.wait-timeout:3s}")
+    private Duration waitTimeout = Duration.ofSeconds(3);
+
+    @Value("${recommendation.single-flight.poll-interval:50ms}")
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 락을 잡으면 compute를 실행하고, 못 잡으면 peerResult(다른 노드가 캐시에 넣은 결과)를 기다린다.
+     *
+     * @param key        락 키 (접두사 lock: 이 붙는다)
+     * @param compute    직접 계산 (결과를 캐시에 넣는 것까지 포함해야 다른 노드가 받아 갈 수 있다)
+     * @param peerResult 다른 노드의 결과 조회 (없으면 empty)
+     */
+    public <T> T callExclusive(String key, Supplier<T> compute, Supplier<Optional<T>> peerResult) {
+        String lockKey = KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+        } catch (Exception e) {
+            log.warn("⚠️ 분산 락 획득 실패 (직접 계산) - key: {}, {}", lockKey, e.getMessage());
+            return compute.get();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return compute.get();
+            } finally {
+                release(lockKey, token);
+            }
+        }
+
+        Optional<T> fromPeer = awaitPeer(peerResult);
+        if (fromPeer.isPresent()) {
+            log.debug("🤝 다른 노드의 계산 결과 사용 - key: {}", lockKey);
+            return fromPeer.get();
+        }
+        log.info("⏱️ 다른 노드의 결과 대기 시간 초과 (직접 계산) - key: {}", lockKey);
+        return compute.get();
+    }
+
+    private <T> Optional<T> awaitPeer(Supplier<Optional<T>> peerResult) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+                Optional<T> result = peerResult.get();
+                if (result.isPresent()) {
+                    return result;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("⚠️ 다른 노드 결과 조회 실패: {}", e.getMessage());
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.warn("⚠️ 분산 락 해제 실패 (TTL 후 자동 만료) - key: {}, {}", lockKey, e.getMessage());
+        }
+    }
+}
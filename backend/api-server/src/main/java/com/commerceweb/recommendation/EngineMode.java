@@ -0,0 +1,39 @@
+package com.commerceweb.recommendation;
+
+import java.util.Locale;
+
+/**
+ * 협업 필터링 추천 계산 방식.
+ * application.properties의 recommendation.engine.mode 값으로 선택한다.
+ */
+public enum EngineMode {
+
+    /** 기존 방식: 요청마다 ratings 테이블을 조회/셀프 조인 */
+    JPA,
+
+    /** 메모리 상주 CSR/CSC 희소 평점 행렬에서 이웃 탐색과 점수 계산 */
+    MATRIX,
+
+    /** 사전 계산된 아이템-아이템 유사도(상위 K 이웃) 합산 */
+    ITEM_KNN,
+
+    /** 유사 사용자 탐색만 MinHash/LSH 근사 인덱스로 대체 (이후 단계는 JPA 경로와 동일) */
+    LSH,
+
+    /** ALS 행렬 분해로 학습한 사용자/상품 잠재 요인의 내적 순위 */
+    ALS;
+
+    /**
+     * 설정 문자열을 모드로 변환한다. 비어 있거나 알 수 없는 값이면 JPA로 폴백한다.
+     */
+    public static EngineMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return JPA;
+        }
+        try {
+            return EngineMode.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return JPA;
+        }
+    }
+}
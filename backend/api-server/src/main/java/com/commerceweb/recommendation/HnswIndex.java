@@ -0,0 +1,344 @@
+package com.commerceweb.recommendation;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 내적(inner product) 기준 HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스
+ * <p>
+ * 노드마다 무작위 최고 층을 정하고, 각 층에서 가까운 이웃 최대 M개(0층은 2M개)와 연결한다.
+ * 검색은 최상위 층 진입점에서 탐욕적으로 내려온 뒤 0층에서 후보 ef개를 유지하며 넓게 탐색한다.
+ * <ul>
+ *   <li>M ↑ / efConstruction ↑ : 재현율 ↑, 구성 시간과 메모리 ↑</li>
+ *   <li>efSearch ↑ : 재현율 ↑, 조회 지연 ↑</li>
+ * </ul>
+ * 삭제는 묘비(tombstone) 표시만 한다. 그래프 연결은 유지해 탐색 경로로는 쓰이지만 결과에서는 빠지며,
+ * 다음 전체 재구성 때 정리된다.
+ * </p>
+ * [동시성] 조회는 읽기 락, 삽입/삭제는 쓰기 락으로 직렬화한다.
+ */
+public final class HnswIndex {
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private float[] vectors;
+    private long[] ids;
+    private int[][][] links;
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int nodeCount = 0;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param id    상품 ID
+     * @param score 질의 벡터와의 내적
+     */
+    public record Result(long id, float score) { }
+
+    private record Candidate(int node, float score) { }
+
+    public HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        if (dimension <= 0 || m < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("dimension, efConstruction은 양수, m은 2 이상이어야 합니다.");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        int capacity = 1024;
+        this.vectors = new float[capacity * dimension];
+        this.ids = new long[capacity];
+        this.links = new int[capacity][][];
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /** 삭제되지 않은 노드 수 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 벡터를 추가한다. 같은 ID가 이미 있으면 기존 노드를 삭제 처리하고 새 노드로 넣는다.
+     */
+    public void insert(long id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("벡터 차원 불일치: " + vector.length + " != " + dimension);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodeById.remove(id);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+
+            int node = allocate(id, vector);
+            int level = randomLevel();
+            links[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[0];
+            }
+            nodeById.put(id, node);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(vector, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(vector, current, efConstruction, l, null);
+                int maxConnections = l == 0 ? maxM0 : m;
+                int[] neighbours = selectNeighbours(candidates, m);
+                links[node][l] = neighbours;
+                for (int neighbour : neighbours) {
+                    connect(neighbour, node, l, maxConnections);
+                }
+                current = candidates.get(0).node();
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 삭제 표시한다. 없는 ID면 false.
+     */
+    public boolean delete(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeById.remove(id);
+            if (node == null) {
+                return false;
+            }
+            deleted.set(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 질의 벡터와 내적이 큰 상위 k개 (점수 내림차순)
+     *
+     * @param ef      0층 탐색 후보 수 (k보다 작으면 k 사용)
+     * @param exclude 결과에서 제외할 ID 조건 (탐색 경로로는 사용). null이면 제외 없음
+     */
+    public List<Result> search(float[] query, int k, int ef, LongPredicate exclude) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(query, current, l);
+            }
+            LongPredicate accept = exclude == null ? id -> true : exclude.negate();
+            List<Candidate> found = searchLayer(query, current, Math.max(ef, k), 0, accept);
+
+            List<Result> results = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && results.size() < k; i++) {
+                results.add(new Result(ids[found.get(i).node()], found.get(i).score()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==========================================
+    // 내부 구현 (락을 잡은 상태에서 호출)
+    // ==========================================
+
+    private int allocate(long id, float[] vector) {
+        if (nodeCount == ids.length) {
+            int capacity = ids.length * 2;
+            vectors = Arrays.copyOf(vectors, capacity * dimension);
+            ids = Arrays.copyOf(ids, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+        int node = nodeCount++;
+        System.arraycopy(vector, 0, vectors, node * dimension, dimension);
+        ids[node] = id;
+        return node;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private float dot(float[] query, int node) {
+        int offset = node * dimension;
+        float sum = 0f;
+        for (int d = 0; d < dimension; d++) {
+            sum += query[d] * vectors[offset + d];
+        }
+        return sum;
+    }
+
+    private float dot(int a, int b) {
+        int oa = a * dimension;
+        int ob = b * dimension;
+        float sum = 0f;
+        for (int d = 0; d < dimension; d++) {
+            sum += vectors[oa + d] * vectors[ob + d];
+        }
+        return sum;
+    }
+
+    /** 상위 층에서 내적이 더 큰 이웃으로 이동할 수 없을 때까지 이동 */
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = dot(query, current);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int neighbour : links[current][level]) {
+                float score = dot(query, neighbour);
+                if (score > best) {
+                    best = score;
+                    current = neighbour;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 층에서 후보 ef개를 유지하며 탐색한다. 삭제/제외 노드는 경로로만 쓰고 결과에 넣지 않는다.
+     *
+     * @param accept 결과에 넣을 ID 조건. null이면 삭제 여부와 무관하게 모두 (그래프 구성용)
+     * @return 점수 내림차순 결과
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level, LongPredicate accept) {
+        BitSet visited = new BitSet(nodeCount);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score).reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+
+        Candidate first = new Candidate(start, dot(query, start));
+        visited.set(start);
+        frontier.add(first);
+        if (isResult(start, accept)) {
+            results.add(first);
+        }
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.score() < results.peek().score()) {
+                break;
+            }
+            for (int neighbour : links[closest.node()][level]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = dot(query, neighbour);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(neighbour, score);
+                    frontier.add(candidate);
+                    if (isResult(neighbour, accept)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        if (sorted.isEmpty() && accept == null) {
+            sorted.add(first);
+        }
+        return sorted;
+    }
+
+    private boolean isResult(int node, LongPredicate accept) {
+        return accept == null || (!deleted.get(node) && accept.test(ids[node]));
+    }
+
+    /**
+     * 다양성 휴리스틱: 후보가 이미 고른 이웃과 질의보다 더 가까우면 건너뛴다.
+     * 그래도 부족하면 남은 후보를 점수 순으로 채운다.
+     */
+    private int[] selectNeighbours(List<Candidate> candidates, int limit) {
+        int[] selected = new int[Math.min(limit, candidates.size())];
+        int size = 0;
+        boolean[] taken = new boolean[candidates.size()];
+        for (int c = 0; c < candidates.size() && size < selected.length; c++) {
+            Candidate candidate = candidates.get(c);
+            boolean diverse = true;
+            for (int s = 0; s < size; s++) {
+                if (dot(candidate.node(), selected[s]) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[size++] = candidate.node();
+                taken[c] = true;
+            }
+        }
+        for (int c = 0; c < candidates.size() && size < selected.length; c++) {
+            if (!taken[c]) {
+                selected[size++] = candidates.get(c).node();
+            }
+        }
+        return selected;
+    }
+
+    /** 역방향 연결을 추가하고, 최대 연결 수를 넘으면 휴리스틱으로 다시 고른다 */
+    private void connect(int node, int newNeighbour, int level, int maxConnections) {
+        int[] current = links[node][level];
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = newNeighbour;
+        if (extended.length <= maxConnections) {
+            links[node][level] = extended;
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(extended.length);
+        for (int neighbour : extended) {
+            candidates.add(new Candidate(neighbour, dot(node, neighbour)));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        links[node][level] = selectNeighbours(candidates, maxConnections);
+    }
+}
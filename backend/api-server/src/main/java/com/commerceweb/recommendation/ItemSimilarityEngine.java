@@ -0,0 +1,185 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 아이템-아이템 협업 필터링 엔진 (사전 계산된 상위 K 유사 상품 목록 사용)
+ * <p>
+ * 주기적으로 ratings 전체에서 {@link ItemSimilarityIndex}를 새로 만들고 참조를 원자적으로 교체한다.
+ * 요청 시에는 사용자가 평가한 상품들의 이웃 목록을 합산하기만 하므로
+ * 유사 사용자 셀프 조인(findSimilarUsers)이 필요 없다.
+ * </p>
+ * {@link OnlineItemSimilarityUpdater}가 켜져 있으면(cosine 지표) 평점 변경이 바로 반영되는 증분 이웃 목록을 쓰고
+ * 배치 인덱스는 만들지 않는다. 증분 유지를 끄거나 다른 지표(adjusted-cosine)를 쓰면 배치 인덱스만 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSimilarityEngine {
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final OnlineItemSimilarityUpdater onlineUpdater;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode;
+
+    @Value("${recommendation.item-similarity.top-k:30}")
+    private int topK;
+
+    @Value("${recommendation.item-similarity.metric:adjusted-cosine}")
+    private String metric;
+
+    /** 0 이하이면 사용 가능한 코어 수 */
+    @Value("${recommendation.item-similarity.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicReference<ItemSimilarityIndex> index = new AtomicReference<>(ItemSimilarityIndex.empty());
+    private final AtomicBoolean building = new AtomicBoolean(false);
+    private volatile boolean ready = false;
+    private Timer buildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        buildTimer = Timer.builder("recommendation.item_similarity.build")
+                .description("아이템 유사도 인덱스 전체 재구성 시간")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.item_similarity.memory", index, ref -> ref.get().memoryFootprintBytes())
+                .description("아이템 유사도 인덱스 메모리 추정치")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (isEnabled() && onlineUpdater.isEnabled()) {
+            log.info("📴 아이템 유사도 증분 갱신 사용 중 - 배치 인덱스는 만들지 않습니다");
+        }
+        if (usesBatchIndex()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${recommendation.item-similarity.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        if (usesBatchIndex()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 인덱스를 새로 계산해 교체한다. 이미 재구성 중이면 건너뛴다.
+     * 계산이 끝나기 전까지 요청은 이전 인덱스를 그대로 사용한다.
+     */
+    public void rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            log.info("⏭️ 아이템 유사도 인덱스 재구성이 이미 진행 중입니다");
+            return;
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long startTime = System.nanoTime();
+            RatingMatrix matrix = ratingMatrixLoader.load();
+            ItemSimilarityIndex built = ItemSimilarityIndexBuilder.build(
+                    matrix, ItemSimilarityIndexBuilder.Metric.from(metric), topK, pool);
+            index.set(built);
+            ready = true;
+            long elapsed = System.nanoTime() - startTime;
+            buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+            log.info("✅ 아이템 유사도 인덱스 교체 완료 ({}ms, {} 스레드) - 상품 {}개, K={}, 메모리 약 {}KB",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), threads, built.itemCount(), topK,
+                    built.memoryFootprintBytes() / 1024);
+        } catch (Exception e) {
+            log.error("❌ 아이템 유사도 인덱스 재구성 실패 (이전 인덱스 유지): {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+        } finally {
+            pool.shutdown();
+            building.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready || onlineUpdater.current() != null;
+    }
+
+    /**
+     * 평가한 상품들의 이웃 유사도를 합산해 상위 limit개 상품 ID를 반환한다 (평가한 상품은 제외).
+     */
+    public List<Long> recommend(Collection<Long> ratedProductIds, int limit) {
+        Set<Long> rated = new HashSet<>(ratedProductIds);
+        Map<Long, Double> productScores = new HashMap<>();
+        OnlineItemSimilarity online = onlineUpdater.current();
+        if (online != null) {
+            for (Long productId : rated) {
+                OnlineItemSimilarity.Neighbours neighbours = online.neighbours(productId);
+                if (neighbours == null) {
+                    continue;
+                }
+                for (int i = 0; i < neighbours.size(); i++) {
+                    long candidate = neighbours.productIds()[i];
+                    if (!rated.contains(candidate)) {
+                        productScores.merge(candidate, (double) neighbours.similarities()[i], Double::sum);
+                    }
+                }
+            }
+            return topScores(productScores, limit);
+        }
+
+        ItemSimilarityIndex current = index.get();
+        for (Long productId : rated) {
+            int item = current.itemIndex(productId);
+            if (item < 0) {
+                continue;
+            }
+            for (int p = current.start(item); p < current.end(item); p++) {
+                long candidate = current.itemId(current.neighbour(p));
+                if (!rated.contains(candidate)) {
+                    productScores.merge(candidate, (double) current.similarity(p), Double::sum);
+                }
+            }
+        }
+        return topScores(productScores, limit);
+    }
+
+    /** 테스트/벤치마크에서 DB 없이 인덱스를 주입할 때 사용 */
+    void install(ItemSimilarityIndex built) {
+        index.set(built);
+        ready = true;
+    }
+
+    private static List<Long> topScores(Map<Long, Double> productScores, int limit) {
+        return productScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private boolean isEnabled() {
+        return EngineMode.from(engineMode) == EngineMode.ITEM_KNN;
+    }
+
+    /** 증분 이웃 목록을 쓰지 않을 때만 배치 인덱스를 만든다 (쓰면 읽히지 않는다) */
+    private boolean usesBatchIndex() {
+        return isEnabled() && !onlineUpdater.isEnabled();
+    }
+}
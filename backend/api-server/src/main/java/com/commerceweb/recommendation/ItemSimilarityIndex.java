@@ -0,0 +1,73 @@
+package com.commerceweb.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 상품별 상위 K개 유사 상품 목록을 담는 불변 인덱스.
+ * <p>
+ * CSR과 같은 형태로 저장한다: 상품 i의 이웃은 [ptr[i], ptr[i+1]) 구간의
+ * neighbours(상품 인덱스)와 similarities(유사도, 내림차순)이다.
+ * </p>
+ */
+public final class ItemSimilarityIndex {
+
+    private static final ItemSimilarityIndex EMPTY =
+            new ItemSimilarityIndex(new long[0], new int[1], new int[0], new float[0], 0);
+
+    private final long[] itemIds;       // 상품 인덱스 → 상품 ID (오름차순)
+    private final int[] ptr;
+    private final int[] neighbours;
+    private final float[] similarities;
+    private final int topK;
+
+    ItemSimilarityIndex(long[] itemIds, int[] ptr, int[] neighbours, float[] similarities, int topK) {
+        this.itemIds = itemIds;
+        this.ptr = ptr;
+        this.neighbours = neighbours;
+        this.similarities = similarities;
+        this.topK = topK;
+    }
+
+    public static ItemSimilarityIndex empty() {
+        return EMPTY;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int topK() {
+        return topK;
+    }
+
+    public int itemIndex(long productId) {
+        return Arrays.binarySearch(itemIds, productId);
+    }
+
+    public long itemId(int itemIndex) {
+        return itemIds[itemIndex];
+    }
+
+    public int start(int itemIndex) {
+        return ptr[itemIndex];
+    }
+
+    public int end(int itemIndex) {
+        return ptr[itemIndex + 1];
+    }
+
+    public int neighbour(int position) {
+        return neighbours[position];
+    }
+
+    public float similarity(int position) {
+        return similarities[position];
+    }
+
+    public long memoryFootprintBytes() {
+        return 16L + 8L * itemIds.length
+                + 16L + 4L * ptr.length
+                + 16L + 4L * neighbours.length
+                + 16L + 4L * similarities.length;
+    }
+}
@@ -0,0 +1,267 @@
+package com.commerceweb.recommendation;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 평점 행렬로부터 아이템-아이템 유사도 인덱스를 계산하는 배치 빌더
+ * <p>
+ * 상품 i마다 CSC 열(i를 평가한 사용자)을 따라가며 그 사용자들의 CSR 행(함께 평가한 상품 j)에
+ * 점수 곱을 누적해 내적을 구하고, 노름으로 나눈 뒤 상위 K개만 남긴다.
+ * 상품 구간을 Fork/Join으로 분할해 코어 수만큼 병렬로 계산한다.
+ * 상품 수 크기의 누적 버퍼는 작업 단위마다가 아니라 작업 스레드마다 한 벌만 만들어 빌드가 끝날 때까지 재사용한다.
+ * </p>
+ */
+public final class ItemSimilarityIndexBuilder {
+
+    /** 한 작업 단위가 직접 계산하는 최대 상품 수 (이보다 크면 둘로 분할) */
+    private static final int LEAF_SIZE = 64;
+
+    public enum Metric {
+        /** 원점수 코사인 유사도 */
+        COSINE,
+        /** 사용자 평균을 뺀 점수의 코사인 유사도 (사용자별 점수 성향 보정) */
+        ADJUSTED_COSINE;
+
+        public static Metric from(String value) {
+            if (value == null || value.isBlank()) {
+                return ADJUSTED_COSINE;
+            }
+            return Metric.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private ItemSimilarityIndexBuilder() {
+    }
+
+    public static ItemSimilarityIndex build(RatingMatrix matrix, Metric metric, int topK, ForkJoinPool pool) {
+        int itemCount = matrix.itemCount();
+        if (itemCount == 0 || topK <= 0) {
+            return ItemSimilarityIndex.empty();
+        }
+
+        float[] userMeans = metric == Metric.ADJUSTED_COSINE ? userMeans(matrix) : new float[matrix.userCount()];
+        float[] norms = itemNorms(matrix, userMeans);
+
+        int[][] neighbours = new int[itemCount][];
+        float[][] similarities = new float[itemCount][];
+        Map<Thread, Scratch> scratchByThread = new ConcurrentHashMap<>();
+        pool.invoke(new BuildTask(matrix, userMeans, norms, topK, neighbours, similarities, scratchByThread, 0, itemCount));
+
+        int[] ptr = new int[itemCount + 1];
+        for (int i = 0; i < itemCount; i++) {
+            ptr[i + 1] = ptr[i] + neighbours[i].length;
+        }
+        int[] flatNeighbours = new int[ptr[itemCount]];
+        float[] flatSimilarities = new float[ptr[itemCount]];
+        long[] itemIds = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            System.arraycopy(neighbours[i], 0, flatNeighbours, ptr[i], neighbours[i].length);
+            System.arraycopy(similarities[i], 0, flatSimilarities, ptr[i], similarities[i].length);
+            itemIds[i] = matrix.itemId(i);
+        }
+        return new ItemSimilarityIndex(itemIds, ptr, flatNeighbours, flatSimilarities, topK);
+    }
+
+    private static float[] userMeans(RatingMatrix matrix) {
+        float[] means = new float[matrix.userCount()];
+        for (int u = 0; u < means.length; u++) {
+            int start = matrix.rowStart(u);
+            int end = matrix.rowEnd(u);
+            long sum = 0;
+            for (int p = start; p < end; p++) {
+                sum += matrix.rowScore(p);
+            }
+            means[u] = end > start ? (float) sum / (end - start) : 0f;
+        }
+        return means;
+    }
+
+    private static float[] itemNorms(RatingMatrix matrix, float[] userMeans) {
+        float[] norms = new float[matrix.itemCount()];
+        for (int i = 0; i < norms.length; i++) {
+            double sum = 0;
+            for (int p = matrix.colStart(i); p < matrix.colEnd(i); p++) {
+                float value = matrix.colScore(p) - userMeans[matrix.colUser(p)];
+                sum += value * value;
+            }
+            norms[i] = (float) Math.sqrt(sum);
+        }
+        return norms;
+    }
+
+    /**
+     * 작업 스레드 하나가 쓰는 누적 버퍼. 리프 작업은 중간에 다른 작업을 실행하지 않으므로 같은 스레드의 리프끼리 겹치지 않고,
+     * 상품 하나를 끝낼 때마다 건드린 dot 칸을 0으로 되돌려 두므로 다음 리프가 그대로 이어 쓴다.
+     */
+    private static final class Scratch {
+
+        final float[] dot;
+        final int[] touched;
+        final int[] heapItems;
+        final float[] heapSims;
+
+        Scratch(int itemCount, int topK) {
+            dot = new float[itemCount];
+            touched = new int[itemCount];
+            heapItems = new int[topK];
+            heapSims = new float[topK];
+        }
+    }
+
+    private static final class BuildTask extends RecursiveAction {
+
+        private final RatingMatrix matrix;
+        private final float[] userMeans;
+        private final float[] norms;
+        private final int topK;
+        private final int[][] neighbours;
+        private final float[][] similarities;
+        private final Map<Thread, Scratch> scratchByThread;
+        private final int from;
+        private final int to;
+
+        BuildTask(RatingMatrix matrix, float[] userMeans, float[] norms, int topK,
+                  int[][] neighbours, float[][] similarities, Map<Thread, Scratch> scratchByThread, int from, int to) {
+            this.matrix = matrix;
+            this.userMeans = userMeans;
+            this.norms = norms;
+            this.topK = topK;
+            this.neighbours = neighbours;
+            this.similarities = similarities;
+            this.scratchByThread = scratchByThread;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                        new BuildTask(matrix, userMeans, norms, topK, neighbours, similarities, scratchByThread, from, mid),
+                        new BuildTask(matrix, userMeans, norms, topK, neighbours, similarities, scratchByThread, mid, to));
+                return;
+            }
+
+            // 작업 스레드마다 한 벌만 할당해 재사용하는 누적 버퍼
+            Scratch scratch = scratchByThread.computeIfAbsent(Thread.currentThread(),
+                    thread -> new Scratch(matrix.itemCount(), topK));
+            float[] dot = scratch.dot;
+            int[] touched = scratch.touched;
+            int[] heapItems = scratch.heapItems;
+            float[] heapSims = scratch.heapSims;
+
+            for (int i = from; i < to; i++) {
+                int touchedSize = 0;
+                if (norms[i] > 0f) {
+                    for (int p = matrix.colStart(i); p < matrix.colEnd(i); p++) {
+                        int u = matrix.colUser(p);
+                        float vi = matrix.colScore(p) - userMeans[u];
+                        if (vi == 0f) {
+                            continue;
+                        }
+                        for (int q = matrix.rowStart(u); q < matrix.rowEnd(u); q++) {
+                            int j = matrix.rowItem(q);
+                            if (j == i) {
+                                continue;
+                            }
+                            if (dot[j] == 0f) {
+                                touched[touchedSize++] = j;
+                            }
+                            dot[j] += vi * (matrix.rowScore(q) - userMeans[u]);
+                            if (dot[j] == 0f) {
+                                dot[j] = Float.MIN_VALUE;  // 누적 중 0이 되어도 touched 중복 등록 방지
+                            }
+                        }
+                    }
+                }
+
+                int heapSize = 0;
+                for (int t = 0; t < touchedSize; t++) {
+                    int j = touched[t];
+                    float d = dot[j];
+                    dot[j] = 0f;
+                    if (norms[j] == 0f || d <= 0f) {
+                        continue;
+                    }
+                    float sim = d / (norms[i] * norms[j]);
+                    heapSize = offer(heapItems, heapSims, heapSize, j, sim);
+                }
+
+                sortDescending(heapItems, heapSims, heapSize);
+                neighbours[i] = Arrays.copyOf(heapItems, heapSize);
+                similarities[i] = Arrays.copyOf(heapSims, heapSize);
+            }
+        }
+
+        /** 크기 topK의 최소 힙(배열)에 후보를 넣는다. 반환값은 새 힙 크기 */
+        private int offer(int[] items, float[] sims, int size, int item, float sim) {
+            if (size < topK) {
+                items[size] = item;
+                sims[size] = sim;
+                siftUp(items, sims, size);
+                return size + 1;
+            }
+            if (sim > sims[0] || (sim == sims[0] && item < items[0])) {
+                items[0] = item;
+                sims[0] = sim;
+                siftDown(items, sims, size);
+            }
+            return size;
+        }
+
+        private static boolean weaker(float[] sims, int[] items, int a, int b) {
+            return sims[a] < sims[b] || (sims[a] == sims[b] && items[a] > items[b]);
+        }
+
+        private static void siftUp(int[] items, float[] sims, int k) {
+            while (k > 0) {
+                int parent = (k - 1) >>> 1;
+                if (!weaker(sims, items, k, parent)) {
+                    break;
+                }
+                swap(items, sims, k, parent);
+                k = parent;
+            }
+        }
+
+        private static void siftDown(int[] items, float[] sims, int size) {
+            int k = 0;
+            while (true) {
+                int left = 2 * k + 1;
+                if (left >= size) {
+                    break;
+                }
+                int right = left + 1;
+                int weakest = right < size && weaker(sims, items, right, left) ? right : left;
+                if (!weaker(sims, items, weakest, k)) {
+                    break;
+                }
+                swap(items, sims, k, weakest);
+                k = weakest;
+            }
+        }
+
+        private static void sortDescending(int[] items, float[] sims, int size) {
+            // 힙에서 가장 약한 원소를 뒤로 보내는 힙 정렬 → 결과는 유사도 내림차순
+            for (int end = size - 1; end > 0; end--) {
+                swap(items, sims, 0, end);
+                siftDown(items, sims, end);
+            }
+        }
+
+        private static void swap(int[] items, float[] sims, int a, int b) {
+            int item = items[a];
+            items[a] = items[b];
+            items[b] = item;
+            float sim = sims[a];
+            sims[a] = sims[b];
+            sims[b] = sim;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.commerceweb.recommendation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별 평가 상품 집합의 MinHash 서명 + 밴드(LSH) 버킷 인덱스
+ * <p>
+ * 서명 길이 = bands × rowsPerBand. 두 사용자의 Jaccard 유사도가 s일 때
+ * 후보로 잡힐 확률은 1 - (1 - s^rows)^bands 이므로,
+ * <ul>
+ *   <li>bands ↑ / rows ↓ : 재현율(recall) ↑, 후보 수와 지연 시간 ↑</li>
+ *   <li>bands ↓ / rows ↑ : 후보가 줄어 빠르지만 덜 비슷한 사용자를 놓칠 수 있음</li>
+ * </ul>
+ * 후보는 서명 일치 비율(추정 Jaccard)로 다시 정렬한다.
+ * </p>
+ * [동시성] 조회는 ConcurrentHashMap 읽기만 하며, 갱신(put/remove)은 인스턴스 락으로 직렬화한다.
+ */
+public final class MinHashLshIndex {
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final long[] hashA;
+    private final long[] hashB;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param signature 최소 해시 서명
+     * @param setSize   평가 상품 수 (공통 평가 수 추정용)
+     */
+    private record Entry(int[] signature, int setSize) { }
+
+    /**
+     * @param userId          유사 사용자 ID
+     * @param jaccard         추정 Jaccard 유사도
+     * @param estimatedCommon 추정 공통 평가 상품 수
+     */
+    public record Candidate(long userId, double jaccard, long estimatedCommon) { }
+
+    public MinHashLshIndex(int bands, int rowsPerBand, long seed) {
+        if (bands <= 0 || rowsPerBand <= 0) {
+            throw new IllegalArgumentException("bands와 rowsPerBand는 양수여야 합니다.");
+        }
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        int hashes = bands * rowsPerBand;
+        SplittableRandom random = new SplittableRandom(seed);
+        this.hashA = new long[hashes];
+        this.hashB = new long[hashes];
+        for (int h = 0; h < hashes; h++) {
+            hashA[h] = random.nextLong() | 1L;
+            hashB[h] = random.nextLong();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 사용자의 평가 상품 집합을 (재)등록한다. 빈 집합이면 인덱스에서 제거한다.
+     */
+    public void put(long userId, long[] productIds) {
+        // 서명 계산은 락 밖에서 (병렬 구성 시 코어를 모두 활용)
+        int[] signature = productIds.length == 0 ? null : signature(productIds);
+        synchronized (this) {
+            removeInternal(userId);
+            if (signature == null) {
+                return;
+            }
+            entries.put(userId, new Entry(signature, productIds.length));
+            for (int band = 0; band < bands; band++) {
+                buckets.computeIfAbsent(bandKey(signature, band), k -> ConcurrentHashMap.newKeySet()).add(userId);
+            }
+        }
+    }
+
+    public synchronized void remove(long userId) {
+        removeInternal(userId);
+    }
+
+    private void removeInternal(long userId) {
+        Entry previous = entries.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(previous.signature(), band);
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(userId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * 같은 밴드 버킷에 속한 사용자를 후보로 모아 추정 Jaccard 내림차순 상위 limit명을 반환한다.
+     *
+     * @param maxCandidates 서명 비교할 최대 후보 수 (지연 시간 상한)
+     */
+    public List<Candidate> query(long userId, int limit, int maxCandidates) {
+        Entry self = entries.get(userId);
+        if (self == null) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < bands && candidates.size() < maxCandidates; band++) {
+            Set<Long> bucket = buckets.get(bandKey(self.signature(), band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Long other : bucket) {
+                if (other != userId && candidates.add(other) && candidates.size() >= maxCandidates) {
+                    break;
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(candidates.size());
+        for (Long other : candidates) {
+            Entry entry = entries.get(other);
+            if (entry == null) {
+                continue;
+            }
+            double jaccard = similarity(self.signature(), entry.signature());
+            long common = Math.round(jaccard / (1 + jaccard) * (self.setSize() + entry.setSize()));
+            result.add(new Candidate(other, jaccard, common));
+        }
+        result.sort(Comparator.comparingDouble(Candidate::jaccard).reversed()
+                .thenComparingLong(Candidate::userId));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private int[] signature(long[] productIds) {
+        int[] signature = new int[hashA.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long productId : productIds) {
+            for (int h = 0; h < signature.length; h++) {
+                int value = (int) (mix(productId * hashA[h] + hashB[h]) >>> 33);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int h = 0; h < a.length; h++) {
+            if (a[h] == b[h]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        int offset = band * rowsPerBand;
+        for (int r = 0; r < rowsPerBand; r++) {
+            key = mix(key * 31 + signature[offset + r]);
+        }
+        return key;
+    }
+
+    /** SplitMix64 최종 혼합 함수 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
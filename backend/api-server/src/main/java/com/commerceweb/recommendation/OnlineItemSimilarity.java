@@ -0,0 +1,358 @@
+package com.commerceweb.recommendation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 평점이 바뀔 때마다 증분으로 유지하는 아이템-아이템 코사인 유사도
+ * <p>
+ * 충분 통계만 들고 있다: 상품별 점수 제곱합(노름²), 상품 쌍별 점수 곱의 합(내적)과 함께 평가한 사용자 수.
+ * 사용자 u가 상품 i의 점수를 o → n으로 바꾸면 노름²(i)에 n² - o²를 더하고,
+ * u가 평가한 다른 상품 j마다 내적(i, j)에 (n - o) × r(u, j)를 더하므로 비용은 O(u가 평가한 상품 수)다.
+ * 유사도는 내적 / √(노름²(i) × 노름²(j)).
+ * </p>
+ * 변경 후에는 i의 기존 상위 K와 바뀐 쌍만 다시 계산해 i의 목록을 고치고 (전체 쌍을 다시 정렬하지 않음),
+ * 함께 평가된 j의 목록에서는 i 항목만 고쳐 불변 객체로 게시한다.
+ * i의 노름이 바뀌면 i의 모든 유사도가 같은 비율로 변하므로 바뀌지 않은 쌍의 순서는 그대로다.
+ * 목록 밖 쌍이 새 K번째보다 나을 수 있을 때(목록 항목이 빠지거나 약해진 경우)만 전체 쌍에서 다시 만든다.
+ * i의 노름 변화는 i 자신의 목록에는 바로, j 목록의 i 항목에는 그 쌍이 다시 바뀌거나 압축(compact)할 때 반영된다.
+ * 지표는 원점수 코사인이다 (사용자 평균을 빼는 adjusted-cosine은 평균이 바뀔 때 그 사용자의 모든 쌍을 고쳐야 해 증분으로 유지하지 않는다).
+ * <p>
+ * [동시성] 쓰기 메서드는 단일 쓰기 스레드에서만 호출해야 한다 (내부 통계는 동기화하지 않는다).
+ * 조회({@link #neighbours})는 게시된 불변 목록만 읽으므로 락이 없다.
+ * </p>
+ */
+public final class OnlineItemSimilarity {
+
+    /**
+     * 게시된 이웃 목록 (유사도 내림차순, 불변)
+     */
+    public record Neighbours(long[] productIds, float[] similarities) {
+
+        static final Neighbours EMPTY = new Neighbours(new long[0], new float[0]);
+
+        public int size() {
+            return productIds.length;
+        }
+    }
+
+    /** 상품 쌍 통계 (양방향이 같은 객체를 공유) */
+    private static final class PairStats {
+        double dot;
+        int coCount;
+    }
+
+    private final int topK;
+    // 이하 쓰기 스레드 전용
+    private final Map<Long, Map<Long, Integer>> ratingsByUser = new HashMap<>();
+    private final Map<Long, Double> normSquares = new HashMap<>();
+    private final Map<Long, Map<Long, PairStats>> pairsByItem = new HashMap<>();
+    private long pairCount = 0;
+    // 조회용 게시 목록
+    private final Map<Long, Neighbours> published = new ConcurrentHashMap<>();
+
+    public OnlineItemSimilarity(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK는 양수여야 합니다: " + topK);
+        }
+        this.topK = topK;
+    }
+
+    /** 상품의 상위 K 이웃 (락 없음). 기록이 없으면 null */
+    public Neighbours neighbours(long productId) {
+        return published.get(productId);
+    }
+
+    public int itemCount() {
+        return published.size();
+    }
+
+    /** 유지 중인 상품 쌍 수 (메모리 지표) */
+    public long pairCount() {
+        return pairCount;
+    }
+
+    /**
+     * 평점 한 건의 변경을 반영한다.
+     *
+     * @param score 새 점수. 평가 삭제면 null
+     */
+    public void apply(long userId, long productId, Integer score) {
+        int newScore = score == null ? 0 : score;
+        Map<Long, Integer> userRatings = ratingsByUser.computeIfAbsent(userId, k -> new HashMap<>());
+        int oldScore = userRatings.getOrDefault(productId, 0);
+        if (oldScore == newScore) {
+            return;
+        }
+
+        double oldNormSquare = normSquares.getOrDefault(productId, 0.0);
+        normSquares.merge(productId, (double) (newScore * newScore - oldScore * oldScore), Double::sum);
+        int scoreDelta = newScore - oldScore;
+        int coCountDelta = (newScore > 0 ? 1 : 0) - (oldScore > 0 ? 1 : 0);
+        List<Long> touched = new ArrayList<>(userRatings.size());
+        for (Map.Entry<Long, Integer> other : userRatings.entrySet()) {
+            long otherProductId = other.getKey();
+            if (otherProductId == productId) {
+                continue;
+            }
+            PairStats pair = pair(productId, otherProductId, coCountDelta > 0);
+            if (pair == null) {
+                continue; // 압축으로 버려진 쌍은 새로 함께 평가될 때만 다시 센다
+            }
+            pair.dot += (double) scoreDelta * other.getValue();
+            pair.coCount += coCountDelta;
+            if (pair.coCount <= 0) {
+                removePair(productId, otherProductId);
+            }
+            touched.add(otherProductId);
+        }
+
+        if (newScore > 0) {
+            userRatings.put(productId, newScore);
+        } else {
+            userRatings.remove(productId);
+            if (userRatings.isEmpty()) {
+                ratingsByUser.remove(userId);
+            }
+        }
+
+        republish(productId, oldNormSquare, touched);
+        for (Long otherProductId : touched) {
+            updateEntry(otherProductId, productId);
+        }
+    }
+
+    /**
+     * 함께 평가한 사용자 수가 minCoCount 미만인 쌍을 버려 메모리를 제한하고, 모든 목록을 현재 노름으로 다시 게시한다.
+     *
+     * @return 버린 쌍 수
+     */
+    public long compact(int minCoCount) {
+        long dropped = 0;
+        for (Map.Entry<Long, Map<Long, PairStats>> row : pairsByItem.entrySet()) {
+            long productId = row.getKey();
+            for (Iterator<Map.Entry<Long, PairStats>> it = row.getValue().entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, PairStats> entry = it.next();
+                if (entry.getValue().coCount < minCoCount) {
+                    it.remove();
+                    if (productId < entry.getKey()) {
+                        dropped++;
+                    }
+                }
+            }
+        }
+        pairsByItem.values().removeIf(Map::isEmpty);
+        pairCount -= dropped;
+        for (Long productId : new ArrayList<>(published.keySet())) {
+            publish(productId);
+        }
+        return dropped;
+    }
+
+    /**
+     * 평점 행렬 전체로 통계를 한 번에 채운다 (초기 적재, 비어 있을 때만 호출).
+     */
+    public void load(RatingMatrix matrix) {
+        for (int u = 0; u < matrix.userCount(); u++) {
+            long userId = matrix.userId(u);
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                long productId = matrix.itemId(matrix.rowItem(p));
+                int score = matrix.rowScore(p);
+                Map<Long, Integer> userRatings = ratingsByUser.computeIfAbsent(userId, k -> new HashMap<>());
+                normSquares.merge(productId, (double) score * score, Double::sum);
+                for (Map.Entry<Long, Integer> other : userRatings.entrySet()) {
+                    PairStats pair = pair(productId, other.getKey(), true);
+                    pair.dot += (double) score * other.getValue();
+                    pair.coCount++;
+                }
+                userRatings.put(productId, score);
+            }
+        }
+        for (Long productId : new ArrayList<>(normSquares.keySet())) {
+            publish(productId);
+        }
+    }
+
+    // ==========================================
+    // 내부 구현 (쓰기 스레드 전용)
+    // ==========================================
+
+    private PairStats pair(long a, long b, boolean create) {
+        Map<Long, PairStats> row = pairsByItem.get(a);
+        PairStats pair = row == null ? null : row.get(b);
+        if (pair != null || !create) {
+            return pair;
+        }
+        pair = new PairStats();
+        pairsByItem.computeIfAbsent(a, k -> new HashMap<>()).put(b, pair);
+        pairsByItem.computeIfAbsent(b, k -> new HashMap<>()).put(a, pair);
+        pairCount++;
+        return pair;
+    }
+
+    private void removePair(long a, long b) {
+        removeFromRow(a, b);
+        removeFromRow(b, a);
+        pairCount--;
+    }
+
+    private void removeFromRow(long a, long b) {
+        Map<Long, PairStats> row = pairsByItem.get(a);
+        if (row != null) {
+            row.remove(b);
+            if (row.isEmpty()) {
+                pairsByItem.remove(a);
+            }
+        }
+    }
+
+    private float similarity(long a, long b, PairStats pair) {
+        double denominator = Math.sqrt(normSquares.getOrDefault(a, 0.0) * normSquares.getOrDefault(b, 0.0));
+        return denominator == 0 ? 0f : (float) (pair.dot / denominator);
+    }
+
+    /**
+     * 평점이 바뀐 상품의 목록을 기존 상위 K + 바뀐 쌍(touched)만으로 다시 만든다 O(K + touched).
+     * 바뀌지 않은 쌍의 유사도는 노름 비율 √(이전 노름² / 새 노름²)만큼만 변하므로, 목록이 가득 차 있었다면
+     * 목록 밖 쌍은 (이전 K번째 × 그 비율)을 넘지 못한다. 새 목록이 그보다 약해졌으면 전체 쌍에서 다시 만든다.
+     */
+    private void republish(long productId, double oldNormSquare, List<Long> touched) {
+        Neighbours current = published.get(productId);
+        Map<Long, PairStats> row = pairsByItem.get(productId);
+        double newNormSquare = normSquares.getOrDefault(productId, 0.0);
+        if (current == null || row == null || row.isEmpty() || oldNormSquare <= 0 || newNormSquare <= 0) {
+            publish(productId);
+            return;
+        }
+
+        long[] ids = new long[current.size() + touched.size()];
+        float[] sims = new float[ids.length];
+        Set<Long> seen = new HashSet<>();
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            long other = i < current.size() ? current.productIds()[i] : touched.get(i - current.size());
+            PairStats pair = row.get(other);
+            if (!seen.add(other) || pair == null) {
+                continue;
+            }
+            float sim = similarity(productId, other, pair);
+            if (sim > 0) {
+                ids[size] = other;
+                sims[size] = sim;
+                size++;
+            }
+        }
+        Neighbours next = topOf(ids, sims, size);
+
+        if (current.size() >= topK && row.size() > size) {
+            float outsideBound = current.similarities()[current.size() - 1]
+                    * (float) Math.sqrt(oldNormSquare / newNormSquare);
+            if (next.size() < topK || next.similarities()[next.size() - 1] < outsideBound) {
+                publish(productId); // 목록 밖에 더 나은 후보가 있을 수 있다
+                return;
+            }
+        }
+        published.put(productId, next);
+    }
+
+    /** 상품 하나의 상위 K 목록을 전체 쌍에서 다시 만든다 O(이웃 수). 초기 적재/압축/대체 경로 전용 */
+    private void publish(long productId) {
+        Map<Long, PairStats> row = pairsByItem.get(productId);
+        if (row == null || row.isEmpty()) {
+            if (normSquares.getOrDefault(productId, 0.0) > 0) {
+                published.put(productId, Neighbours.EMPTY);
+            } else {
+                published.remove(productId);
+                normSquares.remove(productId);
+            }
+            return;
+        }
+        long[] ids = new long[row.size()];
+        float[] sims = new float[row.size()];
+        int size = 0;
+        for (Map.Entry<Long, PairStats> entry : row.entrySet()) {
+            float sim = similarity(productId, entry.getKey(), entry.getValue());
+            if (sim > 0) {
+                ids[size] = entry.getKey();
+                sims[size] = sim;
+                size++;
+            }
+        }
+        published.put(productId, topOf(ids, sims, size));
+    }
+
+    /** 목록에서 other 항목 하나만 새 유사도로 고친다 O(K). 목록 밖으로 밀려날 수 있으면 전체 재계산 */
+    private void updateEntry(long productId, long other) {
+        Neighbours current = published.get(productId);
+        Map<Long, PairStats> row = pairsByItem.get(productId);
+        PairStats pair = row == null ? null : row.get(other);
+        float sim = pair == null ? 0f : similarity(productId, other, pair);
+        if (current == null) {
+            publish(productId);
+            return;
+        }
+
+        int position = -1;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.productIds()[i] == other) {
+                position = i;
+                break;
+            }
+        }
+        boolean full = current.size() >= topK;
+        float weakest = current.size() == 0 ? 0f : current.similarities()[current.size() - 1];
+        if (position >= 0 && full && sim < weakest) {
+            publish(productId); // 목록 밖의 더 나은 후보가 있을 수 있다
+            return;
+        }
+        if (position < 0 && (sim <= 0 || (full && sim <= weakest))) {
+            return;
+        }
+
+        long[] ids = Arrays.copyOf(current.productIds(), current.size() + 1);
+        float[] sims = Arrays.copyOf(current.similarities(), current.size() + 1);
+        int size = current.size();
+        if (position >= 0) {
+            sims[position] = sim;
+        } else {
+            ids[size] = other;
+            sims[size] = sim;
+            size++;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (sims[i] > 0) {
+                ids[kept] = ids[i];
+                sims[kept] = sims[i];
+                kept++;
+            }
+        }
+        published.put(productId, topOf(ids, sims, kept));
+    }
+
+    /** 유사도 내림차순(같으면 상품 ID 오름차순) 상위 K개. 크기 K인 정렬 배열에 삽입하므로 박싱/전체 정렬이 없다 */
+    private Neighbours topOf(long[] ids, float[] sims, int size) {
+        int k = Math.min(topK, size);
+        long[] topIds = new long[k];
+        float[] topSims = new float[k];
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            if (filled == k && !ranksBefore(sims[i], ids[i], topSims[k - 1], topIds[k - 1])) {
+                continue;
+            }
+            int position = filled == k ? k - 1 : filled++;
+            while (position > 0 && ranksBefore(sims[i], ids[i], topSims[position - 1], topIds[position - 1])) {
+                topIds[position] = topIds[position - 1];
+                topSims[position] = topSims[position - 1];
+                position--;
+            }
+            topIds[position] = ids[i];
+            topSims[position] = sims[i];
+        }
+        return new Neighbours(topIds, topSims);
+    }
+
+    private static boolean ranksBefore(float sim, long id, float otherSim, long otherId) {
+        return sim != otherSim ? sim > otherSim : id < otherId;
+    }
+}
@@ -0,0 +1,200 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.RatingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 평점 변경을 {@link OnlineItemSimilarity}에 바로 반영하는 단일 쓰기 스레드 (item-knn 모드)
+ * <p>
+ * 커밋 이후 받은 평점 변경, 주기적 압축, 전체 재적재를 모두 하나의 대기열에 넣고
+ * 전용 스레드 하나가 순서대로 처리한다. 조회 쪽은 게시된 이웃 목록만 읽으므로 락을 기다리지 않는다.
+ * 야간 배치 인덱스({@link ItemSimilarityEngine#rebuild})를 기다리지 않고 새 평점이 이웃 목록에 바로 반영된다.
+ * 증분 통계는 원점수 코사인만 지원하므로 recommendation.item-similarity.metric=cosine일 때만 동작하고,
+ * 다른 지표가 설정되어 있으면 경고를 남기고 꺼진 채로 배치 인덱스를 쓰게 둔다.
+ * </p>
+ * 대기열이 가득 차 변경을 버리면 통계가 DB와 어긋나므로 다음 압축 주기에 ratings 전체로 다시 적재한다.
+ * 재적재 중 들어온 변경은 재적재 뒤에 처리되고, 이미 스냅샷에 포함된 변경은 점수 차이가 0이라 중복 반영되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OnlineItemSimilarityUpdater {
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode = "jpa";
+
+    @Value("${recommendation.item-similarity.online.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${recommendation.item-similarity.top-k:30}")
+    private int topK = 30;
+
+    @Value("${recommendation.item-similarity.metric:adjusted-cosine}")
+    private String metric = "adjusted-cosine";
+
+    @Value("${recommendation.item-similarity.online.queue-capacity:100000}")
+    private int queueCapacity = 100000;
+
+    /** 압축 시 함께 평가한 사용자 수가 이보다 적은 상품 쌍은 버린다 */
+    @Value("${recommendation.item-similarity.online.min-co-count:2}")
+    private int minCoCount = 2;
+
+    private BlockingQueue<Runnable> queue;
+    private Thread writer;
+    private volatile OnlineItemSimilarity similarity;
+    private final AtomicBoolean resyncRequired = new AtomicBoolean(false);
+    private Counter droppedCounter;
+    private Timer lagTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        droppedCounter = Counter.builder("recommendation.item_similarity.online.dropped")
+                .description("대기열이 가득 차 버려진 평점 변경 수")
+                .register(meterRegistry);
+        lagTimer = Timer.builder("recommendation.item_similarity.online.lag")
+                .description("평점 변경 이벤트 수신부터 이웃 목록 반영까지 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("recommendation.item_similarity.online.queue", this, u -> u.queue.size())
+                .description("반영 대기 중인 평점 변경 수")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.item_similarity.online.pairs", this,
+                        u -> u.similarity == null ? 0 : u.similarity.pairCount())
+                .description("유지 중인 상품 쌍 통계 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (enabled && EngineMode.from(engineMode) == EngineMode.ITEM_KNN && !supportsMetric()) {
+            log.warn("⚠️ 아이템 유사도 증분 갱신은 cosine 지표만 지원합니다 (metric={}) - 증분 갱신 없이 배치 인덱스를 사용합니다",
+                    metric);
+        }
+        if (!isEnabled()) {
+            return;
+        }
+        writer = Thread.ofPlatform().name("item-similarity-writer").daemon(true).start(this::drain);
+        queue.add(this::reload);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    /**
+     * 약한 상품 쌍을 버려 메모리를 제한한다. 버려진 변경이 있었으면 대신 전체 재적재한다.
+     */
+    @Scheduled(cron = "${recommendation.item-similarity.online.compaction-cron:0 */10 * * * *}")
+    public void scheduledCompaction() {
+        if (writer == null) {
+            return;
+        }
+        enqueue(resyncRequired.getAndSet(false) ? this::reload : this::compact);
+    }
+
+    /** 초기 적재가 끝났으면 증분 유지 중인 유사도, 아니면 null */
+    public OnlineItemSimilarity current() {
+        return similarity;
+    }
+
+    /** 적재된 통계로 교체 (테스트/벤치마크에서 DB 없이 주입할 때 사용) */
+    void install(OnlineItemSimilarity loaded) {
+        similarity = loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (writer == null || event.userId() == null || event.productId() == null) {
+            return;
+        }
+        long receivedAt = System.nanoTime();
+        enqueue(() -> {
+            OnlineItemSimilarity current = similarity;
+            if (current != null) {
+                current.apply(event.userId(), event.productId(), event.score());
+                lagTimer.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    // ==========================================
+    // 쓰기 스레드 작업
+    // ==========================================
+
+    private void enqueue(Runnable task) {
+        if (!queue.offer(task)) {
+            droppedCounter.increment();
+            if (resyncRequired.compareAndSet(false, true)) {
+                log.warn("⚠️ 아이템 유사도 증분 대기열 가득 참 - 다음 주기에 전체 재적재합니다 (용량 {})", queueCapacity);
+            }
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("❌ 아이템 유사도 증분 반영 실패: {}", e.getMessage());
+                log.error("스택 트레이스: ", e);
+            }
+        }
+    }
+
+    private void reload() {
+        long startTime = System.nanoTime();
+        OnlineItemSimilarity loaded = new OnlineItemSimilarity(topK);
+        loaded.load(ratingMatrixLoader.load());
+        similarity = loaded;
+        log.info("✅ 아이템 유사도 증분 통계 적재 완료 ({}ms) - 상품 {}개, 상품 쌍 {}개",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), loaded.itemCount(), loaded.pairCount());
+    }
+
+    private void compact() {
+        OnlineItemSimilarity current = similarity;
+        if (current == null) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        long dropped = current.compact(minCoCount);
+        log.info("🧹 아이템 유사도 상품 쌍 압축 ({}ms) - {}개 제거, {}개 유지",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), dropped, current.pairCount());
+    }
+
+    /** 증분 이웃 목록을 유지하는지 (item-knn 모드 + 설정 사용 + cosine 지표). 이때 배치 인덱스는 만들지 않는다 */
+    public boolean isEnabled() {
+        return enabled && EngineMode.from(engineMode) == EngineMode.ITEM_KNN && supportsMetric();
+    }
+
+    private boolean supportsMetric() {
+        return ItemSimilarityIndexBuilder.Metric.from(metric) == ItemSimilarityIndexBuilder.Metric.COSINE;
+    }
+}
@@ -0,0 +1,159 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.config.cache.IdListRedisSerializer;
+import com.commerceweb.config.cache.TimestampedIds;
+import com.commerceweb.event.OrderChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.event.ReviewChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 일괄 사전 계산한 사용자별 추천 순위 저장소 (Redis)
+ * <p>
+ * 요청 경로의 추천 캐시({@link RecommendationCache})와 키 공간을 나눠 두고 TTL을 배치 주기보다 길게 잡는다.
+ * 값 형식은 추천 캐시와 같은 varint ID 목록 + 계산 시각이다.
+ * 쓰기는 파티션 단위로 모아 파이프라인 한 번(SET PX 여러 건)으로 보내 왕복 횟수를 줄인다.
+ * </p>
+ * [무효화] 사용자의 평점/리뷰/주문이 바뀌면 그 사용자의 버전을 올리고 항목을 지워 요청 시 다시 계산하게 한다.
+ * 배치는 계산 전에 읽은 버전이 저장 시점에도 같을 때만 쓰므로 (Lua 스크립트로 비교 후 SET PX),
+ * 계산 도중 무효화된 사용자의 오래된 순위를 다시 써 넣지 않는다.
+ * Redis 오류는 사전 계산 결과가 없는 것으로 취급한다 (요청 경로에서 직접 계산).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrecomputedRecommendationStore {
+
+    private static final String KEY_PREFIX = "recommendations:precomputed:";
+    private static final String VERSION_PREFIX = "recommendations:precomputed:version:";
+    private static final String NO_VERSION = "0";
+
+    /** KEYS[1]=값 키, KEYS[2]=버전 키, ARGV[1]=계산 전 버전, ARGV[2]=값, ARGV[3]=TTL(ms). 버전이 그대로일 때만 쓴다 */
+    private static final byte[] PUT_IF_CURRENT_SCRIPT = (
+            "if (redis.call('get', KEYS[2]) or '" + NO_VERSION + "') ~= ARGV[1] then return 0 end "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdListRedisSerializer idListRedisSerializer;
+
+    /** 사전 계산 결과 보관 시간 (배치 주기 + 여유) */
+    @Value("${recommendation.precompute.ttl:26h}")
+    private Duration ttl = Duration.ofHours(26);
+
+    /**
+     * 사전 계산된 추천 순위. 없거나 Redis 오류면 empty.
+     */
+    public Optional<List<Long>> get(Long userId) {
+        try {
+            byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(key(userId)));
+            Object ids = idListRedisSerializer.deserialize(value);
+            if (ids instanceof TimestampedIds timestamped) {
+                return Optional.of(timestamped.ids());
+            }
+            return Optional.empty();
+        } catch (Exception e) {
+            log.warn("⚠️ 사전 계산 추천 조회 실패 - userId: {}, {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 사용자별 무효화 버전. 계산을 시작하기 전에 읽어 {@link #putAll}에 그대로 넘긴다.
+     * 무효화된 적 없는 사용자는 "0". Redis 오류면 빈 맵 (모두 "0"으로 취급되어, 그 뒤 무효화된 사용자는 쓰지 않는다).
+     */
+    public Map<Long, String> versions(List<Long> userIds) {
+        Map<Long, String> versions = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return versions;
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(userIds.stream().map(id -> VERSION_PREFIX + id).toList());
+            for (int i = 0; i < userIds.size(); i++) {
+                String value = values == null ? null : values.get(i);
+                versions.put(userIds.get(i), value == null ? NO_VERSION : value);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 사전 계산 추천 버전 조회 실패 - 사용자 {}명, {}", userIds.size(), e.getMessage());
+        }
+        return versions;
+    }
+
+    /**
+     * 여러 사용자의 추천 순위를 파이프라인 한 번으로 저장한다.
+     * 사용자의 버전이 versions에 담긴 값(계산 전 버전)과 다르면, 즉 계산 도중 무효화되었으면 쓰지 않는다.
+     *
+     * @return 무효화되어 쓰지 않은 사용자 수
+     */
+    public int putAll(Map<Long, List<Long>> rankedByUser, Map<Long, String> versions, long computedAtMillis) {
+        if (rankedByUser.isEmpty()) {
+            return 0;
+        }
+        byte[] ttlMillis = String.valueOf(ttl.toMillis()).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            rankedByUser.forEach((userId, ids) -> connection.scriptingCommands().eval(PUT_IF_CURRENT_SCRIPT,
+                    ReturnType.INTEGER, 2, key(userId), versionKey(userId),
+                    versions.getOrDefault(userId, NO_VERSION).getBytes(StandardCharsets.UTF_8),
+                    idListRedisSerializer.serialize(new TimestampedIds(ids, computedAtMillis)), ttlMillis));
+            return null;
+        });
+        return (int) results.stream().filter(result -> Long.valueOf(0).equals(result)).count();
+    }
+
+    /**
+     * 사용자의 버전을 올린 뒤 항목을 지운다. 진행 중인 배치가 이 사용자를 계산했어도 버전이 달라 다시 쓰지 않는다.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().incr(versionKey(userId));
+                connection.keyCommands().pExpire(versionKey(userId), ttl.toMillis());
+                connection.keyCommands().del(key(userId));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ 사전 계산 추천 무효화 실패 (TTL 후 만료) - userId: {}, {}", userId, e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        evict(event.userId());
+    }
+
+    private static byte[] key(Long userId) {
+        return (KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] versionKey(Long userId) {
+        return (VERSION_PREFIX + userId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.commerceweb.recommendation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 상품을 (평균 평점 내림차순, 조회수 내림차순, ID 오름차순)으로 항상 정렬된 상태로 유지하는 순위 구조
+ * <p>
+ * 스킵 리스트에 상품당 항목 하나를 두고, 평점/조회수가 바뀌면 기존 항목을 빼고 새 항목을 넣는다(O(log N)).
+ * 상위 N개는 앞에서부터 N개만 읽으면 되므로 전체 정렬이나 DB 조회가 필요 없다.
+ * 전체 순위와 별도로 카테고리별 스킵 리스트를 두어, 카테고리 순위도 같은 방식으로 페이지 단위로 읽는다.
+ * 카테고리가 바뀐 상품은 이전 카테고리에서 빼고 새 카테고리에 넣는다.
+ * </p>
+ * [동시성] 변경은 단일 락으로 직렬화하고, 조회는 락 없이 스킵 리스트를 순회한다.
+ * 변경 도중에는 같은 상품의 이전/새 항목이 잠시 함께 보일 수 있어, 현재 항목과 같은 것만 결과에 넣는다.
+ */
+public final class ProductRanking {
+
+    /**
+     * @param productId     상품 ID
+     * @param category      카테고리 (없으면 null)
+     * @param averageRating 평균 평점
+     * @param viewCount     조회수
+     */
+    public record Entry(long productId, String category, double averageRating, long viewCount) { }
+
+    static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::averageRating).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::viewCount).reversed())
+            .thenComparingLong(Entry::productId);
+
+    private final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<String, ConcurrentSkipListSet<Entry>> rankedByCategory = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> current = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    public int size() {
+        return current.size();
+    }
+
+    public Optional<Entry> get(long productId) {
+        return Optional.ofNullable(current.get(productId));
+    }
+
+    /**
+     * 상품 항목을 추가하거나 최신 값으로 교체한다. 카테고리가 바뀌었으면 카테고리 순위도 옮긴다.
+     */
+    public void upsert(Entry entry) {
+        synchronized (writeLock) {
+            Entry previous = current.put(entry.productId(), entry);
+            replace(ranked, previous, entry);
+
+            String previousCategory = previous == null ? null : previous.category();
+            if (Objects.equals(previousCategory, entry.category())) {
+                if (entry.category() != null) {
+                    replace(categorySet(entry.category()), previous, entry);
+                }
+                return;
+            }
+            if (entry.category() != null) {
+                categorySet(entry.category()).add(entry);
+            }
+            if (previousCategory != null) {
+                removeFromCategory(previous);
+            }
+        }
+    }
+
+    /**
+     * 조회수만 delta만큼 올린다. 순위 구조에 없는 상품이면 무시한다.
+     */
+    public void addViews(long productId, long delta) {
+        synchronized (writeLock) {
+            Entry previous = current.get(productId);
+            if (previous != null) {
+                upsert(new Entry(productId, previous.category(), previous.averageRating(),
+                        previous.viewCount() + delta));
+            }
+        }
+    }
+
+    public void remove(long productId) {
+        synchronized (writeLock) {
+            Entry previous = current.remove(productId);
+            if (previous != null) {
+                ranked.remove(previous);
+                if (previous.category() != null) {
+                    removeFromCategory(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * 전체 항목을 한 번에 교체한다 (초기 적재/주기적 재동기화용).
+     */
+    public void replaceAll(Collection<Entry> entries) {
+        synchronized (writeLock) {
+            Set<Long> retained = new HashSet<>();
+            for (Entry entry : entries) {
+                upsert(entry);
+                retained.add(entry.productId());
+            }
+            List<Long> stale = current.keySet().stream()
+                    .filter(productId -> !retained.contains(productId))
+                    .toList();
+            stale.forEach(this::remove);
+        }
+    }
+
+    /**
+     * 평균 평점이 minRating 이상인 상품 중 상위 limit개 ID (순위 순)
+     */
+    public List<Long> top(int limit, double minRating) {
+        return page(ranked, 0, limit, minRating);
+    }
+
+    /**
+     * 카테고리 순위에서 offset번째부터 limit개 ID (순위 순). 없는 카테고리면 빈 목록.
+     */
+    public List<Long> topInCategory(String category, int offset, int limit) {
+        ConcurrentSkipListSet<Entry> set = category == null ? null : rankedByCategory.get(category);
+        return set == null ? List.of() : page(set, offset, limit, Double.NEGATIVE_INFINITY);
+    }
+
+    private List<Long> page(ConcurrentSkipListSet<Entry> set, int offset, int limit, double minRating) {
+        List<Long> result = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        int skipped = 0;
+        for (Entry entry : set) {
+            if (result.size() >= limit || entry.averageRating() < minRating) {
+                break;
+            }
+            if (!entry.equals(current.get(entry.productId()))) {
+                continue; // 교체 중인 이전 항목
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            result.add(entry.productId());
+        }
+        return result;
+    }
+
+    // ==========================================
+    // 내부 구현 (writeLock을 잡은 상태에서 호출)
+    // ==========================================
+
+    /** 같은 순위 집합 안에서 이전 항목을 새 항목으로 교체 */
+    private static void replace(ConcurrentSkipListSet<Entry> set, Entry previous, Entry entry) {
+        if (previous != null && ORDER.compare(previous, entry) == 0) {
+            // 순위 키가 같으면 (카테고리만 바뀐 경우 등) 같은 위치의 항목만 교체
+            set.remove(previous);
+            set.add(entry);
+            return;
+        }
+        set.add(entry);
+        if (previous != null) {
+            set.remove(previous);
+        }
+    }
+
+    private ConcurrentSkipListSet<Entry> categorySet(String category) {
+        return rankedByCategory.computeIfAbsent(category, k -> new ConcurrentSkipListSet<>(ORDER));
+    }
+
+    private void removeFromCategory(Entry entry) {
+        ConcurrentSkipListSet<Entry> set = rankedByCategory.get(entry.category());
+        if (set != null) {
+            set.remove(entry);
+            if (set.isEmpty()) {
+                rankedByCategory.remove(entry.category());
+            }
+        }
+    }
+}
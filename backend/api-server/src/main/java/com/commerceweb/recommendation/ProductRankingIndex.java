@@ -0,0 +1,215 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.dto.ProductRankingDto;
+import com.commerceweb.entity.Product;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.event.ReviewChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 인기 상품 순위 인덱스 (메모리 상주)
+ * <p>
+ * 시작 시 상품의 (ID, 카테고리, 평점, 조회수)만 한 번 읽어 {@link ProductRanking}을 채우고,
+ * 이후에는 평점/리뷰/상품 변경 이벤트를 커밋 이후에 받아 해당 상품 항목만 갱신한다.
+ * 인기 상품 상위 N개는 정렬된 앞부분만 읽으므로 findHighRatedProducts 전체 스캔이 필요 없고,
+ * 카테고리 순위도 카테고리별 순위에서 페이지만큼만 읽으므로 findByCategory 후 정렬이 필요 없다.
+ * 상품 수정으로 카테고리가 바뀌면 UPDATED 이벤트로 다시 읽어 이전 카테고리에서 새 카테고리로 옮긴다.
+ * </p>
+ * 이벤트는 같은 JVM에서만 전달되므로, 다른 인스턴스에서 일어난 변경은 주기적 재동기화로 맞춘다.
+ * [동시성] 재동기화는 새 순위 구조를 따로 채워 교체한다. 적재 중(첫 적재 전 포함) 바뀐 상품 ID는 따로 모아 두었다가
+ * 교체하기 전에 다시 읽어 반영하므로, 스캔보다 늦게 커밋된 평점이나 스캔 중 등록된 상품이 이전 값으로 덮이지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRankingIndex {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    /** 인기 상품으로 노출할 최소 평균 평점 (findHighRatedProducts와 동일 기준) */
+    @Value("${recommendation.popular.min-rating:4.0}")
+    private double minRating = 4.0;
+
+    private volatile ProductRanking ranking = new ProductRanking();
+    private volatile boolean ready = false;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    /** 재동기화 중 바뀐 상품 ID (새 순위에 다시 반영). 첫 적재 전에 들어온 변경도 모은다 */
+    private Set<Long> pendingChanges = new HashSet<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("recommendation.popular.index.size", this, index -> index.ranking.size())
+                .description("인기 상품 순위 인덱스에 적재된 상품 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(cron = "${recommendation.popular.resync-cron:0 0 * * * *}")
+    public void scheduledResync() {
+        reload();
+    }
+
+    /**
+     * DB의 상품 집계값으로 새 순위를 만들어 교체한다. 이미 적재 중이면 건너뛰고, 실패하면 기존 순위를 유지한다.
+     */
+    public void reload() {
+        if (!reloading.compareAndSet(false, true)) {
+            log.info("⏭️ 인기 상품 순위 인덱스 적재가 이미 진행 중입니다");
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges == null) {
+                pendingChanges = new HashSet<>();
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            List<ProductRankingDto> rows = productRepository.findRankingRows();
+            ProductRanking built = new ProductRanking();
+            built.replaceAll(rows.stream().map(ProductRankingIndex::toEntry).toList());
+            publish(built);
+            log.info("✅ 인기 상품 순위 인덱스 적재 완료 ({}ms) - 상품 {}개",
+                    System.currentTimeMillis() - startTime, built.size());
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                // 아직 순위가 없으면 다음 적재 때 반영하도록 계속 모은다
+                if (ready) {
+                    pendingChanges = null;
+                }
+            }
+            log.error("❌ 인기 상품 순위 인덱스 적재 실패 (기존 순위 유지): {}", e.getMessage());
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    /**
+     * 스캔 중 바뀐 상품을 새 순위에 반영한 뒤 교체한다.
+     * DB 재조회는 잠금 밖에서 하고, 더 반영할 변경이 없을 때만 잠금 안에서 교체한다.
+     */
+    private void publish(ProductRanking built) {
+        while (true) {
+            Set<Long> replay;
+            synchronized (writeLock) {
+                if (pendingChanges.isEmpty()) {
+                    ranking = built;
+                    ready = true;
+                    pendingChanges = null;
+                    return;
+                }
+                replay = pendingChanges;
+                pendingChanges = new HashSet<>();
+            }
+            log.debug("적재 중 바뀐 상품 {}개를 새 순위에 반영", replay.size());
+            replay.forEach(productId -> refresh(built, productId));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 평균 평점이 기준 이상인 상품 중 상위 limit개 ID (평점 → 조회수 순)
+     */
+    public List<Long> topProductIds(int limit) {
+        return ranking.top(limit, minRating);
+    }
+
+    /**
+     * 카테고리 내 순위에서 offset번째부터 limit개 상품 ID (평점 → 조회수 순, 최소 평점 제한 없음)
+     */
+    public List<Long> categoryProductIds(String category, int offset, int limit) {
+        return ranking.topInCategory(category, offset, limit);
+    }
+
+    /**
+     * 상품의 카테고리 (순위 구조에 없거나 카테고리가 없으면 null)
+     */
+    public String categoryOf(long productId) {
+        return ranking.get(productId).map(ProductRanking.Entry::category).orElse(null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (event.productId() != null) {
+            refresh(track(event.productId()), event.productId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.productId() != null) {
+            refresh(track(event.productId()), event.productId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) {
+            return;
+        }
+        ProductRanking current = track(event.productId());
+        switch (event.type()) {
+            case VIEWED -> current.addViews(event.productId(), 1);
+            case DELETED -> current.remove(event.productId());
+            default -> refresh(current, event.productId());
+        }
+    }
+
+    /** 적재 중이면 바뀐 상품 ID를 모으고, 변경을 반영할 현재 순위를 돌려준다 */
+    private ProductRanking track(Long productId) {
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(productId);
+            }
+            return ranking;
+        }
+    }
+
+    /** 커밋된 평균 평점/조회수를 다시 읽어 한 상품만 갱신 */
+    private void refresh(ProductRanking ranking, Long productId) {
+        try {
+            productRepository.findById(productId).ifPresentOrElse(
+                    product -> ranking.upsert(toEntry(product)),
+                    () -> ranking.remove(productId));
+        } catch (Exception e) {
+            log.warn("⚠️ 인기 상품 순위 갱신 실패 (다음 재동기화 때 반영) - productId: {}, {}", productId, e.getMessage());
+        }
+    }
+
+    private static ProductRanking.Entry toEntry(ProductRankingDto row) {
+        return new ProductRanking.Entry(row.id(), row.category(),
+                row.averageRating() == null ? 0.0 : row.averageRating(),
+                row.viewCount() == null ? 0L : row.viewCount());
+    }
+
+    private static ProductRanking.Entry toEntry(Product product) {
+        return toEntry(new ProductRankingDto(product.getId(), product.getCategory(),
+                product.getAverageRating(), product.getViewCount()));
+    }
+}
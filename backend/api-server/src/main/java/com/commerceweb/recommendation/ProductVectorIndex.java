@@ -0,0 +1,179 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 잠재 요인 벡터의 HNSW 근사 최근접 이웃 인덱스
+ * <p>
+ * ALS 모델이 새로 학습될 때마다 상품 요인 벡터로 {@link HnswIndex}를 다시 만들어 교체한다.
+ * 이후 등록된 상품은 학습된 벡터가 없으므로 같은 카테고리 상품 벡터의 평균(중심)으로 바로 삽입하고,
+ * 삭제된 상품은 인덱스에서 삭제 표시해 다음 추천부터 제외한다.
+ * </p>
+ * [동시성] 인덱스 교체와 증분 반영은 단일 락으로 직렬화하고, 조회는 volatile 참조로 락 없이 시작한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductVectorIndex {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.ann.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${recommendation.ann.m:16}")
+    private int m = 16;
+
+    @Value("${recommendation.ann.ef-construction:200}")
+    private int efConstruction = 200;
+
+    @Value("${recommendation.ann.ef-search:100}")
+    private int efSearch = 100;
+
+    private final Object writeLock = new Object();
+    private volatile HnswIndex index;
+    private volatile Map<String, float[]> categoryCentroids = Map.of();
+    /** 재구성 중 들어온 상품 변경 (새 인덱스로 교체한 뒤 다시 반영) */
+    private List<ProductChangedEvent> pendingChanges;
+    private Timer buildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        buildTimer = Timer.builder("recommendation.ann.build")
+                .description("상품 벡터 HNSW 인덱스 전체 구성 시간")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.ann.products", this, e -> e.index == null ? 0 : e.index.size())
+                .description("HNSW 인덱스에 등록된 상품 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return enabled && index != null;
+    }
+
+    /**
+     * 학습된 모델의 상품 벡터 전체로 인덱스를 새로 만든다. 구성 중에는 이전 인덱스로 응답한다.
+     * 구성 중 예외가 나면 이전 인덱스를 유지하고 예외를 그대로 던진다 (호출 측에서 기록).
+     */
+    public void rebuild(AlsModel model) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        long startTime = System.nanoTime();
+        HnswIndex built;
+        long elapsed;
+        try {
+            built = new HnswIndex(model.rank(), m, efConstruction, model.version());
+            for (int i = 0; i < model.itemCount(); i++) {
+                built.insert(model.itemId(i), model.itemVector(i));
+            }
+            Map<String, float[]> centroids = centroids(model);
+            elapsed = System.nanoTime() - startTime;
+            buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+            synchronized (writeLock) {
+                index = built;
+                categoryCentroids = centroids;
+                List<ProductChangedEvent> replay = pendingChanges;
+                pendingChanges = null;
+                replay.forEach(this::apply);
+            }
+        } finally {
+            // 구성이 실패해도 이후 상품 변경이 재생 목록에 계속 쌓이지 않도록
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+        }
+        log.info("✅ 상품 벡터 HNSW 인덱스 교체 완료 ({}ms) - 상품 {}개, M={}, efConstruction={}",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), built.size(), m, efConstruction);
+    }
+
+    /**
+     * 질의 벡터(사용자 요인)와 내적이 큰 상위 limit개 상품 ID (제외 목록 제외)
+     */
+    public List<Long> search(float[] query, int limit, Collection<Long> excludedProductIds) {
+        HnswIndex current = index;
+        if (current == null || query == null) {
+            return List.of();
+        }
+        Set<Long> excluded = new HashSet<>(excludedProductIds);
+        return current.search(query, limit, efSearch, excluded::contains).stream()
+                .map(HnswIndex.Result::id)
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || (event.type() != ProductChangedEvent.Type.CREATED
+                && event.type() != ProductChangedEvent.Type.DELETED)) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        HnswIndex current = index;
+        if (current == null) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            current.delete(event.productId());
+            return;
+        }
+        float[] centroid = categoryCentroids.get(event.category());
+        if (centroid != null && !current.contains(event.productId())) {
+            current.insert(event.productId(), centroid);
+            log.debug("➕ 신규 상품 {} → 카테고리 '{}' 중심 벡터로 HNSW 삽입", event.productId(), event.category());
+        }
+    }
+
+    private Map<String, float[]> centroids(AlsModel model) {
+        Map<String, float[]> sums = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Object[] row : productRepository.findIdAndCategory()) {
+            long productId = ((Number) row[0]).longValue();
+            String category = (String) row[1];
+            int item = model.itemIndex(productId);
+            if (category == null || item < 0) {
+                continue;
+            }
+            float[] sum = sums.computeIfAbsent(category, k -> new float[model.rank()]);
+            float[] vector = model.itemVector(item);
+            for (int f = 0; f < vector.length; f++) {
+                sum[f] += vector[f];
+            }
+            counts.merge(category, 1, Integer::sum);
+        }
+        sums.forEach((category, sum) -> {
+            int count = counts.get(category);
+            for (int f = 0; f < sum.length; f++) {
+                sum[f] /= count;
+            }
+        });
+        return sums;
+    }
+}
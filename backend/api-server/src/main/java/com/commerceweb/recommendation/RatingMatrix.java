@@ -0,0 +1,223 @@
+package com.commerceweb.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 사용자 × 상품 평점을 담는 불변 희소 행렬 스냅샷.
+ * <p>
+ * 같은 데이터를 두 가지 레이아웃으로 보관한다.
+ * <ul>
+ *   <li>CSR(행 압축): 사용자 → 평가한 상품 목록 (상품 인덱스 오름차순)</li>
+ *   <li>CSC(열 압축): 상품 → 평가한 사용자 목록 (사용자 인덱스 오름차순)</li>
+ * </ul>
+ * 외부 ID(Long)는 정렬된 long[]에 한 번만 저장하고, 내부에서는 int 인덱스와 byte 점수만 사용하므로
+ * 평점 1건당 약 10바이트(CSR 5 + CSC 5)로 표현된다.
+ * </p>
+ */
+public final class RatingMatrix {
+
+    private static final RatingMatrix EMPTY = new RatingMatrix(
+            new long[0], new long[0], new int[1], new int[0], new byte[0], new int[1], new int[0], new byte[0]);
+
+    private final long[] userIds;     // 사용자 인덱스 → 사용자 ID (오름차순)
+    private final long[] itemIds;     // 상품 인덱스 → 상품 ID (오름차순)
+
+    private final int[] rowPtr;       // CSR: 사용자 u의 평점은 [rowPtr[u], rowPtr[u+1])
+    private final int[] rowItems;
+    private final byte[] rowScores;
+
+    private final int[] colPtr;       // CSC: 상품 i의 평점은 [colPtr[i], colPtr[i+1])
+    private final int[] colUsers;
+    private final byte[] colScores;
+
+    private RatingMatrix(long[] userIds, long[] itemIds,
+                         int[] rowPtr, int[] rowItems, byte[] rowScores,
+                         int[] colPtr, int[] colUsers, byte[] colScores) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.rowPtr = rowPtr;
+        this.rowItems = rowItems;
+        this.rowScores = rowScores;
+        this.colPtr = colPtr;
+        this.colUsers = colUsers;
+        this.colScores = colScores;
+    }
+
+    public static RatingMatrix empty() {
+        return EMPTY;
+    }
+
+    /**
+     * (사용자, 상품, 점수) 평행 배열로부터 행렬을 만든다.
+     * 같은 (사용자, 상품) 쌍은 한 번만 들어온다고 가정한다 (ratings 테이블의 유니크 제약).
+     *
+     * @param users  사용자 ID 배열
+     * @param items  상품 ID 배열
+     * @param scores 점수 배열 (1~5)
+     * @param size   유효한 원소 개수 (배열 앞쪽 size개만 사용)
+     */
+    public static RatingMatrix build(long[] users, long[] items, byte[] scores, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        long[] userIds = distinctSorted(users, size);
+        long[] itemIds = distinctSorted(items, size);
+        int userCount = userIds.length;
+        int itemCount = itemIds.length;
+
+        int[] u = new int[size];
+        int[] it = new int[size];
+        for (int k = 0; k < size; k++) {
+            u[k] = Arrays.binarySearch(userIds, users[k]);
+            it[k] = Arrays.binarySearch(itemIds, items[k]);
+        }
+
+        // 1) 상품 기준 버킷 정렬 (임시)
+        int[] tmpPtr = prefixCounts(it, size, itemCount);
+        int[] byItem = new int[size];
+        int[] cursor = Arrays.copyOf(tmpPtr, itemCount);
+        for (int k = 0; k < size; k++) {
+            byItem[cursor[it[k]]++] = k;
+        }
+
+        // 2) 상품 순서대로 행에 흩뿌리면 각 행(CSR)이 상품 인덱스 오름차순이 된다
+        int[] rowPtr = prefixCounts(u, size, userCount);
+        int[] rowItems = new int[size];
+        byte[] rowScores = new byte[size];
+        cursor = Arrays.copyOf(rowPtr, userCount);
+        for (int k : byItem) {
+            int pos = cursor[u[k]]++;
+            rowItems[pos] = it[k];
+            rowScores[pos] = scores[k];
+        }
+
+        // 3) 사용자 순서대로 열에 흩뿌리면 각 열(CSC)이 사용자 인덱스 오름차순이 된다
+        int[] colPtr = tmpPtr;
+        int[] colUsers = new int[size];
+        byte[] colScores = new byte[size];
+        cursor = Arrays.copyOf(colPtr, itemCount);
+        for (int user = 0; user < userCount; user++) {
+            for (int p = rowPtr[user]; p < rowPtr[user + 1]; p++) {
+                int pos = cursor[rowItems[p]]++;
+                colUsers[pos] = user;
+                colScores[pos] = rowScores[p];
+            }
+        }
+
+        return new RatingMatrix(userIds, itemIds, rowPtr, rowItems, rowScores, colPtr, colUsers, colScores);
+    }
+
+    private static long[] distinctSorted(long[] values, int size) {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int k = 0; k < size; k++) {
+            if (n == 0 || sorted[n - 1] != sorted[k]) {
+                sorted[n++] = sorted[k];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] prefixCounts(int[] keys, int size, int keyCount) {
+        int[] ptr = new int[keyCount + 1];
+        for (int k = 0; k < size; k++) {
+            ptr[keys[k] + 1]++;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            ptr[k + 1] += ptr[k];
+        }
+        return ptr;
+    }
+
+    // ==========================================
+    // 조회 API
+    // ==========================================
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int nonZeroCount() {
+        return rowItems.length;
+    }
+
+    /** 사용자 ID → 내부 인덱스 (없으면 음수) */
+    public int userIndex(long userId) {
+        return Arrays.binarySearch(userIds, userId);
+    }
+
+    /** 상품 ID → 내부 인덱스 (없으면 음수) */
+    public int itemIndex(long productId) {
+        return Arrays.binarySearch(itemIds, productId);
+    }
+
+    public long userId(int userIndex) {
+        return userIds[userIndex];
+    }
+
+    public long itemId(int itemIndex) {
+        return itemIds[itemIndex];
+    }
+
+    public int rowStart(int userIndex) {
+        return rowPtr[userIndex];
+    }
+
+    public int rowEnd(int userIndex) {
+        return rowPtr[userIndex + 1];
+    }
+
+    public int rowItem(int position) {
+        return rowItems[position];
+    }
+
+    public byte rowScore(int position) {
+        return rowScores[position];
+    }
+
+    public int colStart(int itemIndex) {
+        return colPtr[itemIndex];
+    }
+
+    public int colEnd(int itemIndex) {
+        return colPtr[itemIndex + 1];
+    }
+
+    public int colUser(int position) {
+        return colUsers[position];
+    }
+
+    public byte colScore(int position) {
+        return colScores[position];
+    }
+
+    /**
+     * 사용자가 상품에 준 점수 (없으면 0). 행이 정렬되어 있으므로 이진 탐색.
+     */
+    public byte score(int userIndex, int itemIndex) {
+        int pos = Arrays.binarySearch(rowItems, rowPtr[userIndex], rowPtr[userIndex + 1], itemIndex);
+        return pos >= 0 ? rowScores[pos] : 0;
+    }
+
+    /**
+     * 행렬이 점유하는 힙 메모리 추정치 (배열 페이로드 + 배열 헤더 16바이트씩).
+     */
+    public long memoryFootprintBytes() {
+        long bytes = 0;
+        bytes += 16L + 8L * userIds.length;
+        bytes += 16L + 8L * itemIds.length;
+        bytes += 16L + 4L * rowPtr.length;
+        bytes += 16L + 4L * rowItems.length;
+        bytes += 16L + rowScores.length;
+        bytes += 16L + 4L * colPtr.length;
+        bytes += 16L + 4L * colUsers.length;
+        bytes += 16L + colScores.length;
+        return bytes;
+    }
+}
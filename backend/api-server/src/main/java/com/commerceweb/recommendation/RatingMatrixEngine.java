@@ -0,0 +1,412 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.RatingChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메모리 상주 희소 평점 행렬 기반 협업 필터링 엔진
+ * <p>
+ * 애플리케이션 시작 시 ratings 테이블을 한 번 읽어 {@link RatingMatrix}(CSR/CSC)를 만들고,
+ * 이후 평점 변경은 {@link RatingChangedEvent}로 받아 작은 증분(delta) 맵에 반영한다.
+ * 증분이 임계치를 넘으면 스케줄러 스레드가 스냅샷 + 증분을 합쳐 새 행렬로 교체(compaction)한다.
+ * </p>
+ * [동시성]
+ * - 읽기: volatile 스냅샷 참조 한 번으로 락 없이 수행
+ * - 쓰기: 커밋 스레드는 잠금 안에서 증분 맵에 넣기만 한다
+ * - 재구성: 시작 시 잠금 안에서 증분 맵을 복사해 고정하고, 행렬 생성은 잠금 밖에서 한다.
+ *   그동안 들어온 평점은 다음 증분 맵에도 함께 넣어 교체 후에도 유지한다
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingMatrixEngine {
+
+    private static final byte DELETED = 0;
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode;
+
+    @Value("${recommendation.matrix.compaction-threshold:10000}")
+    private int compactionThreshold;
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(RatingMatrix.empty(), new Delta());
+    private volatile boolean ready = false;
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    /** 재구성 중 들어온 평점 (교체 후 새 행렬 위의 증분 맵이 된다). 재구성 중이 아니면 null */
+    private Delta nextDelta;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("recommendation.matrix.memory", this, RatingMatrixEngine::memoryFootprintBytes)
+                .description("희소 평점 행렬 + 증분 맵 메모리 추정치")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.matrix.ratings", this, e -> e.snapshot.matrix().nonZeroCount())
+                .description("스냅샷에 적재된 평점 수")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.matrix.delta", this, e -> e.snapshot.delta().size.get())
+                .description("아직 스냅샷에 합쳐지지 않은 증분 평점 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (EngineMode.from(engineMode) != EngineMode.MATRIX) {
+            log.info("📴 평점 행렬 엔진 비활성화 (recommendation.engine.mode={})", engineMode);
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * ratings 테이블 전체를 다시 읽어 행렬을 만든다.
+     * 적재 중 들어온 평점 변경은 새 증분 맵에 쌓였다가 새 스냅샷 위에 그대로 덮어써진다.
+     */
+    public void reload() {
+        Delta delta = new Delta();
+        synchronized (writeLock) {
+            ready = false;
+            snapshot = new Snapshot(RatingMatrix.empty(), delta);
+            nextDelta = null;
+        }
+
+        long startTime = System.currentTimeMillis();
+        RatingMatrix matrix = ratingMatrixLoader.load();
+        synchronized (writeLock) {
+            snapshot = new Snapshot(matrix, delta);
+            ready = true;
+        }
+
+        log.info("✅ 평점 행렬 적재 완료 ({}ms) - 사용자 {}명, 상품 {}개, 평점 {}건, 메모리 약 {}KB",
+                System.currentTimeMillis() - startTime, matrix.userCount(), matrix.itemCount(),
+                matrix.nonZeroCount(), matrix.memoryFootprintBytes() / 1024);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==========================================
+    // 증분 반영
+    // ==========================================
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (EngineMode.from(engineMode) != EngineMode.MATRIX) {
+            return;
+        }
+        byte score = event.isDeleted() ? DELETED : event.score().byteValue();
+        apply(event.userId(), event.productId(), score);
+    }
+
+    void apply(long userId, long productId, byte score) {
+        synchronized (writeLock) {
+            put(snapshot.delta(), userId, productId, score);
+            if (nextDelta != null) {
+                put(nextDelta, userId, productId, score);
+            }
+        }
+    }
+
+    private static void put(Delta delta, long userId, long productId, byte score) {
+        Byte previous = delta.byUser.computeIfAbsent(userId, k -> new ConcurrentHashMap<>()).put(productId, score);
+        delta.byItem.computeIfAbsent(productId, k -> new ConcurrentHashMap<>()).put(userId, score);
+        if (previous == null) {
+            delta.size.incrementAndGet();
+        }
+    }
+
+    /** 증분이 임계치를 넘었으면 커밋 스레드가 아닌 스케줄러 스레드에서 행렬을 재구성한다 */
+    @Scheduled(fixedDelayString = "${recommendation.matrix.compaction-check-delay:5s}")
+    public void compactIfNeeded() {
+        if (ready && snapshot.delta().size.get() >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * 스냅샷과 증분을 합쳐 새 CSR/CSC 행렬을 만들고 교체한다.
+     * 시작할 때 잠금 안에서 증분 맵을 복사해 고정하고 그 복사본만 합친다.
+     * 만드는 동안 들어온 평점은 nextDelta에 쌓여 새 행렬 위의 증분 맵이 된다.
+     * 그사이 reload()로 스냅샷이 바뀌었으면 만든 행렬은 버린다.
+     */
+    void compact() {
+        compact(() -> { });
+    }
+
+    /** @param afterSnapshotRows 스냅샷 행을 다 옮긴 뒤 증분을 합치기 전에 실행 (테스트에서 재구성 중 쓰기를 끼워 넣는 용도) */
+    void compact(Runnable afterSnapshotRows) {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Snapshot current;
+        Map<Long, Map<Long, Byte>> frozen;
+        synchronized (writeLock) {
+            current = snapshot;
+            frozen = current.delta().copyByUser();
+            nextDelta = new Delta();
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            RatingMatrix compacted = merge(current.matrix(), frozen, afterSnapshotRows);
+            synchronized (writeLock) {
+                if (snapshot != current) {
+                    log.info("⏭️ 재구성 중 평점 행렬이 다시 적재되어 결과를 버립니다");
+                    return;
+                }
+                snapshot = new Snapshot(compacted, nextDelta);
+            }
+            log.info("♻️ 평점 행렬 재구성 완료 ({}ms) - 평점 {}건", System.currentTimeMillis() - startTime, compacted.nonZeroCount());
+        } catch (Exception e) {
+            log.error("❌ 평점 행렬 재구성 실패 (기존 스냅샷 유지): {}", e.getMessage());
+        } finally {
+            synchronized (writeLock) {
+                nextDelta = null;
+            }
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * 스냅샷 행렬 + 고정된 증분 복사본을 합친 새 행렬.
+     * 살아 있는 증분 맵을 읽으면 첫 루프에서 옮긴 사용자가 두 번째 루프에서 다시 나타나
+     * 같은 (사용자, 상품) 쌍이 중복될 수 있으므로 반드시 복사본을 넘긴다.
+     */
+    private static RatingMatrix merge(RatingMatrix matrix, Map<Long, Map<Long, Byte>> frozen, Runnable afterSnapshotRows) {
+        int deltaSize = 0;
+        for (Map<Long, Byte> userDelta : frozen.values()) {
+            deltaSize += userDelta.size();
+        }
+        long[] users = new long[matrix.nonZeroCount() + deltaSize];
+        long[] items = new long[users.length];
+        byte[] scores = new byte[users.length];
+        int[] size = {0};
+
+        for (int u = 0; u < matrix.userCount(); u++) {
+            long userId = matrix.userId(u);
+            if (frozen.containsKey(userId)) {
+                continue;
+            }
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                users[size[0]] = userId;
+                items[size[0]] = matrix.itemId(matrix.rowItem(p));
+                scores[size[0]] = matrix.rowScore(p);
+                size[0]++;
+            }
+        }
+        afterSnapshotRows.run();
+        for (Map.Entry<Long, Map<Long, Byte>> entry : frozen.entrySet()) {
+            long userId = entry.getKey();
+            forEachRating(matrix, entry.getValue(), userId, (productId, score) -> {
+                users[size[0]] = userId;
+                items[size[0]] = productId;
+                scores[size[0]] = score;
+                size[0]++;
+            });
+        }
+        return RatingMatrix.build(users, items, scores, size[0]);
+    }
+
+    // ==========================================
+    // 추천 계산
+    // ==========================================
+
+    /**
+     * 사용자 기반 협업 필터링 (JPA 경로와 동일한 규칙)
+     * 1. 공통 평가 상품 수가 많은 순으로 이웃 neighbourCount명 선택
+     * 2. 이웃이 평가한 상품 중 사용자가 평가하지 않은 상품의 예상 점수 계산
+     * 3. 예상 점수 내림차순 상위 limit개 상품 ID 반환
+     *
+     * @return 추천 상품 ID 목록. 평가 이력이나 이웃이 없으면 빈 리스트
+     */
+    public List<Long> recommend(long userId, int neighbourCount, int limit) {
+        Snapshot current = snapshot;
+
+        long[] ratedItems = ratedItemIds(current, userId);
+        if (ratedItems.length == 0) {
+            return List.of();
+        }
+
+        long[] neighbours = findNeighbours(current, userId, ratedItems, neighbourCount);
+        if (neighbours.length == 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> productScores = new HashMap<>();
+        for (long neighbour : neighbours) {
+            forEachRating(current, neighbour, (productId, score) -> {
+                if (Arrays.binarySearch(ratedItems, productId) >= 0) {
+                    return;
+                }
+                productScores.merge(productId, (double) score, (oldVal, newVal) -> (oldVal + newVal) / 2);
+            });
+        }
+
+        return productScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** 사용자가 평가한 상품 ID (오름차순) */
+    private long[] ratedItemIds(Snapshot current, long userId) {
+        long[][] buffer = {new long[8]};
+        int[] size = {0};
+        forEachRating(current, userId, (productId, score) -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = productId;
+        });
+        long[] result = Arrays.copyOf(buffer[0], size[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * CSC 열을 따라 공통 평가 수를 세고 상위 K명을 고른다 (동점이면 사용자 ID 오름차순).
+     */
+    private long[] findNeighbours(Snapshot current, long userId, long[] ratedItems, int neighbourCount) {
+        RatingMatrix matrix = current.matrix();
+        int[] counts = new int[matrix.userCount()];
+        int[] touched = new int[16];
+        int touchedSize = 0;
+        Map<Long, Integer> deltaOnlyCounts = new HashMap<>();
+        int self = matrix.userIndex(userId);
+
+        for (long productId : ratedItems) {
+            Map<Long, Byte> itemDelta = current.delta().byItem.getOrDefault(productId, Map.of());
+            int item = matrix.itemIndex(productId);
+            if (item >= 0) {
+                for (int p = matrix.colStart(item); p < matrix.colEnd(item); p++) {
+                    int rater = matrix.colUser(p);
+                    if (rater == self || itemDelta.containsKey(matrix.userId(rater))) {
+                        continue;
+                    }
+                    if (counts[rater]++ == 0) {
+                        if (touchedSize == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedSize * 2);
+                        }
+                        touched[touchedSize++] = rater;
+                    }
+                }
+            }
+            for (Map.Entry<Long, Byte> entry : itemDelta.entrySet()) {
+                long raterId = entry.getKey();
+                if (entry.getValue() == DELETED || raterId == userId) {
+                    continue;
+                }
+                int rater = matrix.userIndex(raterId);
+                if (rater < 0) {
+                    deltaOnlyCounts.merge(raterId, 1, Integer::sum);
+                } else if (counts[rater]++ == 0) {
+                    if (touchedSize == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedSize * 2);
+                    }
+                    touched[touchedSize++] = rater;
+                }
+            }
+        }
+
+        // 상위 K 선택: (공통 수 오름차순, ID 내림차순) 최소 힙 → 루트가 가장 약한 후보
+        Comparator<long[]> weakestFirst = Comparator.<long[]>comparingLong(c -> c[1])
+                .thenComparing(c -> -c[0]);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(neighbourCount + 1, weakestFirst);
+        for (int k = 0; k < touchedSize; k++) {
+            offer(heap, new long[]{matrix.userId(touched[k]), counts[touched[k]]}, neighbourCount, weakestFirst);
+        }
+        for (Map.Entry<Long, Integer> entry : deltaOnlyCounts.entrySet()) {
+            offer(heap, new long[]{entry.getKey(), entry.getValue()}, neighbourCount, weakestFirst);
+        }
+
+        long[] result = new long[heap.size()];
+        for (int k = result.length - 1; k >= 0; k--) {
+            result[k] = heap.poll()[0];
+        }
+        return result;
+    }
+
+    private static void offer(PriorityQueue<long[]> heap, long[] candidate, int capacity, Comparator<long[]> order) {
+        if (heap.size() < capacity) {
+            heap.add(candidate);
+        } else if (order.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    /**
+     * 스냅샷 행과 증분 맵을 합친 사용자의 평점 목록을 순회한다 (증분이 우선, 삭제 표시는 제외).
+     */
+    private static void forEachRating(Snapshot current, long userId, RatingVisitor visitor) {
+        forEachRating(current.matrix(), current.delta().byUser.getOrDefault(userId, Map.of()), userId, visitor);
+    }
+
+    private static void forEachRating(RatingMatrix matrix, Map<Long, Byte> userDelta, long userId, RatingVisitor visitor) {
+        int u = matrix.userIndex(userId);
+        if (u >= 0) {
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                long productId = matrix.itemId(matrix.rowItem(p));
+                if (!userDelta.containsKey(productId)) {
+                    visitor.accept(productId, matrix.rowScore(p));
+                }
+            }
+        }
+        for (Map.Entry<Long, Byte> entry : userDelta.entrySet()) {
+            if (entry.getValue() != DELETED) {
+                visitor.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 현재 스냅샷 행렬 + 증분 맵의 메모리 추정치 (증분 항목은 박싱/엔트리 오버헤드 포함 약 2×64바이트)
+     */
+    public long memoryFootprintBytes() {
+        Snapshot current = snapshot;
+        return current.matrix().memoryFootprintBytes() + current.delta().size.get() * 128L;
+    }
+
+    @FunctionalInterface
+    interface RatingVisitor {
+        void accept(long id, byte score);
+    }
+
+    private record Snapshot(RatingMatrix matrix, Delta delta) { }
+
+    /** 스냅샷 이후 변경분. 값이 DELETED(0)이면 삭제 표시 */
+    private static final class Delta {
+        final Map<Long, Map<Long, Byte>> byUser = new ConcurrentHashMap<>();
+        final Map<Long, Map<Long, Byte>> byItem = new ConcurrentHashMap<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        /** 사용자별 증분의 깊은 복사본 (writeLock 안에서 호출) */
+        Map<Long, Map<Long, Byte>> copyByUser() {
+            Map<Long, Map<Long, Byte>> copy = new HashMap<>(byUser.size() * 2);
+            byUser.forEach((userId, ratings) -> copy.put(userId, Map.copyOf(ratings)));
+            return copy;
+        }
+    }
+}
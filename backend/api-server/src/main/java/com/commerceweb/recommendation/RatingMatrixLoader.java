@@ -0,0 +1,60 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.dto.RatingTupleDto;
+import com.commerceweb.repository.RatingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ratings 테이블 전체를 키셋 스캔(id > 마지막 id)으로 읽어 {@link RatingMatrix}를 만드는 적재기.
+ * 평점 행렬 엔진과 아이템 유사도 인덱스 빌더가 함께 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingMatrixLoader {
+
+    private final RatingRepository ratingRepository;
+
+    @Value("${recommendation.matrix.load-batch-size:50000}")
+    private int loadBatchSize;
+
+    public RatingMatrix load() {
+        long startTime = System.currentTimeMillis();
+        long[] users = new long[Math.max(loadBatchSize, 16)];
+        long[] items = new long[users.length];
+        byte[] scores = new byte[users.length];
+        int size = 0;
+        long afterId = 0L;
+
+        while (true) {
+            List<RatingTupleDto> batch = ratingRepository.findRatingTuplesAfter(afterId, PageRequest.of(0, loadBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            if (size + batch.size() > users.length) {
+                int capacity = Math.max(users.length * 2, size + batch.size());
+                users = Arrays.copyOf(users, capacity);
+                items = Arrays.copyOf(items, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            for (RatingTupleDto tuple : batch) {
+                users[size] = tuple.userId();
+                items[size] = tuple.productId();
+                scores[size] = tuple.score().byteValue();
+                size++;
+            }
+            afterId = batch.get(batch.size() - 1).id();
+        }
+
+        RatingMatrix matrix = RatingMatrix.build(users, items, scores, size);
+        log.debug("평점 {}건 적재 ({}ms)", size, System.currentTimeMillis() - startTime);
+        return matrix;
+    }
+}
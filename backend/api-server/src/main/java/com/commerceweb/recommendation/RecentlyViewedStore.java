@@ -0,0 +1,122 @@
+package com.commerceweb.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 방문자(세션)별 최근 본 상품 링 버퍼 (Redis 리스트)
+ * <p>
+ * 로그인 사용자는 사용자 ID로도 같은 링 버퍼를 하나 더 둔다 (하이브리드 추천의 최근 본 상품 소스용).
+ * </p>
+ * <p>
+ * 상품 상세를 볼 때마다 같은 상품을 지우고 맨 앞에 넣은 뒤 capacity개로 자르므로,
+ * 세션 하나가 쓰는 메모리는 capacity개 ID로 제한되고 가장 오래 전에 본 상품부터 밀려난다.
+ * 네 명령(LREM, LPUSH, LTRIM, PEXPIRE)은 파이프라인 한 번으로 보낸다.
+ * </p>
+ * [만료] 보관 시간(ttl)은 마지막으로 본 시점부터 다시 센다. 한동안 아무것도 보지 않은 세션은 통째로 만료되므로
+ * 세션 저장소 전체 크기는 "ttl 안에 활동한 세션 수 × capacity"를 넘지 않는다.
+ * Redis 오류는 기록 실패/빈 목록으로 취급한다 (상품 조회와 추천은 계속 동작).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecentlyViewedStore {
+
+    private static final String KEY_PREFIX = "recently-viewed:";
+    private static final String USER_KEY_PREFIX = "recently-viewed:user:";
+
+    /** 쿠키로 들어온 세션 ID는 UUID 형식만 받는다 (임의 문자열로 키를 만들지 않도록) */
+    private static final Pattern SESSION_ID = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+    private final StringRedisTemplate redisTemplate;
+
+    /** 세션당 보관할 최근 본 상품 수 */
+    @Value("${recommendation.recently-viewed.capacity:20}")
+    private int capacity = 20;
+
+    /** 마지막 조회 후 세션 보관 시간 */
+    @Value("${recommendation.recently-viewed.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    public static boolean isValidSessionId(String sessionId) {
+        return sessionId != null && SESSION_ID.matcher(sessionId).matches();
+    }
+
+    /**
+     * 세션의 최근 본 상품 맨 앞에 productId를 넣는다. 세션 ID가 없거나 형식이 다르면 무시한다.
+     */
+    public void record(String sessionId, Long productId) {
+        if (isValidSessionId(sessionId)) {
+            push(KEY_PREFIX + sessionId, productId);
+        }
+    }
+
+    /**
+     * 로그인 사용자의 최근 본 상품 맨 앞에 productId를 넣는다. 사용자 ID가 없으면 무시한다.
+     */
+    public void recordForUser(Long userId, Long productId) {
+        if (userId != null) {
+            push(USER_KEY_PREFIX + userId, productId);
+        }
+    }
+
+    /**
+     * 최근 본 순서의 상품 ID (가장 최근이 먼저). 없거나 Redis 오류면 빈 목록.
+     */
+    public List<Long> recent(String sessionId) {
+        return isValidSessionId(sessionId) ? range(KEY_PREFIX + sessionId) : List.of();
+    }
+
+    /**
+     * 로그인 사용자가 최근 본 순서의 상품 ID (가장 최근이 먼저). 없거나 Redis 오류면 빈 목록.
+     */
+    public List<Long> recentForUser(Long userId) {
+        return userId == null ? List.of() : range(USER_KEY_PREFIX + userId);
+    }
+
+    private void push(String key, Long productId) {
+        if (productId == null) {
+            return;
+        }
+        String value = productId.toString();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                commands.lRem(key, 0, value);
+                commands.lPush(key, value);
+                commands.lTrim(key, 0, capacity - 1);
+                commands.pExpire(key, ttl.toMillis());
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ 최근 본 상품 기록 실패 - productId: {}, {}", productId, e.getMessage());
+        }
+    }
+
+    private List<Long> range(String key) {
+        try {
+            List<String> values = redisTemplate.opsForList().range(key, 0, capacity - 1);
+            if (values == null) {
+                return List.of();
+            }
+            List<Long> productIds = new ArrayList<>(values.size());
+            for (String value : values) {
+                productIds.add(Long.valueOf(value));
+            }
+            return productIds;
+        } catch (Exception e) {
+            log.warn("⚠️ 최근 본 상품 조회 실패: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.config.cache.StaleWhileRevalidate;
+import com.commerceweb.event.OrderChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.event.ReviewChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 사용자별 추천 순위(상품 ID 목록) 캐시
+ * <p>
+ * limit마다 따로 저장하지 않고 사용자당 최대 깊이까지 계산한 순위 하나만 userId 키로 저장한 뒤,
+ * 요청한 limit만큼 잘라서 쓴다. 상품 상세는 캐시하지 않고 매번 ID로 조회하므로 가격/재고 변경이 바로 보인다.
+ * </p>
+ * [무효화] 해당 사용자의 평점/리뷰/주문이 바뀌면 커밋 이후 그 사용자의 버전(Redis)을 올리고 항목을 삭제한다.
+ * 요청 경로의 계산은 시작 전에 읽은 버전을 {@link #put}에 넘기고, 저장 전후로 버전이 바뀌었으면 저장하지 않거나 지운다.
+ * 그래서 계산 도중 무효화된 사용자의 오래된 순위가 캐시에 남지 않는다.
+ * [만료] 값에 계산 시각을 함께 저장하고 {@link StaleWhileRevalidate} 정책으로 읽는다.
+ * TTL이 지난 것만으로는 요청이 재계산을 기다리지 않는다 (오래된 순위를 주고 백그라운드에서 갱신).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationCache {
+
+    public static final String CACHE_NAME = "recommendations";
+
+    private static final String VERSION_PREFIX = "recommendations:version:";
+    private static final String NO_VERSION = "0";
+
+    private final CacheManager cacheManager;
+    private final StaleWhileRevalidate staleWhileRevalidate;
+    private final StringRedisTemplate redisTemplate;
+
+    /** 버전 키 보관 시간 (캐시 항목의 hard TTL과 같게 둔다) */
+    @Value("${cache.swr.hard-ttl:1h}")
+    private Duration versionTtl = Duration.ofHours(1);
+
+    /**
+     * 캐시된 추천 순위 (미적중이면 empty). 갱신 예약 없이 hard TTL 이내의 값만 본다.
+     */
+    public Optional<List<Long>> get(Long userId) {
+        return staleWhileRevalidate.peek(CACHE_NAME, userId);
+    }
+
+    /**
+     * 캐시된 추천 순위. soft TTL이 지났으면 값은 그대로 주고 refresh를 백그라운드로 예약한다.
+     *
+     * @param refresh 순위를 다시 계산해 {@link #put}까지 하는 작업
+     * @return 미적중이거나 hard TTL이 지났으면 empty
+     */
+    public Optional<List<Long>> get(Long userId, Runnable refresh) {
+        return staleWhileRevalidate.lookup(CACHE_NAME, userId, refresh);
+    }
+
+    /**
+     * 사용자의 무효화 버전. 순위를 계산하기 전에 읽어 {@link #put}에 그대로 넘긴다.
+     * 무효화된 적 없는 사용자는 "0", Redis 오류면 null (버전 확인 없이 저장).
+     */
+    public String version(Long userId) {
+        try {
+            String version = redisTemplate.opsForValue().get(VERSION_PREFIX + userId);
+            return version == null ? NO_VERSION : version;
+        } catch (Exception e) {
+            log.warn("⚠️ 추천 캐시 버전 조회 실패 - userId: {}, {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 추천 순위를 저장한다. 계산 전 버전과 지금 버전이 다르면, 즉 계산 도중 무효화되었으면 저장하지 않는다.
+     * 확인과 저장 사이에 무효화가 끼어들 수 있으므로 저장 후 한 번 더 확인해 달라졌으면 지운다
+     * ({@link #evict}는 버전을 먼저 올리므로, 저장 후 확인이 놓친 무효화는 그 삭제가 저장보다 뒤에 온다).
+     *
+     * @param versionBeforeCompute 계산 전에 {@link #version}으로 읽은 값 (null이면 확인 없이 저장)
+     * @return 저장해서 남아 있으면 true, 무효화되어 저장하지 않았거나 지웠으면 false
+     */
+    public boolean put(Long userId, List<Long> rankedProductIds, String versionBeforeCompute) {
+        if (!isCurrent(userId, versionBeforeCompute)) {
+            log.debug("⏭️ 계산 도중 무효화된 추천 순위는 저장하지 않음 - userId: {}", userId);
+            return false;
+        }
+        staleWhileRevalidate.put(CACHE_NAME, userId, rankedProductIds);
+        if (!isCurrent(userId, versionBeforeCompute)) {
+            staleWhileRevalidate.evict(CACHE_NAME, userId);
+            log.debug("🧹 저장 직후 무효화된 추천 순위 삭제 - userId: {}", userId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 사용자의 버전을 올린 뒤 항목을 지운다. 진행 중인 요청 경로 계산이 이 사용자를 계산했어도 버전이 달라 남지 않는다.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().increment(VERSION_PREFIX + userId);
+            redisTemplate.expire(VERSION_PREFIX + userId, versionTtl);
+        } catch (Exception e) {
+            log.warn("⚠️ 추천 캐시 버전 갱신 실패 - userId: {}, {}", userId, e.getMessage());
+        }
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(userId);
+            log.debug("🧹 추천 캐시 무효화 - userId: {}", userId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        evict(event.userId());
+    }
+
+    private boolean isCurrent(Long userId, String versionBeforeCompute) {
+        if (versionBeforeCompute == null) {
+            return true;
+        }
+        String current = version(userId);
+        return current == null || Objects.equals(current, versionBeforeCompute);
+    }
+}
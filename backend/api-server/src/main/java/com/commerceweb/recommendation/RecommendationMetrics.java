@@ -0,0 +1,67 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 파이프라인 단계별 소요 시간 기록기
+ * <p>
+ * recommendation.stage 타이머에 stage 태그(rated_items, similar_users, neighbour_ratings,
+ * ranking, product_lookup 등)를 붙여 기록하므로
+ * /actuator/metrics/recommendation.stage?tag=stage:neighbour_ratings 또는 Prometheus에서 단계별 분포를 볼 수 있다.
+ * </p>
+ * 하이브리드 후보 소스는 recommendation.candidate.source{source,status=ok|timeout|failed} 타이머로 소스별 완료/탈락을 기록한다.
+ * 단일 비행 그룹은 recommendation.single_flight.calls{result=executed|shared}와 in_flight 게이지로 노출한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationMetrics {
+
+    private final MeterRegistry meterRegistry;
+    /** 태그 조합별 타이머 (요청마다 빌더/레지스트리 조회를 하지 않도록 한 번만 등록) */
+    private final ConcurrentMap<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> sourceTimers = new ConcurrentHashMap<>();
+
+    public void recordStage(String stage, long nanos) {
+        stageTimers.computeIfAbsent(stage, name -> Timer.builder("recommendation.stage")
+                        .description("추천 파이프라인 단계별 소요 시간")
+                        .tag("stage", name)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCandidateSource(String source, CandidatePipeline.Status status, long nanos) {
+        String statusTag = status.name().toLowerCase(Locale.ROOT);
+        sourceTimers.computeIfAbsent(source + "::" + statusTag, key -> Timer.builder("recommendation.candidate.source")
+                        .description("하이브리드 후보 소스별 소요 시간 (마감 초과 시 탈락 시점까지)")
+                        .tags("source", source, "status", statusTag)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void bindSingleFlight(String name, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("recommendation.single_flight.calls", singleFlight, SingleFlight::executionCount)
+                .description("직접 계산한 호출 수")
+                .tags("name", name, "result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("recommendation.single_flight.calls", singleFlight, SingleFlight::sharedCount)
+                .description("진행 중인 계산 결과를 공유받은 호출 수")
+                .tags("name", name, "result", "shared")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.single_flight.in_flight", singleFlight, SingleFlight::inFlightCount)
+                .description("진행 중인 계산 수")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,189 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.repository.RatingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * MinHash/LSH 기반 유사 사용자 후보 생성 엔진
+ * <p>
+ * findSimilarUsers 셀프 조인 대신 메모리 버킷에서 근사 이웃을 찾는다.
+ * 평점이 바뀌면 해당 사용자의 평가 상품 집합을 다시 읽어 서명과 버킷 소속을 갱신한다.
+ * </p>
+ * 이벤트는 같은 JVM에서만 전달되므로, 다른 인스턴스에서 일어난 변경은 주기적 재구성으로 맞춘다.
+ * [동시성] 재구성 중(첫 구성 전 포함) 평점이 바뀐 사용자 ID는 따로 모아 두었다가 새 인덱스를 교체하기 전에 다시 읽어 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarUserLshEngine {
+
+    private final RatingMatrixLoader ratingMatrixLoader;
+    private final RatingRepository ratingRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode;
+
+    @Value("${recommendation.lsh.bands:16}")
+    private int bands;
+
+    @Value("${recommendation.lsh.rows-per-band:4}")
+    private int rowsPerBand;
+
+    @Value("${recommendation.lsh.max-candidates:500}")
+    private int maxCandidates;
+
+    private volatile MinHashLshIndex index;
+    private volatile boolean ready = false;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    /** 재구성 중 평점이 바뀐 사용자 ID (새 인덱스에 다시 반영). 첫 구성 전에 들어온 변경도 모은다 */
+    private Set<Long> pendingChanges = new HashSet<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("recommendation.lsh.users", this, e -> e.index == null ? 0 : e.index.size())
+                .description("LSH 인덱스에 등록된 사용자 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${recommendation.lsh.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRebuild() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * ratings 전체로 서명을 다시 계산한다. 서명 계산은 사용자 단위로 병렬 처리한다.
+     * 이미 재구성 중이면 건너뛰고, 실패하면 기존 인덱스를 유지한다.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("⏭️ LSH 인덱스 재구성이 이미 진행 중입니다");
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges == null) {
+                pendingChanges = new HashSet<>();
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            RatingMatrix matrix = ratingMatrixLoader.load();
+            MinHashLshIndex built = new MinHashLshIndex(bands, rowsPerBand, 42L);
+
+            IntStream.range(0, matrix.userCount()).parallel().forEach(u -> {
+                long[] productIds = new long[matrix.rowEnd(u) - matrix.rowStart(u)];
+                for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                    productIds[p - matrix.rowStart(u)] = matrix.itemId(matrix.rowItem(p));
+                }
+                built.put(matrix.userId(u), productIds);
+            });
+
+            publish(built);
+            log.info("✅ LSH 인덱스 구성 완료 ({}ms) - 사용자 {}명, bands={}, rows={}",
+                    System.currentTimeMillis() - startTime, built.size(), bands, rowsPerBand);
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                // 아직 인덱스가 없으면 다음 구성 때 반영하도록 계속 모은다
+                if (index != null) {
+                    pendingChanges = null;
+                }
+            }
+            log.error("❌ LSH 인덱스 재구성 실패 (기존 인덱스 유지): {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 적재 중 평점이 바뀐 사용자를 새 인덱스에 반영한 뒤 교체한다.
+     * DB 재조회는 잠금 밖에서 하고, 더 반영할 변경이 없을 때만 잠금 안에서 교체한다.
+     */
+    private void publish(MinHashLshIndex built) {
+        while (true) {
+            Set<Long> replay;
+            synchronized (writeLock) {
+                if (pendingChanges.isEmpty()) {
+                    index = built;
+                    ready = true;
+                    pendingChanges = null;
+                    return;
+                }
+                replay = pendingChanges;
+                pendingChanges = new HashSet<>();
+            }
+            log.debug("재구성 중 평점이 바뀐 사용자 {}명을 새 LSH 인덱스에 반영", replay.size());
+            replay.forEach(userId -> refresh(built, userId));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 근사 유사 사용자 상위 limit명 (추정 Jaccard 내림차순)
+     */
+    public List<MinHashLshIndex.Candidate> findSimilarUsers(long userId, int limit) {
+        MinHashLshIndex current = index;
+        return current == null ? List.of() : current.query(userId, limit, maxCandidates);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (!isEnabled() || event.userId() == null) {
+            return;
+        }
+        MinHashLshIndex current;
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event.userId());
+            }
+            current = index;
+        }
+        if (current != null) {
+            refresh(current, event.userId());
+        }
+    }
+
+    /** 커밋된 평가 상품 집합을 다시 읽어 한 사용자의 서명만 갱신 */
+    private void refresh(MinHashLshIndex current, Long userId) {
+        try {
+            List<Long> rated = ratingRepository.findRatedProductIdsByUserId(userId);
+            current.put(userId, rated.stream().mapToLong(Long::longValue).toArray());
+        } catch (Exception e) {
+            log.warn("⚠️ LSH 인덱스 갱신 실패 (다음 재구성 때 반영) - userId: {}, {}", userId, e.getMessage());
+        }
+    }
+
+    private boolean isEnabled() {
+        return EngineMode.from(engineMode) == EngineMode.LSH;
+    }
+}
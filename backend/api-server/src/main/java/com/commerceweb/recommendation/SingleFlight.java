@@ -0,0 +1,76 @@
+package com.commerceweb.recommendation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키에 대한 동시 계산을 하나로 합치는 단일 비행(single-flight) 그룹
+ * <p>
+ * 키마다 진행 중인 계산(future)을 하나만 두고, 그 사이에 들어온 호출은 새로 계산하지 않고 같은 결과를 기다린다.
+ * 계산이 끝나면 항목을 바로 지우므로 결과를 보관하지는 않는다 (보관은 캐시의 역할).
+ * 계산이 예외로 끝나면 기다리던 호출 모두에 같은 예외가 전달된다.
+ * </p>
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * 진행 중인 같은 키의 계산이 있으면 그 결과를 기다리고, 없으면 호출한 스레드에서 직접 계산한다.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.increment();
+            return join(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /** 현재 진행 중인 계산 수 */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /** 직접 계산한 호출 수 (누적) */
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    /** 다른 호출의 결과를 받아 간 호출 수 (누적) */
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.OrderChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.repository.OrderRepository;
+import com.commerceweb.repository.RatingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 사용자별 추천 제외 상품 인덱스 (평가한 상품 + 구매한 상품)
+ * <p>
+ * 사용자마다 평가/구매 상품 ID를 {@link ProductIdSet} 압축 비트맵 두 개로 들고 있다가,
+ * 후보 목록에서 제외할 상품을 박싱 없는 비트맵 조회로 한 번에 걸러낸다 (List.contains 선형 탐색 제거).
+ * 처음 조회한 사용자만 DB에서 읽어 프로세스 내 캐시(Caffeine)에 올리고, 이후에는 평점/주문 변경 이벤트로
+ * 캐시에 있는 사용자의 비트맵만 바로 고친다 (불변 비트맵을 바꿔 끼우므로 읽기는 잠금 없음).
+ * </p>
+ * [일관성] 이벤트는 이 노드에서 발생한 변경만 받으므로, 다른 노드의 변경은 expire-after-write 안에 반영된다.
+ * 주문 취소는 같은 상품의 다른 주문이 남아 있을 수 있어 해당 사용자 항목을 지우고 다음 조회 때 다시 읽는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserExclusionIndex {
+
+    private final RatingRepository ratingRepository;
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.exclusions.enabled:true}")
+    private boolean enabled = true;
+
+    /** 캐시에 올릴 최대 사용자 수 */
+    @Value("${recommendation.exclusions.maximum-size:100000}")
+    private long maximumSize = 100_000;
+
+    /** 다른 노드의 변경을 놓쳐도 이 시간이 지나면 다시 읽는다 */
+    @Value("${recommendation.exclusions.expire-after-write:30m}")
+    private Duration expireAfterWrite = Duration.ofMinutes(30);
+
+    /**
+     * @param rated     평가한 상품
+     * @param purchased 구매한 상품
+     */
+    public record Exclusions(ProductIdSet rated, ProductIdSet purchased) {
+
+        /** 평가한 상품은 항상, 구매한 상품은 excludePurchased일 때만 제외 */
+        public boolean excludes(Long productId, boolean excludePurchased) {
+            return rated.contains(productId) || (excludePurchased && purchased.contains(productId));
+        }
+
+        /** 제외할 상품 수 (평가한 상품 + excludePurchased면 구매한 상품, 겹치는 상품은 두 번 센다) */
+        public int count(boolean excludePurchased) {
+            return rated.cardinality() + (excludePurchased ? purchased.cardinality() : 0);
+        }
+
+        /** 순서를 유지한 채 제외 대상이 아닌 상품만 최대 limit개 남긴다 */
+        public List<Long> filter(List<Long> productIds, boolean excludePurchased, int limit) {
+            return productIds.stream()
+                    .filter(productId -> !excludes(productId, excludePurchased))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    private Cache<Long, Exclusions> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        FunctionCounter.builder("recommendation.exclusions.gets", cache, c -> c.stats().hitCount())
+                .description("추천 제외 인덱스 조회 수")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("recommendation.exclusions.gets", cache, c -> c.stats().missCount())
+                .description("추천 제외 인덱스 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.exclusions.users", cache, Cache::estimatedSize)
+                .description("추천 제외 인덱스에 올라와 있는 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 제외 상품. 비활성화되었거나 DB 조회에 실패하면 empty (호출 측은 필터 없이 진행).
+     */
+    public Optional<Exclusions> find(Long userId) {
+        if (!enabled || cache == null || userId == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(cache.get(userId, this::load));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 추천 제외 상품 조회 실패 - userId: {}, {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Exclusions load(Long userId) {
+        return new Exclusions(
+                ProductIdSet.of(ratingRepository.findRatedProductIdsByUserId(userId)),
+                ProductIdSet.of(orderRepository.findPurchasedProductIdsByUserId(userId)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (cache == null || event.userId() == null || event.productId() == null) {
+            return;
+        }
+        cache.asMap().computeIfPresent(event.userId(), (userId, current) -> new Exclusions(
+                event.isDeleted()
+                        ? current.rated().without(event.productId())
+                        : current.rated().with(event.productId()),
+                current.purchased()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (cache == null || event.userId() == null || event.productId() == null) {
+            return;
+        }
+        if (event.isCancelled()) {
+            cache.invalidate(event.userId());
+            return;
+        }
+        cache.asMap().computeIfPresent(event.userId(), (userId, current) ->
+                new Exclusions(current.rated(), current.purchased().with(event.productId())));
+    }
+}
@@ -2,9 +2,12 @@ package com.commerceweb.repository;
 
 import com.commerceweb.entity.Order;
 import com.commerceweb.entity.User;
+import com.commerceweb.dto.OrderTupleDto;
 import com.commerceweb.dto.SalesStatDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -16,4 +19,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     // 필드명이 user와 product이므로 이에 맞게 이름을 수정합니다.
     boolean existsByUserIdAndProductIdAndStatus(Long userId, Long productId, String status);
-}
\ No newline at end of file
+
+    // ✅ 주문 튜플 키셋 스캔 (id 구간 (afterId, maxId]을 OFFSET 없이 이어 읽기, 구간별 병렬 적재용)
+    @Query("SELECT new com.commerceweb.dto.OrderTupleDto(o.id, o.user.id, o.product.id, COALESCE(o.orderDate, o.createdAt)) " +
+            "FROM Order o WHERE o.id > :afterId AND o.id <= :maxId ORDER BY o.id")
+    List<OrderTupleDto> findOrderTuplesInRange(Long afterId, Long maxId, Pageable pageable);
+
+    // ✅ 병렬 적재 구간 분할용 최대 주문 ID (주문이 없으면 0)
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM Order o")
+    Long findMaxId();
+
+    // ✅ since 이후 주문한 사용자 ID (추천 일괄 사전 계산 대상)
+    @Query("SELECT DISTINCT o.user.id FROM Order o WHERE COALESCE(o.orderDate, o.createdAt) >= :since")
+    List<Long> findUserIdsOrderedSince(LocalDateTime since);
+
+    // ✅ 사용자가 구매한 상품 ID (취소된 주문은 삭제되므로 남은 주문 전체, 추천 제외 인덱스용)
+    @Query("SELECT DISTINCT o.product.id FROM Order o WHERE o.user.id = :userId")
+    List<Long> findPurchasedProductIdsByUserId(Long userId);
+}
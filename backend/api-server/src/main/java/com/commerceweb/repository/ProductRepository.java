@@ -1,5 +1,9 @@
 package com.commerceweb.repository;
 
+import com.commerceweb.dto.ProductFacetDto;
+import com.commerceweb.dto.ProductRankingDto;
+import com.commerceweb.dto.ProductSearchDto;
+import com.commerceweb.dto.ProductSuggestDto;
 import com.commerceweb.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,7 +12,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     // ✅ 카테고리와 이름으로 검색 (대소문자 무시)
     List<Product> findByCategoryAndNameContainingIgnoreCase(String category, String name);
@@ -42,4 +46,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // ✅ ID 목록으로 상품 조회 (추천 시스템용)
     List<Product> findByIdIn(List<Long> ids);
+
+    // ✅ 상품 ID + 카테고리만 조회 (메모리 인덱스 구성용 - 엔티티 로딩 없이)
+    @Query("SELECT p.id, p.category FROM Product p")
+    List<Object[]> findIdAndCategory();
+
+    // ✅ 순위 인덱스 적재용 (ID, 카테고리, 평점, 조회수만)
+    @Query("SELECT new com.commerceweb.dto.ProductRankingDto(p.id, p.category, p.averageRating, p.viewCount) FROM Product p")
+    List<ProductRankingDto> findRankingRows();
+
+    // ✅ 검색 색인 적재용 (ID, 이름, 설명, 카테고리만)
+    @Query("SELECT new com.commerceweb.dto.ProductSearchDto(p.id, p.name, p.description, p.category) FROM Product p")
+    List<ProductSearchDto> findSearchRows();
+
+    // ✅ 자동완성 트리 적재용 (ID, 이름, 조회수, 평균 평점만)
+    @Query("SELECT new com.commerceweb.dto.ProductSuggestDto(p.id, p.name, p.viewCount, p.averageRating) FROM Product p")
+    List<ProductSuggestDto> findSuggestRows();
+
+    // ✅ 패싯 색인 적재용 (ID, 카테고리, 가격, 평균 평점만)
+    @Query("SELECT new com.commerceweb.dto.ProductFacetDto(p.id, p.category, p.price, p.averageRating) FROM Product p")
+    List<ProductFacetDto> findFacetRows();
 }
@@ -0,0 +1,25 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 상품 목록 키셋(커서) 페이지 조회 (조건에 따라 JPQL을 조립하는 커스텀 저장소)
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * (정렬 키, id) 기준으로 커서 다음 상품을 최대 limit개 조회한다. OFFSET을 쓰지 않는다.
+     *
+     * @param category 카테고리 필터 (null이면 전체)
+     * @param name     이름 부분 일치 필터, 대소문자 무시 (null이면 전체). 인덱스를 타지 않으므로 검색 색인이 없을 때만 쓴다
+     * @param productIds 이 상품들 중에서만 (검색 색인으로 찾은 이름 검색 결과, null이면 전체)
+     * @param sort     정렬 기준
+     * @param afterKey 이전 페이지 마지막 상품의 정렬 키 (첫 페이지면 null)
+     * @param afterId  이전 페이지 마지막 상품의 id (첫 페이지면 null)
+     * @param limit    최대 개수
+     */
+    List<Product> findPage(String category, String name, Collection<Long> productIds, ProductSort sort, Object afterKey, Long afterId, int limit);
+}
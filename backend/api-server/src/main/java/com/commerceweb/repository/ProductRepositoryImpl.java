@@ -0,0 +1,72 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link ProductRepositoryCustom} 구현
+ * <p>
+ * 다음 페이지 조건은 "key &lt;= :afterKey AND (key &lt; :afterKey OR id &lt; :afterId)" 형태로 만든다 (내림차순 기준).
+ * 앞의 범위 조건으로 (정렬 키, id) 복합 인덱스를 범위 탐색하고, 뒤의 조건이 같은 키 안에서 id로 이어 읽게 한다.
+ * 건너뛴 행을 읽고 버리는 OFFSET이 없으므로 깊은 페이지도 첫 페이지와 비용이 같다.
+ * 이름 검색은 검색 색인이 찾은 상품 ID 목록(최대 search.max-results개)을 "p.id IN"으로 넘겨 기본 키로만 읽는다
+ * (LIKE '%x%'는 정렬 키 인덱스를 따라가며 모든 행을 걸러 드문 이름이면 페이지마다 테이블 대부분을 읽는다).
+ * </p>
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findPage(String category, String name, Collection<Long> productIds, ProductSort sort, Object afterKey, Long afterId, int limit) {
+        String key = "p." + sort.field();
+        String before = sort.descending() ? "<" : ">";
+        List<String> conditions = new ArrayList<>();
+        if (category != null) {
+            conditions.add("p.category = :category");
+        }
+        if (productIds != null) {
+            conditions.add("p.id IN :productIds");
+        }
+        if (name != null) {
+            conditions.add("LOWER(p.name) LIKE :name ESCAPE '\\'");
+        }
+        if (afterKey != null && afterId != null) {
+            conditions.add(key + " " + before + "= :afterKey AND (" + key + " " + before + " :afterKey OR p.id " + before + " :afterId)");
+        }
+
+        String direction = sort.descending() ? " DESC" : " ASC";
+        String jpql = "SELECT p FROM Product p"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + key + direction + ", p.id" + direction;
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql, Product.class);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (productIds != null) {
+            query.setParameter("productIds", productIds);
+        }
+        if (name != null) {
+            query.setParameter("name", "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (afterKey != null && afterId != null) {
+            query.setParameter("afterKey", afterKey);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /** 검색어의 %, _ 를 와일드카드가 아닌 문자로 취급 */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,62 @@
+package com.commerceweb.repository;
+
+import com.commerceweb.entity.Product;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 상품 목록 커서 페이지 정렬 기준
+ * <p>
+ * 모든 정렬은 (정렬 키, id) 쌍으로 전순서를 만든다. id는 정렬 키와 같은 방향이므로
+ * 같은 키를 가진 상품이 많아도 페이지 경계에서 빠지거나 겹치는 상품이 없다.
+ * 정렬 키는 NOT NULL 컬럼만 쓴다 (NULL이 섞이면 키셋 비교가 깨짐).
+ * </p>
+ */
+public enum ProductSort {
+
+    /** 최신 등록순 */
+    LATEST("createdAt", true, Product::getCreatedAt),
+    /** 가격 낮은 순 */
+    PRICE_ASC("price", false, Product::getPrice),
+    /** 가격 높은 순 */
+    PRICE_DESC("price", true, Product::getPrice);
+
+    private final String field;
+    private final boolean descending;
+    private final Function<Product, Comparable<?>> key;
+
+    ProductSort(String field, boolean descending, Function<Product, Comparable<?>> key) {
+        this.field = field;
+        this.descending = descending;
+        this.key = key;
+    }
+
+    /** JPQL에서 쓰는 엔티티 필드명 */
+    public String field() {
+        return field;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    /** 상품의 정렬 키 값 (다음 페이지 커서용) */
+    public Comparable<?> keyOf(Product product) {
+        return key.apply(product);
+    }
+
+    /**
+     * 요청 파라미터(latest, price_asc, price_desc, 대소문자 무시)로 변환. 비어 있으면 LATEST.
+     */
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return LATEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 정렬 기준입니다: " + value);
+        }
+    }
+}
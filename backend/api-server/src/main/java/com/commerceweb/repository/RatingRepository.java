@@ -1,12 +1,15 @@
 package com.commerceweb.repository;
 
+import com.commerceweb.dto.RatingTupleDto;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.entity.User;
 import com.commerceweb.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,4 +38,18 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     // ✅ User + Product로 평가 조회
     Optional<Rating> findByUserAndProduct(User user, Product product);
+
+    // ✅ 여러 사용자의 평점을 (userId, productId, score) 튜플로 한 번에 조회 (엔티티/프록시 생성 없음)
+    @Query("SELECT new com.commerceweb.dto.RatingTupleDto(r.id, r.user.id, r.product.id, r.score) " +
+            "FROM Rating r WHERE r.user.id IN :userIds")
+    List<RatingTupleDto> findRatingTuplesByUserIdIn(List<Long> userIds);
+
+    // ✅ 전체 평점 튜플 키셋 스캔 (메모리 평점 행렬 적재용, OFFSET 없이 id 기준으로 이어 읽기)
+    @Query("SELECT new com.commerceweb.dto.RatingTupleDto(r.id, r.user.id, r.product.id, r.score) " +
+            "FROM Rating r WHERE r.id > :afterId ORDER BY r.id")
+    List<RatingTupleDto> findRatingTuplesAfter(Long afterId, Pageable pageable);
+
+    // ✅ since 이후 평가를 남기거나 수정한 사용자 ID (추천 일괄 사전 계산 대상)
+    @Query("SELECT DISTINCT r.user.id FROM Rating r WHERE COALESCE(r.updatedAt, r.createdAt) >= :since")
+    List<Long> findUserIdsRatedSince(LocalDateTime since);
 }
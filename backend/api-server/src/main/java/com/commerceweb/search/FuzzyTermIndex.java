@@ -0,0 +1,239 @@
+package com.commerceweb.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 오타 교정용 단어 사전 (SymSpell 방식 삭제 사전)
+ * <p>
+ * 상품명에 나온 단어마다 글자를 최대 maxDistance개 지운 변형을 미리 만들어 "변형 → 원래 단어"로 등록해 둔다.
+ * 질의 단어도 같은 방식으로 지운 변형을 만들어 사전에서 찾으면, 편집 거리 maxDistance 안의 후보가
+ * 전체 단어를 훑지 않고 수십 번의 해시 조회로 모인다. 후보는 실제 편집 거리(인접 글자 바꿈 포함)로 다시 확인한다.
+ * </p>
+ * 긴 단어는 앞 PREFIX_LENGTH글자로만 변형을 만들어 사전 크기를 제한한다 (오타는 대개 앞부분에서도 드러나고, 최종 확인은 전체 단어로 한다).
+ * [갱신] 상품마다 등록한 단어를 기억해 두고, 상품이 수정되면 이전 단어의 상품 수를 빼고 새 단어를 더한다.
+ * 상품 수가 0이 된 단어는 교정 후보에서 빠지고, 사전 항목은 엔진의 주기적 전체 재구성 때 정리된다.
+ */
+public final class FuzzyTermIndex {
+
+    static final int PREFIX_LENGTH = 7;
+
+    private final int maxDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    /** 단어가 나온 상품 수 (같은 거리 후보 중 더 흔한 단어를 고른다, 0이면 후보에서 제외) */
+    private int[] frequencies = new int[1024];
+    private final Map<String, int[]> deletes = new HashMap<>();
+    /** 상품별로 등록한 단어 ID (수정/삭제 때 상품 수를 되돌린다) */
+    private final Map<Long, int[]> wordIdsByProduct = new HashMap<>();
+    /** 상품 수가 1 이상인 단어 수 */
+    private int liveWords;
+
+    public FuzzyTermIndex(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * 상품명의 단어들을 사전에 넣는다. 이미 넣은 상품이면 이전 이름의 단어를 빼고 새 이름으로 바꾼다.
+     */
+    public void add(long productId, String name) {
+        Set<String> nameWords = new HashSet<>(SearchTokenizer.words(name));
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int[] productWordIds = new int[nameWords.size()];
+            int n = 0;
+            for (String word : nameWords) {
+                Integer id = wordIds.get(word);
+                if (id == null) {
+                    id = words.size();
+                    wordIds.put(word, id);
+                    words.add(word);
+                    if (id == frequencies.length) {
+                        frequencies = Arrays.copyOf(frequencies, id * 2);
+                    }
+                    for (String variant : variants(word, maxDistance)) {
+                        int[] ids = deletes.get(variant);
+                        if (ids == null) {
+                            deletes.put(variant, new int[]{id});
+                        } else {
+                            int[] grown = Arrays.copyOf(ids, ids.length + 1);
+                            grown[ids.length] = id;
+                            deletes.put(variant, grown);
+                        }
+                    }
+                }
+                if (frequencies[id]++ == 0) {
+                    liveWords++;
+                }
+                productWordIds[n++] = id;
+            }
+            wordIdsByProduct.put(productId, productWordIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상품의 단어를 사전에서 뺀다 (단어가 나온 상품 수만 줄인다).
+     */
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long productId) {
+        int[] previous = wordIdsByProduct.remove(productId);
+        if (previous != null) {
+            for (int id : previous) {
+                if (--frequencies[id] == 0) {
+                    liveWords--;
+                }
+            }
+        }
+    }
+
+    /**
+     * 사전에 없는 단어를 가장 가까운 사전 단어로 바꾼 질의를 반환한다.
+     * 바꾼 단어가 없으면 (모두 사전에 있거나 가까운 후보가 없으면) null.
+     * 허용 거리는 단어가 짧을수록 줄인다 (2글자 이하는 교정하지 않고, 3~4글자는 1).
+     */
+    public String correct(String query) {
+        List<String> queryWords = SearchTokenizer.words(query);
+        if (queryWords.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            boolean changed = false;
+            List<String> corrected = new ArrayList<>(queryWords.size());
+            for (String word : queryWords) {
+                String replacement = isLive(word) ? word : closest(word);
+                if (replacement == null) {
+                    replacement = word;
+                }
+                changed |= !replacement.equals(word);
+                corrected.add(replacement);
+            }
+            return changed ? String.join(" ", corrected) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 지금 색인된 상품명에 나오는 단어인지 */
+    private boolean isLive(String word) {
+        Integer id = wordIds.get(word);
+        return id != null && frequencies[id] > 0;
+    }
+
+    /** 거리가 가장 짧은 후보, 같으면 더 흔한 단어, 그래도 같으면 사전순으로 앞선 단어 */
+    private String closest(String word) {
+        int allowed = Math.min(maxDistance, (word.length() - 1) / 2);
+        if (allowed <= 0) {
+            return null;
+        }
+        String best = null;
+        int bestDistance = allowed + 1;
+        int bestFrequency = 0;
+        Set<Integer> checked = new HashSet<>();
+        for (String variant : variants(word, allowed)) {
+            int[] ids = deletes.get(variant);
+            if (ids == null) {
+                continue;
+            }
+            for (int id : ids) {
+                if (frequencies[id] == 0 || !checked.add(id)) {
+                    continue;
+                }
+                String candidate = words.get(id);
+                int distance = distance(word, candidate, allowed);
+                if (distance > allowed) {
+                    continue;
+                }
+                boolean better = distance < bestDistance
+                        || (distance == bestDistance && (frequencies[id] > bestFrequency
+                        || (frequencies[id] == bestFrequency && candidate.compareTo(best) < 0)));
+                if (better) {
+                    best = candidate;
+                    bestDistance = distance;
+                    bestFrequency = frequencies[id];
+                }
+            }
+        }
+        return best;
+    }
+
+    /** 사전 단어 수 (지금 색인된 상품명에 나오는 단어만) */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveWords;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 앞 PREFIX_LENGTH글자에서 글자를 0~distance개 지운 모든 변형 */
+    private static Set<String> variants(String word, int distance) {
+        String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+        Set<String> result = new HashSet<>();
+        result.add(prefix);
+        List<String> frontier = List.of(prefix);
+        for (int d = 0; d < distance; d++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String deleted = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * 편집 거리 (삽입/삭제/치환/인접 글자 바꿈). max를 넘으면 max + 1.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -0,0 +1,201 @@
+package com.commerceweb.search;
+
+import com.commerceweb.dto.ProductFacetDto;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.event.ReviewChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 상품 목록 패싯 엔진 (메모리 상주 비트맵 색인)
+ * <p>
+ * 시작 시 상품의 (ID, 카테고리, 가격, 평균 평점)을 한 번 읽어 {@link ProductFacetIndex}를 만들고,
+ * 이후에는 상품 등록/수정/삭제와 평점/리뷰 변경 이벤트를 커밋 이후에 받아 해당 상품만 다시 넣는다.
+ * 목록 화면의 카테고리/가격/평점별 개수를 패싯마다 GROUP BY 쿼리로 세지 않고 메모리에서 한 번에 계산한다.
+ * </p>
+ * 이벤트는 같은 JVM에서만 전달되므로, 다른 인스턴스에서 일어난 변경은 주기적 재구성으로 맞춘다.
+ * [동시성] 재구성 중(첫 구성 전 포함) 바뀐 상품 ID는 따로 모아 두었다가 새 색인을 교체하기 전에 다시 읽어 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetEngine {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    /** 가격 구간 경계 (원, 오름차순) */
+    @Value("${search.facet.price-bounds:10000,30000,50000,100000}")
+    private double[] priceBounds = {10000, 30000, 50000, 100000};
+
+    /** 평균 평점 구간 경계 (오름차순) */
+    @Value("${search.facet.rating-bounds:1,2,3,4}")
+    private double[] ratingBounds = {1, 2, 3, 4};
+
+    private volatile ProductFacetIndex index;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    /** 재구성 중 바뀐 상품 ID (새 색인에 다시 반영). 첫 구성 전에 들어온 변경도 모은다 */
+    private Set<Long> pendingChanges = new HashSet<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.facet.products", this, e -> e.index == null ? 0 : e.index.size())
+                .description("패싯 색인에 들어 있는 상품 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${search.facet.resync-cron:0 45 * * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 상품 전체로 색인을 새로 만들어 교체한다. 이미 재구성 중이면 건너뛰고, 실패하면 기존 색인을 유지한다.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("⏭️ 패싯 색인 재구성이 이미 진행 중입니다");
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges == null) {
+                pendingChanges = new HashSet<>();
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            ProductFacetIndex built = new ProductFacetIndex(priceBounds, ratingBounds);
+            for (ProductFacetDto row : productRepository.findFacetRows()) {
+                built.upsert(row.id(), row.category(), valueOf(row.price()), valueOf(row.averageRating()));
+            }
+            publish(built);
+            log.info("✅ 패싯 색인 교체 완료 ({}ms) - 상품 {}개", System.currentTimeMillis() - startTime, built.size());
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                // 아직 색인이 없으면 다음 구성 때 반영하도록 계속 모은다
+                if (index != null) {
+                    pendingChanges = null;
+                }
+            }
+            log.error("❌ 패싯 색인 재구성 실패 (기존 색인 유지): {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 스캔 중 바뀐 상품을 새 색인에 반영한 뒤 교체한다.
+     * DB 재조회는 잠금 밖에서 하고, 더 반영할 변경이 없을 때만 잠금 안에서 교체한다.
+     */
+    private void publish(ProductFacetIndex built) {
+        while (true) {
+            Set<Long> replay;
+            synchronized (writeLock) {
+                if (pendingChanges.isEmpty()) {
+                    index = built;
+                    pendingChanges = null;
+                    return;
+                }
+                replay = pendingChanges;
+                pendingChanges = new HashSet<>();
+            }
+            log.debug("재구성 중 바뀐 상품 {}개를 새 패싯 색인에 반영", replay.size());
+            replay.forEach(productId -> refresh(built, productId));
+        }
+    }
+
+    /**
+     * 필터를 만족하는 상품 수와 패싯별 개수.
+     * 색인이 아직 없으면(시작 직후) 요청 스레드에서 전체 스캔을 하지 않고 모두 0인 개수를 반환한다.
+     *
+     * @throws IllegalArgumentException 구간 번호가 범위를 벗어난 경우
+     */
+    public ProductFacetIndex.Counts count(String category, Integer priceBand, Integer ratingBand) {
+        ProductFacetIndex current = index;
+        if (current == null) {
+            log.warn("⚠️ 패싯 색인 준비 전 - 빈 개수 반환");
+            return new ProductFacetIndex(priceBounds, ratingBounds).count(category, priceBand, ratingBand);
+        }
+        return current.count(category, priceBand, ratingBand);
+    }
+
+    public double[] priceBounds() {
+        return priceBounds.clone();
+    }
+
+    public double[] ratingBounds() {
+        return ratingBounds.clone();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRatingChanged(RatingChangedEvent event) {
+        changed(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        changed(event.productId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.Type.VIEWED) {
+            changed(event.productId());
+        }
+    }
+
+    /** 재구성 중이면 ID를 모아 두고, 현재 색인에는 바로 반영 (삭제된 상품은 다시 읽을 때 없으므로 제거된다) */
+    private void changed(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        ProductFacetIndex current;
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(productId);
+            }
+            current = index;
+        }
+        if (current != null) {
+            refresh(current, productId);
+        }
+    }
+
+    /** 커밋된 카테고리/가격/평균 평점을 다시 읽어 한 상품만 갱신 */
+    private void refresh(ProductFacetIndex current, Long productId) {
+        try {
+            productRepository.findById(productId).ifPresentOrElse(
+                    product -> current.upsert(product.getId(), product.getCategory(),
+                            valueOf(product.getPrice()), valueOf(product.getAverageRating())),
+                    () -> current.remove(productId));
+        } catch (Exception e) {
+            log.warn("⚠️ 패싯 색인 갱신 실패 (다음 재구성 때 반영) - productId: {}, {}", productId, e.getMessage());
+        }
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? 0.0 : value;
+    }
+}
@@ -0,0 +1,242 @@
+package com.commerceweb.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품 목록 패싯(카테고리 / 가격 구간 / 평점 구간) 비트맵 색인
+ * <p>
+ * 상품마다 0부터 촘촘한 내부 번호를 붙이고(삭제된 번호는 재사용), 패싯 값마다 그 값을 가진 상품 번호의 비트맵(long[])을 둔다.
+ * 필터 교집합과 패싯별 개수는 비트맵을 64개씩 한 번 훑으면서 AND + bitCount로 함께 센다.
+ * 패싯 개수는 "그 패싯을 뺀 나머지 필터"를 적용한 값이라, 카테고리를 골라도 다른 카테고리의 개수를 함께 보여줄 수 있다.
+ * </p>
+ * 구간은 경계값 배열로 정한다. 경계가 {10000, 30000}이면 0: 10000 미만, 1: 10000 이상 30000 미만, 2: 30000 이상.
+ * [동시성] 읽기/쓰기 잠금. 개수 계산끼리는 동시에 실행되고, 상품/평점 변경만 배타적으로 실행된다.
+ */
+public final class ProductFacetIndex {
+
+    /**
+     * @param total       모든 필터를 만족하는 상품 수
+     * @param categories  카테고리별 상품 수 (카테고리 필터를 뺀 나머지 필터 적용)
+     * @param priceBands  가격 구간별 상품 수 (가격 필터를 뺀 나머지 필터 적용)
+     * @param ratingBands 평점 구간별 상품 수 (평점 필터를 뺀 나머지 필터 적용)
+     */
+    public record Counts(int total, Map<String, Integer> categories, int[] priceBands, int[] ratingBands) { }
+
+    private final double[] priceBounds;
+    private final double[] ratingBounds;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private int docCount;
+
+    /** 문서별 현재 값 (갱신 시 이전 비트를 지우기 위해) */
+    private String[] categories = new String[1024];
+    private byte[] priceBandOf = new byte[1024];
+    private byte[] ratingBandOf = new byte[1024];
+
+    private long[] live = new long[1024 / 64];
+    private final Map<String, long[]> categoryBits = new HashMap<>();
+    private final long[][] priceBits;
+    private final long[][] ratingBits;
+
+    /**
+     * @param priceBounds  가격 구간 경계 (오름차순)
+     * @param ratingBounds 평균 평점 구간 경계 (오름차순)
+     */
+    public ProductFacetIndex(double[] priceBounds, double[] ratingBounds) {
+        if (priceBounds.length > Byte.MAX_VALUE || ratingBounds.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("구간이 너무 많습니다");
+        }
+        this.priceBounds = priceBounds.clone();
+        this.ratingBounds = ratingBounds.clone();
+        this.priceBits = new long[priceBounds.length + 1][live.length];
+        this.ratingBits = new long[ratingBounds.length + 1][live.length];
+    }
+
+    public int priceBandCount() {
+        return priceBits.length;
+    }
+
+    public int ratingBandCount() {
+        return ratingBits.length;
+    }
+
+    /**
+     * 상품의 패싯 값을 넣거나 바꾼다.
+     */
+    public void upsert(long productId, String category, double price, double averageRating) {
+        int priceBand = band(priceBounds, price);
+        int ratingBand = band(ratingBounds, averageRating);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByProduct.get(productId);
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                clearBits(doc);
+            } else {
+                doc = freeDocs.isEmpty() ? docCount++ : freeDocs.pop();
+                ensureCapacity(doc + 1);
+                docByProduct.put(productId, doc);
+            }
+            categories[doc] = category;
+            priceBandOf[doc] = (byte) priceBand;
+            ratingBandOf[doc] = (byte) ratingBand;
+
+            int word = doc >>> 6;
+            long bit = 1L << doc;
+            live[word] |= bit;
+            if (category != null) {
+                categoryBits.computeIfAbsent(category, c -> new long[live.length])[word] |= bit;
+            }
+            priceBits[priceBand][word] |= bit;
+            ratingBits[ratingBand][word] |= bit;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                clearBits(doc);
+                live[doc >>> 6] &= ~(1L << doc);
+                categories[doc] = null;
+                freeDocs.push(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 문서의 패싯 값 비트를 지운다 (live 비트는 그대로) */
+    private void clearBits(int doc) {
+        int word = doc >>> 6;
+        long mask = ~(1L << doc);
+        String category = categories[doc];
+        if (category != null) {
+            long[] bits = categoryBits.get(category);
+            bits[word] &= mask;
+        }
+        priceBits[priceBandOf[doc]][word] &= mask;
+        ratingBits[ratingBandOf[doc]][word] &= mask;
+    }
+
+    private void ensureCapacity(int docs) {
+        if (docs <= categories.length) {
+            return;
+        }
+        int capacity = categories.length * 2;
+        int words = capacity / 64;
+        categories = Arrays.copyOf(categories, capacity);
+        priceBandOf = Arrays.copyOf(priceBandOf, capacity);
+        ratingBandOf = Arrays.copyOf(ratingBandOf, capacity);
+        live = Arrays.copyOf(live, words);
+        categoryBits.replaceAll((category, bits) -> Arrays.copyOf(bits, words));
+        for (int band = 0; band < priceBits.length; band++) {
+            priceBits[band] = Arrays.copyOf(priceBits[band], words);
+        }
+        for (int band = 0; band < ratingBits.length; band++) {
+            ratingBits[band] = Arrays.copyOf(ratingBits[band], words);
+        }
+    }
+
+    /**
+     * 필터를 만족하는 상품 수와 패싯별 개수를 비트맵 한 번 순회로 센다.
+     *
+     * @param category   null이 아니면 이 카테고리만
+     * @param priceBand  null이 아니면 이 가격 구간만
+     * @param ratingBand null이 아니면 이 평점 구간만
+     * @throws IllegalArgumentException 구간 번호가 범위를 벗어난 경우
+     */
+    public Counts count(String category, Integer priceBand, Integer ratingBand) {
+        if (priceBand != null && (priceBand < 0 || priceBand >= priceBits.length)) {
+            throw new IllegalArgumentException("잘못된 가격 구간입니다: " + priceBand);
+        }
+        if (ratingBand != null && (ratingBand < 0 || ratingBand >= ratingBits.length)) {
+            throw new IllegalArgumentException("잘못된 평점 구간입니다: " + ratingBand);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> categoryNames = new ArrayList<>(categoryBits.keySet());
+            long[][] categoryValues = new long[categoryNames.size()][];
+            for (int i = 0; i < categoryValues.length; i++) {
+                categoryValues[i] = categoryBits.get(categoryNames.get(i));
+            }
+            long[] categoryFilter = category == null ? null : categoryBits.get(category);
+            long[] priceFilter = priceBand == null ? null : priceBits[priceBand];
+            long[] ratingFilter = ratingBand == null ? null : ratingBits[ratingBand];
+
+            int total = 0;
+            int[] categoryCounts = new int[categoryValues.length];
+            int[] priceCounts = new int[priceBits.length];
+            int[] ratingCounts = new int[ratingBits.length];
+            int words = (docCount + 63) >>> 6;
+            for (int word = 0; word < words; word++) {
+                long all = live[word];
+                if (all == 0) {
+                    continue;
+                }
+                long c = category == null ? -1L : categoryFilter == null ? 0L : categoryFilter[word];
+                long p = priceFilter == null ? -1L : priceFilter[word];
+                long r = ratingFilter == null ? -1L : ratingFilter[word];
+
+                total += Long.bitCount(all & c & p & r);
+                long withoutCategory = all & p & r;
+                if (withoutCategory != 0) {
+                    for (int i = 0; i < categoryValues.length; i++) {
+                        categoryCounts[i] += Long.bitCount(withoutCategory & categoryValues[i][word]);
+                    }
+                }
+                long withoutPrice = all & c & r;
+                if (withoutPrice != 0) {
+                    for (int band = 0; band < priceBits.length; band++) {
+                        priceCounts[band] += Long.bitCount(withoutPrice & priceBits[band][word]);
+                    }
+                }
+                long withoutRating = all & c & p;
+                if (withoutRating != 0) {
+                    for (int band = 0; band < ratingBits.length; band++) {
+                        ratingCounts[band] += Long.bitCount(withoutRating & ratingBits[band][word]);
+                    }
+                }
+            }
+
+            Map<String, Integer> byCategory = new HashMap<>();
+            for (int i = 0; i < categoryCounts.length; i++) {
+                if (categoryCounts[i] > 0) {
+                    byCategory.put(categoryNames.get(i), categoryCounts[i]);
+                }
+            }
+            return new Counts(total, byCategory, priceCounts, ratingCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 색인된 상품 수 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 값보다 작거나 같은 경계 수 = 구간 번호 */
+    static int band(double[] bounds, double value) {
+        int band = 0;
+        while (band < bounds.length && value >= bounds[band]) {
+            band++;
+        }
+        return band;
+    }
+}
@@ -0,0 +1,210 @@
+package com.commerceweb.search;
+
+import com.commerceweb.dto.ProductSearchDto;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 상품 검색 엔진 (메모리 상주 역색인)
+ * <p>
+ * 시작 시 상품의 (ID, 이름, 설명, 카테고리)를 한 번 읽어 {@link ProductSearchIndex}를 만들고,
+ * 이후에는 상품 등록/수정/삭제 이벤트를 커밋 이후에 받아 해당 상품만 다시 색인한다.
+ * 이름 검색은 LIKE '%x%' 전체 스캔 대신 색인에서 BM25 순으로 상품 ID를 얻고 기본 키로만 조회한다.
+ * </p>
+ * 이벤트는 같은 JVM에서만 전달되므로, 다른 인스턴스에서 일어난 변경과 쌓인 삭제 문서는 주기적 재구성으로 정리한다.
+ * 상품명 단어로는 오타 교정 사전({@link FuzzyTermIndex})도 함께 만들어, 정확히 맞는 결과가 적을 때 교정한 질의로 다시 찾게 한다.
+ * [동시성] 재구성 중(첫 구성 전 포함) 바뀐 상품 ID는 따로 모아 두었다가 새 색인을 교체하기 전에 다시 읽어 반영한다
+ * (커밋된 상태를 다시 읽으므로 스캔에 이미 포함된 변경이어도 안전하다).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchEngine {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled = true;
+
+    /** 오타 교정 시 허용할 최대 편집 거리 (0이면 교정하지 않음) */
+    @Value("${search.fuzzy.max-distance:2}")
+    private int fuzzyMaxDistance = 2;
+
+    private volatile ProductSearchIndex index;
+    private volatile FuzzyTermIndex fuzzyIndex;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    /** 재구성 중 바뀐 상품 ID (새 색인에 다시 반영). 첫 구성 전에 들어온 변경도 모은다 */
+    private Set<Long> pendingChanges = new HashSet<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.index.products", this, e -> e.index == null ? 0 : e.index.size())
+                .description("검색 색인에 들어 있는 상품 수")
+                .register(meterRegistry);
+        Gauge.builder("search.index.postings", this, e -> e.index == null ? 0 : e.index.postingBytes())
+                .description("검색 색인 압축 포스팅 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("search.fuzzy.words", this, e -> e.fuzzyIndex == null ? 0 : e.fuzzyIndex.size())
+                .description("오타 교정 사전 단어 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${search.index.rebuild-cron:0 30 * * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * 상품 전체로 색인을 새로 만들어 교체한다. 이미 재구성 중이면 건너뛰고, 실패하면 기존 색인을 유지한다.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("⏭️ 검색 색인 재구성이 이미 진행 중입니다");
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingChanges == null) {
+                pendingChanges = new HashSet<>();
+            }
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            ProductSearchIndex built = new ProductSearchIndex();
+            FuzzyTermIndex builtFuzzy = new FuzzyTermIndex(fuzzyMaxDistance);
+            for (ProductSearchDto row : productRepository.findSearchRows()) {
+                built.upsert(row.id(), row.name(), row.description(), row.category());
+                builtFuzzy.add(row.id(), row.name());
+            }
+            publish(built, builtFuzzy);
+            log.info("✅ 검색 색인 교체 완료 ({}ms) - 상품 {}개, 포스팅 약 {}KB, 교정 사전 단어 {}개",
+                    System.currentTimeMillis() - startTime, built.size(), built.postingBytes() / 1024, builtFuzzy.size());
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                // 아직 색인이 없으면 다음 구성 때 반영하도록 계속 모은다
+                if (index != null) {
+                    pendingChanges = null;
+                }
+            }
+            log.error("❌ 검색 색인 재구성 실패 (기존 색인 유지): {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 스캔 중 바뀐 상품을 새 색인에 반영한 뒤 교체한다.
+     * DB 재조회는 잠금 밖에서 하고, 더 반영할 변경이 없을 때만 잠금 안에서 교체한다.
+     */
+    private void publish(ProductSearchIndex built, FuzzyTermIndex builtFuzzy) {
+        while (true) {
+            Set<Long> replay;
+            synchronized (writeLock) {
+                if (pendingChanges.isEmpty()) {
+                    index = built;
+                    fuzzyIndex = builtFuzzy;
+                    pendingChanges = null;
+                    return;
+                }
+                replay = pendingChanges;
+                pendingChanges = new HashSet<>();
+            }
+            log.debug("재구성 중 바뀐 상품 {}개를 새 검색 색인에 반영", replay.size());
+            replay.forEach(productId -> reindex(built, builtFuzzy, productId));
+        }
+    }
+
+    /**
+     * 이름/설명에 질의의 모든 토큰이 들어 있는 상품 ID (BM25 순). 색인이 준비되지 않았으면 빈 목록.
+     *
+     * @param category null이 아니면 이 카테고리의 상품만
+     */
+    public List<Long> search(String query, String category, int limit) {
+        ProductSearchIndex current = index;
+        return current == null ? List.of() : current.search(query, category, limit);
+    }
+
+    /**
+     * 상품명에 없는 단어를 편집 거리 search.fuzzy.max-distance 안의 가장 가까운 상품명 단어로 바꾼 질의.
+     * 바꿀 단어가 없거나 사전이 준비되지 않았으면 null.
+     */
+    public String correct(String query) {
+        FuzzyTermIndex current = fuzzyIndex;
+        return current == null || fuzzyMaxDistance <= 0 ? null : current.correct(query);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.productId() == null || event.type() == ProductChangedEvent.Type.VIEWED) {
+            return;
+        }
+        ProductSearchIndex current;
+        FuzzyTermIndex currentFuzzy;
+        synchronized (writeLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(event.productId());
+            }
+            current = index;
+            currentFuzzy = fuzzyIndex;
+        }
+        if (current == null) {
+            return;
+        }
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            current.remove(event.productId());
+            currentFuzzy.remove(event.productId());
+        } else {
+            reindex(current, currentFuzzy, event.productId());
+        }
+    }
+
+    /** 커밋된 이름/설명/카테고리를 다시 읽어 한 상품만 색인 (없어졌으면 제거) */
+    private void reindex(ProductSearchIndex current, FuzzyTermIndex fuzzy, Long productId) {
+        try {
+            productRepository.findById(productId).ifPresentOrElse(
+                    product -> {
+                        current.upsert(product.getId(), product.getName(), product.getDescription(), product.getCategory());
+                        fuzzy.add(product.getId(), product.getName());
+                    },
+                    () -> {
+                        current.remove(productId);
+                        fuzzy.remove(productId);
+                    });
+        } catch (Exception e) {
+            log.warn("⚠️ 검색 색인 갱신 실패 (다음 재구성 때 반영) - productId: {}, {}", productId, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.commerceweb.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품 이름/설명 역색인 + BM25 점수
+ * <p>
+ * 상품마다 내부 문서 번호(0부터 증가)를 붙이고, 토큰마다 (문서 번호 차이, 출현 횟수)를 varint로 이어 붙인
+ * 압축 포스팅 목록을 둔다. 문서 번호가 계속 증가하므로 새 상품은 포스팅 끝에 덧붙이기만 하면 된다.
+ * 상품이 수정되면 이전 문서를 삭제 표시하고 새 번호로 다시 넣으며, 삭제 표시된 문서는 검색 시 건너뛴다
+ * (쌓인 삭제 문서는 엔진의 주기적 전체 재구성 때 정리된다).
+ * </p>
+ * 점수는 이름 토큰에 NAME_BOOST배 가중치를 준 BM25 (k1=1.2, b=0.75)이고, 질의의 모든 토큰을 포함한 상품만 반환한다.
+ * 질의 토큰은 LIKE '%질의%'처럼 색인 토큰의 부분 문자열로 맞춘다 ("iph"/"phone" → iphone, "폰" → 시폰, 폰케).
+ * 색인 토큰의 모든 접미사를 정렬된 사전에 두고, 질의 토큰으로 시작하는 접미사 구간에서 토큰을 찾는다
+ * (부분 문자열 = 어떤 접미사의 접두사). 질의 토큰과 같은 토큰은 항상 포함하고,
+ * 나머지는 문서 수가 많은 토큰부터 MAX_EXPANDED_TERMS개까지만 펼친다.
+ * [동시성] 읽기/쓰기 잠금. 검색끼리는 동시에 실행되고, 색인 변경(상품 등록/수정/삭제)만 배타적으로 실행된다.
+ */
+public final class ProductSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    /** 이름에 나온 토큰은 설명보다 이만큼 더 센다 */
+    static final int NAME_BOOST = 3;
+    /** 질의 토큰을 부분 문자열로 펼칠 때 합칠 최대 토큰 수 (짧은 질의의 비용 상한) */
+    static final int MAX_EXPANDED_TERMS = 64;
+
+    /** 토큰 하나의 압축 포스팅 목록 */
+    private static final class Postings {
+        private byte[] data = new byte[8];
+        private int length;
+        private int lastDoc = -1;
+        private int docFreq;
+
+        void add(int doc, int termFrequency) {
+            if (data.length - length < 10) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            writeVarint(doc - lastDoc);
+            writeVarint(termFrequency);
+            lastDoc = doc;
+            docFreq++;
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    /** 색인 토큰의 접미사 → 그 접미사로 끝나는 토큰의 포스팅 목록 */
+    private final NavigableMap<String, List<Postings>> postingsBySuffix = new TreeMap<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private long[] productIds = new long[1024];
+    private String[] categories = new String[1024];
+    private int[] lengths = new int[1024];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private long liveLength;
+
+    /**
+     * 상품을 색인한다. 이미 있던 상품이면 이전 문서를 지우고 새로 넣는다.
+     */
+    public void upsert(long productId, String name, String description, String category) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> nameTokens = SearchTokenizer.tokenize(name);
+        List<String> descriptionTokens = SearchTokenizer.tokenize(description);
+        for (String token : nameTokens) {
+            frequencies.merge(token, NAME_BOOST, Integer::sum);
+        }
+        for (String token : descriptionTokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        int length = nameTokens.size() * NAME_BOOST + descriptionTokens.size();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int doc = docCount++;
+            if (doc == productIds.length) {
+                int capacity = productIds.length * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            productIds[doc] = productId;
+            categories[doc] = category;
+            lengths[doc] = length;
+            docByProduct.put(productId, doc);
+            liveCount++;
+            liveLength += length;
+            frequencies.forEach((token, tf) -> postings.computeIfAbsent(token, this::newPostingsLocked).add(doc, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 새 토큰의 포스팅 목록을 만들고 접미사 사전에 등록한다 (쓰기 잠금 안에서 호출) */
+    private Postings newPostingsLocked(String token) {
+        Postings list = new Postings();
+        for (int i = 0; i < token.length(); i = token.offsetByCodePoints(i, 1)) {
+            postingsBySuffix.computeIfAbsent(token.substring(i), suffix -> new ArrayList<>(1)).add(list);
+        }
+        return list;
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+            liveCount--;
+            liveLength -= lengths[doc];
+        }
+    }
+
+    /**
+     * 질의의 모든 토큰을 포함하는 상품 ID를 BM25 점수 순으로 최대 limit개 반환한다 (점수가 같으면 ID 오름차순).
+     * 질의 토큰마다 그 토큰을 부분 문자열로 갖는 색인 토큰 중 하나라도 포함하면 된다.
+     *
+     * @param category null이 아니면 이 카테고리의 상품만
+     */
+    public List<Long> search(String query, String category, int limit) {
+        List<String> terms = SearchTokenizer.tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // 질의 토큰마다 그 토큰을 포함하는 색인 토큰들의 포스팅 목록
+            List<List<Postings>> groups = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                List<Postings> group = containingPostings(term);
+                if (group.isEmpty()) {
+                    return List.of();
+                }
+                groups.add(group);
+            }
+            // 문서 수가 가장 적은 토큰부터 읽어 후보를 줄인다
+            groups.sort(Comparator.comparingInt(group -> group.stream().mapToInt(list -> list.docFreq).sum()));
+            double averageLength = liveCount == 0 ? 1.0 : Math.max(1.0, (double) liveLength / liveCount);
+
+            Map<Integer, Double> scores = null;
+            for (List<Postings> group : groups) {
+                Map<Integer, Double> next = new HashMap<>();
+                for (Postings list : group) {
+                    accumulate(list, category, averageLength, scores, next);
+                }
+                scores = next;
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                            .thenComparing(entry -> productIds[entry.getKey()]))
+                    .limit(limit)
+                    .map(entry -> productIds[entry.getKey()])
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * term을 부분 문자열로 갖는 토큰의 포스팅 목록 (term과 같은 토큰 + 문서 수가 많은 순 최대 MAX_EXPANDED_TERMS개,
+     * 읽기 잠금 안에서 호출)
+     */
+    private List<Postings> containingPostings(String term) {
+        Postings exact = postings.get(term);
+        Set<Postings> matches = new HashSet<>();
+        for (List<Postings> lists : postingsBySuffix.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            matches.addAll(lists);
+        }
+        matches.remove(exact);
+
+        PriorityQueue<Postings> top = new PriorityQueue<>(MAX_EXPANDED_TERMS + 1, Comparator.comparingInt(list -> list.docFreq));
+        for (Postings list : matches) {
+            top.add(list);
+            if (top.size() > MAX_EXPANDED_TERMS) {
+                top.poll();
+            }
+        }
+        List<Postings> group = new ArrayList<>(top.size() + 1);
+        if (exact != null) {
+            group.add(exact);
+        }
+        group.addAll(top);
+        return group;
+    }
+
+    /**
+     * 포스팅 목록의 BM25 점수를 next에 더한다. previous가 null이 아니면 previous에 있는 문서만 (앞 토큰과의 교집합).
+     */
+    private void accumulate(Postings list, String category, double averageLength,
+                            Map<Integer, Double> previous, Map<Integer, Double> next) {
+        double idf = Math.log(1 + (docCount - list.docFreq + 0.5) / (list.docFreq + 0.5));
+        int doc = -1;
+        int position = 0;
+        while (position < list.length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = list.data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int tf = 0;
+            shift = 0;
+            do {
+                b = list.data[position++];
+                tf |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+
+            if (deleted.get(doc) || (category != null && !category.equals(categories[doc]))) {
+                continue;
+            }
+            Double base = previous == null ? Double.valueOf(0) : previous.get(doc);
+            if (base == null) {
+                continue;
+            }
+            double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            double score = idf * tf * (K1 + 1) / (tf + norm);
+            next.merge(doc, base + score, (existing, added) -> existing + score);
+        }
+    }
+
+    /** 색인된(삭제되지 않은) 상품 수 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 포스팅 목록이 차지하는 바이트 수 */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings list : postings.values()) {
+                bytes += list.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
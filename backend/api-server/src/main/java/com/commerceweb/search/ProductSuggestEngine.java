@@ -0,0 +1,163 @@
+package com.commerceweb.search;
+
+import com.commerceweb.dto.ProductSuggestDto;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 상품명 자동완성 엔진 (메모리 상주 접두사 트리)
+ * <p>
+ * 상품의 (ID, 이름, 조회수, 평균 평점)을 읽어 {@link SuggestionTrie}를 만들고 volatile 참조로 교체한다.
+ * 조회는 현재 트리만 읽으므로 DB에 가지 않는다.
+ * 가중치는 log(1 + 조회수) + ratingWeight × 평균 평점으로, 조회수가 몇 배 차이 나도 평점이 순위에 반영되게 한다.
+ * </p>
+ * [재구성] 트리는 불변이라 상품 등록/수정/삭제 이벤트는 "변경 있음"만 표시하고,
+ * 스케줄러 스레드가 refresh-delay마다 표시를 확인해 백그라운드에서 다시 만든다 (연속 변경은 한 번에 반영).
+ * 조회수/평점 변화와 다른 인스턴스의 변경은 rebuild-cron마다 전체 재구성으로 반영한다.
+ * 예약된 재구성은 스케줄러 스레드에서 돌리지 않고 전용 스레드 하나에 넘긴다 (다른 @Scheduled 작업을 막지 않으며,
+ * 이미 대기 중인 재구성이 있으면 더 쌓지 않는다).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestEngine {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.suggest.enabled:true}")
+    private boolean enabled = true;
+
+    /** 트리 노드마다 미리 계산해 둘 후보 수 (한 번에 돌려줄 수 있는 최대 개수) */
+    @Value("${search.suggest.top-k:10}")
+    private int topK = 10;
+
+    /** 평균 평점 1점이 조회수 로그 몇 단위에 해당하는지 */
+    @Value("${search.suggest.rating-weight:1.0}")
+    private double ratingWeight = 1.0;
+
+    private volatile SuggestionTrie trie;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean(false);
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("suggest-rebuild").daemon(true).factory());
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("search.suggest.products", this, e -> e.trie == null ? 0 : e.trie.entryCount())
+                .description("자동완성 트리에 들어 있는 상품 수")
+                .register(meterRegistry);
+        Gauge.builder("search.suggest.nodes", this, e -> e.trie == null ? 0 : e.trie.nodeCount())
+                .description("자동완성 트리 노드 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${search.suggest.rebuild-cron:0 */10 * * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            submitRebuild();
+        }
+    }
+
+    /** 상품 변경이 표시되어 있으면 다시 만든다 */
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-delay:5s}")
+    public void refreshIfDirty() {
+        if (enabled && dirty.compareAndSet(true, false)) {
+            submitRebuild();
+        }
+    }
+
+    /** 전용 스레드에 재구성을 넘긴다. 이미 대기 중이면 그 재구성이 이번 변경까지 반영하므로 더 넣지 않는다 */
+    private void submitRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return trie != null;
+    }
+
+    /**
+     * 상품 전체로 트리를 새로 만들어 교체한다. 이미 재구성 중이면 건너뛰고, 실패하면 기존 트리를 유지한다.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("⏭️ 자동완성 트리 재구성이 이미 진행 중입니다");
+            dirty.set(true);
+            return;
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            List<ProductSuggestDto> rows = productRepository.findSuggestRows();
+            List<SuggestionTrie.Entry> entries = new ArrayList<>(rows.size());
+            for (ProductSuggestDto row : rows) {
+                entries.add(new SuggestionTrie.Entry(row.id(), row.name(), weight(row)));
+            }
+            SuggestionTrie built = SuggestionTrie.build(entries, topK);
+            trie = built;
+            log.info("✅ 자동완성 트리 교체 완료 ({}ms) - 상품 {}개, 노드 {}개",
+                    System.currentTimeMillis() - startTime, built.entryCount(), built.nodeCount());
+        } catch (Exception e) {
+            log.error("❌ 자동완성 트리 재구성 실패 (기존 트리 유지): {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private double weight(ProductSuggestDto row) {
+        long views = row.viewCount() == null ? 0 : Math.max(0, row.viewCount());
+        double rating = row.averageRating() == null ? 0.0 : row.averageRating();
+        return Math.log1p(views) + ratingWeight * rating;
+    }
+
+    /**
+     * 상품명(또는 상품명 속 단어)이 질의로 시작하는 후보를 인기순으로 최대 limit개 (top-k 이하). 트리가 없으면 빈 목록.
+     */
+    public List<SuggestionTrie.Suggestion> suggest(String query, int limit) {
+        SuggestionTrie current = trie;
+        return current == null ? List.of() : current.suggest(query, Math.min(limit, topK));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.Type.VIEWED) {
+            dirty.set(true);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.commerceweb.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 상품 검색용 토크나이저
+ * <p>
+ * NFKC 정규화 + 소문자 변환 후 문자 종류별 연속 구간으로 나눈다.
+ * 라틴 문자/숫자 구간은 단어 하나를 토큰으로, 한글/한자/가나 구간은 띄어쓰기가 일정하지 않으므로
+ * 글자 2-gram을 토큰으로 쓴다 ("반팔티셔츠" → 반팔, 팔티, 티셔, 셔츠). 한 글자짜리 구간은 그 글자 하나가 토큰이다.
+ * 색인과 질의에 같은 규칙을 쓰므로 "티셔츠"로 "반팔티셔츠"를 찾을 수 있다.
+ * </p>
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        StringBuilder word = new StringBuilder();
+        List<Integer> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.add(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjkRun, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens);
+        return tokens;
+    }
+
+    /**
+     * 정규화한 텍스트를 글자/숫자가 아닌 문자 기준으로 나눈 단어 목록 (2-gram으로 쪼개지 않음, 오타 교정용)
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, words);
+            }
+        }
+        flushWord(word, words);
+        return words;
+    }
+
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<Integer> run, List<String> tokens) {
+        if (run.size() == 1) {
+            tokens.add(new String(Character.toChars(run.get(0))));
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            tokens.add(new StringBuilder().appendCodePoint(run.get(i)).appendCodePoint(run.get(i + 1)).toString());
+        }
+        run.clear();
+    }
+}
@@ -0,0 +1,268 @@
+package com.commerceweb.search;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * 상품명 자동완성 접두사 트리 (불변, 배열로 압축)
+ * <p>
+ * 정규화한 상품명(NFKC + 소문자)과 그 안의 각 단어 시작 위치부터의 접미사를 넣어,
+ * "iph"로 "Apple iPhone 15"를 찾을 수 있게 한다. 노드마다 그 아래 완성 후보 중 가중치 상위 K개를
+ * 미리 계산해 두므로 조회는 질의 길이만큼 자식 간선을 이분 탐색하고 저장된 목록을 그대로 읽으면 끝난다.
+ * </p>
+ * 구성 중에도 만든 뒤에도 간선/후보를 int·char·long 배열 몇 개로만 들고 있으며 (노드 객체 없음), 변경은 전체를 다시 만들어 교체한다.
+ */
+public final class SuggestionTrie {
+
+    /**
+     * @param weight 클수록 앞 (조회수/평점으로 계산)
+     */
+    public record Entry(long productId, String name, double weight) { }
+
+    public record Suggestion(long productId, String name) { }
+
+    private final long[] productIds;
+    private final String[] names;
+    /** 노드 i의 자식 간선은 edgeLabels/edgeTargets[edgeStart[i], edgeStart[i+1]) (라벨 오름차순) */
+    private final int[] edgeStart;
+    private final char[] edgeLabels;
+    private final int[] edgeTargets;
+    /** 노드 i의 상위 K 후보(항목 번호)는 topEntries[topStart[i], topStart[i+1]) */
+    private final int[] topStart;
+    private final int[] topEntries;
+
+    private SuggestionTrie(long[] productIds, String[] names, int[] edgeStart, char[] edgeLabels, int[] edgeTargets,
+                           int[] topStart, int[] topEntries) {
+        this.productIds = productIds;
+        this.names = names;
+        this.edgeStart = edgeStart;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.topStart = topStart;
+        this.topEntries = topEntries;
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).strip();
+    }
+
+    /**
+     * 질의로 시작하는 (상품명 또는 상품명 속 단어) 완성 후보를 가중치 순으로 최대 limit개 반환한다.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            int index = Arrays.binarySearch(edgeLabels, edgeStart[node], edgeStart[node + 1], prefix.charAt(i));
+            if (index < 0) {
+                return List.of();
+            }
+            node = edgeTargets[index];
+        }
+        int end = Math.min(topStart[node + 1], topStart[node] + limit);
+        List<Suggestion> suggestions = new ArrayList<>(end - topStart[node]);
+        for (int i = topStart[node]; i < end; i++) {
+            int entry = topEntries[i];
+            suggestions.add(new Suggestion(productIds[entry], names[entry]));
+        }
+        return suggestions;
+    }
+
+    public int entryCount() {
+        return productIds.length;
+    }
+
+    public int nodeCount() {
+        return edgeStart.length - 1;
+    }
+
+    /**
+     * 두 번 훑어 배열로 바로 만든다 (노드마다 자식 맵/후보 배열을 만들지 않는다).
+     * 첫 번째는 노드를 만들고 노드별 후보 수(최대 K)를 세고, 두 번째는 그 크기대로 잘라 둔 자리에 항목 번호를 채운다.
+     * 간선은 (부모 노드, 문자)를 long 키로 하는 개방 주소 해시 표 하나에 담았다가 키 정렬 한 번으로 노드별 라벨 순 간선 배열이 된다.
+     *
+     * @param topK 노드마다 보관할 후보 수
+     */
+    public static SuggestionTrie build(List<Entry> entries, int topK) {
+        // 가중치 내림차순(같으면 ID 오름차순)으로 항목 번호를 매기면 번호가 작을수록 앞 순위가 된다
+        List<Entry> sorted = new ArrayList<>(entries.size());
+        List<String> normalizedNames = new ArrayList<>(entries.size());
+        entries.stream()
+                .filter(entry -> !normalize(entry.name()).isEmpty())
+                .sorted(Comparator.comparingDouble(Entry::weight).reversed().thenComparingLong(Entry::productId))
+                .forEach(entry -> {
+                    sorted.add(entry);
+                    normalizedNames.add(normalize(entry.name()));
+                });
+
+        // 1) 노드 생성 + 노드별 후보 수. 항목을 순위 순서로 넣으므로 앞에서부터 K개가 곧 상위 K개 (같은 항목은 한 번만)
+        EdgeTable edges = new EdgeTable(1024);
+        int[] topSizes = new int[1024];
+        int[] lastEntry = new int[1024];
+        Arrays.fill(lastEntry, -1);
+        int nodes = 1;
+        for (int entry = 0; entry < sorted.size(); entry++) {
+            String name = normalizedNames.get(entry);
+            for (int start = 0; start < name.length(); start++) {
+                if (!isWordStart(name, start)) {
+                    continue;
+                }
+                int node = 0;
+                for (int i = start; i < name.length(); i++) {
+                    long key = edgeKey(node, name.charAt(i));
+                    int child = edges.get(key);
+                    if (child < 0) {
+                        child = nodes++;
+                        edges.put(key, child);
+                        if (child == topSizes.length) {
+                            topSizes = Arrays.copyOf(topSizes, child * 2);
+                            lastEntry = Arrays.copyOf(lastEntry, child * 2);
+                            Arrays.fill(lastEntry, child, lastEntry.length, -1);
+                        }
+                    }
+                    node = child;
+                    if (lastEntry[node] != entry && topSizes[node] < topK) {
+                        topSizes[node]++;
+                        lastEntry[node] = entry;
+                    }
+                }
+            }
+        }
+
+        // 2) 노드별 후보 자리를 잡고 같은 순서로 다시 훑어 채운다
+        int[] topStart = new int[nodes + 1];
+        for (int node = 0; node < nodes; node++) {
+            topStart[node + 1] = topStart[node] + topSizes[node];
+        }
+        int[] topEntries = new int[topStart[nodes]];
+        int[] filled = new int[nodes];
+        Arrays.fill(lastEntry, 0, nodes, -1);
+        for (int entry = 0; entry < sorted.size(); entry++) {
+            String name = normalizedNames.get(entry);
+            for (int start = 0; start < name.length(); start++) {
+                if (!isWordStart(name, start)) {
+                    continue;
+                }
+                int node = 0;
+                for (int i = start; i < name.length(); i++) {
+                    node = edges.get(edgeKey(node, name.charAt(i)));
+                    if (lastEntry[node] != entry && filled[node] < topSizes[node]) {
+                        topEntries[topStart[node] + filled[node]++] = entry;
+                        lastEntry[node] = entry;
+                    }
+                }
+            }
+        }
+
+        // 간선: (부모, 문자) 키 정렬 = 부모 순, 같은 부모 안에서는 라벨 순
+        long[] keys = edges.keys();
+        Arrays.sort(keys);
+        int[] edgeStart = new int[nodes + 1];
+        char[] edgeLabels = new char[keys.length];
+        int[] edgeTargets = new int[keys.length];
+        for (int edge = 0; edge < keys.length; edge++) {
+            edgeStart[(int) (keys[edge] >>> 16) + 1]++;
+            edgeLabels[edge] = (char) keys[edge];
+            edgeTargets[edge] = edges.get(keys[edge]);
+        }
+        for (int node = 0; node < nodes; node++) {
+            edgeStart[node + 1] += edgeStart[node];
+        }
+
+        long[] productIds = new long[sorted.size()];
+        String[] names = new String[sorted.size()];
+        for (int entry = 0; entry < sorted.size(); entry++) {
+            productIds[entry] = sorted.get(entry).productId();
+            names[entry] = sorted.get(entry).name();
+        }
+        return new SuggestionTrie(productIds, names, edgeStart, edgeLabels, edgeTargets, topStart, topEntries);
+    }
+
+    /** 상품명 전체 또는 상품명 속 단어가 시작하는 위치 */
+    private static boolean isWordStart(String name, int start) {
+        return Character.isLetterOrDigit(name.charAt(start))
+                && (start == 0 || !Character.isLetterOrDigit(name.charAt(start - 1)));
+    }
+
+    private static long edgeKey(int parent, char label) {
+        return ((long) parent << 16) | label;
+    }
+
+    /** 구성 중에만 쓰는 간선 표: (부모, 문자) long 키 → 자식 노드 번호 (선형 탐사, 박싱 없음) */
+    private static final class EdgeTable {
+
+        private static final long EMPTY = -1L;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        EdgeTable(int capacity) {
+            keys = new long[Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1];
+            values = new int[keys.length];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /** 없으면 -1 */
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        long[] keys() {
+            long[] result = new long[size];
+            int count = 0;
+            for (long key : keys) {
+                if (key != EMPTY) {
+                    result[count++] = key;
+                }
+            }
+            return result;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[keys.length];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    put(oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.commerceweb.service;
 import com.commerceweb.entity.Order;
 import com.commerceweb.entity.Product;
 import com.commerceweb.entity.User;
+import com.commerceweb.event.OrderChangedEvent;
 import com.commerceweb.repository.OrderRepository;
 import com.commerceweb.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,7 @@ import java.util.List;
 public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Order createOrder(User user, Long productId, Integer quantity) {
@@ -32,7 +35,10 @@ public class OrderService {
                 .status("PAID")               // 명시적 추가
                 .build();
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.created(
+                saved.getId(), user.getId(), product.getId(), saved.getOrderDate()));
+        return saved;
     }
 
     public List<Order> getMyOrders(User user) {
@@ -52,6 +58,8 @@ public class OrderService {
 
         // ✅ DB에서 실제 데이터 삭제
         orderRepository.delete(order);
+        eventPublisher.publishEvent(OrderChangedEvent.cancelled(
+                order.getId(), user.getId(), order.getProduct().getId(), order.getOrderDate()));
     }
 
     @Transactional
@@ -1,20 +1,63 @@
 package com.commerceweb.service;
 
+import com.commerceweb.config.cache.StaleWhileRevalidate;
+import com.commerceweb.dto.product.ProductCursor;
+import com.commerceweb.dto.product.ProductFacetResponse;
+import com.commerceweb.dto.product.ProductPageResponse;
+import com.commerceweb.dto.product.ProductResponse;
+import com.commerceweb.dto.product.ProductSuggestionResponse;
 import com.commerceweb.entity.Product;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.recommendation.RecentlyViewedStore;
 import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.ProductSort;
+import com.commerceweb.search.ProductFacetEngine;
+import com.commerceweb.search.ProductFacetIndex;
+import com.commerceweb.search.ProductSearchEngine;
+import com.commerceweb.search.ProductSuggestEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    /** 인기/트렌딩 상품 ID 목록 캐시 (stale-while-revalidate) */
+    public static final String TOP_RATED_CACHE = "topRatedProducts";
+    public static final String TRENDING_CACHE = "trendingProducts";
+    private static final String RANKING_KEY = "top10";
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StaleWhileRevalidate staleWhileRevalidate;
+    private final RecentlyViewedStore recentlyViewedStore;
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductSuggestEngine productSuggestEngine;
+    private final ProductFacetEngine productFacetEngine;
+
+    /** 이름 검색 시 색인에서 가져올 최대 상품 수 */
+    @Value("${search.max-results:1000}")
+    private int maxSearchResults = 1000;
+
+    /** 이름 검색 결과가 이보다 적으면 오타를 교정한 질의로 한 번 더 찾는다 */
+    @Value("${search.fuzzy.min-results:3}")
+    private int fuzzyMinResults = 3;
 
     /**
      * 모든 상품 조회
@@ -27,22 +70,145 @@ public class ProductService {
 
     /**
      * 상품 검색 (카테고리 + 이름)
+     * 검색 색인이 준비되어 있으면 이름 검색은 색인에서 BM25 순 상품 ID를 얻어 기본 키로 조회한다.
+     * 색인은 질의 단어를 색인 토큰의 부분 문자열로 맞추므로("iph"/"phone" → iPhone, "폰" → 갤럭시폰)
+     * LIKE 검색과 같은 상품을 전체 스캔 없이 찾는다 (색인이 꺼져 있거나 아직 만들어지지 않았을 때만 LIKE 부분 문자열 검색).
+     * 그래도 결과가 search.fuzzy.min-results보다 적으면 오타를 교정한 질의("아이혼" → "아이폰")의 색인 결과를 덧붙인다.
      */
     @Transactional(readOnly = true)
     public List<Product> getProducts(String category, String name) {
         log.info("🔍 상품 검색: category={}, name={}", category, name);
 
-        if (category != null && !category.isEmpty()) {
-            if (name != null && !name.isEmpty()) {
-                return productRepository.findByCategoryAndNameContainingIgnoreCase(category, name);
+        if (name == null || name.isEmpty()) {
+            return category != null && !category.isEmpty()
+                    ? productRepository.findByCategory(category)
+                    : productRepository.findAll();
+        }
+        if (!productSearchEngine.isReady()) {
+            return findByNameContaining(category, name);
+        }
+
+        String categoryFilter = category == null || category.isEmpty() ? null : category;
+        List<Long> ids = productSearchEngine.search(name, categoryFilter, maxSearchResults);
+        Map<Long, Product> results = new LinkedHashMap<>();
+        findInOrder(ids).forEach(product -> results.put(product.getId(), product));
+        log.info("⚡ 검색 색인 적중 - {} 개 상품", results.size());
+
+        if (results.size() < fuzzyMinResults) {
+            String corrected = productSearchEngine.correct(name);
+            if (corrected != null) {
+                log.info("🔤 오타 교정 검색: '{}' → '{}'", name, corrected);
+                List<Long> correctedIds = productSearchEngine.search(corrected, categoryFilter, maxSearchResults).stream()
+                        .filter(id -> !results.containsKey(id))
+                        .toList();
+                findInOrder(correctedIds).forEach(product -> results.put(product.getId(), product));
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /** 기존 LIKE '%name%' 부분 문자열 검색 (카테고리 필터 포함) */
+    private List<Product> findByNameContaining(String category, String name) {
+        return category != null && !category.isEmpty()
+                ? productRepository.findByCategoryAndNameContainingIgnoreCase(category, name)
+                : productRepository.findByNameContainingIgnoreCase(name);
+    }
+
+    /**
+     * 상품 검색 (커서 페이지)
+     * (정렬 키, id) 키셋으로 다음 페이지를 읽으므로 깊은 페이지도 OFFSET 스캔 없이 조회하고,
+     * 페이지를 넘기는 중에 새 상품이 등록되어도 이미 본 상품이 다시 나오거나 건너뛰지 않는다.
+     * 이름 검색은 검색 색인이 찾은 상품 ID 안에서 키셋으로 읽는다.
+     * 색인은 BM25 상위 search.max-results개까지만 돌려주므로, 일치하는 상품이 그보다 많으면
+     * 그 안에서 최신순/가격순으로 자른 목록은 틀린 목록이 된다. 이때와 색인이 준비되지 않았을 때는
+     * LIKE 부분 문자열 조건으로 전체 일치 집합을 키셋으로 읽는다 (일치가 많은 질의라 정렬 인덱스로 금방 한 페이지가 찬다).
+     *
+     * @param cursor 이전 응답의 nextCursor (첫 페이지면 null)
+     * @param size   페이지 크기 (1~100)
+     */
+    @Transactional(readOnly = true)
+    public ProductPageResponse getProductPage(String category, String name, String sort, String cursor, int size) {
+        ProductSort productSort = ProductSort.from(sort);
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor, productSort);
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        log.info("🔍 상품 페이지 조회: category={}, name={}, sort={}, size={}, cursor={}",
+                category, name, productSort, pageSize, after != null);
+
+        String categoryFilter = category == null || category.isEmpty() ? null : category;
+        String nameFilter = name == null || name.isEmpty() ? null : name;
+        List<Long> productIds = null;
+        if (nameFilter != null && productSearchEngine.isReady()) {
+            // 상한을 넘는지 알기 위해 한 개 더 찾는다
+            List<Long> hits = productSearchEngine.search(nameFilter, categoryFilter, maxSearchResults + 1);
+            if (hits.isEmpty()) {
+                return new ProductPageResponse(List.of(), null, false);
+            }
+            if (hits.size() <= maxSearchResults) {
+                productIds = hits;
+                nameFilter = null;
             } else {
-                return productRepository.findByCategory(category);
+                log.info("🔁 색인 일치 상품이 {}개를 넘어 LIKE 키셋 조회로 전환: name={}", maxSearchResults, nameFilter);
             }
-        } else if (name != null && !name.isEmpty()) {
-            return productRepository.findByNameContainingIgnoreCase(name);
-        } else {
-            return productRepository.findAll();
         }
+
+        // 한 개 더 읽어 다음 페이지 존재 여부를 판단
+        List<Product> rows = productRepository.findPage(
+                categoryFilter,
+                nameFilter,
+                productIds,
+                productSort,
+                after == null ? null : after.key(),
+                after == null ? null : after.id(),
+                pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<Product> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? ProductCursor.after(productSort, page.get(page.size() - 1)).encode() : null;
+
+        return new ProductPageResponse(page.stream().map(ProductResponse::from).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * 상품 목록 패싯 개수 (카테고리 / 가격 구간 / 평균 평점 구간)
+     * 메모리 비트맵 색인에서 한 번에 세므로 패싯마다 GROUP BY 쿼리를 보내지 않는다.
+     *
+     * @param priceBand  선택한 가격 구간 번호 (없으면 null)
+     * @param ratingBand 선택한 평점 구간 번호 (없으면 null)
+     * @throws IllegalArgumentException 구간 번호가 범위를 벗어난 경우
+     */
+    public ProductFacetResponse getProductFacets(String category, Integer priceBand, Integer ratingBand) {
+        ProductFacetIndex.Counts counts = productFacetEngine.count(
+                category == null || category.isEmpty() ? null : category, priceBand, ratingBand);
+
+        List<ProductFacetResponse.CategoryCount> categories = counts.categories().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new ProductFacetResponse.CategoryCount(entry.getKey(), entry.getValue()))
+                .toList();
+        return new ProductFacetResponse(counts.total(), categories,
+                bandCounts(productFacetEngine.priceBounds(), counts.priceBands()),
+                bandCounts(productFacetEngine.ratingBounds(), counts.ratingBands()));
+    }
+
+    private static List<ProductFacetResponse.BandCount> bandCounts(double[] bounds, int[] counts) {
+        List<ProductFacetResponse.BandCount> bands = new ArrayList<>(counts.length);
+        for (int band = 0; band < counts.length; band++) {
+            bands.add(new ProductFacetResponse.BandCount(band,
+                    band == 0 ? null : bounds[band - 1],
+                    band == bounds.length ? null : bounds[band],
+                    counts[band]));
+        }
+        return bands;
+    }
+
+    /**
+     * 상품명 자동완성
+     * 메모리의 자동완성 트리만 읽으므로 DB를 조회하지 않는다 (트리가 아직 없으면 빈 목록).
+     *
+     * @param limit 후보 수 (search.suggest.top-k 이하로 잘림)
+     */
+    public List<ProductSuggestionResponse> suggest(String query, int limit) {
+        return productSuggestEngine.suggest(query, limit).stream()
+                .map(suggestion -> new ProductSuggestionResponse(suggestion.productId(), suggestion.name()))
+                .toList();
     }
 
     /**
@@ -50,6 +216,27 @@ public class ProductService {
      */
     @Transactional
     public Product getProduct(Long id) {
+        return getProduct(id, null);
+    }
+
+    /**
+     * 단일 상품 상세 조회 (조회수 증가 + 방문자 세션의 최근 본 상품 기록)
+     *
+     * @param sessionId 방문자 세션 ID (없으면 기록하지 않음)
+     */
+    @Transactional
+    public Product getProduct(Long id, String sessionId) {
+        return getProduct(id, sessionId, null);
+    }
+
+    /**
+     * 단일 상품 상세 조회 (조회수 증가 + 방문자 세션과 로그인 사용자의 최근 본 상품 기록)
+     *
+     * @param sessionId 방문자 세션 ID (없으면 기록하지 않음)
+     * @param userId 로그인 사용자 ID (비로그인이면 null, 하이브리드 추천의 최근 본 상품 소스용)
+     */
+    @Transactional
+    public Product getProduct(Long id, String sessionId, Long userId) {
         log.info("🔎 상품 상세 조회: id={}", id);
 
         Product product = productRepository.findById(id)
@@ -58,6 +245,13 @@ public class ProductService {
         // 조회수 1 증가
         product.setViewCount(product.getViewCount() + 1);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.viewed(product.getId(), product.getCategory()));
+        if (sessionId != null) {
+            recentlyViewedStore.record(sessionId, product.getId());
+        }
+        if (userId != null) {
+            recentlyViewedStore.recordForUser(userId, product.getId());
+        }
 
         return product;
     }
@@ -68,7 +262,9 @@ public class ProductService {
     @Transactional
     public Product createProduct(Product product) {
         log.info("✨ 새 상품 등록: {}", product.getName());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved.getId(), saved.getCategory()));
+        return saved;
     }
 
     /**
@@ -87,7 +283,9 @@ public class ProductService {
         if (updatedProduct.getCategory() != null) product.setCategory(updatedProduct.getCategory());
         if (updatedProduct.getImageUrl() != null) product.setImageUrl(updatedProduct.getImageUrl());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved.getId(), saved.getCategory()));
+        return saved;
     }
 
     /**
@@ -96,7 +294,9 @@ public class ProductService {
     @Transactional
     public void deleteProduct(Long id) {
         log.info("🗑️ 상품 삭제: id={}", id);
+        String category = productRepository.findById(id).map(Product::getCategory).orElse(null);
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id, category));
     }
 
     /**
@@ -109,7 +309,7 @@ public class ProductService {
         log.info("🏆 인기 상품 조회 (Top 10)");
         // return productRepository.findAllByOrderByAverageRatingDesc(); // (구버전)
         // return productRepository.findTop10ByOrderByAverageRatingDescReviewCountDesc(); (X)
-        return productRepository.findTop10ByOrderByAverageRatingDescViewCountDesc(); // (O)
+        return cachedRanking(TOP_RATED_CACHE, productRepository::findTop10ByOrderByAverageRatingDescViewCountDesc); // (O)
     }
 
     /**
@@ -123,7 +323,7 @@ public class ProductService {
         // return productRepository.findAllByOrderByViewCountDesc(); // (구버전)
 
         // 만약 Product 엔티티에 createdAt 필드가 있다면 아래 사용:
-        return productRepository.findTop10ByOrderByCreatedAtDesc();
+        return cachedRanking(TRENDING_CACHE, productRepository::findTop10ByOrderByCreatedAtDesc);
 
         // ⚠️ 만약 createdAt 필드가 없다면, ID 역순이 곧 등록순이므로 아래 사용:
         // return productRepository.findTop10ByOrderByIdDesc();
@@ -144,4 +344,36 @@ public class ProductService {
     public List<Product> getProductsByCategory(String category) {
         return productRepository.findByCategory(category);
     }
+
+    /**
+     * 순위 쿼리 결과의 ID 목록을 stale-while-revalidate로 캐시하고, 상세는 ID로 조회한다.
+     * 오래된 목록이면 바로 응답하고 순위 쿼리는 백그라운드에서 다시 실행한다.
+     * SWR이 꺼져 있어도 캐시는 그대로 쓰고 (hard TTL까지 일반 캐시), 백그라운드 갱신만 하지 않는다.
+     */
+    private List<Product> cachedRanking(String cacheName, Supplier<List<Product>> query) {
+        List<Long> ids = staleWhileRevalidate.get(cacheName, RANKING_KEY,
+                () -> query.get().stream().map(Product::getId).toList());
+        return findInOrder(ids);
+    }
+
+    /**
+     * 트렌딩(신상품 순)은 상품 등록/삭제로 바로 바뀌므로 커밋 이후 목록을 지운다 (TTL까지 기다리지 않음).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.CREATED || event.type() == ProductChangedEvent.Type.DELETED) {
+            staleWhileRevalidate.evict(TRENDING_CACHE, RANKING_KEY);
+            log.debug("🧹 트렌딩 상품 캐시 무효화 - {} productId: {}", event.type(), event.productId());
+        }
+    }
+
+    /** ID 목록 순서를 유지한 채 상품을 조회한다 */
+    private List<Product> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 }
@@ -3,6 +3,7 @@ package com.commerceweb.service;
 import com.commerceweb.entity.Product;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.entity.User;
+import com.commerceweb.event.RatingChangedEvent;
 import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
 import com.commerceweb.repository.UserRepository;
@@ -10,7 +11,7 @@ import com.commerceweb.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +25,12 @@ public class RatingService {
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 상품 평가 생성 또는 업데이트
      */
     @Transactional
-    @CacheEvict(value = "recommendations", key = "#userId")
     public Rating rateProduct(Long userId, Long productId, Integer score, String review) {
         log.info("⭐ 상품 평가: userId={}, productId={}, score={}", userId, productId, score);
 
@@ -61,6 +62,9 @@ public class RatingService {
         Rating savedRating = ratingRepository.save(rating);
         updateProductRating(product);
 
+        // 메모리 추천 엔진 증분 반영 + 추천 캐시 무효화 (커밋 이후 처리)
+        eventPublisher.publishEvent(RatingChangedEvent.upserted(userId, productId, score));
+
         return savedRating;
     }
 
@@ -77,7 +81,6 @@ public class RatingService {
      * 평가 삭제
      */
     @Transactional
-    @CacheEvict(value = "recommendations", key = "#userId")
     public void deleteRating(Long userId, Long ratingId) {
         log.info("🗑️ 평가 삭제");
 
@@ -85,8 +88,11 @@ public class RatingService {
                 .orElseThrow(() -> new RuntimeException("평가를 찾을 수 없습니다"));
 
         Product product = rating.getProduct();
+        Long ratedUserId = rating.getUser().getId();
         ratingRepository.deleteById(ratingId);
         updateProductRating(product);
+
+        eventPublisher.publishEvent(RatingChangedEvent.deleted(ratedUserId, product.getId()));
     }
 
     /**
@@ -0,0 +1,203 @@
+package com.commerceweb.service;
+
+import com.commerceweb.recommendation.PrecomputedRecommendationStore;
+import com.commerceweb.repository.OrderRepository;
+import com.commerceweb.repository.RatingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 활성 사용자 전체의 추천 순위 일괄 사전 계산 (이메일 캠페인, 홈 화면 개인화용)
+ * <p>
+ * 최근 active-window 안에 평가하거나 주문한 사용자를 partition-size명씩 나누고,
+ * 파티션마다 가상 스레드에서 사용자별 순위를 계산한 뒤 {@link PrecomputedRecommendationStore}에 파이프라인으로 한 번에 쓴다.
+ * 동시에 도는 파티션 수는 parallelism으로 제한한다 (요청 경로와 DB 커넥션을 나눠 쓰므로).
+ * </p>
+ * 메트릭: recommendation.precompute.partition(파티션별 소요 시간), recommendation.precompute.progress(처리한 사용자 수),
+ * recommendation.precompute.failures(계산 실패 사용자 수). 완료 시 처리량(users/s)을 로그로 남긴다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationPrecomputeJob {
+
+    private final RecommendationService recommendationService;
+    private final RatingRepository ratingRepository;
+    private final OrderRepository orderRepository;
+    private final PrecomputedRecommendationStore precomputedRecommendations;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recommendation.precompute.enabled:false}")
+    private boolean enabled = false;
+
+    /** 이 기간 안에 평가/주문한 사용자만 계산한다 */
+    @Value("${recommendation.precompute.active-window:30d}")
+    private Duration activeWindow = Duration.ofDays(30);
+
+    @Value("${recommendation.precompute.partition-size:500}")
+    private int partitionSize = 500;
+
+    /** 동시에 계산할 파티션 수 */
+    @Value("${recommendation.precompute.parallelism:4}")
+    private int parallelism = 4;
+
+    /**
+     * @param users         대상 사용자 수
+     * @param partitions    파티션 수
+     * @param failed        계산/저장에 실패한 사용자 수 (해당 사용자는 요청 시 계산)
+     * @param elapsedMillis 전체 소요 시간
+     */
+    public record Summary(int users, int partitions, int failed, long elapsedMillis) { }
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong processedUsers = new AtomicLong();
+    private Timer partitionTimer;
+    private Counter failureCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        partitionTimer = Timer.builder("recommendation.precompute.partition")
+                .description("추천 사전 계산 파티션 하나의 계산 + 저장 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        failureCounter = Counter.builder("recommendation.precompute.failures")
+                .description("추천 사전 계산에 실패한 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.precompute.progress", processedUsers, AtomicLong::get)
+                .description("현재(또는 마지막) 사전 계산에서 처리한 사용자 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${recommendation.precompute.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * 활성 사용자 전체의 추천 순위를 계산해 저장한다. 이미 실행 중이면 건너뛰고 empty.
+     */
+    public Optional<Summary> run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("⏭️ 추천 사전 계산이 이미 진행 중입니다");
+            return Optional.empty();
+        }
+        try {
+            long startTime = System.nanoTime();
+            List<Long> users = activeUserIds();
+            List<List<Long>> partitions = new ArrayList<>();
+            for (int from = 0; from < users.size(); from += partitionSize) {
+                partitions.add(users.subList(from, Math.min(users.size(), from + partitionSize)));
+            }
+            processedUsers.set(0);
+            log.info("🚀 추천 사전 계산 시작 - 활성 사용자 {}명, 파티션 {}개 (동시 {}개)",
+                    users.size(), partitions.size(), parallelism);
+
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger completedPartitions = new AtomicInteger();
+            Semaphore permits = new Semaphore(Math.max(1, parallelism));
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(partitions.size());
+                for (List<Long> partition : partitions) {
+                    futures.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            failed.addAndGet(computePartition(partition));
+                        } finally {
+                            permits.release();
+                        }
+                        logProgress(completedPartitions.incrementAndGet(), partitions.size(), users.size());
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            log.info("✅ 추천 사전 계산 완료 ({}ms) - 사용자 {}명, 실패 {}명, 처리량 {} users/s",
+                    elapsedMillis, users.size(), failed.get(),
+                    String.format("%.1f", users.size() * 1000.0 / Math.max(1, elapsedMillis)));
+            return Optional.of(new Summary(users.size(), partitions.size(), failed.get(), elapsedMillis));
+        } catch (Exception e) {
+            log.error("❌ 추천 사전 계산 실패: {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+            return Optional.empty();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 파티션 하나를 계산해 한 번에 저장하고 실패한 사용자 수를 반환.
+     * 무효화 버전은 계산 전에 읽어 두어, 계산 도중 평점/주문이 바뀐 사용자의 순위는 저장하지 않는다.
+     */
+    private int computePartition(List<Long> partition) {
+        long startTime = System.nanoTime();
+        Map<Long, String> versions = precomputedRecommendations.versions(partition);
+        Map<Long, List<Long>> ranked = new LinkedHashMap<>();
+        int failed = 0;
+        for (Long userId : partition) {
+            try {
+                ranked.put(userId, recommendationService.computeRankedProductIds(userId));
+            } catch (Exception e) {
+                failed++;
+                failureCounter.increment();
+                log.warn("⚠️ 사용자 추천 사전 계산 실패 - userId: {}, {}", userId, e.getMessage());
+            }
+            processedUsers.incrementAndGet();
+        }
+        try {
+            int invalidated = precomputedRecommendations.putAll(ranked, versions, System.currentTimeMillis());
+            if (invalidated > 0) {
+                log.debug("계산 도중 무효화된 사용자 {}명은 저장하지 않음 (요청 시 계산)", invalidated);
+            }
+        } catch (Exception e) {
+            failed += ranked.size();
+            failureCounter.increment(ranked.size());
+            log.warn("⚠️ 파티션 저장 실패 (해당 사용자는 요청 시 계산) - 사용자 {}명, {}", ranked.size(), e.getMessage());
+        }
+        long elapsed = System.nanoTime() - startTime;
+        partitionTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("파티션 완료 - 사용자 {}명, {}ms", partition.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return failed;
+    }
+
+    private List<Long> activeUserIds() {
+        LocalDateTime since = LocalDateTime.now().minus(activeWindow);
+        Set<Long> users = new TreeSet<>(ratingRepository.findUserIdsRatedSince(since));
+        users.addAll(orderRepository.findUserIdsOrderedSince(since));
+        return new ArrayList<>(users);
+    }
+
+    /** 대략 10% 단위로 진행 상황을 남긴다 */
+    private void logProgress(int completed, int total, int users) {
+        int step = Math.max(1, total / 10);
+        if (completed % step == 0 || completed == total) {
+            log.info("⏳ 추천 사전 계산 진행 - 파티션 {}/{} ({}%), 사용자 {}/{}명",
+                    completed, total, completed * 100 / total, processedUsers.get(), users);
+        }
+    }
+}
@@ -2,17 +2,38 @@
 
 package com.commerceweb.service;
 
+import com.commerceweb.dto.RatingTupleDto;
 import com.commerceweb.entity.Product;
-import com.commerceweb.entity.Rating;
+import com.commerceweb.recommendation.AlsEngine;
+import com.commerceweb.recommendation.CandidatePipeline;
+import com.commerceweb.recommendation.CoPurchaseEngine;
+import com.commerceweb.recommendation.DistributedLoadLock;
+import com.commerceweb.recommendation.EngineMode;
+import com.commerceweb.recommendation.ItemSimilarityEngine;
+import com.commerceweb.recommendation.PrecomputedRecommendationStore;
+import com.commerceweb.recommendation.ProductIdSet;
+import com.commerceweb.recommendation.ProductRankingIndex;
+import com.commerceweb.recommendation.ProductVectorIndex;
+import com.commerceweb.recommendation.RecommendationCache;
+import com.commerceweb.recommendation.RatingMatrixEngine;
+import com.commerceweb.recommendation.RecentlyViewedStore;
+import com.commerceweb.recommendation.RecommendationMetrics;
+import com.commerceweb.recommendation.SimilarUserLshEngine;
+import com.commerceweb.recommendation.SingleFlight;
+import com.commerceweb.recommendation.UserExclusionIndex;
 import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,8 +44,25 @@ import java.util.stream.Collectors;
  * 3. 인기 상품 조회 (Cold Start 문제 해결용)
  * [성능 최적화]
  * - Redis 캐싱으로 동일 사용자의 반복 요청 시간 단축
+ *   (사용자당 최대 깊이의 추천 순위 하나만 저장하고 limit만큼 잘라 사용, 평점/리뷰/주문 변경 시 해당 사용자만 무효화)
+ * - "함께 구매한 상품"은 주문 기반 함께 구매 행렬에서 상위 K개를 메모리에서 바로 조회
+ * - 야간 일괄 사전 계산 결과가 있으면 캐시 미적중 시 그 순위를 사용하고, 없는 사용자만 요청 시 계산
+ * - recommendation.hybrid.enabled=true 설정 시 협업 필터링/선호 카테고리/인기/최근 본 상품 연관 후보를 모아 가중 역순위 결합으로 합산
+ *   (메모리 인덱스와 Redis만 읽는 소스를 동시에 실행하고 마감을 넘기면 버림, DB로만 계산되는 소스는 등록하지 않음)
+ * - 비로그인 방문자는 세션의 최근 본 상품(Redis)을 기준으로 메모리 상주 아이템 이웃/함께 구매 목록만으로 추천
+ * - 이미 평가한(선택 시 구매한) 상품은 사용자별 압축 비트맵으로 걸러냄 (평점/주문 변경 이벤트로 갱신)
+ * - 같은 사용자의 동시 캐시 미적중은 단일 비행(single-flight)으로 한 번만 계산 (선택적으로 Redis 락으로 노드 간에도)
  * - 읽기 전용 트랜잭션으로 DB 최적화
- * - 상위 5명의 유사 사용자만 분석 (시간 복잡도 감소)
+ * - 상위 K명(기본 5명)의 유사 사용자만 분석 (시간 복잡도 감소)
+ * - 유사 사용자 평점은 프로젝션 쿼리 한 번으로 일괄 조회 (K가 크면 청크로 나눠 호출 스레드의 커넥션에서 차례로 조회)
+ * - 단계별 소요 시간은 recommendation.stage 메트릭으로 노출
+ * - recommendation.engine.mode=matrix 설정 시 메모리 상주 평점 행렬로 DB 조회 없이 계산
+ * - recommendation.engine.mode=item-knn 설정 시 사전 계산된 아이템 유사도 이웃 목록 합산
+ * - recommendation.engine.mode=lsh 설정 시 2단계(유사 사용자 탐색)를 MinHash/LSH 근사 인덱스로 대체
+ * - recommendation.engine.mode=als 설정 시 ALS 잠재 요인 내적으로 상품 순위 계산
+ *   (HNSW 근사 최근접 이웃 인덱스가 준비되면 전체 상품 순회 대신 인덱스 조회)
+ * - 인기 상품/카테고리 추천은 메모리 상주 순위 인덱스에서 필요한 페이지의 ID만 읽고 ID로 조회
+ *   (평점 4.0 이상 전체 스캔, 카테고리 전체 조회 후 정렬 제거)
  */
 @Service
 @RequiredArgsConstructor
@@ -33,6 +71,103 @@ public class RecommendationService {
 
     private final RatingRepository ratingRepository;
     private final ProductRepository productRepository;
+    private final RatingMatrixEngine ratingMatrixEngine;
+    private final ItemSimilarityEngine itemSimilarityEngine;
+    private final SimilarUserLshEngine similarUserLshEngine;
+    private final AlsEngine alsEngine;
+    private final ProductVectorIndex productVectorIndex;
+    private final RecommendationMetrics recommendationMetrics;
+    private final RecommendationCache recommendationCache;
+    private final ProductRankingIndex productRankingIndex;
+    private final DistributedLoadLock distributedLoadLock;
+    private final CoPurchaseEngine coPurchaseEngine;
+    private final PrecomputedRecommendationStore precomputedRecommendations;
+    private final UserExclusionIndex userExclusionIndex;
+    private final RecentlyViewedStore recentlyViewedStore;
+
+    /** 같은 사용자의 동시 캐시 미적중을 계산 하나로 합친다 */
+    private final SingleFlight<Long, List<Product>> inFlightRecommendations = new SingleFlight<>();
+
+    /** 하이브리드 추천 메모리 후보 소스 동시 실행기 (요청 간 공유, init()에서 생성) */
+    private CandidatePipeline candidatePipeline;
+
+    @Value("${recommendation.engine.mode:jpa}")
+    private String engineMode;
+
+    /** 분석할 유사 사용자 수 (상위 K) */
+    @Value("${recommendation.similar-user-count:5}")
+    private int similarUserCount = 5;
+
+    /**
+     * 유사 사용자 평점 일괄 조회 시 쿼리 하나에 담을 사용자 수 (IN 목록 크기 제한).
+     * 초과분은 청크로 나눠 호출 스레드의 트랜잭션 커넥션에서 차례로 조회한다. 청크마다 별도 스레드로 돌리면 요청마다
+     * 커넥션을 추가로 잡아, 동시 요청이 많을 때 호출자가 쥔 커넥션과 맞물려 풀(Hikari)이 고갈될 수 있기 때문이다.
+     */
+    @Value("${recommendation.neighbour-fetch.chunk-size:20}")
+    private int neighbourFetchChunkSize = 20;
+
+    /** 카테고리 추천 페이지 크기 상한 (넘으면 이 값으로 줄인다) */
+    @Value("${recommendation.category.max-page-size:100}")
+    private int maxCategoryPageSize = 100;
+
+    /** 카테고리 추천에서 읽을 수 있는 최대 위치 (page × size, 넘는 페이지는 빈 목록) */
+    @Value("${recommendation.category.max-offset:10000}")
+    private int maxCategoryOffset = 10000;
+
+    /** 캐시에 저장할 추천 순위 깊이 (이 이하의 limit은 모두 같은 캐시 항목을 잘라서 응답) */
+    @Value("${recommendation.cache.depth:100}")
+    private int cacheDepth = 100;
+
+    /** 제외 후 limit을 못 채워 순위를 더 깊게 다시 계산할 때의 깊이 상한 */
+    @Value("${recommendation.exclusion.max-depth:1000}")
+    private int maxExclusionDepth = 1000;
+
+    /** 여러 후보 소스를 동시에 모아 합산하는 하이브리드 추천 사용 여부 */
+    @Value("${recommendation.hybrid.enabled:false}")
+    private boolean hybridEnabled = false;
+
+    /** 하이브리드 소스별 가중치 (0이면 해당 소스 미사용) */
+    @Value("${recommendation.hybrid.weight.cf:1.0}")
+    private double cfWeight = 1.0;
+
+    @Value("${recommendation.hybrid.weight.category:0.5}")
+    private double categoryWeight = 0.5;
+
+    @Value("${recommendation.hybrid.weight.popular:0.2}")
+    private double popularWeight = 0.2;
+
+    @Value("${recommendation.hybrid.weight.recent:0.7}")
+    private double recentWeight = 0.7;
+
+    /** 하이브리드 소스별 마감 시간 (요청 시작 기준, 넘기면 해당 소스 없이 합산) */
+    @Value("${recommendation.hybrid.deadline.cf:150ms}")
+    private Duration cfDeadline = Duration.ofMillis(150);
+
+    @Value("${recommendation.hybrid.deadline.category:80ms}")
+    private Duration categoryDeadline = Duration.ofMillis(80);
+
+    @Value("${recommendation.hybrid.deadline.popular:50ms}")
+    private Duration popularDeadline = Duration.ofMillis(50);
+
+    @Value("${recommendation.hybrid.deadline.recent:80ms}")
+    private Duration recentDeadline = Duration.ofMillis(80);
+
+    /** 선호 카테고리 소스에서 사용할 상위 카테고리 수 */
+    @Value("${recommendation.hybrid.preferred-categories:3}")
+    private int preferredCategoryCount = 3;
+
+    /**
+     * 모든 요청을 합쳐 동시에 실행할 메모리 후보 소스 수 (마감을 넘겨 아직 도는 소스 포함).
+     * 한도를 넘는 소스는 그 요청에서 빠진다.
+     */
+    @Value("${recommendation.hybrid.max-concurrent-sources:64}")
+    private int maxConcurrentSources = 64;
+
+    @PostConstruct
+    void init() {
+        recommendationMetrics.bindSingleFlight("recommendations", inFlightRecommendations);
+        candidatePipeline = new CandidatePipeline(maxConcurrentSources);
+    }
 
     /**
      * 협업 필터링(Collaborative Filtering) 기반 추천 메서드
@@ -52,8 +187,21 @@ public class RecommendationService {
      * @return 협업 필터링으로 계산된 추천 상품 리스트
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "recommendations", key = "#userId + '_' + #limit")
     public List<Product> getRecommendations(Long userId, int limit) {
+        return getRecommendations(userId, limit, false);
+    }
+
+    /**
+     * 협업 필터링 기반 추천 (구매한 상품 제외 옵션)
+     * 캐시/사전 계산된 순위를 꺼낸 뒤 사용자별 제외 비트맵으로 평가한 상품(과 excludePurchased면 구매한 상품)을 걸러
+     * limit개를 채운다. 순위 자체는 제외 옵션과 무관하게 사용자당 하나만 캐시한다.
+     * 순위가 깊이 끝까지 차 있는데 걸러낸 뒤 limit개가 안 되면(구매 이력이 많은 사용자),
+     * 제외할 상품 수만큼 더 깊게 다시 계산해 채운다 (이 순위는 캐시하지 않는다).
+     *
+     * @param excludePurchased true면 이미 구매한 상품도 제외
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getRecommendations(Long userId, int limit, boolean excludePurchased) {
         log.info("================================================================================");
         log.info("🔍 협업 필터링 추천 시작");
         log.info("================================================================================");
@@ -79,6 +227,281 @@ public class RecommendationService {
             throw e;
         }
 
+        // ==========================================
+        // 캐시 조회 (사용자당 순위 하나를 limit만큼 잘라 사용)
+        // ==========================================
+        if (limit <= cacheDepth) {
+            // 오래된 순위면 그대로 응답하고 백그라운드에서 다시 계산 (stale-while-revalidate)
+            Optional<List<Long>> cached = recommendationCache.get(userId, () -> loadCoalesced(userId));
+            if (cached.isPresent()) {
+                List<Long> cachedProductIds = cached.get();
+                log.info("⚡ 추천 캐시 적중 - 캐시된 순위 {}개 중 상위 {}개 반환", cachedProductIds.size(), limit);
+                return findProductsInOrder(applyExclusions(userId, cachedProductIds, cacheDepth, excludePurchased, limit));
+            }
+
+            // 일괄 사전 계산된 순위가 있으면 사용 (없는 사용자만 아래에서 직접 계산)
+            Optional<List<Long>> precomputed = precomputedRecommendations.get(userId);
+            if (precomputed.isPresent() && !precomputed.get().isEmpty()) {
+                List<Long> precomputedIds = precomputed.get();
+                log.info("📦 사전 계산 추천 사용 - 순위 {}개 중 상위 {}개 반환", precomputedIds.size(), limit);
+                return findProductsInOrder(applyExclusions(userId, precomputedIds, cacheDepth, excludePurchased, limit));
+            }
+        }
+
+        int depth = Math.max(limit, cacheDepth);
+        List<Product> ranked = limit <= cacheDepth
+                ? loadCoalesced(userId)
+                : computeAndCache(userId, limit);
+        List<Long> keptIds = applyExclusions(userId, ranked.stream().map(Product::getId).toList(), depth, excludePurchased, limit);
+        Map<Long, Product> rankedById = ranked.stream().collect(Collectors.toMap(Product::getId, p -> p, (a, b) -> a));
+        if (!rankedById.keySet().containsAll(keptIds)) {
+            // 더 깊게 다시 계산한 순위에서 채운 상품은 새로 조회
+            return findProductsInOrder(keptIds);
+        }
+        return keptIds.stream().map(rankedById::get).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * 순위에서 제외 대상을 걸러 상위 limit개 ID를 남긴다.
+     * 순위는 계산 시점 기준이라 그 뒤에 평가한 상품이 섞여 있을 수 있으므로 평가한 상품도 다시 거른다.
+     * 제외 인덱스를 쓸 수 없으면 순위를 그대로 자른다.
+     * <p>
+     * 걸러낸 뒤 limit개가 안 되는데 순위가 depth에서 잘린 것이면(뒤에 후보가 더 있을 수 있으면)
+     * limit + 제외할 상품 수 깊이(최대 max-depth)로 다시 계산해 거른다.
+     *
+     * @param depth 순위를 계산한 깊이 (순위 길이가 이보다 짧으면 후보가 더 없는 것)
+     */
+    private List<Long> applyExclusions(Long userId, List<Long> rankedIds, int depth, boolean excludePurchased, int limit) {
+        Optional<UserExclusionIndex.Exclusions> found = userExclusionIndex.find(userId);
+        if (found.isEmpty()) {
+            return rankedIds.subList(0, Math.min(limit, rankedIds.size()));
+        }
+        UserExclusionIndex.Exclusions exclusions = found.get();
+        List<Long> kept = exclusions.filter(rankedIds, excludePurchased, limit);
+        if (kept.size() >= limit || rankedIds.size() < depth || depth >= maxExclusionDepth) {
+            return kept;
+        }
+
+        int deeperDepth = (int) Math.min(maxExclusionDepth,
+                Math.max((long) depth + limit, (long) limit + exclusions.count(excludePurchased)));
+        log.info("🔁 제외 후 {}개 중 {}개만 남음 - 순위 깊이 {} → {}로 다시 계산", limit, kept.size(), depth, deeperDepth);
+        List<Long> deeperIds = computeRecommendations(userId, deeperDepth).stream().map(Product::getId).toList();
+        return exclusions.filter(deeperIds, excludePurchased, limit);
+    }
+
+    /**
+     * 캐시 깊이까지의 추천 순위를 계산한다. 같은 사용자에 대한 동시 미적중은 한 번만 계산하고 결과를 나눠 쓰며,
+     * 분산 락이 켜져 있으면 다른 노드가 계산 중일 때 그 결과가 캐시에 들어오기를 기다린다.
+     */
+    private List<Product> loadCoalesced(Long userId) {
+        return inFlightRecommendations.execute(userId, () -> {
+            if (!distributedLoadLock.isEnabled()) {
+                return computeAndCache(userId, cacheDepth);
+            }
+            return distributedLoadLock.callExclusive("recommendations:" + userId,
+                    () -> computeAndCache(userId, cacheDepth),
+                    () -> recommendationCache.get(userId).map(this::findProductsInOrder));
+        });
+    }
+
+    /**
+     * 캐시 깊이까지의 추천 순위(상품 ID)를 캐시를 거치지 않고 계산한다 (일괄 사전 계산용).
+     */
+    @Transactional(readOnly = true)
+    public List<Long> computeRankedProductIds(Long userId) {
+        return computeRecommendations(userId, cacheDepth).stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 순위를 계산해 캐시에 저장한다. 계산 전에 읽은 무효화 버전을 같이 넘겨,
+     * 계산 도중 평점/리뷰/주문이 바뀐 사용자의 오래된 순위는 캐시에 남기지 않는다 (응답에는 그대로 쓴다).
+     */
+    private List<Product> computeAndCache(Long userId, int depth) {
+        String version = recommendationCache.version(userId);
+        List<Product> ranked = computeRecommendations(userId, depth);
+        recommendationCache.put(userId, ranked.stream().map(Product::getId).collect(Collectors.toList()), version);
+        return ranked;
+    }
+
+    /**
+     * 추천 순위를 계산한다 (캐시 미적중 시). limit은 캐시 깊이까지 늘려서 호출된다.
+     */
+    private List<Product> computeRecommendations(Long userId, int limit) {
+        return hybridEnabled ? computeHybrid(userId, limit) : computeCollaborative(userId, limit);
+    }
+
+    /**
+     * 하이브리드 추천. 후보 소스별 순위를 가중 역순위 결합으로 합산한다.
+     * <ul>
+     *   <li>cf: 협업 필터링 (메모리 엔진 모드이고 적재가 끝났을 때만)</li>
+     *   <li>category: 평가한 상품이 많은 상위 카테고리의 순위 (카테고리를 번갈아 섞음)</li>
+     *   <li>popular: 전체 인기 순위</li>
+     *   <li>recent: 로그인 사용자가 최근 본 상품(Redis)의 아이템 이웃과 함께 구매 목록</li>
+     * </ul>
+     * 모든 소스는 메모리 인덱스(평점 행렬/아이템 이웃/ALS, 순위 인덱스, 함께 구매 행렬)나 Redis만 읽고 동시에 실행해
+     * 마감 안에 끝난 결과만 합산한다. DB 쿼리는 마감으로 끊을 수 없으므로(인터럽트로 멈추지 않고, 요청 트랜잭션 안의
+     * 쿼리 타임아웃은 트랜잭션 전체를 롤백시킨다) DB로만 계산할 수 있는 소스는 등록하지 않는다:
+     * jpa/lsh 모드의 cf, 순위 인덱스가 준비되기 전의 category/popular.
+     * 평가한 상품은 제외 인덱스에서 읽는다 (처음 보는 사용자만 기본 키 조회 한 번, 이후 메모리).
+     */
+    private List<Product> computeHybrid(Long userId, int limit) {
+        log.info("📍 하이브리드 추천 후보 수집 시작...");
+        long startTime = System.nanoTime();
+
+        List<Long> ratedProductIds = ratedProductIds(userId);
+
+        List<CandidatePipeline.Source> sources = new ArrayList<>();
+        Supplier<List<Long>> inMemoryCf = inMemoryCollaborative(userId, ratedProductIds, limit);
+        if (inMemoryCf != null) {
+            sources.add(new CandidatePipeline.Source("cf", cfDeadline, inMemoryCf));
+        } else {
+            log.debug("후보 소스 cf 제외 - 메모리 엔진이 준비되지 않음 (mode={})", engineMode);
+        }
+        if (productRankingIndex.isReady()) {
+            sources.add(new CandidatePipeline.Source("category", categoryDeadline,
+                    () -> categoryCandidates(preferredCategories(ratedProductIds), limit)));
+            sources.add(new CandidatePipeline.Source("popular", popularDeadline,
+                    () -> productRankingIndex.topProductIds(limit)));
+        } else {
+            log.debug("후보 소스 category/popular 제외 - 순위 인덱스가 준비되지 않음");
+        }
+        sources.add(new CandidatePipeline.Source("recent", recentDeadline,
+                () -> recentlyViewedCandidates(recentlyViewedStore.recentForUser(userId), limit)));
+        List<CandidatePipeline.Outcome> outcomes = candidatePipeline.collect(sources);
+
+        for (CandidatePipeline.Outcome outcome : outcomes) {
+            recommendationMetrics.recordCandidateSource(outcome.source(), outcome.status(), outcome.elapsedNanos());
+            if (outcome.status() != CandidatePipeline.Status.OK) {
+                log.warn("⚠️ 후보 소스 제외 - {}: {} ({}ms)", outcome.source(), outcome.status(),
+                        TimeUnit.NANOSECONDS.toMillis(outcome.elapsedNanos()));
+            } else {
+                log.debug("후보 소스 {}: {} 개 ({}ms)", outcome.source(), outcome.candidates().size(),
+                        TimeUnit.NANOSECONDS.toMillis(outcome.elapsedNanos()));
+            }
+        }
+
+        ProductIdSet excluded = ProductIdSet.of(ratedProductIds);
+        List<Long> blended = CandidatePipeline.blend(outcomes, Map.of(
+                "cf", cfWeight,
+                "category", categoryWeight,
+                "popular", popularWeight,
+                "recent", recentWeight), excluded::contains, limit);
+        long elapsed = System.nanoTime() - startTime;
+        recommendationMetrics.recordStage("hybrid_blend", elapsed);
+        log.info("✅ 하이브리드 추천 합산 완료 ({}ms) - {} 개 상품 선정",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), blended.size());
+
+        if (blended.isEmpty()) {
+            log.info("📌 합산할 후보 없음 → 인기 상품 추천으로 대체");
+            return getPopularProducts(limit);
+        }
+        return findProductsInOrder(blended);
+    }
+
+    /** 평가한 상품 ID (제외 인덱스 → 동기 조회 순) */
+    private List<Long> ratedProductIds(Long userId) {
+        return userExclusionIndex.find(userId)
+                .map(exclusions -> Arrays.stream(exclusions.rated().toArray()).boxed().toList())
+                .orElseGet(() -> ratingRepository.findRatedProductIdsByUserId(userId));
+    }
+
+    /**
+     * 메모리 엔진이 준비되어 있으면 DB 없이 협업 필터링 후보를 계산하는 소스, 아니면 null (하이브리드에서 제외).
+     * LSH 모드는 이웃 평점을 DB에서 읽으므로 메모리 소스가 아니다.
+     */
+    private Supplier<List<Long>> inMemoryCollaborative(Long userId, List<Long> ratedProductIds, int limit) {
+        EngineMode mode = EngineMode.from(engineMode);
+        if (mode == EngineMode.MATRIX && ratingMatrixEngine.isReady()) {
+            return () -> ratingMatrixEngine.recommend(userId, similarUserCount, limit);
+        }
+        if (mode == EngineMode.ITEM_KNN && itemSimilarityEngine.isReady()) {
+            return () -> itemSimilarityEngine.recommend(ratedProductIds, limit);
+        }
+        if (mode == EngineMode.ALS && alsEngine.isReady()) {
+            return () -> productVectorIndex.isReady()
+                    ? productVectorIndex.search(alsEngine.userVector(userId), limit, ratedProductIds)
+                    : alsEngine.recommend(userId, ratedProductIds, limit);
+        }
+        return null;
+    }
+
+    /** 평가한 상품이 많은 상위 카테고리 (상품 카테고리는 순위 인덱스에서 읽음, 같으면 카테고리 이름순) */
+    private List<String> preferredCategories(List<Long> ratedProductIds) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Long productId : ratedProductIds) {
+            String category = productRankingIndex.categoryOf(productId);
+            if (category != null) {
+                counts.merge(category, 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(preferredCategoryCount)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** 카테고리별 순위를 번갈아 섞은 후보 */
+    private List<Long> categoryCandidates(List<String> categories, int limit) {
+        List<List<Long>> rankings = new ArrayList<>();
+        for (String category : categories) {
+            rankings.add(productRankingIndex.categoryProductIds(category, 0, limit));
+        }
+        return interleave(rankings, limit);
+    }
+
+    /** 최근 본 상품의 아이템 이웃(준비되었으면)과 상품마다 함께 구매한 상품 순위를 번갈아 섞은 후보 (최근 본 상품일수록 앞) */
+    private List<Long> recentlyViewedCandidates(List<Long> recentlyViewed, int limit) {
+        if (recentlyViewed.isEmpty()) {
+            return List.of();
+        }
+        List<List<Long>> rankings = new ArrayList<>();
+        if (itemSimilarityEngine.isReady()) {
+            rankings.add(itemSimilarityEngine.recommend(recentlyViewed, limit));
+        }
+        for (Long productId : recentlyViewed) {
+            rankings.add(coPurchaseEngine.boughtTogether(productId, limit));
+        }
+        return interleave(rankings, limit);
+    }
+
+    /** 여러 순위 목록을 한 개씩 번갈아 꺼내 중복 없이 최대 limit개로 합친다 */
+    private static List<Long> interleave(List<List<Long>> rankings, int limit) {
+        Set<Long> merged = new LinkedHashSet<>();
+        for (int rank = 0; merged.size() < limit; rank++) {
+            boolean any = false;
+            for (List<Long> ranking : rankings) {
+                if (rank < ranking.size()) {
+                    any = true;
+                    merged.add(ranking.get(rank));
+                }
+            }
+            if (!any) {
+                break;
+            }
+        }
+        return merged.stream().limit(limit).toList();
+    }
+
+    /**
+     * 협업 필터링 추천 순위 (설정된 엔진 모드, 준비되지 않았으면 DB 4단계 계산)
+     */
+    private List<Product> computeCollaborative(Long userId, int limit) {
+        // ==========================================
+        // 메모리 엔진 (설정 시, 적재 완료 후에만 사용)
+        // ==========================================
+        EngineMode mode = EngineMode.from(engineMode);
+        if (mode == EngineMode.MATRIX && ratingMatrixEngine.isReady()) {
+            return getRecommendationsFromMatrix(userId, limit);
+        }
+        if (mode == EngineMode.ITEM_KNN && itemSimilarityEngine.isReady()) {
+            return getRecommendationsFromItemIndex(userId, limit);
+        }
+        if (mode == EngineMode.ALS && alsEngine.isReady()) {
+            return getRecommendationsFromAls(userId, limit);
+        }
+
         // ==========================================
         // 1단계: 현재 사용자의 평가 이력 조회
         // ==========================================
@@ -86,11 +509,12 @@ public class RecommendationService {
         List<Long> ratedProductIds;
 
         try {
-            long startTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
             ratedProductIds = ratingRepository.findRatedProductIdsByUserId(userId);
-            long duration = System.currentTimeMillis() - startTime;
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("rated_items", elapsed);
 
-            log.info("✅ 사용자 평가 이력 조회 완료 ({}ms)", duration);
+            log.info("✅ 사용자 평가 이력 조회 완료 ({}ms)", TimeUnit.NANOSECONDS.toMillis(elapsed));
             log.info("📊 현재 사용자가 평가한 상품 수: {}", ratedProductIds.size());
 
             if (!ratedProductIds.isEmpty()) {
@@ -118,18 +542,20 @@ public class RecommendationService {
         List<Object[]> similarUsers;
 
         try {
-            long startTime = System.currentTimeMillis();
-            similarUsers = ratingRepository.findSimilarUsers(userId, ratedProductIds);
-            long duration = System.currentTimeMillis() - startTime;
+            long startTime = System.nanoTime();
+            similarUsers = findSimilarUsers(userId, ratedProductIds);
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("similar_users", elapsed);
 
-            log.info("✅ 유사 사용자 탐색 완료 ({}ms)", duration);
+            log.info("✅ 유사 사용자 탐색 완료 ({}ms)", TimeUnit.NANOSECONDS.toMillis(elapsed));
             log.info("📊 발견된 유사 사용자 수: {}", similarUsers.size());
 
             if (!similarUsers.isEmpty()) {
-                log.debug("유사 사용자 목록 (상위 5개):");
-                for (int i = 0; i < Math.min(5, similarUsers.size()); i++) {
-                    Long uId = (Long) similarUsers.get(i)[0];
-                    Long commonCount = (Long) similarUsers.get(i)[1];
+                log.debug("유사 사용자 목록 (상위 {}개):", similarUserCount);
+                for (int i = 0; i < Math.min(similarUserCount, similarUsers.size()); i++) {
+                    // 네이티브 쿼리 드라이버에 따라 BIGINT/INTEGER가 섞여 올 수 있으므로 Number로 읽는다
+                    long uId = ((Number) similarUsers.get(i)[0]).longValue();
+                    long commonCount = ((Number) similarUsers.get(i)[1]).longValue();
                     log.debug("  - userId: {}, 공통 평가 수: {}", uId, commonCount);
                 }
             }
@@ -151,31 +577,39 @@ public class RecommendationService {
         // ==========================================
         log.info("📍 3단계: 유사 사용자 평점 데이터 수집 및 분석 시작...");
         Map<Long, Double> productScores = new HashMap<>();
-        int similarUserCount = Math.min(5, similarUsers.size());
+        int neighbourCount = Math.min(similarUserCount, similarUsers.size());
 
-        log.info("분석할 유사 사용자 수 (상위 K=5): {}", similarUserCount);
+        log.info("분석할 유사 사용자 수 (상위 K={}): {}", similarUserCount, neighbourCount);
 
         try {
-            for (int i = 0; i < similarUserCount; i++) {
-                Long similarUserId = (Long) similarUsers.get(i)[0];
-                Long commonCount = (Long) similarUsers.get(i)[1];
+            List<Long> neighbourIds = new ArrayList<>(neighbourCount);
+            for (int i = 0; i < neighbourCount; i++) {
+                neighbourIds.add(((Number) similarUsers.get(i)[0]).longValue());
+            }
+
+            // 이미 평가한 상품 검사는 압축 비트맵으로 (후보마다 List 선형 탐색 제거)
+            ProductIdSet ratedProducts = ProductIdSet.of(ratedProductIds);
 
-                log.debug("유사 사용자 분석 중 ({}/{}): userId={}, 공통 평가 수={}",
-                        i + 1, similarUserCount, similarUserId, commonCount);
+            long startTime = System.nanoTime();
+            Map<Long, List<RatingTupleDto>> ratingsByNeighbour = fetchNeighbourRatings(neighbourIds);
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("neighbour_ratings", elapsed);
 
-                long startTime = System.currentTimeMillis();
-                List<Rating> ratings = ratingRepository.findByUserId(similarUserId);
-                long duration = System.currentTimeMillis() - startTime;
+            log.info("✅ 유사 사용자 평점 일괄 조회 완료 ({}ms) - 사용자 {}명",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), neighbourIds.size());
 
-                log.debug("  ✅ 평점 데이터 조회 완료 ({}ms) - {} 개 상품 평가", duration, ratings.size());
+            // 유사도 순서대로 합산 (기존 점수 병합 규칙 유지)
+            for (Long similarUserId : neighbourIds) {
+                List<RatingTupleDto> ratings = ratingsByNeighbour.getOrDefault(similarUserId, List.of());
+                log.debug("유사 사용자 분석 중: userId={}, {} 개 상품 평가", similarUserId, ratings.size());
 
                 int productsAdded = 0;
-                for (Rating rating : ratings) {
-                    Long productId = rating.getProduct().getId();
-                    Double ratingScore = rating.getScore().doubleValue();
+                for (RatingTupleDto rating : ratings) {
+                    Long productId = rating.productId();
+                    Double ratingScore = rating.score().doubleValue();
 
                     // 이미 평가한 상품 제외
-                    if (ratedProductIds.contains(productId)) {
+                    if (ratedProducts.contains(productId)) {
                         log.debug("    - 스킵 (이미 평가): productId={}", productId);
                         continue;
                     }
@@ -209,7 +643,7 @@ public class RecommendationService {
         List<Long> recommendedProductIds;
 
         try {
-            long startTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
 
             // 예상 평점 기준 정렬
             recommendedProductIds = productScores.entrySet().stream()
@@ -218,17 +652,19 @@ public class RecommendationService {
                     .map(Map.Entry::getKey)
                     .collect(Collectors.toList());
 
-            long duration = System.currentTimeMillis() - startTime;
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("ranking", elapsed);
 
-            log.info("✅ 정렬 완료 ({}ms) - {} 개 상품 선정", duration, recommendedProductIds.size());
+            log.info("✅ 정렬 완료 ({}ms) - {} 개 상품 선정", TimeUnit.NANOSECONDS.toMillis(elapsed), recommendedProductIds.size());
             log.debug("최종 추천 상품 ID 목록: {}", recommendedProductIds);
 
-            // 상품 상세 정보 조회
-            long dbStartTime = System.currentTimeMillis();
-            List<Product> recommendations = productRepository.findByIdIn(recommendedProductIds);
-            long dbDuration = System.currentTimeMillis() - dbStartTime;
+            // 상품 상세 정보 조회 (IN 조회는 순서를 보장하지 않으므로 예상 평점 순위대로 다시 정렬)
+            long dbStartTime = System.nanoTime();
+            List<Product> recommendations = findProductsInOrder(recommendedProductIds);
+            long dbElapsed = System.nanoTime() - dbStartTime;
+            recommendationMetrics.recordStage("product_lookup", dbElapsed);
 
-            log.info("✅ 상품 상세 정보 조회 완료 ({}ms) - {} 개", dbDuration, recommendations.size());
+            log.info("✅ 상품 상세 정보 조회 완료 ({}ms) - {} 개", TimeUnit.NANOSECONDS.toMillis(dbElapsed), recommendations.size());
 
             // 최종 검증
             if (recommendations.isEmpty()) {
@@ -257,6 +693,173 @@ public class RecommendationService {
         }
     }
 
+    /**
+     * 3단계 유사 사용자 평점 일괄 조회.
+     * 사용자 ID 목록을 IN 조건 프로젝션 쿼리로 한 번에 읽어 (userId, productId, score) 튜플만 가져온다.
+     * K가 청크 크기를 넘으면 청크별로 나눠 같은 트랜잭션(커넥션)에서 차례로 조회한 뒤 합친다.
+     *
+     * @return 사용자 ID → 해당 사용자의 평점 튜플 목록
+     */
+    private Map<Long, List<RatingTupleDto>> fetchNeighbourRatings(List<Long> neighbourIds) {
+        int chunkSize = Math.max(neighbourFetchChunkSize, 1);
+        List<RatingTupleDto> tuples;
+
+        if (neighbourIds.size() <= chunkSize) {
+            tuples = ratingRepository.findRatingTuplesByUserIdIn(neighbourIds);
+        } else {
+            tuples = new ArrayList<>();
+            for (int from = 0; from < neighbourIds.size(); from += chunkSize) {
+                List<Long> chunk = neighbourIds.subList(from, Math.min(from + chunkSize, neighbourIds.size()));
+                tuples.addAll(ratingRepository.findRatingTuplesByUserIdIn(chunk));
+            }
+            log.debug("유사 사용자 {}명을 {}개 청크로 나눠 조회", neighbourIds.size(),
+                    (neighbourIds.size() + chunkSize - 1) / chunkSize);
+        }
+
+        return tuples.stream().collect(Collectors.groupingBy(RatingTupleDto::userId));
+    }
+
+    /**
+     * 2단계 유사 사용자 탐색. LSH 모드에서는 근사 인덱스 후보를 [userId, 추정 공통 평가 수] 형태로 반환하고,
+     * 후보가 없거나 인덱스가 준비되지 않았으면 정확한 셀프 조인 쿼리로 폴백한다.
+     */
+    private List<Object[]> findSimilarUsers(Long userId, List<Long> ratedProductIds) {
+        if (EngineMode.from(engineMode) == EngineMode.LSH && similarUserLshEngine.isReady()) {
+            List<Object[]> approximate = similarUserLshEngine.findSimilarUsers(userId, similarUserCount).stream()
+                    .map(candidate -> new Object[]{candidate.userId(), candidate.estimatedCommon()})
+                    .collect(Collectors.toList());
+            if (!approximate.isEmpty()) {
+                log.debug("LSH 근사 유사 사용자 {}명 사용", approximate.size());
+                return approximate;
+            }
+            log.debug("LSH 후보 없음 → 셀프 조인 쿼리로 폴백");
+        }
+        return ratingRepository.findSimilarUsers(userId, ratedProductIds);
+    }
+
+    /**
+     * 메모리 평점 행렬 엔진으로 1~4단계를 수행한다.
+     * 이웃 탐색과 점수 계산은 DB를 거치지 않고, 최종 상품 상세 정보만 한 번 조회한다.
+     */
+    private List<Product> getRecommendationsFromMatrix(Long userId, int limit) {
+        log.info("📍 평점 행렬 엔진으로 추천 계산 시작...");
+
+        try {
+            long startTime = System.nanoTime();
+            List<Long> recommendedProductIds = ratingMatrixEngine.recommend(userId, similarUserCount, limit);
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("matrix_scoring", elapsed);
+
+            log.info("✅ 평점 행렬 추천 계산 완료 ({}ms) - {} 개 상품 선정",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), recommendedProductIds.size());
+
+            if (recommendedProductIds.isEmpty()) {
+                log.info("📌 평가 이력 또는 유사 사용자 없음 → 인기 상품 추천으로 대체");
+                return getPopularProducts(limit);
+            }
+
+            List<Product> recommendations = findProductsInOrder(recommendedProductIds);
+            if (recommendations.isEmpty()) {
+                log.warn("⚠️ 경고: 추천할 상품이 없습니다 (DB에서 조회 실패)");
+                return getPopularProducts(limit);
+            }
+            return recommendations;
+        } catch (Exception e) {
+            log.error("❌ 평점 행렬 추천 에러: {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+            return getPopularProducts(limit);
+        }
+    }
+
+    /**
+     * 아이템-아이템 유사도 인덱스로 추천한다.
+     * 사용자 평가 이력 조회 1회 + 이웃 목록 합산(메모리)으로 유사 사용자 셀프 조인을 대체한다.
+     */
+    private List<Product> getRecommendationsFromItemIndex(Long userId, int limit) {
+        log.info("📍 아이템 유사도 인덱스로 추천 계산 시작...");
+
+        try {
+            List<Long> ratedProductIds = ratingRepository.findRatedProductIdsByUserId(userId);
+            if (ratedProductIds.isEmpty()) {
+                log.info("📌 Cold Start 상황 감지: 평가 기록 없음(신규 유저) → 인기 상품 추천으로 대체");
+                return getPopularProducts(limit);
+            }
+
+            long startTime = System.nanoTime();
+            List<Long> recommendedProductIds = itemSimilarityEngine.recommend(ratedProductIds, limit);
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage("item_knn_scoring", elapsed);
+
+            log.info("✅ 아이템 유사도 추천 계산 완료 ({}ms) - {} 개 상품 선정",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), recommendedProductIds.size());
+
+            if (recommendedProductIds.isEmpty()) {
+                log.info("📌 유사 상품 없음 → 인기 상품 추천으로 대체");
+                return getPopularProducts(limit);
+            }
+
+            List<Product> recommendations = findProductsInOrder(recommendedProductIds);
+            return recommendations.isEmpty() ? getPopularProducts(limit) : recommendations;
+        } catch (Exception e) {
+            log.error("❌ 아이템 유사도 추천 에러: {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+            return getPopularProducts(limit);
+        }
+    }
+
+    /**
+     * ALS 모델로 추천한다.
+     * 평가 이력 조회 1회(제외 목록) + 요인 내적 상위 N 계산(메모리). 학습 이후 가입한 사용자는 인기 상품으로 대체.
+     * HNSW 인덱스가 준비되어 있으면 전체 상품 내적 대신 근사 최근접 이웃을 조회한다 (학습 이후 등록 상품도 포함).
+     */
+    private List<Product> getRecommendationsFromAls(Long userId, int limit) {
+        log.info("📍 ALS 모델로 추천 계산 시작...");
+
+        try {
+            List<Long> ratedProductIds = ratingRepository.findRatedProductIdsByUserId(userId);
+
+            long startTime = System.nanoTime();
+            List<Long> recommendedProductIds;
+            String stage;
+            if (productVectorIndex.isReady()) {
+                recommendedProductIds = productVectorIndex.search(alsEngine.userVector(userId), limit, ratedProductIds);
+                stage = "ann_search";
+            } else {
+                recommendedProductIds = alsEngine.recommend(userId, ratedProductIds, limit);
+                stage = "als_scoring";
+            }
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetrics.recordStage(stage, elapsed);
+
+            log.info("✅ ALS 추천 계산 완료 ({}ms) - {} 개 상품 선정",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), recommendedProductIds.size());
+
+            if (recommendedProductIds.isEmpty()) {
+                log.info("📌 모델에 없는 사용자(학습 이후 신규) → 인기 상품 추천으로 대체");
+                return getPopularProducts(limit);
+            }
+
+            List<Product> recommendations = findProductsInOrder(recommendedProductIds);
+            return recommendations.isEmpty() ? getPopularProducts(limit) : recommendations;
+        } catch (Exception e) {
+            log.error("❌ ALS 추천 에러: {}", e.getMessage());
+            log.error("스택 트레이스: ", e);
+            return getPopularProducts(limit);
+        }
+    }
+
+    /**
+     * ID 목록 순서(추천 순위)를 유지한 채 상품 상세 정보를 조회한다.
+     */
+    private List<Product> findProductsInOrder(List<Long> productIds) {
+        Map<Long, Product> byId = productRepository.findByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        return productIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     /**
      * 카테고리 기반 추천 (보조 알고리즘)
      * 특정 카테고리 내에서 평점이 높은 상품들을 추천합니다.
@@ -271,20 +874,56 @@ public class RecommendationService {
      */
     @Transactional(readOnly = true)
     public List<Product> getRecommendationsByCategory(String category, int limit) {
-        log.info("📂 카테고리 기반 추천 시작: category={}, limit={}", category, limit);
+        return getRecommendationsByCategory(category, 0, limit);
+    }
+
+    /**
+     * 카테고리 기반 추천 (페이지 단위)
+     * 순위 인덱스가 준비되면 카테고리 순위에서 해당 페이지의 ID만 읽어 기본 키로 조회하므로,
+     * 깊은 페이지도 카테고리 전체를 읽거나 다시 정렬하지 않는다.
+     * 페이지 크기는 1~max-page-size로 맞추고, page × size가 max-offset을 넘는 페이지는 빈 목록이다.
+     *
+     * @param category 조회할 카테고리명
+     * @param page 0부터 시작하는 페이지 번호
+     * @param size 페이지 크기 (1~max-page-size로 조정)
+     * @return 해당 페이지의 상품 리스트 (평점 → 조회수 순)
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getRecommendationsByCategory(String category, int page, int size) {
+        log.info("📂 카테고리 기반 추천 시작: category={}, page={}, size={}", category, page, size);
 
         try {
             if (category == null || category.trim().isEmpty()) {
                 log.error("❌ 유효하지 않은 카테고리명: {}", category);
                 return new ArrayList<>();
             }
+            if (page < 0) {
+                log.error("❌ 유효하지 않은 페이지: page={}", page);
+                return new ArrayList<>();
+            }
+            if (size <= 0 || size > maxCategoryPageSize) {
+                log.warn("⚠️ 페이지 크기가 범위를 벗어남. 입력값: {}, 1~{}로 조정", size, maxCategoryPageSize);
+                size = Math.min(Math.max(size, 1), maxCategoryPageSize);
+            }
+            long requestedOffset = (long) page * size;
+            if (requestedOffset > maxCategoryOffset) {
+                log.warn("⚠️ 최대 조회 위치 초과: page={}, size={} (최대 {})", page, size, maxCategoryOffset);
+                return new ArrayList<>();
+            }
 
             long startTime = System.currentTimeMillis();
-            List<Product> results = productRepository.findByCategory(category)
-                    .stream()
-                    .sorted(Comparator.comparing(Product::getAverageRating).reversed())
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            int offset = (int) requestedOffset;
+            List<Product> results;
+            if (productRankingIndex.isReady()) {
+                results = findProductsInOrder(productRankingIndex.categoryProductIds(category, offset, size));
+            } else {
+                results = productRepository.findByCategory(category)
+                        .stream()
+                        .sorted(Comparator.comparing(Product::getAverageRating).reversed())
+                        .skip(offset)
+                        .limit(size)
+                        .collect(Collectors.toList());
+            }
             long duration = System.currentTimeMillis() - startTime;
 
             log.info("✅ 카테고리 추천 완료 ({}ms) - {} 개 상품", duration, results.size());
@@ -296,6 +935,68 @@ public class RecommendationService {
         }
     }
 
+    /**
+     * 함께 구매한 상품 (Frequently Bought Together)
+     * 같은 사용자가 시간 창 이내에 함께 주문한 횟수가 많은 순으로 반환합니다.
+     * 엔진이 준비되기 전이거나 함께 구매 기록이 없으면 빈 리스트를 반환합니다.
+     *
+     * @param productId 기준 상품 ID
+     * @param limit 반환 개수
+     * @return 함께 구매 횟수 순 상품 리스트
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getBoughtTogether(Long productId, int limit) {
+        if (productId == null || productId <= 0 || limit <= 0) {
+            log.error("❌ 유효하지 않은 요청: productId={}, limit={}", productId, limit);
+            return new ArrayList<>();
+        }
+        List<Long> productIds = coPurchaseEngine.boughtTogether(productId, Math.min(limit, 100));
+        log.info("🛒 함께 구매한 상품 조회: productId={}, {} 개", productId, productIds.size());
+        return productIds.isEmpty() ? new ArrayList<>() : findProductsInOrder(productIds);
+    }
+
+    /**
+     * 세션 기반 추천 (비로그인 방문자 포함)
+     * 방문자 세션의 최근 본 상품마다 아이템 유사도 이웃과 함께 구매 목록을 메모리 인덱스에서 읽어
+     * 가중 역순위 결합으로 합산한다. 후보 계산에는 DB를 쓰지 않고, 최종 상품 상세만 기본 키로 한 번 조회한다.
+     * 최근 본 상품이 없거나 이웃이 없으면 인기 상품을 반환한다.
+     *
+     * @param sessionId 방문자 세션 ID
+     * @param limit 반환 개수
+     * @return 최근 본 상품과 비슷하거나 함께 구매된 상품 리스트 (이미 본 상품 제외)
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getSessionRecommendations(String sessionId, int limit) {
+        limit = Math.min(Math.max(limit, 1), 100);
+        List<Long> recentlyViewed = recentlyViewedStore.recent(sessionId);
+        if (recentlyViewed.isEmpty()) {
+            log.info("📌 최근 본 상품 없음 → 인기 상품 추천으로 대체");
+            return getPopularProducts(limit);
+        }
+
+        long startTime = System.nanoTime();
+        List<List<Long>> coPurchased = new ArrayList<>();
+        for (Long productId : recentlyViewed) {
+            coPurchased.add(coPurchaseEngine.boughtTogether(productId, limit));
+        }
+        List<CandidatePipeline.Outcome> outcomes = List.of(
+                new CandidatePipeline.Outcome("item", CandidatePipeline.Status.OK,
+                        itemSimilarityEngine.isReady() ? itemSimilarityEngine.recommend(recentlyViewed, limit) : List.of(), 0),
+                new CandidatePipeline.Outcome("recent", CandidatePipeline.Status.OK, interleave(coPurchased, limit), 0));
+        Set<Long> viewed = new HashSet<>(recentlyViewed);
+        List<Long> blended = CandidatePipeline.blend(outcomes, Map.of("item", cfWeight, "recent", recentWeight),
+                viewed::contains, limit);
+        long elapsed = System.nanoTime() - startTime;
+        recommendationMetrics.recordStage("session_neighbours", elapsed);
+        log.info("👀 세션 기반 추천 ({}ms) - 최근 본 상품 {}개 → {} 개 상품 선정",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), recentlyViewed.size(), blended.size());
+
+        if (blended.isEmpty()) {
+            return getPopularProducts(limit);
+        }
+        return findProductsInOrder(blended);
+    }
+
     /**
      * 인기 상품 조회 (전체 랭킹)
      * 모든 카테고리를 통틀어 평점이 가장 높은 상품들을 반환합니다.
@@ -313,10 +1014,16 @@ public class RecommendationService {
 
         try {
             long startTime = System.currentTimeMillis();
-            List<Product> results = productRepository.findHighRatedProducts()
-                    .stream()
-                    .limit(limit)
-                    .collect(Collectors.toList());
+            List<Product> results;
+            if (productRankingIndex.isReady()) {
+                // 순위 인덱스에서 상위 limit개 ID만 꺼내 기본 키로 조회
+                results = findProductsInOrder(productRankingIndex.topProductIds(limit));
+            } else {
+                results = productRepository.findHighRatedProducts()
+                        .stream()
+                        .limit(limit)
+                        .collect(Collectors.toList());
+            }
             long duration = System.currentTimeMillis() - startTime;
 
             log.info("✅ 인기 상품 조회 완료 ({}ms) - {} 개 상품", duration, results.size());
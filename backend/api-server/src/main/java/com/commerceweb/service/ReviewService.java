@@ -2,8 +2,10 @@ package com.commerceweb.service;
 
 import com.commerceweb.dto.ReviewDto;
 import com.commerceweb.entity.*;
+import com.commerceweb.event.ReviewChangedEvent;
 import com.commerceweb.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,7 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ReviewDto createReview(ReviewDto reviewDto) {
@@ -50,6 +53,10 @@ public class ReviewService {
         // 5. 상품 평균 별점 업데이트 로직 호출
         updateProductRating(order.getProduct());
 
+        // 6. 추천 캐시 등 사용자 단위 데이터 갱신 (커밋 이후 처리)
+        eventPublisher.publishEvent(ReviewChangedEvent.upserted(
+                order.getUser().getId(), order.getProduct().getId(), review.getRating()));
+
         return convertToDto(review);
     }
 
@@ -113,6 +120,7 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(ReviewChangedEvent.deleted(user.getId(), review.getProduct().getId()));
     }
 
     @Transactional
@@ -130,6 +138,7 @@ public class ReviewService {
 
         // 별점 갱신 로직 (기존에 만드신 메서드 활용)
         updateProductRating(review.getProduct());
+        eventPublisher.publishEvent(ReviewChangedEvent.upserted(currentUserId, review.getProduct().getId(), rating));
 
         return convertToDto(review);
     }
@@ -0,0 +1,98 @@
+package com.commerceweb.config.cache;
+
+import com.commerceweb.entity.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 캐시 값 형식 비교 (추천 100개 기준)
+ * - jdkProducts: 이전 형식 (Product 엔티티 목록 JDK 직렬화)
+ * - jdkIds: ID 목록 JDK 직렬화
+ * - varintIds: varint 바이너리 (LZ4 없음)
+ * - varintIdsLz4: varint 바이너리 + LZ4 (임계치 0으로 강제 압축)
+ * 형식별 바이트 수는 Trial 시작 시 출력하고, 벤치마크는 역직렬화(캐시 적중 경로) 시간을 잰다.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheCodecBenchmark {
+
+    private static final int DEPTH = 100;
+
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final IdListRedisSerializer varint = new IdListRedisSerializer(0);
+    private final IdListRedisSerializer varintLz4 = new IdListRedisSerializer(1);
+
+    private byte[] jdkProductBytes;
+    private byte[] jdkIdBytes;
+    private byte[] varintBytes;
+    private byte[] varintLz4Bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        List<Product> products = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < DEPTH; i++) {
+            long id = 1 + random.nextInt(50_000);
+            ids.add(id);
+            products.add(Product.builder()
+                    .id(id)
+                    .name("상품 " + id)
+                    .price(10_000.0 + random.nextInt(90_000))
+                    .description("상품 " + id + "에 대한 상세 설명입니다. ".repeat(10))
+                    .imageUrl("https://cdn.example.com/products/" + id + ".jpg")
+                    .category("카테고리" + (id % 20))
+                    .viewCount((long) random.nextInt(10_000))
+                    .averageRating(1 + random.nextDouble() * 4)
+                    .ratingCount((long) random.nextInt(500))
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        jdkProductBytes = jdk.serialize(products);
+        jdkIdBytes = jdk.serialize(ids);
+        varintBytes = varint.serialize(ids);
+        varintLz4Bytes = varintLz4.serialize(ids);
+
+        System.out.printf("%n[bytes] jdkProducts=%d, jdkIds=%d, varintIds=%d, varintIdsLz4=%d%n",
+                jdkProductBytes.length, jdkIdBytes.length, varintBytes.length, varintLz4Bytes.length);
+    }
+
+    @Benchmark
+    public Object jdkProducts() {
+        return jdk.deserialize(jdkProductBytes);
+    }
+
+    @Benchmark
+    public Object jdkIds() {
+        return jdk.deserialize(jdkIdBytes);
+    }
+
+    @Benchmark
+    public Object varintIds() {
+        return varint.deserialize(varintBytes);
+    }
+
+    @Benchmark
+    public Object varintIdsLz4() {
+        return varintLz4.deserialize(varintLz4Bytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
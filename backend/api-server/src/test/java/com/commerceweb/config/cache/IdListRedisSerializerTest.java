@@ -0,0 +1,81 @@
+package com.commerceweb.config.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ID 목록 캐시 직렬화 테스트")
+class IdListRedisSerializerTest {
+
+    @Test
+    @DisplayName("순서가 뒤섞인 ID 목록을 그대로 복원한다")
+    void testRoundTrip() {
+        IdListRedisSerializer serializer = new IdListRedisSerializer(0);
+        List<Long> ids = List.of(42L, 7L, 1_000_000L, 7L, 0L, Long.MAX_VALUE);
+
+        byte[] bytes = serializer.serialize(ids);
+
+        assertEquals(CacheCompression.RAW, bytes[0]);
+        assertEquals(ids, serializer.deserialize(bytes));
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+    }
+
+    @Test
+    @DisplayName("임계치 이상이면 LZ4로 압축하고 복원한다")
+    void testCompressionAboveThreshold() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            ids.add(1_000 + (id % 10) * 300);
+        }
+
+        byte[] raw = new IdListRedisSerializer(0).serialize(ids);
+        byte[] compressed = new IdListRedisSerializer(64).serialize(ids);
+
+        assertEquals(CacheCompression.LZ4, compressed[0]);
+        assertTrue(compressed.length < raw.length);
+        assertEquals(ids, new IdListRedisSerializer(64).deserialize(compressed));
+    }
+
+    @Test
+    @DisplayName("ID 목록이 아닌 값이나 손상된 값은 SerializationException")
+    void testInvalidValues() {
+        IdListRedisSerializer serializer = new IdListRedisSerializer(0);
+
+        assertThrows(SerializationException.class, () -> serializer.serialize("not a list"));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{0, (byte) 0x85}));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("계산 시각이 붙은 목록은 시각까지 복원하고, 시각 없는 이전 값은 목록으로 읽는다")
+    void testTimestampedRoundTrip() {
+        IdListRedisSerializer serializer = new IdListRedisSerializer(0);
+        TimestampedIds timestamped = new TimestampedIds(List.of(5L, 3L, 9L), 1_700_000_000_123L);
+
+        assertEquals(timestamped, serializer.deserialize(serializer.serialize(timestamped)));
+        assertEquals(List.of(5L, 3L, 9L), serializer.deserialize(serializer.serialize(List.of(5L, 3L, 9L))));
+    }
+
+    @Test
+    @DisplayName("개수나 원본 길이가 값 길이를 넘는 잘린/외부 값은 큰 배열을 잡지 않고 SerializationException")
+    void testOversizedHeaderRejected() {
+        IdListRedisSerializer serializer = new IdListRedisSerializer(0);
+        byte[] valid = serializer.serialize(List.of(1L, 2L, 3L));
+        byte[] truncated = Arrays.copyOf(valid, valid.length - 2);
+        // RAW 헤더 + 개수 varint 0x7FFFFFFF, ID 바이트 없음
+        byte[] hugeCount = {CacheCompression.RAW, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        // LZ4 헤더 + 원본 길이 varint 0x7FFFFFFF, 블록 1바이트
+        byte[] hugeLength = {CacheCompression.LZ4, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0};
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(hugeCount));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(hugeLength));
+        assertThrows(SerializationException.class, () -> serializer.deserialize("garbage".getBytes()));
+    }
+}
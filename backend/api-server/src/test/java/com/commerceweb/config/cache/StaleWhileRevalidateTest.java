@@ -0,0 +1,103 @@
+package com.commerceweb.config.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("stale-while-revalidate 캐시 정책 테스트")
+class StaleWhileRevalidateTest {
+
+    private final MutableClock clock = new MutableClock();
+    private StaleWhileRevalidate swr;
+
+    @BeforeEach
+    void setUp() {
+        swr = new StaleWhileRevalidate(new ConcurrentMapCacheManager("ranking"), new SimpleMeterRegistry(), clock,
+                true, Duration.ofMinutes(10), Duration.ofHours(1), Duration.ZERO, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        swr.shutdown();
+    }
+
+    @Test
+    @DisplayName("soft TTL 이전에는 그대로, 이후에는 오래된 값을 즉시 주고 백그라운드에서 갱신한다")
+    void testStaleValueServedWhileRefreshing() throws Exception {
+        // Given
+        swr.put("ranking", "k", List.of(1L, 2L));
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        Runnable refresh = () -> {
+            refreshes.incrementAndGet();
+            swr.put("ranking", "k", List.of(3L));
+            refreshed.countDown();
+        };
+
+        // When & Then - 신선한 값
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(Optional.of(List.of(1L, 2L)), swr.lookup("ranking", "k", refresh));
+        assertEquals(0, refreshes.get());
+
+        // When & Then - 오래된 값은 바로 반환하고 갱신은 뒤에서
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(Optional.of(List.of(1L, 2L)), swr.lookup("ranking", "k", refresh));
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(List.of(3L)), swr.lookup("ranking", "k", refresh));
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    @DisplayName("hard TTL이 지난 값은 반환하지 않고 get은 직접 계산한다")
+    void testHardExpiryForcesSynchronousLoad() {
+        // Given
+        swr.put("ranking", "k", List.of(1L));
+        clock.advance(Duration.ofHours(2));
+
+        // When & Then
+        assertTrue(swr.lookup("ranking", "k", () -> fail("만료된 값으로 갱신 예약하면 안 됨")).isEmpty());
+        assertTrue(swr.peek("ranking", "k").isEmpty());
+        assertEquals(List.of(9L), swr.get("ranking", "k", () -> List.of(9L)));
+        assertEquals(Optional.of(List.of(9L)), swr.peek("ranking", "k"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
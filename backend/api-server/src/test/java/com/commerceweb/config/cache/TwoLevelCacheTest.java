@@ -0,0 +1,88 @@
+package com.commerceweb.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("2단(L1 + L2) 캐시 테스트")
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("recommendations", false);
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("recommendations", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                (name, key) -> published.add(name + ":" + key));
+    }
+
+    @Test
+    @DisplayName("L2에서 찾은 값은 L1에 채워 다음 조회부터 L2를 거치지 않는다")
+    void testRemoteHitFillsLocal() {
+        // Given
+        remote.put(1L, List.of(7L, 8L));
+
+        // When
+        assertEquals(List.of(7L, 8L), cache.get(1L, List.class));
+        remote.evict(1L);
+
+        // Then
+        assertEquals(List.of(7L, 8L), cache.get(1L, List.class));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    @DisplayName("저장/삭제는 L1과 L2에 모두 반영하고 다른 노드에 무효화를 발행한다")
+    void testWritesPublishInvalidation() {
+        // When
+        cache.put(1L, List.of(7L));
+        cache.evict(1L);
+        cache.clear();
+
+        // Then
+        assertNull(remote.get(1L));
+        assertNull(cache.localCache().getIfPresent("1"));
+        assertEquals(List.of("recommendations:1", "recommendations:1", "recommendations:null"), published);
+    }
+
+    @Test
+    @DisplayName("다른 노드의 무효화 메시지는 L1만 비운다")
+    void testInvalidateLocalOnly() {
+        // Given
+        cache.put(1L, List.of(7L));
+
+        // When
+        cache.invalidateLocal("1");
+
+        // Then
+        assertNull(cache.localCache().getIfPresent("1"));
+        assertEquals(List.of(7L), remote.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("L2 장애 시 조회는 미적중으로 처리한다")
+    void testRemoteFailureTreatedAsMiss() {
+        // Given
+        Cache failing = mock(Cache.class);
+        when(failing.get(any())).thenThrow(new IllegalStateException("Redis 연결 실패"));
+        TwoLevelCache degraded = new TwoLevelCache("recommendations", Caffeine.newBuilder().build(), failing,
+                (name, key) -> { });
+
+        // When & Then
+        assertNull(degraded.get(1L));
+        assertEquals("loaded", degraded.get(1L, () -> "loaded"));
+        assertEquals("loaded", degraded.get(1L, String.class));
+    }
+}
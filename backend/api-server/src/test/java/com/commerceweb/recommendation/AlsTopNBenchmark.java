@@ -0,0 +1,75 @@
+package com.commerceweb.recommendation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ALS 모델 성능 (평점 100만 건, 상품 2만 개)
+ * - topN: 사용자 한 명의 전체 상품 내적 + 상위 10개 선택 (요청 경로의 계산 비용)
+ * - train: Fork/Join 병렬 전체 학습 시간
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AlsTopNBenchmark {
+
+    private static final int USERS = 50_000;
+    private static final int ITEMS = 20_000;
+    private static final int RATINGS_PER_USER = 20;
+
+    @Param({"16", "32", "64"})
+    private int rank;
+
+    private RatingMatrix matrix;
+    private AlsModel model;
+    private long[][] excludedByUser;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matrix = SyntheticRatings.generate(USERS, ITEMS, RATINGS_PER_USER, 42L);
+        model = AlsTrainer.train(matrix, settings(), 1L, ForkJoinPool.commonPool());
+
+        excludedByUser = new long[1_000][];
+        for (int u = 0; u < excludedByUser.length; u++) {
+            long[] rated = new long[matrix.rowEnd(u) - matrix.rowStart(u)];
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                rated[p - matrix.rowStart(u)] = matrix.itemId(matrix.rowItem(p));
+            }
+            Arrays.sort(rated);
+            excludedByUser[u] = rated;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long[] topN() {
+        int u = cursor++ % excludedByUser.length;
+        return model.topN(matrix.userId(u), excludedByUser[u], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public AlsModel train() {
+        return AlsTrainer.train(matrix, settings(), 2L, ForkJoinPool.commonPool());
+    }
+
+    private AlsTrainer.Settings settings() {
+        return new AlsTrainer.Settings(rank, 10, 0.1f, 42L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AlsTopNBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ALS 행렬 분해 테스트")
+class AlsTrainerTest {
+
+    @Test
+    @DisplayName("학습하면 관측된 평점을 근사한다")
+    void testTrainFitsRatings() {
+        // 취향 두 그룹: 사용자1,2는 10/20 선호, 사용자3,4는 30/40 선호
+        RatingMatrix matrix = RatingMatrix.build(
+                new long[]{1, 1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 4},
+                new long[]{10, 20, 30, 10, 20, 40, 30, 40, 10, 30, 40, 20},
+                new byte[]{5, 5, 1, 5, 4, 1, 5, 5, 1, 4, 5, 1}, 12);
+
+        AlsModel model = AlsTrainer.train(matrix, new AlsTrainer.Settings(4, 15, 0.01f, 7L), 1L,
+                ForkJoinPool.commonPool());
+
+        assertEquals(1L, model.version());
+        assertTrue(AlsTrainer.rmse(matrix, model) < 0.5);
+    }
+
+    @Test
+    @DisplayName("내적 상위 N개를 점수 내림차순으로 반환하고 평가한 상품은 제외한다")
+    void testTopN() {
+        // rank 1: 사용자 요인 1, 상품 요인 = 점수
+        AlsModel model = new AlsModel(3L, Instant.now(), 1,
+                new long[]{1}, new long[]{10, 20, 30, 40},
+                new float[]{1f}, new float[]{0.2f, 0.9f, 0.5f, 0.7f});
+        AlsEngine engine = new AlsEngine(null, null, new SimpleMeterRegistry());
+        engine.install(model);
+
+        assertArrayEquals(new long[]{20, 40, 30}, model.topN(1, new long[0], 3));
+        assertEquals(List.of(40L, 30L), engine.recommend(1L, List.of(20L), 2));
+        assertTrue(engine.recommend(999L, List.of(), 2).isEmpty());
+    }
+}
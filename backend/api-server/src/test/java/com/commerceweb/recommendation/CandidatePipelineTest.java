@@ -0,0 +1,105 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("후보 생성 파이프라인 테스트")
+class CandidatePipelineTest {
+
+    @Test
+    @DisplayName("마감 시간을 넘긴 소스와 실패한 소스는 빈 결과로 빠지고 나머지는 그대로 모인다")
+    void testLateAndFailedSourcesAreDropped() {
+        // Given
+        CandidatePipeline pipeline = new CandidatePipeline(8);
+
+        // When
+        List<CandidatePipeline.Outcome> outcomes = pipeline.collect(List.of(
+                new CandidatePipeline.Source("fast", Duration.ofSeconds(5), () -> List.of(1L, 2L)),
+                new CandidatePipeline.Source("slow", Duration.ofMillis(50), () -> {
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of(3L);
+                }),
+                new CandidatePipeline.Source("broken", Duration.ofSeconds(5), () -> {
+                    throw new IllegalStateException("DB 오류");
+                })));
+
+        // Then
+        assertEquals(List.of("fast", "slow", "broken"), outcomes.stream().map(CandidatePipeline.Outcome::source).toList());
+        assertEquals(CandidatePipeline.Status.OK, outcomes.get(0).status());
+        assertEquals(List.of(1L, 2L), outcomes.get(0).candidates());
+        assertEquals(CandidatePipeline.Status.TIMEOUT, outcomes.get(1).status());
+        assertTrue(outcomes.get(1).candidates().isEmpty());
+        assertTrue(outcomes.get(1).elapsedNanos() < Duration.ofSeconds(2).toNanos(), "느린 소스를 끝까지 기다리면 안 된다");
+        assertEquals(CandidatePipeline.Status.FAILED, outcomes.get(2).status());
+    }
+
+    @Test
+    @DisplayName("마감을 넘겨 아직 도는 소스도 동시 실행 한도를 차지하고, 한도를 넘는 소스는 시작하지 않는다")
+    void testInFlightLimit() {
+        // Given - 한도 1, 인터럽트를 무시하고 계속 도는 소스 (실행 중인 JDBC 쿼리처럼)
+        CandidatePipeline pipeline = new CandidatePipeline(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<List<Long>> stuck = () -> {
+            while (true) {
+                try {
+                    release.await();
+                    return List.of(1L);
+                } catch (InterruptedException ignored) {
+                    // 취소되어도 멈추지 않는다
+                }
+            }
+        };
+
+        // When
+        List<CandidatePipeline.Outcome> first = pipeline.collect(List.of(
+                new CandidatePipeline.Source("stuck", Duration.ofMillis(20), stuck)));
+        List<CandidatePipeline.Outcome> second = pipeline.collect(List.of(
+                new CandidatePipeline.Source("fast", Duration.ofSeconds(5), () -> List.of(2L))));
+        release.countDown();
+        // 늦은 소스가 끝나 한도를 돌려줄 때까지 (최대 2초)
+        long until = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        List<CandidatePipeline.Outcome> third;
+        do {
+            third = pipeline.collect(List.of(
+                    new CandidatePipeline.Source("fast", Duration.ofSeconds(5), () -> List.of(2L))));
+        } while (third.get(0).status() == CandidatePipeline.Status.REJECTED && System.nanoTime() < until);
+
+        // Then
+        assertEquals(CandidatePipeline.Status.TIMEOUT, first.get(0).status());
+        assertEquals(CandidatePipeline.Status.REJECTED, second.get(0).status());
+        assertEquals(CandidatePipeline.Status.OK, third.get(0).status());
+        assertEquals(List.of(2L), third.get(0).candidates());
+    }
+
+    @Test
+    @DisplayName("가중 역순위 결합은 여러 소스에 함께 나온 상품을 앞에 두고 제외 목록과 가중치 없는 소스는 무시한다")
+    void testBlendWeightsAndExclusions() {
+        // Given
+        List<CandidatePipeline.Outcome> outcomes = List.of(
+                new CandidatePipeline.Outcome("cf", CandidatePipeline.Status.OK, List.of(10L, 20L, 30L), 0),
+                new CandidatePipeline.Outcome("popular", CandidatePipeline.Status.OK, List.of(30L, 40L, 10L), 0),
+                new CandidatePipeline.Outcome("rated", CandidatePipeline.Status.OK, List.of(50L), 0));
+        Map<String, Double> weights = Map.of("cf", 1.0, "popular", 0.5);
+
+        // When
+        List<Long> blended = CandidatePipeline.blend(outcomes, weights, Set.of(20L)::contains, 10);
+
+        // Then
+        // 10: 1/61 + 0.5/63, 30: 1/63 + 0.5/61, 40: 0.5/62 (20은 제외, rated는 가중치 없음)
+        assertEquals(List.of(10L, 30L, 40L), blended);
+        assertEquals(List.of(10L, 30L), CandidatePipeline.blend(outcomes, weights, Set.of(20L)::contains, 2));
+    }
+}
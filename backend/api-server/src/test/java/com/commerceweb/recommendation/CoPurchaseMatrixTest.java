@@ -0,0 +1,52 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("함께 구매 행렬 테스트")
+class CoPurchaseMatrixTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    @DisplayName("같은 사용자가 시간 창 이내에 산 상품 쌍만 세고 횟수 순으로 상위 K개를 반환한다")
+    void testPairsWithinWindow() {
+        // Given
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(7 * DAY);
+        matrix.add(1L, new CoPurchaseMatrix.Purchase(10L, 100L, 0));
+        matrix.add(1L, new CoPurchaseMatrix.Purchase(11L, 200L, DAY));
+        matrix.add(1L, new CoPurchaseMatrix.Purchase(12L, 300L, 30 * DAY)); // 창 밖
+        matrix.add(2L, new CoPurchaseMatrix.Purchase(20L, 100L, 0));
+        matrix.add(2L, new CoPurchaseMatrix.Purchase(21L, 200L, 0));
+        matrix.add(2L, new CoPurchaseMatrix.Purchase(22L, 400L, 0));
+
+        // When & Then
+        assertEquals(2, matrix.count(100L, 200L));
+        assertEquals(0, matrix.count(100L, 300L));
+        assertEquals(List.of(200L, 400L), matrix.topK(100L, 5));
+        assertEquals(List.of(200L), matrix.topK(100L, 1));
+    }
+
+    @Test
+    @DisplayName("주문 취소는 그 주문으로 센 쌍만 되돌리고, 같은 주문을 두 번 넣어도 한 번만 센다")
+    void testCancelAndIdempotentAdd() {
+        // Given
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(7 * DAY);
+        matrix.add(1L, new CoPurchaseMatrix.Purchase(10L, 100L, 0));
+        matrix.add(1L, new CoPurchaseMatrix.Purchase(11L, 200L, 0));
+        assertFalse(matrix.add(1L, new CoPurchaseMatrix.Purchase(11L, 200L, 0)));
+
+        // When
+        assertTrue(matrix.remove(1L, 11L));
+
+        // Then
+        assertEquals(0, matrix.count(100L, 200L));
+        assertTrue(matrix.topK(100L, 5).isEmpty());
+        assertEquals(1, matrix.orderCount());
+        assertFalse(matrix.remove(1L, 99L));
+    }
+}
@@ -0,0 +1,139 @@
+package com.commerceweb.recommendation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 벡터 HNSW 인덱스 성능 (상품 5만 개, 32차원)
+ * - build: 전체 삽입 구성 시간
+ * - search: 상위 10개 근사 조회 지연 (efSearch별)
+ * - bruteForce: 전체 내적 순회 상위 10개 (비교 기준)
+ * recall@10(전수 대비 일치율)은 efSearch별로 Trial 시작 시 계산해 출력한다.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HnswBenchmark {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int DIMENSION = 32;
+    private static final int M = 16;
+    private static final int EF_CONSTRUCTION = 200;
+
+    @Param({"50", "100", "200"})
+    private int efSearch;
+
+    private float[][] vectors;
+    private float[][] queries;
+    private HnswIndex index;
+    private AlsModel bruteForceModel;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vectors = randomVectors(PRODUCTS, DIMENSION, 1L);
+        queries = randomVectors(1_000, DIMENSION, 2L);
+        index = build(vectors);
+
+        long[] itemIds = new long[PRODUCTS];
+        float[] itemFactors = new float[PRODUCTS * DIMENSION];
+        for (int i = 0; i < PRODUCTS; i++) {
+            itemIds[i] = i;
+            System.arraycopy(vectors[i], 0, itemFactors, i * DIMENSION, DIMENSION);
+        }
+        long[] userIds = new long[queries.length];
+        float[] userFactors = new float[queries.length * DIMENSION];
+        for (int q = 0; q < queries.length; q++) {
+            userIds[q] = q;
+            System.arraycopy(queries[q], 0, userFactors, q * DIMENSION, DIMENSION);
+        }
+        bruteForceModel = new AlsModel(1L, Instant.now(), DIMENSION, userIds, itemIds, userFactors, itemFactors);
+
+        System.out.printf("%n[HNSW] efSearch=%d recall@10=%.4f%n", efSearch, recallAt10(index, vectors, queries, efSearch));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<HnswIndex.Result> search() {
+        return index.search(queries[cursor++ % queries.length], 10, efSearch, null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long[] bruteForce() {
+        return bruteForceModel.topN(cursor++ % queries.length, new long[0], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public HnswIndex build() {
+        return build(vectors);
+    }
+
+    private static HnswIndex build(float[][] vectors) {
+        HnswIndex built = new HnswIndex(DIMENSION, M, EF_CONSTRUCTION, 42L);
+        for (int i = 0; i < vectors.length; i++) {
+            built.insert(i, vectors[i]);
+        }
+        return built;
+    }
+
+    /** 노드 ID = 배열 인덱스로 넣은 인덱스의 전수 대비 상위 10개 일치율 */
+    static double recallAt10(HnswIndex index, float[][] vectors, float[][] queries, int efSearch) {
+        long hits = 0;
+        for (float[] query : queries) {
+            Set<Long> exact = new HashSet<>();
+            float[] scores = new float[vectors.length];
+            for (int i = 0; i < vectors.length; i++) {
+                for (int d = 0; d < query.length; d++) {
+                    scores[i] += query[d] * vectors[i][d];
+                }
+            }
+            for (int k = 0; k < 10; k++) {
+                int best = -1;
+                for (int i = 0; i < scores.length; i++) {
+                    if (!exact.contains((long) i) && (best < 0 || scores[i] > scores[best])) {
+                        best = i;
+                    }
+                }
+                exact.add((long) best);
+            }
+            for (HnswIndex.Result result : index.search(query, 10, efSearch, null)) {
+                if (exact.contains(result.id())) {
+                    hits++;
+                }
+            }
+        }
+        return (double) hits / (queries.length * 10L);
+    }
+
+    static float[][] randomVectors(int count, int dimension, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        float[][] vectors = new float[count][dimension];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = (float) (random.nextDouble() * 2 - 1);
+            }
+        }
+        return vectors;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HnswBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HNSW 근사 최근접 이웃 인덱스 테스트")
+class HnswIndexTest {
+
+    @Test
+    @DisplayName("전수 내적 순위와 비교해 recall@10이 0.9 이상이다")
+    void testRecallAgainstBruteForce() {
+        int count = 2_000;
+        int dimension = 16;
+        float[][] vectors = HnswBenchmark.randomVectors(count, dimension, 1L);
+        HnswIndex index = new HnswIndex(dimension, 16, 100, 7L);
+        for (int i = 0; i < count; i++) {
+            index.insert(i, vectors[i]);
+        }
+
+        float[][] queries = HnswBenchmark.randomVectors(100, dimension, 2L);
+        double recall = HnswBenchmark.recallAt10(index, vectors, queries, 100);
+
+        assertEquals(count, index.size());
+        assertTrue(recall >= 0.9, "recall@10 = " + recall);
+    }
+
+    @Test
+    @DisplayName("삭제하거나 제외한 상품은 결과에 나오지 않는다")
+    void testDeleteAndExclude() {
+        HnswIndex index = new HnswIndex(2, 4, 16, 7L);
+        index.insert(1, new float[]{1f, 0f});
+        index.insert(2, new float[]{0.9f, 0.1f});
+        index.insert(3, new float[]{0.5f, 0.5f});
+        index.insert(4, new float[]{0f, 1f});
+        float[] query = {1f, 0f};
+
+        assertEquals(List.of(1L, 2L), ids(index.search(query, 2, 10, null)));
+
+        assertTrue(index.delete(1));
+        assertFalse(index.delete(1));
+        assertEquals(List.of(2L, 3L), ids(index.search(query, 2, 10, null)));
+        assertEquals(List.of(3L, 4L), ids(index.search(query, 2, 10, id -> id == 2)));
+
+        // 같은 ID로 다시 넣으면 새 벡터로 교체
+        index.insert(4, new float[]{2f, 0f});
+        assertEquals(List.of(4L), ids(index.search(query, 1, 10, null)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("차원이 다른 벡터는 거부한다")
+    void testDimensionMismatch() {
+        HnswIndex index = new HnswIndex(3, 4, 16, 7L);
+        assertThrows(IllegalArgumentException.class, () -> index.insert(1, new float[]{1f}));
+        assertTrue(index.search(new float[]{1f, 0f, 0f}, 5, 10, null).isEmpty());
+    }
+
+    private static List<Long> ids(List<HnswIndex.Result> results) {
+        return results.stream().map(HnswIndex.Result::id).toList();
+    }
+}
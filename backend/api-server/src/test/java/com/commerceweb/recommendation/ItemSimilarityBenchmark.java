@@ -0,0 +1,93 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 평점 100만 건 기준 추천 지연 시간 비교
+ * - userBased: 현재 경로(유사 사용자 탐색 → 이웃 5명 평점 합산)와 같은 알고리즘을 메모리 행렬에서 수행.
+ *              DB 왕복이 빠진 하한값이므로 실제 JPA 경로는 이보다 느리다.
+ * - itemKnn: 사전 계산된 상위 K 유사 상품 목록 합산
+ * - buildIndex: Fork/Join 병렬 인덱스 전체 재구성 시간
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSimilarityBenchmark {
+
+    private static final int USERS = 50_000;
+    private static final int ITEMS = 20_000;
+    private static final int RATINGS_PER_USER = 20;   // 총 100만 건
+
+    private RatingMatrix matrix;
+    private RatingMatrixEngine userBasedEngine;
+    private ItemSimilarityEngine itemKnnEngine;
+    private List<List<Long>> ratedByUser;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matrix = SyntheticRatings.generate(USERS, ITEMS, RATINGS_PER_USER, 42L);
+
+        userBasedEngine = new RatingMatrixEngine(new RatingMatrixLoader(null) {
+            @Override
+            public RatingMatrix load() {
+                return matrix;
+            }
+        }, new SimpleMeterRegistry());
+        userBasedEngine.reload();
+
+        itemKnnEngine = new ItemSimilarityEngine(null,
+                new OnlineItemSimilarityUpdater(null, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        itemKnnEngine.install(ItemSimilarityIndexBuilder.build(
+                matrix, ItemSimilarityIndexBuilder.Metric.ADJUSTED_COSINE, 30, ForkJoinPool.commonPool()));
+
+        ratedByUser = new ArrayList<>();
+        for (int u = 0; u < 1_000; u++) {
+            List<Long> rated = new ArrayList<>();
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                rated.add(matrix.itemId(matrix.rowItem(p)));
+            }
+            ratedByUser.add(rated);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Long> userBased() {
+        int u = cursor++ % ratedByUser.size();
+        return userBasedEngine.recommend(matrix.userId(u), 5, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Long> itemKnn() {
+        int u = cursor++ % ratedByUser.size();
+        return itemKnnEngine.recommend(ratedByUser.get(u), 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ItemSimilarityIndex buildIndex() {
+        return ItemSimilarityIndexBuilder.build(
+                matrix, ItemSimilarityIndexBuilder.Metric.ADJUSTED_COSINE, 30, ForkJoinPool.commonPool());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ItemSimilarityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.commerceweb.recommendation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("아이템 유사도 인덱스 테스트")
+class ItemSimilarityIndexBuilderTest {
+
+    // 사용자1: 10=5, 20=5 / 사용자2: 10=4, 20=4, 30=1 / 사용자3: 30=5
+    private final RatingMatrix matrix = RatingMatrix.build(
+            new long[]{1, 1, 2, 2, 2, 3},
+            new long[]{10, 20, 10, 20, 30, 30},
+            new byte[]{5, 5, 4, 4, 1, 5}, 6);
+
+    @Test
+    @DisplayName("코사인 유사도로 상위 K개 이웃만 내림차순으로 남긴다")
+    void testCosineTopK() {
+        ItemSimilarityIndex index = ItemSimilarityIndexBuilder.build(
+                matrix, ItemSimilarityIndexBuilder.Metric.COSINE, 1, ForkJoinPool.commonPool());
+
+        int item10 = index.itemIndex(10);
+        assertEquals(1, index.end(item10) - index.start(item10));
+        assertEquals(20, index.itemId(index.neighbour(index.start(item10))));
+        assertEquals(1.0f, index.similarity(index.start(item10)), 1e-6);
+
+        // 동점이면 상품 ID가 작은 쪽
+        int item30 = index.itemIndex(30);
+        assertEquals(10, index.itemId(index.neighbour(index.start(item30))));
+        assertEquals(4 / (Math.sqrt(41) * Math.sqrt(26)), index.similarity(index.start(item30)), 1e-6);
+    }
+
+    @Test
+    @DisplayName("평가한 상품들의 이웃 유사도를 합산해 추천한다")
+    void testRecommend() {
+        ItemSimilarityEngine engine = new ItemSimilarityEngine(null,
+                new OnlineItemSimilarityUpdater(null, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        engine.install(ItemSimilarityIndexBuilder.build(
+                matrix, ItemSimilarityIndexBuilder.Metric.COSINE, 2, ForkJoinPool.commonPool()));
+
+        assertEquals(List.of(20L, 30L), engine.recommend(List.of(10L), 5));
+        assertEquals(List.of(30L), engine.recommend(List.of(10L, 20L), 5));
+        assertTrue(engine.recommend(List.of(999L), 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("작업 스레드마다 누적 버퍼를 재사용해도 단일 스레드 결과와 같다")
+    void testParallelBuildMatchesSingleThread() {
+        RatingMatrix large = SyntheticRatings.generate(500, 400, 20, 7L);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            ItemSimilarityIndex expected = ItemSimilarityIndexBuilder.build(
+                    large, ItemSimilarityIndexBuilder.Metric.ADJUSTED_COSINE, 10, single);
+            ItemSimilarityIndex actual = ItemSimilarityIndexBuilder.build(
+                    large, ItemSimilarityIndexBuilder.Metric.ADJUSTED_COSINE, 10, parallel);
+
+            for (int i = 0; i < expected.itemCount(); i++) {
+                assertEquals(expected.end(i) - expected.start(i), actual.end(i) - actual.start(i));
+                for (int p = expected.start(i); p < expected.end(i); p++) {
+                    assertEquals(expected.neighbour(p), actual.neighbour(p));
+                    assertEquals(expected.similarity(p), actual.similarity(p));
+                }
+            }
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MinHash/LSH 유사 사용자 인덱스 테스트")
+class MinHashLshIndexTest {
+
+    @Test
+    @DisplayName("평가 상품 집합이 비슷한 사용자를 유사도 순으로 찾는다")
+    void testQuery() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 2, 7L);
+        index.put(1L, new long[]{1, 2, 3, 4, 5, 6, 7, 8});
+        index.put(2L, new long[]{1, 2, 3, 4, 5, 6, 7, 8});
+        index.put(3L, new long[]{1, 2, 3, 4, 5, 6, 7, 9});
+        index.put(4L, new long[]{100, 200, 300});
+
+        List<MinHashLshIndex.Candidate> result = index.query(1L, 5, 100);
+
+        assertEquals(2L, result.get(0).userId());
+        assertEquals(1.0, result.get(0).jaccard());
+        assertEquals(8L, result.get(0).estimatedCommon());
+        assertTrue(result.stream().anyMatch(c -> c.userId() == 3L));
+        assertTrue(result.stream().noneMatch(c -> c.userId() == 4L || c.userId() == 1L));
+    }
+
+    @Test
+    @DisplayName("평점 변경으로 집합이 바뀌면 버킷 소속도 갱신된다")
+    void testUpdate() {
+        MinHashLshIndex index = new MinHashLshIndex(16, 2, 7L);
+        index.put(1L, new long[]{1, 2, 3});
+        index.put(2L, new long[]{1, 2, 3});
+        assertEquals(1, index.query(1L, 5, 100).size());
+
+        index.put(2L, new long[]{50, 60, 70});
+        assertTrue(index.query(1L, 5, 100).isEmpty());
+
+        index.put(2L, new long[0]);
+        assertEquals(1, index.size());
+        assertTrue(index.query(2L, 5, 100).isEmpty());
+    }
+}
@@ -0,0 +1,136 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("아이템 유사도 증분 갱신 테스트")
+class OnlineItemSimilarityTest {
+
+    @Test
+    @DisplayName("평점 추가/수정/삭제를 증분 반영한 결과가 배치 코사인 인덱스와 같다")
+    void testIncrementalMatchesBatch() {
+        // Given
+        SplittableRandom random = new SplittableRandom(7);
+        int userCount = 40;
+        int itemCount = 15;
+        byte[][] scores = new byte[userCount][itemCount];
+        OnlineItemSimilarity online = new OnlineItemSimilarity(itemCount);
+
+        // When - 무작위 순서로 추가, 수정, 삭제
+        for (int step = 0; step < 2000; step++) {
+            int u = random.nextInt(userCount);
+            int i = random.nextInt(itemCount);
+            int score = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(5);
+            scores[u][i] = (byte) score;
+            online.apply(u + 1, i + 1, score == 0 ? null : score);
+        }
+
+        // Then
+        long[] users = new long[userCount * itemCount];
+        long[] items = new long[users.length];
+        byte[] values = new byte[users.length];
+        int n = 0;
+        for (int u = 0; u < userCount; u++) {
+            for (int i = 0; i < itemCount; i++) {
+                if (scores[u][i] > 0) {
+                    users[n] = u + 1;
+                    items[n] = i + 1;
+                    values[n] = scores[u][i];
+                    n++;
+                }
+            }
+        }
+        ItemSimilarityIndex batch = ItemSimilarityIndexBuilder.build(RatingMatrix.build(users, items, values, n),
+                ItemSimilarityIndexBuilder.Metric.COSINE, itemCount, ForkJoinPool.commonPool());
+        online.compact(1); // 노름 변화를 모든 목록에 반영
+
+        for (int item = 0; item < batch.itemCount(); item++) {
+            OnlineItemSimilarity.Neighbours neighbours = online.neighbours(batch.itemId(item));
+            assertNotNull(neighbours);
+            assertEquals(batch.end(item) - batch.start(item), neighbours.size());
+            for (int p = batch.start(item), k = 0; p < batch.end(item); p++, k++) {
+                assertEquals(batch.similarity(p), neighbours.similarities()[k], 1e-5);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("바뀐 상품의 목록을 기존 상위 K와 바뀐 쌍만으로 고쳐도 전체 쌍에서 다시 만든 목록과 같다")
+    void testRepublishMatchesFullRebuild() {
+        // Given - K가 작아 목록 밖 후보로 다시 만드는 경우도 생긴다
+        SplittableRandom random = new SplittableRandom(11);
+        OnlineItemSimilarity online = new OnlineItemSimilarity(3);
+
+        for (int step = 0; step < 600; step++) {
+            long userId = 1 + random.nextInt(30);
+            long productId = 1 + random.nextInt(12);
+            int score = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(5);
+
+            // When
+            online.apply(userId, productId, score == 0 ? null : score);
+            OnlineItemSimilarity.Neighbours incremental = online.neighbours(productId);
+            online.compact(1); // 모든 목록을 전체 쌍에서 다시 게시
+
+            // Then
+            OnlineItemSimilarity.Neighbours full = online.neighbours(productId);
+            if (incremental == null || full == null) {
+                assertEquals(full, incremental, "step=" + step);
+                continue;
+            }
+            assertArrayEquals(full.productIds(), incremental.productIds(), "step=" + step);
+            assertArrayEquals(full.similarities(), incremental.similarities(), 1e-6f, "step=" + step);
+        }
+    }
+
+    @Test
+    @DisplayName("새 평점이 들어오면 재구성 없이 바로 이웃 목록에 나타난다")
+    void testApplyPublishesImmediately() {
+        // Given - 사용자1: 10=5, 20=5
+        OnlineItemSimilarity online = new OnlineItemSimilarity(2);
+        online.apply(1, 10, 5);
+        online.apply(1, 20, 5);
+        assertEquals(20L, online.neighbours(10).productIds()[0]);
+
+        // When - 사용자2가 10, 30을 평가
+        online.apply(2, 10, 4);
+        online.apply(2, 30, 4);
+
+        // Then
+        assertArrayEquals(new long[]{20, 30}, online.neighbours(10).productIds());
+        assertArrayEquals(new long[]{10}, online.neighbours(30).productIds());
+
+        // When - 평가 삭제
+        online.apply(2, 30, null);
+
+        // Then
+        assertNull(online.neighbours(30));
+        assertArrayEquals(new long[]{20}, online.neighbours(10).productIds());
+        assertEquals(1, online.pairCount());
+    }
+
+    @Test
+    @DisplayName("압축하면 함께 평가한 사용자 수가 적은 쌍을 버린다")
+    void testCompactDropsWeakPairs() {
+        // Given - (10, 20)은 두 사용자, (10, 30)은 한 사용자만 함께 평가
+        OnlineItemSimilarity online = new OnlineItemSimilarity(5);
+        online.apply(1, 10, 5);
+        online.apply(1, 20, 4);
+        online.apply(2, 10, 3);
+        online.apply(2, 20, 3);
+        online.apply(2, 30, 5);
+
+        // When
+        long dropped = online.compact(2);
+
+        // Then
+        assertEquals(2, dropped); // (10, 30), (20, 30)
+        assertEquals(1, online.pairCount());
+        assertArrayEquals(new long[]{20}, online.neighbours(10).productIds());
+        assertEquals(0, online.neighbours(30).size());
+    }
+}
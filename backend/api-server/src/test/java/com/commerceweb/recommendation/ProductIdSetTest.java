@@ -0,0 +1,72 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("상품 ID 압축 비트맵 테스트")
+class ProductIdSetTest {
+
+    @Test
+    @DisplayName("배열/비트맵 컨테이너를 오가며 더하고 빼도 HashSet과 같은 포함 결과를 낸다")
+    void testMatchesHashSetAcrossContainerConversions() {
+        // Given
+        Random random = new Random(7);
+        Set<Long> expected = new HashSet<>();
+        List<Long> initial = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            initial.add((long) random.nextInt(20_000));          // 키 0: 배열 컨테이너
+            initial.add(1_000_000L + random.nextInt(300_000));   // 여러 키에 흩어진 값
+        }
+        expected.addAll(initial);
+        ProductIdSet set = ProductIdSet.of(initial);
+
+        // When
+        // 키 0 구간을 배열 한도 이상으로 채워 비트맵으로 바꾼 뒤 다시 줄인다
+        for (long id = 0; id < 6_000; id++) {
+            set = set.with(id);
+            expected.add(id);
+        }
+        for (long id = 0; id < 20_000; id += 2) {
+            set = set.without(id);
+            expected.remove(id);
+        }
+
+        // Then
+        assertEquals(expected.size(), set.cardinality());
+        for (long id = 0; id < 1_400_000; id += 7) {
+            assertEquals(expected.contains(id), set.contains(id), "id=" + id);
+        }
+        for (Long id : expected) {
+            assertTrue(set.contains(id));
+        }
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), set.toArray());
+    }
+
+    @Test
+    @DisplayName("with/without은 원래 집합을 바꾸지 않는다")
+    void testImmutableUpdates() {
+        // Given
+        ProductIdSet original = ProductIdSet.of(List.of(1L, 70_000L));
+
+        // When
+        ProductIdSet added = original.with(2L);
+        ProductIdSet removed = original.without(70_000L);
+
+        // Then
+        assertFalse(original.contains(2L));
+        assertTrue(original.contains(70_000L));
+        assertTrue(added.contains(2L));
+        assertFalse(removed.contains(70_000L));
+        assertSame(original, original.with(1L));
+        assertSame(original, original.without(3L));
+        assertTrue(ProductIdSet.of(List.of(5L)).without(5L).isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.dto.ProductRankingDto;
+import com.commerceweb.entity.Product;
+import com.commerceweb.event.ProductChangedEvent;
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("인기 상품 순위 인덱스 테스트")
+class ProductRankingIndexTest {
+
+    @Test
+    @DisplayName("재동기화 스캔 중 바뀐 평점과 새로 등록된 상품은 교체 전에 다시 읽어 반영한다")
+    void testReloadReplaysChangesMadeDuringScan() {
+        // Given - 스캔은 상품1(4.5), 상품2(4.2)만 보고, 그 사이 상품1 평점이 4.9로 바뀌고 상품3이 등록된다
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductRankingIndex index = new ProductRankingIndex(productRepository, new SimpleMeterRegistry());
+        when(productRepository.findRankingRows()).thenAnswer(invocation -> {
+            index.onRatingChanged(RatingChangedEvent.upserted(7L, 1L, 5));
+            index.onProductChanged(ProductChangedEvent.created(3L, "a"));
+            return List.of(new ProductRankingDto(1L, "a", 4.5, 0L), new ProductRankingDto(2L, "a", 4.2, 0L));
+        });
+        when(productRepository.findById(1L)).thenReturn(Optional.of(
+                Product.builder().id(1L).category("a").averageRating(4.9).viewCount(0L).build()));
+        when(productRepository.findById(3L)).thenReturn(Optional.of(
+                Product.builder().id(3L).category("a").averageRating(4.6).viewCount(0L).build()));
+
+        // When
+        index.reload();
+
+        // Then
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 3L, 2L), index.topProductIds(10));
+        assertEquals(List.of(1L, 3L, 2L), index.categoryProductIds("a", 0, 10));
+    }
+}
@@ -0,0 +1,82 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("인기 상품 순위 구조 테스트")
+class ProductRankingTest {
+
+    @Test
+    @DisplayName("평점 → 조회수 → ID 순으로 정렬하고 최소 평점 미만은 제외한다")
+    void testTopOrderedByRatingThenViews() {
+        // Given
+        ProductRanking ranking = new ProductRanking();
+        ranking.upsert(new ProductRanking.Entry(1L, "a", 4.5, 10));
+        ranking.upsert(new ProductRanking.Entry(2L, "a", 4.8, 1));
+        ranking.upsert(new ProductRanking.Entry(3L, "b", 4.5, 30));
+        ranking.upsert(new ProductRanking.Entry(4L, "b", 3.9, 100));
+
+        // When & Then
+        assertEquals(List.of(2L, 3L, 1L), ranking.top(10, 4.0));
+        assertEquals(List.of(2L, 3L), ranking.top(2, 4.0));
+    }
+
+    @Test
+    @DisplayName("평점/조회수가 바뀌면 해당 상품 위치만 옮기고 삭제된 상품은 빠진다")
+    void testIncrementalUpdates() {
+        // Given
+        ProductRanking ranking = new ProductRanking();
+        ranking.upsert(new ProductRanking.Entry(1L, "a", 4.5, 10));
+        ranking.upsert(new ProductRanking.Entry(2L, "a", 4.5, 10));
+        ranking.upsert(new ProductRanking.Entry(3L, "a", 4.2, 0));
+
+        // When
+        ranking.addViews(2L, 1);
+        ranking.upsert(new ProductRanking.Entry(3L, "b", 4.9, 0));
+        ranking.remove(1L);
+
+        // Then
+        assertEquals(List.of(3L, 2L), ranking.top(10, 0.0));
+        assertEquals(2, ranking.size());
+        assertEquals("b", ranking.get(3L).orElseThrow().category());
+    }
+
+    @Test
+    @DisplayName("전체 교체 시 목록에 없는 상품은 제거된다")
+    void testReplaceAllDropsStaleProducts() {
+        // Given
+        ProductRanking ranking = new ProductRanking();
+        ranking.upsert(new ProductRanking.Entry(1L, "a", 4.5, 0));
+        ranking.upsert(new ProductRanking.Entry(2L, "a", 4.6, 0));
+
+        // When
+        ranking.replaceAll(List.of(new ProductRanking.Entry(2L, "a", 4.1, 5),
+                new ProductRanking.Entry(5L, "c", 4.3, 0)));
+
+        // Then
+        assertEquals(List.of(5L, 2L), ranking.top(10, 0.0));
+    }
+
+    @Test
+    @DisplayName("카테고리가 바뀐 상품은 이전 카테고리에서 빠지고 새 카테고리 순위에 들어간다")
+    void testCategoryMoveAndPaging() {
+        // Given
+        ProductRanking ranking = new ProductRanking();
+        for (long id = 1; id <= 5; id++) {
+            ranking.upsert(new ProductRanking.Entry(id, "a", 5.0 - id * 0.1, 0));
+        }
+
+        // When
+        ranking.upsert(new ProductRanking.Entry(2L, "b", 4.8, 0));
+
+        // Then
+        assertEquals(List.of(1L, 3L), ranking.topInCategory("a", 0, 2));
+        assertEquals(List.of(4L, 5L), ranking.topInCategory("a", 2, 2));
+        assertEquals(List.of(2L), ranking.topInCategory("b", 0, 10));
+        assertTrue(ranking.topInCategory("none", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package com.commerceweb.recommendation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 오프라인 추천 평가용 평점 데이터셋 (평가 시각 포함).
+ * MovieLens 형식 파일(u.data 탭 구분, ratings.dat "::" 구분, ratings.csv 헤더 포함 쉼표 구분)이나
+ * 합성 데이터로 만들고, 시각 기준으로 학습/평가 구간을 나눈다.
+ */
+final class RatingDataset {
+
+    record Rating(long userId, long productId, int score, long timestamp) { }
+
+    /**
+     * 시각 기준 분할 결과
+     *
+     * @param train    cutoff 이전 평점으로 만든 학습 행렬
+     * @param relevant cutoff 이후 사용자별 관련 상품 (학습 구간에도 평가가 있는 사용자만)
+     */
+    record Split(RatingMatrix train, Map<Long, Set<Long>> relevant) { }
+
+    private final List<Rating> ratings;
+
+    RatingDataset(List<Rating> ratings) {
+        this.ratings = ratings;
+    }
+
+    List<Rating> ratings() {
+        return ratings;
+    }
+
+    /** MovieLens 형식 파일을 읽는다 (점수는 반올림해 1~5로 맞춘다) */
+    static RatingDataset load(Path path) {
+        List<Rating> ratings = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(path)) {
+            lines.forEach(line -> {
+                String[] fields = line.split("::|\t|,");
+                if (fields.length < 4 || !Character.isDigit(fields[0].charAt(0))) {
+                    return; // 헤더 또는 빈 줄
+                }
+                int score = (int) Math.max(1, Math.min(5, Math.round(Double.parseDouble(fields[2]))));
+                ratings.add(new Rating(Long.parseLong(fields[0]), Long.parseLong(fields[1]), score,
+                        Long.parseLong(fields[3].trim())));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RatingDataset(ratings);
+    }
+
+    /** {@link SyntheticRatings}와 같은 롱테일 분포에 무작위 평가 시각을 붙인 데이터 */
+    static RatingDataset synthetic(int userCount, int itemCount, int ratingsPerUser, long seed) {
+        RatingMatrix matrix = SyntheticRatings.generate(userCount, itemCount, ratingsPerUser, seed);
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        List<Rating> ratings = new ArrayList<>(matrix.nonZeroCount());
+        for (int u = 0; u < matrix.userCount(); u++) {
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                ratings.add(new Rating(matrix.userId(u), matrix.itemId(matrix.rowItem(p)), matrix.rowScore(p),
+                        random.nextLong(1_000_000L)));
+            }
+        }
+        return new RatingDataset(ratings);
+    }
+
+    /**
+     * 평가 시각 순으로 앞쪽 trainFraction을 학습 구간, 나머지를 평가 구간으로 나눈다.
+     * 평가 구간에서 점수가 relevantScore 이상인 상품을 그 사용자의 정답으로 본다.
+     */
+    Split temporalSplit(double trainFraction, int relevantScore) {
+        List<Rating> sorted = new ArrayList<>(ratings);
+        sorted.sort(Comparator.comparingLong(Rating::timestamp));
+        int cutoff = (int) (sorted.size() * trainFraction);
+
+        long[] users = new long[cutoff];
+        long[] items = new long[cutoff];
+        byte[] scores = new byte[cutoff];
+        Set<Long> trainUsers = new HashSet<>();
+        for (int i = 0; i < cutoff; i++) {
+            Rating rating = sorted.get(i);
+            users[i] = rating.userId();
+            items[i] = rating.productId();
+            scores[i] = (byte) rating.score();
+            trainUsers.add(rating.userId());
+        }
+
+        Map<Long, Set<Long>> relevant = new TreeMap<>();
+        for (int i = cutoff; i < sorted.size(); i++) {
+            Rating rating = sorted.get(i);
+            if (rating.score() >= relevantScore && trainUsers.contains(rating.userId())) {
+                relevant.computeIfAbsent(rating.userId(), k -> new HashSet<>()).add(rating.productId());
+            }
+        }
+        return new Split(RatingMatrix.build(users, items, scores, cutoff), relevant);
+    }
+}
@@ -0,0 +1,139 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.dto.RatingTupleDto;
+import com.commerceweb.repository.RatingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("평점 행렬 엔진 테스트")
+class RatingMatrixEngineTest {
+
+    private RatingRepository ratingRepository;
+    private RatingMatrixEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ratingRepository = mock(RatingRepository.class);
+        RatingMatrixLoader loader = new RatingMatrixLoader(ratingRepository);
+        ReflectionTestUtils.setField(loader, "loadBatchSize", 2);
+        engine = new RatingMatrixEngine(loader, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "engineMode", "matrix");
+        ReflectionTestUtils.setField(engine, "compactionThreshold", 3);
+
+        // 사용자1: 상품 1,2,3 / 사용자2: 상품 1,4(4),5(5) / 사용자3: 상품 9
+        List<RatingTupleDto> all = List.of(
+                new RatingTupleDto(1L, 1L, 1L, 5),
+                new RatingTupleDto(2L, 1L, 2L, 4),
+                new RatingTupleDto(3L, 1L, 3L, 3),
+                new RatingTupleDto(4L, 2L, 1L, 5),
+                new RatingTupleDto(5L, 2L, 4L, 4),
+                new RatingTupleDto(6L, 2L, 5L, 5),
+                new RatingTupleDto(7L, 3L, 9L, 2));
+        when(ratingRepository.findRatingTuplesAfter(eq(0L), any(Pageable.class))).thenReturn(all.subList(0, 2));
+        when(ratingRepository.findRatingTuplesAfter(eq(2L), any(Pageable.class))).thenReturn(all.subList(2, 4));
+        when(ratingRepository.findRatingTuplesAfter(eq(4L), any(Pageable.class))).thenReturn(all.subList(4, 6));
+        when(ratingRepository.findRatingTuplesAfter(eq(6L), any(Pageable.class))).thenReturn(all.subList(6, 7));
+        when(ratingRepository.findRatingTuplesAfter(eq(7L), any(Pageable.class))).thenReturn(List.of());
+
+        engine.reload();
+    }
+
+    @Test
+    @DisplayName("CSR/CSC 행렬은 행과 열 모두 정렬된 상태로 만들어진다")
+    void testBuildMatrix() {
+        RatingMatrix matrix = RatingMatrix.build(
+                new long[]{20, 10, 20, 10}, new long[]{7, 7, 3, 5}, new byte[]{1, 2, 3, 4}, 4);
+
+        assertEquals(2, matrix.userCount());
+        assertEquals(3, matrix.itemCount());
+        assertEquals(4, matrix.nonZeroCount());
+
+        int user10 = matrix.userIndex(10);
+        assertEquals(5, matrix.itemId(matrix.rowItem(matrix.rowStart(user10))));
+        assertEquals(7, matrix.itemId(matrix.rowItem(matrix.rowEnd(user10) - 1)));
+        assertEquals(3, matrix.score(matrix.userIndex(20), matrix.itemIndex(3)));
+        assertEquals(0, matrix.score(user10, matrix.itemIndex(3)));
+
+        int item7 = matrix.itemIndex(7);
+        assertEquals(10, matrix.userId(matrix.colUser(matrix.colStart(item7))));
+        assertEquals(20, matrix.userId(matrix.colUser(matrix.colEnd(item7) - 1)));
+        assertTrue(matrix.memoryFootprintBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("이미 평가한 상품을 제외하고 예상 평점 순으로 추천한다")
+    void testRecommend() {
+        assertTrue(engine.isReady());
+        assertEquals(List.of(5L, 4L), engine.recommend(1L, 5, 10));
+        assertEquals(List.of(5L), engine.recommend(1L, 5, 1));
+    }
+
+    @Test
+    @DisplayName("평가 이력이 없거나 유사 사용자가 없으면 빈 결과를 반환한다")
+    void testRecommendWithoutNeighbours() {
+        assertTrue(engine.recommend(999L, 5, 10).isEmpty());
+        assertTrue(engine.recommend(3L, 5, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("평점 변경은 증분으로 반영되고 임계치를 넘으면 스케줄러가 행렬을 재구성한다")
+    void testIncrementalUpdates() {
+        engine.apply(2L, 5L, (byte) 0);      // 사용자2의 상품5 평가 삭제
+        engine.apply(4L, 2L, (byte) 5);      // 신규 사용자4: 상품 2, 6 평가
+        assertEquals(List.of(4L), engine.recommend(1L, 5, 10).subList(0, 1));
+
+        engine.apply(4L, 6L, (byte) 5);      // 임계치(3) 도달 → 커밋 경로에서는 증분에만 반영
+        RatingMatrix before = (RatingMatrix) ReflectionTestUtils.invokeMethod(
+                ReflectionTestUtils.getField(engine, "snapshot"), "matrix");
+        assertEquals(List.of(6L, 4L), engine.recommend(1L, 5, 10));
+
+        engine.compactIfNeeded();
+        RatingMatrix after = (RatingMatrix) ReflectionTestUtils.invokeMethod(
+                ReflectionTestUtils.getField(engine, "snapshot"), "matrix");
+        assertNotSame(before, after);
+        assertEquals(8, after.nonZeroCount());
+        assertEquals(List.of(6L, 4L), engine.recommend(1L, 5, 10));
+        assertEquals(List.of(1L, 3L), engine.recommend(4L, 5, 10));
+    }
+
+    @Test
+    @DisplayName("재구성 도중 들어온 평점은 새 증분 맵으로 가고 행렬에 같은 평점이 중복되지 않는다")
+    void testApplyDuringCompaction() {
+        engine.apply(2L, 5L, (byte) 0);
+        engine.apply(4L, 2L, (byte) 5);
+        engine.apply(4L, 6L, (byte) 5);
+
+        // 사용자1의 스냅샷 행이 이미 옮겨진 뒤 사용자1의 새 평점이 도착
+        engine.compact(() -> engine.apply(1L, 4L, (byte) 2));
+
+        Object snapshot = ReflectionTestUtils.getField(engine, "snapshot");
+        RatingMatrix after = (RatingMatrix) ReflectionTestUtils.invokeMethod(snapshot, "matrix");
+        assertEquals(8, after.nonZeroCount());
+        int user1 = after.userIndex(1L);
+        assertEquals(3, after.rowEnd(user1) - after.rowStart(user1));
+        int item1 = after.itemIndex(1L);
+        assertEquals(2, after.colEnd(item1) - after.colStart(item1));
+        int item2 = after.itemIndex(2L);
+        assertEquals(2, after.colEnd(item2) - after.colStart(item2));
+        assertEquals(0, after.score(user1, after.itemIndex(4L)));
+
+        Object delta = ReflectionTestUtils.invokeMethod(snapshot, "delta");
+        assertEquals(1, ((AtomicInteger) ReflectionTestUtils.getField(delta, "size")).get());
+        // 사용자2는 상품 1(스냅샷)과 4(증분)로 겹치고, 삭제된 상품5는 추천되지 않는다
+        assertEquals(List.of(6L), engine.recommend(1L, 5, 10));
+        assertEquals(List.of(1L, 3L, 4L), engine.recommend(4L, 5, 10));
+    }
+}
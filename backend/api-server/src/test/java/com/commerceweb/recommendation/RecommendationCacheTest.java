@@ -0,0 +1,89 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.config.cache.StaleWhileRevalidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("추천 캐시 무효화 버전 테스트")
+class RecommendationCacheTest {
+
+    private StaleWhileRevalidate staleWhileRevalidate;
+    private ValueOperations<String, String> versions;
+    private RecommendationCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(RecommendationCache.CACHE_NAME);
+        staleWhileRevalidate = new StaleWhileRevalidate(cacheManager, new SimpleMeterRegistry(), Clock.systemUTC(),
+                false, Duration.ofMinutes(10), Duration.ofHours(1), Duration.ZERO, 1, 10);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        versions = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(versions);
+        cache = new RecommendationCache(cacheManager, staleWhileRevalidate, redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        staleWhileRevalidate.shutdown();
+    }
+
+    @Test
+    @DisplayName("버전이 그대로면 저장한다")
+    void testPutWhenVersionUnchanged() {
+        when(versions.get("recommendations:version:1")).thenReturn(null);
+
+        String version = cache.version(1L);
+        assertTrue(cache.put(1L, List.of(3L, 2L), version));
+
+        assertEquals("0", version);
+        assertEquals(Optional.of(List.of(3L, 2L)), cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("계산 도중 무효화되었으면 저장하지 않는다")
+    void testSkipPutWhenInvalidatedDuringCompute() {
+        when(versions.get("recommendations:version:1")).thenReturn("1", "2");
+
+        String version = cache.version(1L);
+        assertFalse(cache.put(1L, List.of(3L, 2L), version));
+
+        assertTrue(cache.get(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("저장과 확인 사이에 무효화되었으면 저장 후 지운다")
+    void testEvictWhenInvalidatedDuringPut() {
+        when(versions.get("recommendations:version:1")).thenReturn("1", "1", "2");
+
+        String version = cache.version(1L);
+        assertFalse(cache.put(1L, List.of(3L, 2L), version));
+
+        assertTrue(cache.get(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("무효화는 버전을 올린 뒤 항목을 지운다")
+    void testEvictBumpsVersion() {
+        cache.put(1L, List.of(3L), null);
+
+        cache.evict(1L);
+
+        verify(versions).increment("recommendations:version:1");
+        assertTrue(cache.get(1L).isEmpty());
+    }
+}
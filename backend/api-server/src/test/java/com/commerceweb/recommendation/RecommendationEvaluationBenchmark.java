@@ -0,0 +1,85 @@
+package com.commerceweb.recommendation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 전략 오프라인 비교 (품질 + 속도, DB 없이 메모리 엔진으로 실행)
+ * <p>
+ * 평점 파일을 시각 순으로 앞 80% 학습 / 뒤 20% 평가로 나눠 전략마다
+ * precision@10, recall@10, 커버리지, p50/p99 지연, 호출당 할당 바이트를 출력한 뒤
+ * JMH로 같은 호출의 평균 지연과 gc.alloc.rate.norm(-prof gc)을 잰다.
+ * </p>
+ * 데이터: -Devaluation.ratings=/path/to/ml-100k/u.data (MovieLens 형식). 없으면 합성 데이터 (사용자 5천 × 20건)
+ * 실행: ./mvnw -Pbenchmark test -DskipTests -Dbenchmark=RecommendationEvaluation
+ * 또는 main() (품질 리포트 + JMH)
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecommendationEvaluationBenchmark {
+
+    private static final int K = 10;
+    private static final double TRAIN_FRACTION = 0.8;
+    private static final int RELEVANT_SCORE = 4;
+
+    @Param({"popular", "matrix", "jpa", "lsh", "item-knn", "item-online", "als", "hybrid"})
+    private String strategy;
+
+    private RecommenderEvaluation.Recommender recommender;
+    private long[] userIds;
+    private List<List<Long>> ratedByUser;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RatingDataset.Split split = dataset().temporalSplit(TRAIN_FRACTION, RELEVANT_SCORE);
+        recommender = RecommenderEvaluation.strategies(split.train()).get(strategy);
+
+        List<Long> users = split.relevant().keySet().stream().limit(1_000).toList();
+        userIds = users.stream().mapToLong(Long::longValue).toArray();
+        ratedByUser = new ArrayList<>(users.size());
+        for (Long userId : users) {
+            ratedByUser.add(RecommenderEvaluation.ratedProducts(split.train(), userId));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Long> recommend() {
+        int u = cursor++ % userIds.length;
+        return recommender.recommend(userIds[u], ratedByUser.get(u), K);
+    }
+
+    static RatingDataset dataset() {
+        String path = System.getProperty("evaluation.ratings");
+        return path == null
+                ? RatingDataset.synthetic(5_000, 2_000, 20, 42L)
+                : RatingDataset.load(Path.of(path));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RatingDataset.Split split = dataset().temporalSplit(TRAIN_FRACTION, RELEVANT_SCORE);
+        System.out.printf("학습 평점 %d건, 평가 사용자 %d명, k=%d%n",
+                split.train().nonZeroCount(), split.relevant().size(), K);
+        RecommenderEvaluation.strategies(split.train()).forEach((name, recommender) ->
+                System.out.println(RecommenderEvaluation.evaluate(name, recommender, split, K, 2_000)));
+
+        String path = System.getProperty("evaluation.ratings");
+        new Runner(new OptionsBuilder()
+                .include(RecommendationEvaluationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(path == null ? new String[0] : new String[]{"-Devaluation.ratings=" + path})
+                .build()).run();
+    }
+}
@@ -0,0 +1,272 @@
+package com.commerceweb.recommendation;
+
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 추천 전략별 오프라인 품질/지연 평가.
+ * 학습 구간 행렬로 각 엔진을 DB 없이 메모리에서 만들고, 평가 구간 사용자마다 상위 k개를 받아
+ * precision@k, recall@k, 카탈로그 커버리지와 호출당 지연(p50/p99), 할당 바이트를 잰다.
+ * <p>
+ * 전략 이름은 recommendation.engine.mode 값과 같고, 결과가 비면 서비스처럼 인기 상품으로 대체한다.
+ * matrix/item-knn/item-online/als는 서비스가 호출하는 엔진을 그대로 호출한다.
+ * DB나 Redis가 있어야 하는 경로는 {@link #APPROXIMATIONS}에 이유를 적고 리포트에 근사로 표시한다.
+ * </p>
+ */
+final class RecommenderEvaluation {
+
+    /** recommendation.similar-user-count 기본값 */
+    private static final int NEIGHBOURS = 5;
+    /** recommendation.popular.min-rating 기본값 */
+    private static final double POPULAR_MIN_RATING = 4.0;
+    /** recommendation.hybrid.weight.* 기본값 (category/recent 소스는 데이터가 없어 빠짐) */
+    private static final Map<String, Double> HYBRID_WEIGHTS = Map.of("cf", 1.0, "popular", 0.2);
+
+    /** 서비스 경로를 그대로 돌리지 못하는 전략과 그 이유 (리포트에 근사로 표시) */
+    static final Map<String, String> APPROXIMATIONS = Map.of(
+            "popular", "조회수 없음 - 같은 평균 평점은 상품 ID 순",
+            "jpa", "셀프 조인 쿼리를 메모리에서 재현 - 공통 평가 수가 같으면 사용자 ID 순",
+            "lsh", "이웃 평점을 DB 대신 학습 행렬에서 읽음 - 점수 규칙은 서비스 3~4단계와 동일",
+            "hybrid", "cf(matrix)+popular만 합산 - category/recent 소스 없음");
+
+    /** 사용자 한 명의 추천 (rated: 학습 구간에서 평가한 상품) */
+    @FunctionalInterface
+    interface Recommender {
+        List<Long> recommend(long userId, List<Long> rated, int k);
+    }
+
+    /**
+     * @param approximation 서비스 경로와 다른 점 (그대로 돌렸으면 null)
+     */
+    record Report(String strategy, int users, double precision, double recall, double coverage,
+                  double p50Micros, double p99Micros, double bytesPerCall, String approximation) {
+
+        @Override
+        public String toString() {
+            String row = String.format("%-12s users=%-6d P@k=%.4f R@k=%.4f coverage=%.3f p50=%.1fµs p99=%.1fµs alloc=%.0fB/call",
+                    approximation == null ? strategy : strategy + "~", users, precision, recall, coverage,
+                    p50Micros, p99Micros, bytesPerCall);
+            return approximation == null ? row : row + "  [근사: " + approximation + "]";
+        }
+    }
+
+    private RecommenderEvaluation() {
+    }
+
+    /** 학습 행렬로 전략별 추천기를 만든다 (이름 순서 유지) */
+    static Map<String, Recommender> strategies(RatingMatrix train) {
+        RatingMatrixLoader loader = new RatingMatrixLoader(null) {
+            @Override
+            public RatingMatrix load() {
+                return train;
+            }
+        };
+        Map<String, Recommender> strategies = new LinkedHashMap<>();
+
+        // ProductRankingIndex.topProductIds와 같은 순위 구조 (평균 평점 → 조회수 → ID)
+        ProductRanking ranking = popularRanking(train);
+        Recommender popular = (userId, rated, k) -> {
+            Set<Long> excluded = new HashSet<>(rated);
+            return ranking.top(k + rated.size(), POPULAR_MIN_RATING).stream()
+                    .filter(id -> !excluded.contains(id))
+                    .limit(k)
+                    .toList();
+        };
+        strategies.put("popular", popular);
+
+        RatingMatrixEngine matrixEngine = new RatingMatrixEngine(loader, new SimpleMeterRegistry());
+        matrixEngine.reload();
+        Recommender matrix = (userId, rated, k) -> matrixEngine.recommend(userId, NEIGHBOURS, k);
+        strategies.put("matrix", withPopularFallback(matrix, popular));
+
+        strategies.put("jpa", withPopularFallback((userId, rated, k) -> rated.isEmpty()
+                ? List.of()
+                : serviceScoring(train, commonRatingNeighbours(train, userId), rated, k), popular));
+
+        SimilarUserLshEngine lshEngine = new SimilarUserLshEngine(loader, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(lshEngine, "bands", 16);
+        ReflectionTestUtils.setField(lshEngine, "rowsPerBand", 4);
+        ReflectionTestUtils.setField(lshEngine, "maxCandidates", 500);
+        lshEngine.rebuild();
+        strategies.put("lsh", withPopularFallback((userId, rated, k) -> {
+            if (rated.isEmpty()) {
+                return List.of();
+            }
+            // 서비스와 같이 LSH 후보가 없으면 셀프 조인 쿼리로 폴백
+            List<Long> neighbours = lshEngine.findSimilarUsers(userId, NEIGHBOURS).stream()
+                    .map(MinHashLshIndex.Candidate::userId)
+                    .toList();
+            return serviceScoring(train, neighbours.isEmpty() ? commonRatingNeighbours(train, userId) : neighbours,
+                    rated, k);
+        }, popular));
+
+        ItemSimilarityEngine itemKnn = new ItemSimilarityEngine(null,
+                new OnlineItemSimilarityUpdater(null, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        itemKnn.install(ItemSimilarityIndexBuilder.build(
+                train, ItemSimilarityIndexBuilder.Metric.ADJUSTED_COSINE, 30, ForkJoinPool.commonPool()));
+        strategies.put("item-knn", withPopularFallback((userId, rated, k) -> itemKnn.recommend(rated, k), popular));
+
+        OnlineItemSimilarityUpdater updater = new OnlineItemSimilarityUpdater(null, new SimpleMeterRegistry());
+        OnlineItemSimilarity online = new OnlineItemSimilarity(30);
+        online.load(train);
+        updater.install(online);
+        ItemSimilarityEngine onlineItemKnn = new ItemSimilarityEngine(null, updater, new SimpleMeterRegistry());
+        strategies.put("item-online", withPopularFallback((userId, rated, k) -> onlineItemKnn.recommend(rated, k), popular));
+
+        AlsEngine als = new AlsEngine(loader, null, new SimpleMeterRegistry());
+        als.install(AlsTrainer.train(train, new AlsTrainer.Settings(32, 10, 0.1f, 42L), 1L, ForkJoinPool.commonPool()));
+        strategies.put("als", withPopularFallback((userId, rated, k) -> als.recommend(userId, rated, k), popular));
+
+        // 서비스 computeHybrid와 같은 가중 역순위 결합 (소스마다 k개, 평가한 상품 제외, 비면 인기 상품)
+        strategies.put("hybrid", withPopularFallback((userId, rated, k) -> {
+            Set<Long> excluded = new HashSet<>(rated);
+            return CandidatePipeline.blend(List.of(
+                    new CandidatePipeline.Outcome("cf", CandidatePipeline.Status.OK, matrix.recommend(userId, rated, k), 0),
+                    new CandidatePipeline.Outcome("popular", CandidatePipeline.Status.OK,
+                            ranking.top(k, POPULAR_MIN_RATING), 0)),
+                    HYBRID_WEIGHTS, excluded::contains, k);
+        }, popular));
+        return strategies;
+    }
+
+    /**
+     * 평가 구간 사용자(최대 maxUsers명)마다 상위 k개를 받아 품질과 지연을 잰다.
+     * 지연/할당은 warmupUsers명을 먼저 호출해 JIT가 안정된 뒤부터 기록한다.
+     */
+    static Report evaluate(String name, Recommender recommender, RatingDataset.Split split, int k, int maxUsers) {
+        RatingMatrix train = split.train();
+        List<Long> users = split.relevant().keySet().stream().limit(maxUsers).toList();
+        Map<Long, List<Long>> ratedByUser = new HashMap<>();
+        for (Long userId : users) {
+            ratedByUser.put(userId, ratedProducts(train, userId));
+        }
+        int warmupUsers = Math.min(users.size(), 200);
+        for (int i = 0; i < warmupUsers; i++) {
+            recommender.recommend(users.get(i), ratedByUser.get(users.get(i)), k);
+        }
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        Set<Long> recommendedCatalogue = new HashSet<>();
+        double precisionSum = 0;
+        double recallSum = 0;
+        long allocated = 0;
+
+        for (Long userId : users) {
+            List<Long> rated = ratedByUser.get(userId);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long startTime = System.nanoTime();
+            List<Long> recommended = recommender.recommend(userId, rated, k);
+            latency.recordValue(Math.min(System.nanoTime() - startTime, latency.getHighestTrackableValue()));
+            allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            Set<Long> relevant = split.relevant().get(userId);
+            long hits = recommended.stream().limit(k).filter(relevant::contains).count();
+            precisionSum += (double) hits / k;
+            recallSum += (double) hits / relevant.size();
+            recommendedCatalogue.addAll(recommended);
+        }
+
+        int n = Math.max(1, users.size());
+        return new Report(name, users.size(), precisionSum / n, recallSum / n,
+                (double) recommendedCatalogue.size() / Math.max(1, train.itemCount()),
+                latency.getValueAtPercentile(50) / 1_000.0, latency.getValueAtPercentile(99) / 1_000.0,
+                (double) allocated / n, APPROXIMATIONS.get(name));
+    }
+
+    static List<Long> ratedProducts(RatingMatrix matrix, long userId) {
+        int u = matrix.userIndex(userId);
+        if (u < 0) {
+            return List.of();
+        }
+        List<Long> rated = new ArrayList<>(matrix.rowEnd(u) - matrix.rowStart(u));
+        for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+            rated.add(matrix.itemId(matrix.rowItem(p)));
+        }
+        return rated;
+    }
+
+    /** 서비스처럼 결과가 비면 인기 상품으로 대체 */
+    private static Recommender withPopularFallback(Recommender recommender, Recommender popular) {
+        return (userId, rated, k) -> {
+            List<Long> recommended = recommender.recommend(userId, rated, k);
+            return recommended.isEmpty() ? popular.recommend(userId, rated, k) : recommended;
+        };
+    }
+
+    /** 학습 행렬의 상품별 평균 평점으로 채운 인기 순위 (조회수 데이터가 없어 0, 카테고리 없음) */
+    private static ProductRanking popularRanking(RatingMatrix matrix) {
+        ProductRanking ranking = new ProductRanking();
+        for (int i = 0; i < matrix.itemCount(); i++) {
+            long scoreSum = 0;
+            for (int p = matrix.colStart(i); p < matrix.colEnd(i); p++) {
+                scoreSum += matrix.colScore(p);
+            }
+            int count = matrix.colEnd(i) - matrix.colStart(i);
+            if (count > 0) {
+                ranking.upsert(new ProductRanking.Entry(matrix.itemId(i), null, (double) scoreSum / count, 0));
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * RatingRepository.findSimilarUsers 셀프 조인과 같은 이웃 선택 (공통 평가 수 내림차순 상위 NEIGHBOURS명).
+     * 쿼리는 동점 순서를 정하지 않으므로 여기서는 사용자 ID 오름차순으로 고정한다.
+     */
+    private static List<Long> commonRatingNeighbours(RatingMatrix matrix, long userId) {
+        int u = matrix.userIndex(userId);
+        if (u < 0) {
+            return List.of();
+        }
+        Map<Integer, Integer> commonCounts = new HashMap<>();
+        for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+            int item = matrix.rowItem(p);
+            for (int q = matrix.colStart(item); q < matrix.colEnd(item); q++) {
+                int other = matrix.colUser(q);
+                if (other != u) {
+                    commonCounts.merge(other, 1, Integer::sum);
+                }
+            }
+        }
+        return commonCounts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparingLong(entry -> matrix.userId(entry.getKey())))
+                .limit(NEIGHBOURS)
+                .map(entry -> matrix.userId(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * RecommendationService.computeCollaborative 3~4단계와 같은 점수 규칙.
+     * 유사도 순서대로 이웃 평점을 (기존 + 새 점수) / 2로 병합하고, 점수 내림차순으로 상위 k개 (동점 순서는 서비스처럼 정하지 않음).
+     */
+    private static List<Long> serviceScoring(RatingMatrix matrix, List<Long> neighbourIds, List<Long> rated, int k) {
+        ProductIdSet ratedProducts = ProductIdSet.of(rated);
+        Map<Long, Double> productScores = new HashMap<>();
+        for (Long neighbourId : neighbourIds) {
+            int u = matrix.userIndex(neighbourId);
+            if (u < 0) {
+                continue;
+            }
+            for (int p = matrix.rowStart(u); p < matrix.rowEnd(u); p++) {
+                long productId = matrix.itemId(matrix.rowItem(p));
+                if (!ratedProducts.contains(productId)) {
+                    productScores.merge(productId, (double) matrix.rowScore(p), (oldVal, newVal) -> (oldVal + newVal) / 2);
+                }
+            }
+        }
+        return productScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
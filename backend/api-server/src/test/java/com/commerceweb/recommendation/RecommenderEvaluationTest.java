@@ -0,0 +1,78 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("오프라인 추천 평가 테스트")
+class RecommenderEvaluationTest {
+
+    @Test
+    @DisplayName("시각 기준으로 나누고 precision/recall/커버리지를 계산한다")
+    void testTemporalSplitAndMetrics() {
+        // Given - 사용자1은 학습 구간에 10, 평가 구간에 20(5점), 30(2점) / 사용자2는 평가 구간에만 존재
+        RatingDataset dataset = new RatingDataset(List.of(
+                new RatingDataset.Rating(1, 10, 5, 1),
+                new RatingDataset.Rating(3, 20, 4, 2),
+                new RatingDataset.Rating(1, 20, 5, 3),
+                new RatingDataset.Rating(1, 30, 2, 4),
+                new RatingDataset.Rating(2, 20, 5, 5)));
+
+        // When
+        RatingDataset.Split split = dataset.temporalSplit(0.4, 4);
+        RecommenderEvaluation.Report report = RecommenderEvaluation.evaluate("fixed",
+                (userId, rated, k) -> List.of(20L, 30L), split, 2, 10);
+
+        // Then
+        assertEquals(2, split.train().nonZeroCount());
+        assertEquals(Map.of(1L, Set.of(20L)), split.relevant());
+        assertEquals(1, report.users());
+        assertEquals(0.5, report.precision(), 1e-9);
+        assertEquals(1.0, report.recall(), 1e-9);
+        assertEquals(1.0, report.coverage(), 1e-9); // 추천 2개 / 학습 상품 2개
+    }
+
+    @Test
+    @DisplayName("모든 전략을 DB 없이 메모리에서 만들어 평가할 수 있다")
+    void testAllStrategiesRunOffline() {
+        // Given
+        RatingDataset.Split split = RatingDataset.synthetic(300, 100, 10, 7L).temporalSplit(0.8, 4);
+
+        // When
+        Map<String, RecommenderEvaluation.Recommender> strategies = RecommenderEvaluation.strategies(split.train());
+
+        // Then
+        assertEquals(List.of("popular", "matrix", "jpa", "lsh", "item-knn", "item-online", "als", "hybrid"),
+                List.copyOf(strategies.keySet()));
+        strategies.forEach((name, recommender) -> {
+            RecommenderEvaluation.Report report = RecommenderEvaluation.evaluate(name, recommender, split, 10, 50);
+            assertEquals(50, report.users(), name);
+            // 합성 평점은 1~5 균등이라 평균 4.0 이상 상품이 없어 popular는 서비스처럼 빈 결과
+            assertTrue(name.equals("popular") || report.coverage() > 0, name);
+            assertEquals(RecommenderEvaluation.APPROXIMATIONS.containsKey(name), report.approximation() != null, name);
+            assertTrue(report.p99Micros() >= report.p50Micros(), name);
+        });
+    }
+
+    @Test
+    @DisplayName("popular는 인기 상품 순위와 같이 최소 평균 평점 이상을 평균 평점순으로 추천한다")
+    void testPopularFollowsProductRanking() {
+        // Given - 상품10: 평균 5.0(1건), 상품20: 평균 4.5(2건), 상품30: 평균 3.0(3건, 평가 수 최다)
+        RatingMatrix train = RatingMatrix.build(
+                new long[]{1, 2, 3, 1, 2, 3},
+                new long[]{10, 20, 20, 30, 30, 30},
+                new byte[]{5, 5, 4, 3, 3, 3}, 6);
+
+        // When
+        RecommenderEvaluation.Recommender popular = RecommenderEvaluation.strategies(train).get("popular");
+
+        // Then
+        assertEquals(List.of(10L, 20L), popular.recommend(9L, List.of(), 10));
+        assertEquals(List.of(20L), popular.recommend(1L, List.of(10L, 30L), 10));
+    }
+}
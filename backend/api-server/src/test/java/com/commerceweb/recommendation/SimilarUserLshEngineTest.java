@@ -0,0 +1,68 @@
+package com.commerceweb.recommendation;
+
+import com.commerceweb.event.RatingChangedEvent;
+import com.commerceweb.repository.RatingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LSH 유사 사용자 엔진 테스트")
+class SimilarUserLshEngineTest {
+
+    private RatingMatrixLoader loader;
+    private RatingRepository ratingRepository;
+    private SimilarUserLshEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        loader = mock(RatingMatrixLoader.class);
+        ratingRepository = mock(RatingRepository.class);
+        engine = new SimilarUserLshEngine(loader, ratingRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "engineMode", "lsh");
+        ReflectionTestUtils.setField(engine, "bands", 16);
+        ReflectionTestUtils.setField(engine, "rowsPerBand", 2);
+        ReflectionTestUtils.setField(engine, "maxCandidates", 100);
+
+        // 사용자1: 상품 1,2,3 / 사용자2: 상품 50,60,70
+        when(loader.load()).thenReturn(RatingMatrix.build(
+                new long[]{1, 1, 1, 2, 2, 2}, new long[]{1, 2, 3, 50, 60, 70}, new byte[]{5, 4, 3, 5, 4, 3}, 6));
+    }
+
+    @Test
+    @DisplayName("첫 구성 전에 들어온 평점 변경도 구성 후 인덱스에 반영된다")
+    void testReplaysChangesBeforeFirstBuild() {
+        when(ratingRepository.findRatedProductIdsByUserId(3L)).thenReturn(List.of(1L, 2L, 3L));
+        engine.onRatingChanged(RatingChangedEvent.upserted(3L, 3L, 5));
+        assertFalse(engine.isReady());
+
+        engine.rebuild();
+
+        assertTrue(engine.isReady());
+        assertTrue(engine.findSimilarUsers(1L, 5).stream().anyMatch(c -> c.userId() == 3L));
+    }
+
+    @Test
+    @DisplayName("재구성 스캔이 놓친 평점 변경은 교체 전에 다시 읽어 반영한다")
+    void testReplaysChangesDuringRebuild() {
+        engine.rebuild();
+        // 스캔이 끝난 뒤 커밋된 변경: 사용자2가 사용자1과 같은 상품을 평가
+        when(loader.load()).thenAnswer(invocation -> {
+            engine.onRatingChanged(RatingChangedEvent.upserted(2L, 1L, 5));
+            return RatingMatrix.build(
+                    new long[]{1, 1, 1, 2, 2, 2}, new long[]{1, 2, 3, 50, 60, 70}, new byte[]{5, 4, 3, 5, 4, 3}, 6);
+        });
+        when(ratingRepository.findRatedProductIdsByUserId(2L)).thenReturn(List.of(1L, 2L, 3L));
+
+        engine.rebuild();
+
+        assertEquals(List.of(2L), engine.findSimilarUsers(1L, 5).stream().map(MinHashLshIndex.Candidate::userId).toList());
+    }
+}
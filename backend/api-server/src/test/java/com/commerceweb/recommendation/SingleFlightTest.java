@@ -0,0 +1,66 @@
+package com.commerceweb.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("단일 비행 그룹 테스트")
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("계산 중 들어온 같은 키 호출은 같은 결과를 받고, 끝난 뒤에는 다시 계산한다")
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("k", () -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 42;
+        }));
+        while (singleFlight.inFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute("k", executions::incrementAndGet));
+        while (singleFlight.sharedCount() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Then
+        assertEquals(42, leader.get());
+        assertEquals(42, follower.get());
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(7, singleFlight.execute("k", () -> 7));
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("계산이 실패하면 예외를 전달하고 다음 호출은 새로 계산한다")
+    void testFailureIsNotRemembered() {
+        // Given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(1, singleFlight.execute("k", () -> 1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.commerceweb.recommendation;
+
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 합성 평점 데이터 생성기.
+ * 상품 인기도는 멱법칙(롱테일)을 따르고, 사용자마다 ratingsPerUser개의 서로 다른 상품을 평가한다.
+ */
+final class SyntheticRatings {
+
+    private SyntheticRatings() {
+    }
+
+    static RatingMatrix generate(int userCount, int itemCount, int ratingsPerUser, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int size = userCount * ratingsPerUser;
+        long[] users = new long[size];
+        long[] items = new long[size];
+        byte[] scores = new byte[size];
+        long[] picked = new long[ratingsPerUser];
+        int n = 0;
+
+        for (int u = 1; u <= userCount; u++) {
+            int count = 0;
+            while (count < ratingsPerUser) {
+                // 역변환 샘플링: 앞쪽(인기) 상품일수록 자주 선택
+                double x = random.nextDouble();
+                long item = 1 + (long) (itemCount * x * x * x);
+                boolean duplicate = false;
+                for (int k = 0; k < count; k++) {
+                    if (picked[k] == item) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (duplicate) {
+                    continue;
+                }
+                picked[count++] = item;
+                users[n] = u;
+                items[n] = item;
+                scores[n] = (byte) (1 + random.nextInt(5));
+                n++;
+            }
+        }
+        return RatingMatrix.build(users, items, scores, n);
+    }
+}
@@ -0,0 +1,68 @@
+package com.commerceweb.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("오타 교정 사전 테스트")
+class FuzzyTermIndexTest {
+
+    @Test
+    @DisplayName("사전에 없는 단어는 편집 거리 안의 가장 가까운 상품명 단어로 바꾼다")
+    void testCorrectsMisspelledWords() {
+        // Given
+        FuzzyTermIndex index = new FuzzyTermIndex(2);
+        index.add(1L, "Apple iPhone 15");
+        index.add(2L, "반팔티셔츠 화이트");
+        index.add(3L, "블루투스 키보드");
+        index.add(4L, "Samsung Galaxy Keyboard Cover");
+
+        // When & Then
+        assertEquals("iphone", index.correct("iphnoe"), "인접 글자 바꿈도 거리 1");
+        assertEquals("apple iphone", index.correct("aple IPHONE"), "사전에 있는 단어는 그대로 둔다");
+        assertEquals("반팔티셔츠", index.correct("반팔티셔추"));
+        assertEquals("keyboard", index.correct("kyebaord"), "긴 단어는 거리 2까지");
+        assertNull(index.correct("iphone 블루투스"), "바꿀 단어가 없으면 null");
+        assertNull(index.correct("냉장고"), "가까운 단어가 없으면 null");
+    }
+
+    @Test
+    @DisplayName("짧은 단어는 허용 거리를 줄이고, 같은 거리면 더 흔한 단어를 고른다")
+    void testShortWordsAndFrequencyTieBreak() {
+        // Given
+        FuzzyTermIndex index = new FuzzyTermIndex(2);
+        index.add(1L, "pad case");
+        index.add(2L, "pen holder");
+        index.add(3L, "pen stand");
+
+        // When & Then
+        assertEquals("pen", index.correct("pan"), "pad와 pen 모두 거리 1이면 두 상품에 나온 pen");
+        assertNull(index.correct("px"), "2글자 이하는 교정하지 않는다");
+        assertNull(index.correct("pxx"), "3글자는 거리 1까지만");
+        assertEquals(2, FuzzyTermIndex.distance("holder", "hodlre", 2));
+        assertEquals(3, FuzzyTermIndex.distance("holder", "stand", 2));
+    }
+
+    @Test
+    @DisplayName("단어 빈도는 상품 수로 세어 같은 상품을 여러 번 수정해도 늘지 않고, 지워진 상품의 단어로는 교정하지 않는다")
+    void testFrequenciesCountProductsNotEdits() {
+        // Given - pad는 한 상품을 세 번 수정, pen은 두 상품
+        FuzzyTermIndex index = new FuzzyTermIndex(2);
+        index.add(1L, "pad case");
+        index.add(1L, "pad case");
+        index.add(1L, "pad cover");
+        index.add(2L, "pen holder");
+        index.add(3L, "pen stand");
+
+        // When & Then
+        assertEquals("pen", index.correct("pan"), "수정 횟수가 아니라 상품 수로 비교한다");
+        assertEquals("cover", index.correct("covr"));
+        assertNull(index.correct("cse"), "수정으로 빠진 case로는 교정하지 않는다");
+
+        index.remove(2L);
+        index.remove(3L);
+        assertEquals("pad", index.correct("pan"), "지워진 상품의 단어는 후보에서 빠진다");
+        assertEquals(2, index.size(), "pad, cover");
+    }
+}
@@ -0,0 +1,67 @@
+package com.commerceweb.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("상품 패싯 비트맵 색인 테스트")
+class ProductFacetIndexTest {
+
+    private static final double[] PRICE_BOUNDS = {10000, 50000};
+    private static final double[] RATING_BOUNDS = {3, 4};
+
+    @Test
+    @DisplayName("각 패싯 개수는 그 패싯을 뺀 나머지 필터를 적용해 센다")
+    void testCountsExcludeOwnFilter() {
+        // Given
+        ProductFacetIndex index = new ProductFacetIndex(PRICE_BOUNDS, RATING_BOUNDS);
+        index.upsert(1L, "전자제품", 120000, 4.5);
+        index.upsert(2L, "전자제품", 30000, 3.2);
+        index.upsert(3L, "의류", 25000, 4.1);
+        index.upsert(4L, "의류", 9000, 0.0);
+
+        // When
+        ProductFacetIndex.Counts all = index.count(null, null, null);
+        ProductFacetIndex.Counts filtered = index.count("의류", 1, null);
+
+        // Then
+        assertEquals(4, all.total());
+        assertEquals(Map.of("전자제품", 2, "의류", 2), all.categories());
+        assertArrayEquals(new int[]{1, 2, 1}, all.priceBands());
+        assertArrayEquals(new int[]{1, 1, 2}, all.ratingBands());
+
+        assertEquals(1, filtered.total());
+        assertEquals(Map.of("전자제품", 1, "의류", 1), filtered.categories(), "가격 구간 1 안의 카테고리별 개수");
+        assertArrayEquals(new int[]{1, 1, 0}, filtered.priceBands(), "의류 안의 가격 구간별 개수");
+        assertArrayEquals(new int[]{0, 0, 1}, filtered.ratingBands());
+        assertEquals(0, index.count("가구", null, null).total());
+        assertThrows(IllegalArgumentException.class, () -> index.count(null, 3, null));
+    }
+
+    @Test
+    @DisplayName("평점/카테고리 변경과 삭제가 바로 반영되고 삭제된 번호는 재사용된다")
+    void testIncrementalUpdateAndDelete() {
+        // Given
+        ProductFacetIndex index = new ProductFacetIndex(PRICE_BOUNDS, RATING_BOUNDS);
+        for (long id = 1; id <= 2000; id++) {
+            index.upsert(id, "잡화", 5000, 2.0);
+        }
+
+        // When
+        index.upsert(7L, "의류", 5000, 4.8);
+        index.remove(1500L);
+        index.upsert(3000L, "가구", 70000, 3.5);
+
+        // Then
+        ProductFacetIndex.Counts counts = index.count(null, null, null);
+        assertEquals(2000, counts.total());
+        assertEquals(Map.of("잡화", 1998, "의류", 1, "가구", 1), counts.categories());
+        assertArrayEquals(new int[]{1999, 0, 1}, counts.priceBands());
+        assertArrayEquals(new int[]{1998, 1, 1}, counts.ratingBands());
+        assertEquals(1, index.count(null, null, 2).total());
+        assertEquals(2000, index.size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.commerceweb.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("상품 검색 역색인 테스트")
+class ProductSearchIndexTest {
+
+    @Test
+    @DisplayName("한글은 2-gram으로 붙여 쓴 이름도 찾고, 이름에 나온 상품이 설명에만 나온 상품보다 앞선다")
+    void testKoreanBigramsAndNameBoost() {
+        // Given
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.upsert(1L, "여름 반팔티셔츠", "면 100%", "의류");
+        index.upsert(2L, "청바지", "티셔츠와 잘 어울리는 바지", "의류");
+        index.upsert(3L, "Apple iPhone 15", "스마트폰", "전자제품");
+        index.upsert(4L, "무선 이어폰", "iPhone 호환", "전자제품");
+
+        // When & Then
+        assertEquals(List.of(1L, 2L), index.search("티셔츠", null, 10));
+        assertEquals(List.of(3L, 4L), index.search("IPHONE", null, 10));
+        assertEquals(List.of(4L), index.search("iphone 이어폰", null, 10), "모든 토큰을 포함해야 한다");
+        assertEquals(List.of(1L), index.search("티셔츠", "의류", 1));
+        assertTrue(index.search("티셔츠", "전자제품", 10).isEmpty());
+        assertTrue(index.search("냉장고", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("수정된 상품은 새 내용으로만 검색되고 삭제된 상품은 검색되지 않는다")
+    void testIncrementalUpdateAndDelete() {
+        // Given
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.upsert(1L, "가죽 지갑", null, "잡화");
+        index.upsert(2L, "가죽 벨트", null, "잡화");
+
+        // When
+        index.upsert(1L, "캔버스 지갑", null, "잡화");
+        index.remove(2L);
+
+        // Then
+        assertTrue(index.search("가죽", null, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("캔버스", null, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("입력 중인 단어도 접두사로 찾는다")
+    void testLastTokenMatchesAsPrefix() {
+        // Given
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.upsert(1L, "Apple iPhone 15", null, "전자제품");
+        index.upsert(2L, "iPad Air", null, "전자제품");
+        index.upsert(3L, "아이폰 케이스", null, "잡화");
+        index.upsert(4L, "Apple Watch", null, "전자제품");
+
+        // When & Then
+        assertEquals(List.of(1L), index.search("iph", null, 10));
+        assertEquals(List.of(2L, 1L), index.search("ip", null, 10), "짧은 이름이 BM25 길이 정규화로 앞선다");
+        assertEquals(List.of(3L), index.search("아", null, 10));
+        assertEquals(List.of(1L), index.search("iphone 1", null, 10), "토큰마다 따로 맞춘다");
+        assertTrue(index.search("ipx", null, 10).isEmpty());
+        assertTrue(index.search("ip", "잡화", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("단어 중간이나 끝에 있는 부분 문자열도 LIKE 검색처럼 찾는다")
+    void testSubstringWithinToken() {
+        // Given
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.upsert(1L, "갤럭시폰", null, "전자제품");
+        index.upsert(2L, "Apple iPhone 15", null, "전자제품");
+        index.upsert(3L, "폰케이스", null, "잡화");
+        index.upsert(4L, "노트북", null, "전자제품");
+        index.upsert(5L, "Phone Case", null, "잡화");
+
+        // When & Then
+        assertEquals(List.of(5L, 2L), index.search("phone", null, 10), "같은 토큰이 짧은 이름에 있는 상품이 앞선다");
+        assertEquals(List.of(2L), index.search("phone", "전자제품", 10));
+        assertEquals(List.of(1L, 3L), index.search("폰", null, 10), "한 글자 질의는 그 글자가 들어간 2-gram 모두와 맞는다");
+        assertEquals(List.of(1L), index.search("시폰", null, 10));
+        assertEquals(List.of(2L), index.search("hone 15", null, 10));
+        assertTrue(index.search("phones", null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.commerceweb.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("상품명 자동완성 트리 테스트")
+class SuggestionTrieTest {
+
+    @Test
+    @DisplayName("상품명과 상품명 속 단어의 접두사로 찾고, 가중치가 큰 상품이 먼저 나온다")
+    void testPrefixAndWordStartByWeight() {
+        // Given
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                new SuggestionTrie.Entry(1L, "Apple iPhone 15", 5.0),
+                new SuggestionTrie.Entry(2L, "iPhone 케이스", 8.0),
+                new SuggestionTrie.Entry(3L, "아이패드 에어", 3.0),
+                new SuggestionTrie.Entry(4L, "아이폰 충전기", 4.0)), 10);
+
+        // When
+        List<SuggestionTrie.Suggestion> iph = trie.suggest("IPH", 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), iph.stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals("iPhone 케이스", iph.get(0).name(), "원래 상품명을 그대로 돌려준다");
+        assertEquals(List.of(4L, 3L), trie.suggest("아이", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(List.of(4L), trie.suggest("아이", 1).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(List.of(3L), trie.suggest("에어", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertTrue(trie.suggest("냉장고", 10).isEmpty());
+        assertTrue(trie.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("노드마다 상위 K개만 보관하고 같은 상품은 한 번만 나온다")
+    void testTopKAndDuplicateWords() {
+        // Given
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                new SuggestionTrie.Entry(1L, "pro pro max", 1.0),
+                new SuggestionTrie.Entry(2L, "pro case", 2.0),
+                new SuggestionTrie.Entry(3L, "pro stand", 3.0)), 2);
+
+        // When & Then
+        assertEquals(List.of(3L, 2L), trie.suggest("pro", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(List.of(1L), trie.suggest("pro p", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(3, trie.entryCount());
+    }
+
+    @Test
+    @DisplayName("노드와 간선이 많아 구성용 배열이 늘어나도 같은 결과를 낸다")
+    void testManyNodes() {
+        // Given
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            entries.add(new SuggestionTrie.Entry(i, "item" + i + " " + (char) ('가' + i % 500), i));
+        }
+        SuggestionTrie trie = SuggestionTrie.build(entries, 3);
+
+        // When & Then
+        assertEquals(List.of(1999L, 1998L, 1997L),
+                trie.suggest("item", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(List.of(1234L), trie.suggest("item1234", 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(List.of(1510L, 1010L, 510L),
+                trie.suggest(String.valueOf((char) ('가' + 10)), 10).stream().map(SuggestionTrie.Suggestion::productId).toList());
+        assertEquals(2000, trie.entryCount());
+    }
+}
@@ -1,20 +1,32 @@
 package com.commerceweb.service;
 
+import com.commerceweb.config.cache.StaleWhileRevalidate;
+import com.commerceweb.dto.product.ProductCursor;
+import com.commerceweb.dto.product.ProductPageResponse;
+import com.commerceweb.dto.product.ProductResponse;
 import com.commerceweb.entity.Product;
 import com.commerceweb.entity.Rating;
 import com.commerceweb.entity.User;
+import com.commerceweb.recommendation.RecentlyViewedStore;
 import com.commerceweb.repository.ProductRepository;
+import com.commerceweb.repository.ProductSort;
 import com.commerceweb.repository.RatingRepository;
 import com.commerceweb.repository.UserRepository;
+import com.commerceweb.search.ProductFacetEngine;
+import com.commerceweb.search.ProductSearchEngine;
+import com.commerceweb.search.ProductSuggestEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +39,24 @@ class ProductServiceTest {
     @Mock
     private RatingRepository ratingRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StaleWhileRevalidate staleWhileRevalidate;
+
+    @Mock
+    private RecentlyViewedStore recentlyViewedStore;
+
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+
+    @Mock
+    private ProductSuggestEngine productSuggestEngine;
+
+    @Mock
+    private ProductFacetEngine productFacetEngine;
+
     @InjectMocks
     private ProductService productService;
 
@@ -82,6 +112,127 @@ class ProductServiceTest {
         // Then
         assertEquals(6L, result.getViewCount());
         verify(productRepository, times(1)).save(product);
+        verify(recentlyViewedStore, never()).record(any(), any());
+    }
+
+    @Test
+    @DisplayName("방문자 세션으로 상품을 조회하면 최근 본 상품에 기록한다")
+    void testGetProductRecordsRecentlyViewed() {
+        // Given
+        Long productId = 3L;
+        String sessionId = "7f0c2b8e-1d2a-4c3b-9e8f-0a1b2c3d4e5f";
+        Product product = Product.builder().id(productId).viewCount(0L).build();
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        // When
+        productService.getProduct(productId, sessionId);
+
+        // Then
+        verify(recentlyViewedStore, times(1)).record(sessionId, productId);
+    }
+
+    @Test
+    @DisplayName("커서 페이지는 한 개 더 읽어 다음 페이지를 판단하고, 마지막 상품의 (정렬 키, id)를 커서로 넘긴다")
+    void testGetProductPageContinuesFromCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<Product> rows = List.of(
+                Product.builder().id(9L).createdAt(createdAt).build(),
+                Product.builder().id(8L).createdAt(createdAt).build(),
+                Product.builder().id(5L).createdAt(createdAt.minusDays(1)).build());
+        when(productRepository.findPage(null, null, null, ProductSort.LATEST, null, null, 3)).thenReturn(rows);
+
+        // When
+        ProductPageResponse first = productService.getProductPage(null, null, null, null, 2);
+        ProductCursor cursor = ProductCursor.decode(first.nextCursor(), ProductSort.LATEST);
+        productService.getProductPage(null, null, "latest", first.nextCursor(), 2);
+
+        // Then
+        assertTrue(first.hasNext());
+        assertEquals(List.of(9L, 8L), first.items().stream().map(ProductResponse::getId).toList());
+        assertEquals(createdAt, cursor.key());
+        assertEquals(8L, cursor.id());
+        verify(productRepository).findPage(null, null, null, ProductSort.LATEST, createdAt, 8L, 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductPage(null, null, "price_asc", first.nextCursor(), 2));
+    }
+
+    @Test
+    @DisplayName("이름 커서 페이지는 검색 색인이 찾은 상품 ID 안에서 키셋으로 읽고 LIKE를 쓰지 않는다")
+    void testGetProductPageResolvesNameThroughSearchIndex() {
+        // Given
+        Product iphone = Product.builder().id(1L).name("iPhone 15").createdAt(LocalDateTime.of(2025, 3, 1, 12, 0)).build();
+        when(productSearchEngine.isReady()).thenReturn(true);
+        when(productSearchEngine.search("iph", "전자제품", 1001)).thenReturn(List.of(1L, 5L));
+        when(productRepository.findPage("전자제품", null, List.of(1L, 5L), ProductSort.LATEST, null, null, 3))
+                .thenReturn(List.of(iphone));
+        when(productSearchEngine.search("zzz", null, 1001)).thenReturn(List.of());
+
+        // When
+        ProductPageResponse page = productService.getProductPage("전자제품", "iph", null, null, 2);
+        ProductPageResponse empty = productService.getProductPage(null, "zzz", null, null, 2);
+
+        // Then
+        assertEquals(List.of(1L), page.items().stream().map(ProductResponse::getId).toList());
+        assertFalse(page.hasNext());
+        assertTrue(empty.items().isEmpty());
+        verify(productRepository, never()).findPage(any(), anyString(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("색인 일치 상품이 search.max-results를 넘으면 전체 일치 집합을 LIKE 키셋으로 읽는다")
+    void testGetProductPageFallsBackToLikeKeysetPastSearchCap() {
+        // Given - 상한 2개, 색인 일치 3개 이상
+        ReflectionTestUtils.setField(productService, "maxSearchResults", 2);
+        Product newest = Product.builder().id(7L).name("Phone Case").createdAt(LocalDateTime.of(2025, 3, 2, 12, 0)).build();
+        when(productSearchEngine.isReady()).thenReturn(true);
+        when(productSearchEngine.search("phone", null, 3)).thenReturn(List.of(1L, 2L, 3L));
+        when(productRepository.findPage(null, "phone", null, ProductSort.LATEST, null, null, 3))
+                .thenReturn(List.of(newest));
+
+        // When
+        ProductPageResponse page = productService.getProductPage(null, "phone", "latest", null, 2);
+
+        // Then
+        assertEquals(List.of(7L), page.items().stream().map(ProductResponse::getId).toList());
+        verify(productRepository, never()).findPage(any(), any(), anyCollection(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("색인 결과가 적어도 LIKE 부분 문자열 검색으로 보충하지 않는다")
+    void testSearchNeverFallsBackToSubstringScan() {
+        // Given
+        Product iphone = Product.builder().id(1L).name("iPhone 15").build();
+        when(productSearchEngine.isReady()).thenReturn(true);
+        when(productSearchEngine.search("iph", null, 1000)).thenReturn(List.of(1L));
+        when(productRepository.findByIdIn(List.of(1L))).thenReturn(List.of(iphone));
+
+        // When
+        List<Product> products = productService.getProducts(null, "iph");
+
+        // Then
+        assertEquals(List.of(1L), products.stream().map(Product::getId).toList());
+        verify(productRepository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    @DisplayName("색인 결과가 충분하면 LIKE 전체 스캔을 하지 않는다")
+    void testSearchSkipsSubstringScanWhenIndexHasEnoughHits() {
+        // Given
+        List<Product> cases = List.of(
+                Product.builder().id(2L).name("Phone Case").build(),
+                Product.builder().id(3L).name("Phone Stand").build(),
+                Product.builder().id(4L).name("Phone Strap").build());
+        when(productSearchEngine.isReady()).thenReturn(true);
+        when(productSearchEngine.search("phone", null, 1000)).thenReturn(List.of(2L, 3L, 4L));
+        when(productRepository.findByIdIn(List.of(2L, 3L, 4L))).thenReturn(cases);
+
+        // When
+        List<Product> products = productService.getProducts(null, "phone");
+
+        // Then
+        assertEquals(List.of(2L, 3L, 4L), products.stream().map(Product::getId).toList());
+        verify(productRepository, never()).findByNameContainingIgnoreCase(anyString());
     }
 
     @Test
@@ -0,0 +1,85 @@
+package com.commerceweb.service;
+
+import com.commerceweb.recommendation.PrecomputedRecommendationStore;
+import com.commerceweb.repository.OrderRepository;
+import com.commerceweb.repository.RatingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("추천 일괄 사전 계산 테스트")
+class RecommendationPrecomputeJobTest {
+
+    private RecommendationService recommendationService;
+    private RatingRepository ratingRepository;
+    private OrderRepository orderRepository;
+    private PrecomputedRecommendationStore store;
+    private RecommendationPrecomputeJob job;
+
+    @BeforeEach
+    void setUp() {
+        recommendationService = mock(RecommendationService.class);
+        ratingRepository = mock(RatingRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        store = mock(PrecomputedRecommendationStore.class);
+        job = new RecommendationPrecomputeJob(recommendationService, ratingRepository, orderRepository, store,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(job, "partitionSize", 2);
+        ReflectionTestUtils.setField(job, "parallelism", 2);
+        ReflectionTestUtils.invokeMethod(job, "registerMetrics");
+    }
+
+    @Test
+    @DisplayName("평가/주문한 사용자를 파티션으로 나눠 계산하고 파티션마다 한 번에 저장한다")
+    void testPartitionsWrittenInBulk() {
+        // Given - 평가 사용자 1, 2, 3 / 주문 사용자 3, 4, 5 → 활성 사용자 5명, 파티션 3개
+        when(ratingRepository.findUserIdsRatedSince(any(LocalDateTime.class))).thenReturn(List.of(3L, 1L, 2L));
+        when(orderRepository.findUserIdsOrderedSince(any(LocalDateTime.class))).thenReturn(List.of(3L, 4L, 5L));
+        when(recommendationService.computeRankedProductIds(anyLong()))
+                .thenAnswer(invocation -> List.of(invocation.<Long>getArgument(0) * 10));
+        when(recommendationService.computeRankedProductIds(4L)).thenThrow(new RuntimeException("DB 오류"));
+
+        // When
+        RecommendationPrecomputeJob.Summary summary = job.run().orElseThrow();
+
+        // Then
+        assertEquals(5, summary.users());
+        assertEquals(3, summary.partitions());
+        assertEquals(1, summary.failed());
+        verify(recommendationService, times(5)).computeRankedProductIds(anyLong());
+        verify(store).putAll(eq(Map.of(1L, List.of(10L), 2L, List.of(20L))), anyMap(), anyLong());
+        verify(store).putAll(eq(Map.of(3L, List.of(30L))), anyMap(), anyLong());
+        verify(store).putAll(eq(Map.of(5L, List.of(50L))), anyMap(), anyLong());
+    }
+
+    @Test
+    @DisplayName("무효화 버전은 계산 전에 읽어 저장 시 그대로 넘긴다")
+    void testVersionsReadBeforeCompute() {
+        // Given - 활성 사용자 1, 2 → 파티션 1개
+        when(ratingRepository.findUserIdsRatedSince(any(LocalDateTime.class))).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findUserIdsOrderedSince(any(LocalDateTime.class))).thenReturn(List.of());
+        when(store.versions(List.of(1L, 2L))).thenReturn(Map.of(1L, "0", 2L, "3"));
+        when(recommendationService.computeRankedProductIds(anyLong())).thenReturn(List.of(7L));
+
+        // When
+        job.run().orElseThrow();
+
+        // Then
+        InOrder inOrder = inOrder(store, recommendationService);
+        inOrder.verify(store).versions(List.of(1L, 2L));
+        inOrder.verify(recommendationService, times(2)).computeRankedProductIds(anyLong());
+        inOrder.verify(store).putAll(eq(Map.of(1L, List.of(7L), 2L, List.of(7L))),
+                eq(Map.of(1L, "0", 2L, "3")), anyLong());
+    }
+}
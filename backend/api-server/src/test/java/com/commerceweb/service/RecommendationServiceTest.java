@@ -1,20 +1,44 @@
 package com.commerceweb.service;
 
+import com.commerceweb.dto.RatingTupleDto;
 import com.commerceweb.entity.Product;
-import com.commerceweb.entity.Rating;
+import com.commerceweb.recommendation.AlsEngine;
+import com.commerceweb.recommendation.CoPurchaseEngine;
+import com.commerceweb.recommendation.DistributedLoadLock;
+import com.commerceweb.recommendation.ItemSimilarityEngine;
+import com.commerceweb.recommendation.PrecomputedRecommendationStore;
+import com.commerceweb.recommendation.ProductIdSet;
+import com.commerceweb.recommendation.ProductRankingIndex;
+import com.commerceweb.recommendation.ProductVectorIndex;
+import com.commerceweb.recommendation.RecommendationCache;
+import com.commerceweb.recommendation.RatingMatrixEngine;
+import com.commerceweb.recommendation.RecentlyViewedStore;
+import com.commerceweb.recommendation.RecommendationMetrics;
+import com.commerceweb.recommendation.SimilarUserLshEngine;
+import com.commerceweb.recommendation.UserExclusionIndex;
+import com.commerceweb.repository.OrderRepository;
 import com.commerceweb.repository.ProductRepository;
 import com.commerceweb.repository.RatingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @DisplayName("추천 서비스 테스트")
 class RecommendationServiceTest {
@@ -25,6 +49,48 @@ class RecommendationServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RatingMatrixEngine ratingMatrixEngine;
+
+    @Mock
+    private ItemSimilarityEngine itemSimilarityEngine;
+
+    @Mock
+    private SimilarUserLshEngine similarUserLshEngine;
+
+    @Mock
+    private AlsEngine alsEngine;
+
+    @Mock
+    private ProductVectorIndex productVectorIndex;
+
+    @Mock
+    private RecommendationMetrics recommendationMetrics;
+
+    @Mock
+    private RecommendationCache recommendationCache;
+
+    @Mock
+    private ProductRankingIndex productRankingIndex;
+
+    @Mock
+    private DistributedLoadLock distributedLoadLock;
+
+    @Mock
+    private CoPurchaseEngine coPurchaseEngine;
+
+    @Mock
+    private PrecomputedRecommendationStore precomputedRecommendationStore;
+
+    @Mock
+    private UserExclusionIndex userExclusionIndex;
+
+    @Mock
+    private RecentlyViewedStore recentlyViewedStore;
+
     @InjectMocks
     private RecommendationService recommendationService;
 
@@ -82,17 +148,15 @@ class RecommendationServiceTest {
         when(ratingRepository.findSimilarUsers(eq(userId), eq(List.of(1L, 2L, 3L))))
                 .thenReturn(similarUsersList);
 
-        // 사용자2의 평가: [상품1(5), 상품4(4), 상품5(5)]
-        Product product1 = Product.builder().id(1L).build();
+        // 사용자2의 평가: [상품1(5), 상품4(4), 상품5(5)] - 유사 사용자 평점은 튜플 프로젝션으로 일괄 조회
         Product product4 = Product.builder().id(4L).build();
         Product product5 = Product.builder().id(5L).build();
 
-        Rating rating1 = Rating.builder().product(product1).score(5).build();
-        Rating rating4 = Rating.builder().product(product4).score(4).build();
-        Rating rating5 = Rating.builder().product(product5).score(5).build();
-
-        when(ratingRepository.findByUserId(2L))
-                .thenReturn(List.of(rating1, rating4, rating5));
+        when(ratingRepository.findRatingTuplesByUserIdIn(List.of(2L)))
+                .thenReturn(List.of(
+                        new RatingTupleDto(11L, 2L, 1L, 5),
+                        new RatingTupleDto(12L, 2L, 4L, 4),
+                        new RatingTupleDto(13L, 2L, 5L, 5)));
 
         // 추천 상품 반환 (상품5가 더 높은 평점)
         when(productRepository.findByIdIn(List.of(5L, 4L)))
@@ -176,4 +240,352 @@ class RecommendationServiceTest {
         assertEquals("Popular Fallback", recommendations.get(0).getName());
         verify(ratingRepository, times(1)).findSimilarUsers(eq(userId), eq(List.of(1L, 2L)));
     }
+
+    @Test
+    @DisplayName("유사 사용자가 청크 크기보다 많으면 평점을 청크별로 나눠 조회한다")
+    void testNeighbourRatingsFetchedInChunks() {
+        // Given
+        Long userId = 1L;
+        ReflectionTestUtils.setField(recommendationService, "neighbourFetchChunkSize", 2);
+
+        when(ratingRepository.findRatedProductIdsByUserId(userId))
+                .thenReturn(List.of(1L));
+
+        List<Object[]> similarUsersList = new ArrayList<>();
+        similarUsersList.add(new Object[]{2L, 1L});
+        similarUsersList.add(new Object[]{3L, 1L});
+        similarUsersList.add(new Object[]{4L, 1L});
+        when(ratingRepository.findSimilarUsers(eq(userId), eq(List.of(1L))))
+                .thenReturn(similarUsersList);
+
+        when(ratingRepository.findRatingTuplesByUserIdIn(List.of(2L, 3L)))
+                .thenReturn(List.of(new RatingTupleDto(21L, 2L, 7L, 5)));
+        when(ratingRepository.findRatingTuplesByUserIdIn(List.of(4L)))
+                .thenReturn(List.of(new RatingTupleDto(41L, 4L, 8L, 3)));
+
+        Product product7 = Product.builder().id(7L).averageRating(4.0).build();
+        Product product8 = Product.builder().id(8L).averageRating(3.0).build();
+        when(productRepository.findByIdIn(List.of(7L, 8L)))
+                .thenReturn(List.of(product7, product8));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 5);
+
+        // Then
+        assertEquals(2, recommendations.size());
+        verify(ratingRepository, times(1)).findRatingTuplesByUserIdIn(List.of(2L, 3L));
+        verify(ratingRepository, times(1)).findRatingTuplesByUserIdIn(List.of(4L));
+        verify(ratingRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("캐시된 추천 순위가 있으면 계산 없이 limit만큼 잘라 반환한다")
+    void testCachedRankingSlicedToLimit() {
+        // Given
+        Long userId = 1L;
+        when(recommendationCache.get(eq(userId), any(Runnable.class))).thenReturn(Optional.of(List.of(9L, 7L, 8L)));
+
+        Product product9 = Product.builder().id(9L).build();
+        Product product7 = Product.builder().id(7L).build();
+        when(productRepository.findByIdIn(List.of(9L, 7L)))
+                .thenReturn(List.of(product7, product9));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2);
+
+        // Then
+        assertEquals(List.of(9L, 7L), recommendations.stream().map(Product::getId).toList());
+        verify(ratingRepository, never()).findRatedProductIdsByUserId(anyLong());
+        verify(recommendationCache, never()).put(anyLong(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("구매 상품 제외 옵션이면 캐시된 순위에서 평가/구매한 상품을 걸러 limit개를 채운다")
+    void testCachedRankingExcludesPurchasedProducts() {
+        // Given
+        Long userId = 1L;
+        when(recommendationCache.get(eq(userId), any(Runnable.class)))
+                .thenReturn(Optional.of(List.of(9L, 7L, 8L, 6L)));
+        when(userExclusionIndex.find(userId)).thenReturn(Optional.of(new UserExclusionIndex.Exclusions(
+                ProductIdSet.of(List.of(8L)), ProductIdSet.of(List.of(7L)))));
+
+        Product product9 = Product.builder().id(9L).build();
+        Product product6 = Product.builder().id(6L).build();
+        when(productRepository.findByIdIn(List.of(9L, 6L))).thenReturn(List.of(product6, product9));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2, true);
+
+        // Then
+        // 8은 평가함(항상 제외), 7은 구매함(옵션으로 제외)
+        assertEquals(List.of(9L, 6L), recommendations.stream().map(Product::getId).toList());
+        verify(recommendationCache, never()).put(anyLong(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("캐시된 순위를 걸러 limit을 못 채우면 제외할 상품 수만큼 더 깊게 다시 계산한다")
+    void testShortFilteredRankingRecomputedDeeper() {
+        // Given
+        Long userId = 1L;
+        ReflectionTestUtils.setField(recommendationService, "cacheDepth", 3);
+        when(recommendationCache.get(eq(userId), any(Runnable.class))).thenReturn(Optional.of(List.of(1L, 2L, 3L)));
+        when(userExclusionIndex.find(userId)).thenReturn(Optional.of(new UserExclusionIndex.Exclusions(
+                ProductIdSet.empty(), ProductIdSet.of(List.of(1L, 2L, 3L)))));
+        when(ratingRepository.findRatedProductIdsByUserId(userId)).thenReturn(new ArrayList<>());
+
+        List<Product> popular = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            popular.add(Product.builder().id(id).averageRating(4.5).build());
+        }
+        when(productRepository.findHighRatedProducts()).thenReturn(popular);
+        when(productRepository.findByIdIn(List.of(4L, 5L))).thenReturn(List.of(popular.get(4), popular.get(3)));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2, true);
+
+        // Then
+        // 캐시된 3개는 모두 구매함 → 깊이 max(3 + 2, 2 + 3) = 5로 다시 계산
+        assertEquals(List.of(4L, 5L), recommendations.stream().map(Product::getId).toList());
+        verify(recommendationCache, never()).put(anyLong(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("세션 추천은 최근 본 상품의 함께 구매 이웃을 평점 조회 없이 합산하고 이미 본 상품은 뺀다")
+    void testSessionRecommendationsFromRecentlyViewed() {
+        // Given
+        String sessionId = "7f0c2b8e-1d2a-4c3b-9e8f-0a1b2c3d4e5f";
+        when(recentlyViewedStore.recent(sessionId)).thenReturn(List.of(1L, 2L));
+        when(coPurchaseEngine.boughtTogether(1L, 3)).thenReturn(List.of(2L, 5L));
+        when(coPurchaseEngine.boughtTogether(2L, 3)).thenReturn(List.of(6L, 5L));
+
+        Product product5 = Product.builder().id(5L).build();
+        Product product6 = Product.builder().id(6L).build();
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(product6, product5));
+
+        // When
+        List<Product> recommendations = recommendationService.getSessionRecommendations(sessionId, 3);
+
+        // Then
+        // 번갈아 섞기: 2(본 상품, 제외), 6, 5
+        assertEquals(List.of(6L, 5L), recommendations.stream().map(Product::getId).toList());
+        verifyNoInteractions(ratingRepository);
+        verify(productRepository, never()).findHighRatedProducts();
+    }
+
+    @Test
+    @DisplayName("캐시 미적중 시 최대 깊이로 계산해 한 번만 저장하고 limit만큼 반환한다")
+    void testCacheMissStoresFullDepthRanking() {
+        // Given
+        Long userId = 1L;
+        when(ratingRepository.findRatedProductIdsByUserId(userId)).thenReturn(new ArrayList<>());
+
+        List<Product> popular = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            popular.add(Product.builder().id(id).averageRating(4.5).build());
+        }
+        when(productRepository.findHighRatedProducts()).thenReturn(popular);
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 3);
+
+        // Then
+        assertEquals(3, recommendations.size());
+        verify(recommendationCache, times(1)).put(eq(userId), eq(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L)), any());
+    }
+
+    @Test
+    @DisplayName("협업 필터링 결과는 DB 조회 순서와 무관하게 예상 평점 순으로 캐시하고 자른다")
+    void testCollaborativeRankingKeepsScoreOrder() {
+        // Given
+        Long userId = 1L;
+        when(ratingRepository.findRatedProductIdsByUserId(userId)).thenReturn(List.of(1L));
+
+        List<Object[]> similarUsersList = new ArrayList<>();
+        similarUsersList.add(new Object[]{2L, 1L});
+        when(ratingRepository.findSimilarUsers(eq(userId), eq(List.of(1L)))).thenReturn(similarUsersList);
+        when(ratingRepository.findRatingTuplesByUserIdIn(List.of(2L)))
+                .thenReturn(List.of(
+                        new RatingTupleDto(21L, 2L, 7L, 5),
+                        new RatingTupleDto(22L, 2L, 8L, 3),
+                        new RatingTupleDto(23L, 2L, 9L, 4)));
+
+        // IN 조회는 순서를 보장하지 않음
+        Product product7 = Product.builder().id(7L).averageRating(4.0).build();
+        Product product8 = Product.builder().id(8L).averageRating(3.0).build();
+        Product product9 = Product.builder().id(9L).averageRating(3.5).build();
+        when(productRepository.findByIdIn(List.of(7L, 9L, 8L))).thenReturn(List.of(product8, product7, product9));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2);
+
+        // Then
+        assertEquals(List.of(7L, 9L), recommendations.stream().map(Product::getId).toList());
+        verify(recommendationCache, times(1)).put(eq(userId), eq(List.of(7L, 9L, 8L)), any());
+    }
+
+    @Test
+    @DisplayName("하이브리드 추천은 평가한 상품을 제외 인덱스에서 가져오고 메모리 소스만 동시에 실행한다")
+    void testHybridUsesExclusionIndexAndInMemorySources() {
+        // Given
+        Long userId = 1L;
+        ReflectionTestUtils.setField(recommendationService, "hybridEnabled", true);
+        ReflectionTestUtils.setField(recommendationService, "engineMode", "matrix");
+        ReflectionTestUtils.invokeMethod(recommendationService, "init");
+        when(userExclusionIndex.find(userId)).thenReturn(Optional.of(
+                new UserExclusionIndex.Exclusions(ProductIdSet.of(List.of(4L)), ProductIdSet.empty())));
+        when(ratingMatrixEngine.isReady()).thenReturn(true);
+        when(ratingMatrixEngine.recommend(eq(userId), anyInt(), anyInt())).thenReturn(List.of(4L, 7L));
+        when(productRankingIndex.isReady()).thenReturn(true);
+        when(productRankingIndex.topProductIds(anyInt())).thenReturn(List.of(4L, 5L, 6L));
+        when(productRepository.findByIdIn(List.of(7L, 5L, 6L))).thenReturn(List.of(
+                Product.builder().id(5L).build(), Product.builder().id(6L).build(), Product.builder().id(7L).build()));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 3);
+
+        // Then
+        // 7: cf 1/62, 5: popular 0.2/62, 6: popular 0.2/63 (4는 평가한 상품)
+        assertEquals(List.of(7L, 5L, 6L), recommendations.stream().map(Product::getId).toList());
+        verify(ratingRepository, never()).findRatedProductIdsByUserId(anyLong());
+        verify(recommendationCache, times(1)).put(eq(userId), eq(List.of(7L, 5L, 6L)), any());
+    }
+
+    @Test
+    @DisplayName("하이브리드 추천은 메모리 엔진이 없으면 DB 협업 필터링을 돌리지 않고 최근 본 상품과 선호 카테고리 후보를 쓴다")
+    void testHybridSkipsDbSourcesAndUsesRecentlyViewed() {
+        // Given
+        Long userId = 1L;
+        ReflectionTestUtils.setField(recommendationService, "hybridEnabled", true);
+        ReflectionTestUtils.invokeMethod(recommendationService, "init");
+        when(userExclusionIndex.find(userId)).thenReturn(Optional.of(
+                new UserExclusionIndex.Exclusions(ProductIdSet.of(List.of(4L)), ProductIdSet.empty())));
+        when(productRankingIndex.isReady()).thenReturn(true);
+        when(productRankingIndex.categoryOf(4L)).thenReturn("books");
+        when(productRankingIndex.categoryProductIds("books", 0, 100)).thenReturn(List.of(4L, 8L));
+        when(recentlyViewedStore.recentForUser(userId)).thenReturn(List.of(2L));
+        when(coPurchaseEngine.boughtTogether(2L, 100)).thenReturn(List.of(9L));
+        when(productRepository.findByIdIn(List.of(9L, 8L))).thenReturn(List.of(
+                Product.builder().id(8L).build(), Product.builder().id(9L).build()));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2);
+
+        // Then
+        // 9: recent 0.7/61, 8: category 0.5/62 (4는 평가한 상품)
+        assertEquals(List.of(9L, 8L), recommendations.stream().map(Product::getId).toList());
+        verify(ratingRepository, never()).findRatedProductIdsByUserId(anyLong());
+        verify(ratingRepository, never()).findSimilarUsers(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("캐시 미적중이어도 사전 계산된 순위가 있으면 계산 없이 반환한다")
+    void testPrecomputedRankingServedOnCacheMiss() {
+        // Given
+        Long userId = 1L;
+        when(precomputedRecommendationStore.get(userId)).thenReturn(Optional.of(List.of(5L, 3L, 4L)));
+        Product product5 = Product.builder().id(5L).build();
+        Product product3 = Product.builder().id(3L).build();
+        when(productRepository.findByIdIn(List.of(5L, 3L))).thenReturn(List.of(product3, product5));
+
+        // When
+        List<Product> recommendations = recommendationService.getRecommendations(userId, 2);
+
+        // Then
+        assertEquals(List.of(5L, 3L), recommendations.stream().map(Product::getId).toList());
+        verify(ratingRepository, never()).findRatedProductIdsByUserId(anyLong());
+        verify(recommendationCache, never()).put(anyLong(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("순위 인덱스가 준비되면 전체 스캔 없이 상위 ID만 조회해 인기 상품을 반환한다")
+    void testPopularProductsServedFromRankingIndex() {
+        // Given
+        when(productRankingIndex.isReady()).thenReturn(true);
+        when(productRankingIndex.topProductIds(2)).thenReturn(List.of(3L, 1L));
+
+        Product product1 = Product.builder().id(1L).averageRating(4.5).build();
+        Product product3 = Product.builder().id(3L).averageRating(4.9).build();
+        when(productRepository.findByIdIn(List.of(3L, 1L)))
+                .thenReturn(List.of(product1, product3));
+
+        // When
+        List<Product> popular = recommendationService.getPopularProducts(2);
+
+        // Then
+        assertEquals(List.of(3L, 1L), popular.stream().map(Product::getId).toList());
+        verify(productRepository, never()).findHighRatedProducts();
+    }
+
+    @Test
+    @DisplayName("순위 인덱스가 준비되면 카테고리 페이지의 ID만 읽어 조회한다")
+    void testCategoryPageServedFromRankingIndex() {
+        // Given
+        when(productRankingIndex.isReady()).thenReturn(true);
+        when(productRankingIndex.categoryProductIds("electronics", 20, 10)).thenReturn(List.of(21L));
+        Product product21 = Product.builder().id(21L).category("electronics").build();
+        when(productRepository.findByIdIn(List.of(21L))).thenReturn(List.of(product21));
+
+        // When
+        List<Product> page = recommendationService.getRecommendationsByCategory("electronics", 2, 10);
+
+        // Then
+        assertEquals(List.of(21L), page.stream().map(Product::getId).toList());
+        verify(productRepository, never()).findByCategory(anyString());
+    }
+
+    @Test
+    @DisplayName("카테고리 페이지 크기는 상한으로 줄이고, 너무 깊은 페이지는 조회하지 않는다")
+    void testCategoryPageSizeClampedAndOffsetBounded() {
+        // Given
+        when(productRankingIndex.isReady()).thenReturn(true);
+        when(productRankingIndex.categoryProductIds("electronics", 0, 100)).thenReturn(List.of());
+
+        // When
+        recommendationService.getRecommendationsByCategory("electronics", 0, 1_000_000);
+        List<Product> overflow = recommendationService.getRecommendationsByCategory("electronics", Integer.MAX_VALUE, 100);
+
+        // Then
+        verify(productRankingIndex).categoryProductIds("electronics", 0, 100);
+        assertTrue(overflow.isEmpty());
+        verify(productRankingIndex, never()).categoryProductIds(eq("electronics"), intThat(offset -> offset != 0), anyInt());
+    }
+
+    @ParameterizedTest(name = "동시 요청 {0}개")
+    @ValueSource(ints = {1, 8, 32})
+    @DisplayName("같은 사용자의 동시 캐시 미적중은 동시성이 늘어도 추천 계산 쿼리를 한 번만 실행한다")
+    void testConcurrentMissesCoalesced(int concurrency) throws Exception {
+        // Given - 첫 쿼리가 느려서 모든 요청이 계산 도중에 도착한다
+        Long userId = 1L;
+        when(ratingRepository.findRatedProductIdsByUserId(userId)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return new ArrayList<>();
+        });
+        when(productRepository.findHighRatedProducts())
+                .thenReturn(List.of(Product.builder().id(1L).averageRating(4.5).build()));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<List<Product>>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return recommendationService.getRecommendations(userId, 5);
+                }));
+            }
+
+            // When
+            start.countDown();
+            for (Future<List<Product>> future : futures) {
+                assertEquals(1, future.get().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        verify(ratingRepository, times(1)).findRatedProductIdsByUserId(userId);
+        verify(productRepository, times(1)).findHighRatedProducts();
+        verify(recommendationCache, times(1)).put(eq(userId), anyList(), any());
+    }
 }